@@ -0,0 +1,231 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.cli;
+
+import org.monarchinitiative.exomiser.core.Exomiser;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisParser;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.genome.VcfFiles;
+import org.monarchinitiative.exomiser.core.writers.AnalysisResultsWriter;
+import org.monarchinitiative.exomiser.core.writers.OutputSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs a batch of analyses as a three-stage pipeline so that the I/O bound parts of an analysis overlap with the
+ * compute bound part of the neighbouring analyses:
+ * <ol>
+ * <li>parse - the analysis script of sample N+1 is parsed and the VCF header read and checked on a background thread</li>
+ * <li>analyse - sample N is loaded, annotated, filtered, prioritised and scored on the calling thread</li>
+ * <li>write - the results of sample N-1 are written on a pool of background writer threads</li>
+ * </ol>
+ * The stages are connected by bounded queues so that at most {@code queueCapacity} parsed analyses are waiting to be
+ * run and at most {@code queueCapacity} + {@code writerThreads} sets of results are held in memory waiting to be
+ * written. Should the writers fall behind, the results are written on the calling thread before it starts the next
+ * analysis. Analyses are run and their results written in the order they appear in the batch.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class AnalysisBatchPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisBatchPipeline.class);
+
+    private final Function<Path, AnalysisJob> parser;
+    private final Function<Analysis, AnalysisResults> analysisRunner;
+    private final ResultsWriter resultsWriter;
+    private final int queueCapacity;
+    private final int writerThreads;
+
+    public AnalysisBatchPipeline(AnalysisParser analysisParser, Exomiser exomiser, int queueCapacity, int writerThreads) {
+        this(parseWith(analysisParser), exomiser::run, AnalysisResultsWriter::writeToFile, queueCapacity, writerThreads);
+    }
+
+    AnalysisBatchPipeline(Function<Path, AnalysisJob> parser, Function<Analysis, AnalysisResults> analysisRunner, ResultsWriter resultsWriter, int queueCapacity, int writerThreads) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be greater than zero");
+        }
+        if (writerThreads < 1) {
+            throw new IllegalArgumentException("writerThreads must be greater than zero");
+        }
+        this.parser = parser;
+        this.analysisRunner = analysisRunner;
+        this.resultsWriter = resultsWriter;
+        this.queueCapacity = queueCapacity;
+        this.writerThreads = writerThreads;
+    }
+
+    private static Function<Path, AnalysisJob> parseWith(AnalysisParser analysisParser) {
+        return analysisScript -> {
+            Analysis analysis = analysisParser.parseAnalysis(analysisScript);
+            OutputSettings outputSettings = analysisParser.parseOutputSettings(analysisScript);
+            // fail early and off the main thread if the VCF is missing or malformed
+            VcfFiles.readVcfHeader(analysis.getVcfPath());
+            return new AnalysisJob(analysisScript, analysis, outputSettings);
+        };
+    }
+
+    /**
+     * Runs all the analysis scripts in order. Any failure in parsing, running or writing an analysis will stop the
+     * batch and be rethrown once the results for all the previously completed analyses have been written.
+     */
+    public void run(List<Path> analysisScripts) {
+        BlockingQueue<Future<AnalysisJob>> parsedJobs = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService parserExecutor = Executors.newSingleThreadExecutor(new PipelineThreadFactory("parser"));
+        ThreadPoolExecutor writerExecutor = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new PipelineThreadFactory("writer"), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<?>> writes = new ArrayList<>(analysisScripts.size());
+        try {
+            parserExecutor.execute(() -> queueParsedJobs(analysisScripts, parsedJobs));
+            for (int i = 0; i < analysisScripts.size(); i++) {
+                AnalysisJob analysisJob = await(parsedJobs.take());
+                logger.info("Running analysis: {}", analysisJob.getAnalysisScript());
+                AnalysisResults analysisResults = analysisRunner.apply(analysisJob.getAnalysis());
+                writes.add(writerExecutor.submit(() -> resultsWriter.writeToFile(analysisJob.getAnalysis(), analysisResults, analysisJob.getOutputSettings())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for analysis", e);
+        } finally {
+            parserExecutor.shutdownNow();
+            writerExecutor.shutdown();
+            awaitAll(writes);
+        }
+    }
+
+    private void queueParsedJobs(List<Path> analysisScripts, BlockingQueue<Future<AnalysisJob>> parsedJobs) {
+        try {
+            for (Path analysisScript : analysisScripts) {
+                CompletableFuture<AnalysisJob> parsedJob = new CompletableFuture<>();
+                try {
+                    parsedJob.complete(parser.apply(analysisScript));
+                } catch (Exception e) {
+                    parsedJob.completeExceptionally(e);
+                }
+                // blocks until the analysis stage has taken an earlier job
+                parsedJobs.put(parsedJob);
+                if (parsedJob.isCompletedExceptionally()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> writes) {
+        RuntimeException firstFailure = null;
+        for (Future<?> write : writes) {
+            try {
+                write.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.error("Unable to write results", e.getCause());
+                if (firstFailure == null) {
+                    firstFailure = rethrow(e.getCause());
+                }
+            }
+        }
+        if (firstFailure != null) {
+            throw firstFailure;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * Writes the results of an analysis. Defaults to {@link AnalysisResultsWriter#writeToFile}.
+     */
+    @FunctionalInterface
+    interface ResultsWriter {
+        void writeToFile(Analysis analysis, AnalysisResults analysisResults, OutputSettings outputSettings);
+    }
+
+    /**
+     * A parsed analysis script waiting to be run.
+     */
+    static class AnalysisJob {
+
+        private final Path analysisScript;
+        private final Analysis analysis;
+        private final OutputSettings outputSettings;
+
+        AnalysisJob(Path analysisScript, Analysis analysis, OutputSettings outputSettings) {
+            this.analysisScript = analysisScript;
+            this.analysis = analysis;
+            this.outputSettings = outputSettings;
+        }
+
+        Path getAnalysisScript() {
+            return analysisScript;
+        }
+
+        Analysis getAnalysis() {
+            return analysis;
+        }
+
+        OutputSettings getOutputSettings() {
+            return outputSettings;
+        }
+    }
+
+    private static class PipelineThreadFactory implements ThreadFactory {
+
+        private final String stageName;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private PipelineThreadFactory(String stageName) {
+            this.stageName = stageName;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "analysis-" + stageName + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -59,6 +59,11 @@ public class ExomiserCommandLineRunner implements CommandLineRunner {
     @Value("buildVersion")
     private String buildVersion;
 
+    @Value("${exomiser.pipeline.queue-capacity:2}")
+    private int pipelineQueueCapacity;
+    @Value("${exomiser.pipeline.writer-threads:2}")
+    private int pipelineWriterThreads;
+
     @Override
     public void run(String... strings) throws Exception {
         if (strings.length == 0) {
@@ -86,12 +91,18 @@ private void runAnalyses(CommandLine commandLine) {
             List<Path> analysisScripts = BatchFileReader.readPathsFromBatchFile(analysisBatchFile);
             logger.info("Running {} analyses from analysis batch file.", analysisScripts.size());
             Instant timeStart = Instant.now();
-            //this *could* be run in parallel using parallelStream() at the expense of RAM in order to hold all the variants in memory.
-            //HOWEVER there may be threading issues so this needs investigation.
-            analysisScripts.forEach(analysis ->{
-                logger.info("Running analysis: {}", analysis);
-                runAnalysisFromScript(analysis);
-            });
+            if (commandLine.hasOption("pipeline")) {
+                // overlaps parsing and writing with the analyses, but still only runs one analysis at a time
+                AnalysisBatchPipeline analysisBatchPipeline = new AnalysisBatchPipeline(analysisParser, exomiser, pipelineQueueCapacity, pipelineWriterThreads);
+                analysisBatchPipeline.run(analysisScripts);
+            } else {
+                //this *could* be run in parallel using parallelStream() at the expense of RAM in order to hold all the variants in memory.
+                //HOWEVER there may be threading issues so this needs investigation.
+                analysisScripts.forEach(analysis -> {
+                    logger.info("Running analysis: {}", analysis);
+                    runAnalysisFromScript(analysis);
+                });
+            }
             Duration duration = Duration.between(timeStart, Instant.now());
             long ms = duration.toMillis();
             logger.info("Finished batch of {} samples in {}m {}s ({} ms)", analysisScripts.size(), (ms / 1000) / 60 % 60, ms / 1000 % 60, ms);
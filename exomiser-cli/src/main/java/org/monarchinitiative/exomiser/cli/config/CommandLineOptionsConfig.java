@@ -59,6 +59,14 @@ public Options options() {
                 .longOpt("analysis-batch")
                 .build());
 
+        options.addOption(Option.builder()
+                .desc("Run the analysis-batch as a pipeline where the next analysis script is parsed and the results of " +
+                        "the previous analysis are written in the background while the current analysis is running. " +
+                        "The number of analyses queued to run and the number of results writer threads can be set with the " +
+                        "exomiser.pipeline.queue-capacity and exomiser.pipeline.writer-threads properties.")
+                .longOpt("pipeline")
+                .build());
+
         return options;
     }
 
@@ -0,0 +1,146 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.cli;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.writers.OutputSettings;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class AnalysisBatchPipelineTest {
+
+    private static List<Path> analysisScripts(int numScripts) {
+        return IntStream.range(0, numScripts)
+                .mapToObj(i -> Paths.get("sample_" + i + ".yml"))
+                .collect(Collectors.toList());
+    }
+
+    private static Function<Path, AnalysisBatchPipeline.AnalysisJob> stubParser() {
+        return analysisScript -> {
+            Analysis analysis = Analysis.builder()
+                    .vcfPath(Paths.get(analysisScript.toString().replace(".yml", ".vcf")))
+                    .build();
+            return new AnalysisBatchPipeline.AnalysisJob(analysisScript, analysis, OutputSettings.builder().build());
+        };
+    }
+
+    private static Function<Analysis, AnalysisResults> stubRunner(List<String> ran) {
+        return analysis -> {
+            ran.add(analysis.getVcfPath().toString());
+            return AnalysisResults.builder().probandSampleName(analysis.getVcfPath().toString()).build();
+        };
+    }
+
+    @Test
+    void throwsExceptionWithZeroQueueCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new AnalysisBatchPipeline(stubParser(), stubRunner(new ArrayList<>()), (analysis, results, settings) -> {}, 0, 1));
+    }
+
+    @Test
+    void throwsExceptionWithZeroWriterThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new AnalysisBatchPipeline(stubParser(), stubRunner(new ArrayList<>()), (analysis, results, settings) -> {}, 1, 0));
+    }
+
+    @Test
+    void runsAnalysesInBatchOrderAndWritesAllResults() {
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+
+        AnalysisBatchPipeline instance = new AnalysisBatchPipeline(stubParser(), stubRunner(ran),
+                (analysis, results, settings) -> written.add(results.getProbandSampleName()), 2, 3);
+
+        instance.run(analysisScripts(20));
+
+        List<String> expected = IntStream.range(0, 20).mapToObj(i -> "sample_" + i + ".vcf").collect(Collectors.toList());
+        assertThat(ran, equalTo(expected));
+        // writes happen on several threads so may complete out of order, but they must all complete before run returns
+        assertThat(written.stream().sorted().collect(Collectors.toList()), equalTo(expected.stream().sorted().collect(Collectors.toList())));
+    }
+
+    @Test
+    void writesResultsInBackgroundWhileNextAnalysisRuns() {
+        CountDownLatch secondAnalysisStarted = new CountDownLatch(1);
+        List<Boolean> firstWriteOverlapped = new ArrayList<>();
+
+        Function<Analysis, AnalysisResults> runner = analysis -> {
+            if (analysis.getVcfPath().toString().equals("sample_1.vcf")) {
+                secondAnalysisStarted.countDown();
+            }
+            return AnalysisResults.builder().probandSampleName(analysis.getVcfPath().toString()).build();
+        };
+
+        AnalysisBatchPipeline instance = new AnalysisBatchPipeline(stubParser(), runner, (analysis, results, settings) -> {
+            if (results.getProbandSampleName().equals("sample_0.vcf")) {
+                try {
+                    // this would deadlock if the write was on the same thread as the analysis
+                    firstWriteOverlapped.add(secondAnalysisStarted.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 2, 1);
+
+        instance.run(analysisScripts(2));
+
+        assertThat(firstWriteOverlapped, equalTo(Collections.singletonList(true)));
+    }
+
+    @Test
+    void stopsAtFirstParseFailureAfterWritingEarlierResults() {
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+
+        Function<Path, AnalysisBatchPipeline.AnalysisJob> failingParser = analysisScript -> {
+            if (analysisScript.toString().equals("sample_2.yml")) {
+                throw new IllegalArgumentException("Bad script " + analysisScript);
+            }
+            return stubParser().apply(analysisScript);
+        };
+
+        AnalysisBatchPipeline instance = new AnalysisBatchPipeline(failingParser, stubRunner(ran),
+                (analysis, results, settings) -> written.add(results.getProbandSampleName()), 1, 1);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> instance.run(analysisScripts(5)));
+        assertThat(exception.getMessage(), equalTo("Bad script sample_2.yml"));
+
+        List<String> expected = IntStream.range(0, 2).mapToObj(i -> "sample_" + i + ".vcf").collect(Collectors.toList());
+        assertThat(ran, equalTo(expected));
+        assertThat(written.stream().sorted().collect(Collectors.toList()), equalTo(expected));
+    }
+}
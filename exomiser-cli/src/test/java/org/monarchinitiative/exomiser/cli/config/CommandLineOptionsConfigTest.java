@@ -59,4 +59,9 @@ public void testHasAnalysisOption() {
     public void testHasAnalysisBatchOption() {
         assertThat(options.hasOption("analysis-batch"), is(true));
     }
+
+    @Test
+    public void testHasPipelineOption() {
+        assertThat(options.hasOption("pipeline"), is(true));
+    }
 }
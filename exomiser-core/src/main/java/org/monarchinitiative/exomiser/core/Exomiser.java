@@ -32,6 +32,9 @@
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This is the main entry point for analysing data using the Exomiser. An {@link Analysis}
  * should be built with an {@link AnalysisParser} or programmatically using the {@link AnalysisBuilder}
@@ -64,4 +67,22 @@ public AnalysisResults run(Analysis analysis) {
         return analysisRunner.run(analysis);
     }
 
+    /**
+     * Runs an analysis for each proband in a multi-sample VCF, annotating the variants in the VCF only once. All the
+     * analyses must use the same VCF and genome assembly.
+     *
+     * @param analyses the analysis for each proband in the VCF
+     * @return the results for each analysis, in the same order as the analyses
+     * @since 12.1.0
+     */
+    public List<AnalysisResults> runCohort(List<Analysis> analyses) {
+        if (analyses.isEmpty()) {
+            return new ArrayList<>();
+        }
+        GenomeAssembly genomeAssembly = analyses.get(0).getGenomeAssembly();
+        logger.info("Running cohort of {} analyses using {} assembly", analyses.size(), genomeAssembly);
+        CohortAnalysisRunner cohortAnalysisRunner = analysisFactory.getCohortAnalysisRunner(genomeAssembly);
+        return cohortAnalysisRunner.run(analyses);
+    }
+
 }
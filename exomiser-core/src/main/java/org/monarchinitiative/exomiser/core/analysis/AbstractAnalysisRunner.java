@@ -20,10 +20,12 @@
 
 package org.monarchinitiative.exomiser.core.analysis;
 
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 import org.monarchinitiative.exomiser.core.analysis.util.*;
 import org.monarchinitiative.exomiser.core.filters.*;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+import org.monarchinitiative.exomiser.core.genome.VariantFactory;
 import org.monarchinitiative.exomiser.core.genome.VcfFiles;
 import org.monarchinitiative.exomiser.core.model.*;
 import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
@@ -34,10 +36,8 @@
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -46,6 +46,7 @@
 
 import static java.util.stream.Collectors.toConcurrentMap;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
@@ -54,28 +55,82 @@ abstract class AbstractAnalysisRunner implements AnalysisRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractAnalysisRunner.class);
 
+    private static final Predicate<VariantEvaluation> NO_PRE_ANNOTATION_FILTER = variantEvaluation -> true;
+
     //arguably this shouldn't even be exposed here...
     private final GenomeAnalysisService genomeAnalysisService;
 
     protected final VariantFilterRunner variantFilterRunner;
     private final GeneFilterRunner geneFilterRunner;
 
+    private final ForkJoinPool geneScoringPool;
+
     public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, VariantFilterRunner variantFilterRunner, GeneFilterRunner geneFilterRunner) {
+        this(genomeAnalysisService, variantFilterRunner, geneFilterRunner, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param geneScoringPool the pool in which the genes are scored in parallel. Defaults to the common pool.
+     * @since 12.1.0
+     */
+    public AbstractAnalysisRunner(GenomeAnalysisService genomeAnalysisService, VariantFilterRunner variantFilterRunner, GeneFilterRunner geneFilterRunner, ForkJoinPool geneScoringPool) {
         this.genomeAnalysisService = genomeAnalysisService;
 
         this.variantFilterRunner = variantFilterRunner;
         this.geneFilterRunner = geneFilterRunner;
+        this.geneScoringPool = Objects.requireNonNull(geneScoringPool);
     }
 
     @Override
     public AnalysisResults run(Analysis analysis) {
+        Path vcfPath = analysis.getVcfPath();
+        VCFHeader vcfHeader = VcfFiles.readVcfHeader(vcfPath);
+        List<ChromosomalRegion> intervalFilterRegions = getInitialIntervalFilterRegions(analysis);
+        if (discardsVariantsFailingInitialFilters() && !intervalFilterRegions.isEmpty()) {
+            // the records outside the regions are never read, so unlike a full read these are not counted as failing the
+            // interval filter in the filter stats and step metrics. This is logged as those counts are the only difference.
+            logger.info("Reading only the variants in the {} regions of the interval filter - variants outside these will not be counted as failing the {}", intervalFilterRegions.size(), FilterType.INTERVAL_FILTER);
+            return run(analysis, vcfHeader.getGenotypeSamples(), preAnnotationFilter -> loadVariants(VcfFiles.readVariantContexts(vcfPath, intervalFilterRegions), preAnnotationFilter));
+        }
+        return run(analysis, vcfHeader.getGenotypeSamples(), preAnnotationFilter -> loadVariants(VcfFiles.readVariantContexts(vcfPath), preAnnotationFilter));
+    }
+
+    /**
+     * Finds the regions of an {@link IntervalFilter} in the first group of variant filters, which are those run as the
+     * variants are loaded. Any variant outside these regions will fail the initial filters. When only these regions are
+     * read, the variants outside them are not included in the {@code FilterStats} or step metrics of the interval
+     * filter, although the results are otherwise identical.
+     */
+    private List<ChromosomalRegion> getInitialIntervalFilterRegions(Analysis analysis) {
+        return analysis.getAnalysisStepsGroupedByFunction().stream()
+                .filter(analysisGroup -> analysisGroup.get(0).isVariantFilter())
+                .findFirst()
+                .flatMap(analysisGroup -> analysisGroup.stream()
+                        .filter(analysisStep -> analysisStep instanceof IntervalFilter)
+                        .map(analysisStep -> ((IntervalFilter) analysisStep).getChromosomalRegions())
+                        .findFirst())
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Runs the analysis with variants from the variantLoader rather than loading and annotating them from the VCF of
+     * the analysis. This allows the variants of a multi-sample VCF to be annotated once and then analysed for each
+     * proband. The sample names are those the analysis should see, which can be a subset of the samples in the VCF
+     * such as a single family from a cohort. The variants should be new instances for each call, as they are changed
+     * by the analysis, and their sample genotypes should match the sample names.
+     *
+     * @param analysis      the analysis to run
+     * @param sampleNames   the names of the samples in the variant genotypes, in VCF order
+     * @param variantLoader supplies a new stream of the variants in the analysis VCF passing the given pre-annotation
+     *                      filter. The filter can be tested before the variants are annotated.
+     * @return the results of the analysis
+     * @since 12.1.0
+     */
+    AnalysisResults run(Analysis analysis, List<String> sampleNames, Function<Predicate<VariantEvaluation>, Stream<VariantEvaluation>> variantLoader) {
         logger.info("Starting analysis");
         logger.info("Using genome assembly {}", analysis.getGenomeAssembly());
         //all the sample-related bits, might be worth encapsulating
         Path vcfPath = analysis.getVcfPath();
-
-        VCFHeader vcfHeader = VcfFiles.readVcfHeader(vcfPath);
-        List<String> sampleNames = vcfHeader.getGenotypeSamples();
         logger.info("Checking proband and pedigree for VCF {}", vcfPath);
 
         SampleIdentifier probandSample = SampleIdentifierUtil.createProbandIdentifier(analysis.getProbandSampleName(), sampleNames);
@@ -88,10 +143,13 @@ public AnalysisResults run(Analysis analysis) {
         //now run the analysis on the sample
         logger.info("Running analysis for proband {} (sample {} in VCF) from samples: {}", probandSample.getId(), probandSample.getGenotypePosition() + 1, sampleNames);
         Instant timeStart = Instant.now();
+        long startNanos = System.nanoTime();
+        Map<String, Long> dataLookupCountsAtStart = genomeAnalysisService.getDataLookupCounts();
         //soo many comments - this is a bad sign that this is too complicated.
         Map<String, Gene> allGenes = makeKnownGenes();
         List<VariantEvaluation> variantEvaluations = new ArrayList<>();
         FilterStats filterStats = new FilterStats();
+        AnalysisStepMetricsCollector stepMetricsCollector = new AnalysisStepMetricsCollector(analysis.getAnalysisSteps());
 //        some kind of multi-map with ordered duplicate keys would allow for easy grouping of steps for running the groups together.
         List<List<AnalysisStep>> analysisStepGroups = analysis.getAnalysisStepsGroupedByFunction();
         boolean variantsLoaded = false;
@@ -103,12 +161,12 @@ public AnalysisResults run(Analysis analysis) {
             if (firstStep.isVariantFilter() && !variantsLoaded) {
                 //variants take up 99% of all the memory in an analysis - this scales approximately linearly with the sample size
                 //so for whole genomes this is best run as a stream to filter out the unwanted variants with as many filters as possible in one go
-                variantEvaluations = loadAndFilterVariants(vcfPath, probandSample, allGenes, analysisGroup, analysis, filterStats);
+                variantEvaluations = loadAndFilterVariants(variantLoader, probandSample, allGenes, analysisGroup, analysis, filterStats, stepMetricsCollector);
                 //this is done here as there are GeneFilter steps which may require Variants in the genes, or the InheritanceModeDependent steps which definitely need them...
                 assignVariantsToGenes(variantEvaluations, allGenes);
                 variantsLoaded = true;
             } else {
-                runSteps(analysisGroup, hpoIds, new ArrayList<>(allGenes.values()), inheritanceModeAnnotator, filterStats);
+                runSteps(analysisGroup, hpoIds, new ArrayList<>(allGenes.values()), inheritanceModeAnnotator, filterStats, stepMetricsCollector);
             }
         }
         //maybe only the non-variant dependent steps have been run in which case we need to load the variants although
@@ -117,14 +175,14 @@ public AnalysisResults run(Analysis analysis) {
         //i.e. stream in the variants, annotate them (assign a gene symbol) then write out that variant with the calculated GENE_PHENO_SCORE (prioritiser scores).
         //this would fit well with a lot of people's pipelines where they only want the phenotype score as they are using VEP or ANNOVAR for variant analysis.
         if (!variantsLoaded) {
-            try(Stream<VariantEvaluation> variantStream = loadVariants(vcfPath)) {
+            try(Stream<VariantEvaluation> variantStream = variantLoader.apply(NO_PRE_ANNOTATION_FILTER)) {
                 variantEvaluations = variantStream.collect(toList());
             }
             assignVariantsToGenes(variantEvaluations, allGenes);
         }
 
         logger.info("Scoring genes");
-        GeneScorer geneScorer = new RawScoreGeneScorer(probandSample, inheritanceModeAnnotator);
+        GeneScorer geneScorer = new ForkJoinGeneScorer(new RawScoreGeneScorer(probandSample, inheritanceModeAnnotator), geneScoringPool);
         List<Gene> genes = geneScorer.scoreGenes(getGenesWithVariants(allGenes).collect(toList()));
         List<VariantEvaluation> variants = getFinalVariantList(variantEvaluations);
         logger.info("Analysed {} genes containing {} filtered variants", genes.size(), variants.size());
@@ -136,12 +194,19 @@ public AnalysisResults run(Analysis analysis) {
                 .map(analysisStep -> ((Filter) analysisStep).getFilterType())
                 .forEach(filterType -> logger.info("{}: pass={} fail={}", filterType.name(), filterStats.getPassCountForFilter(filterType), filterStats.getFailCountForFilter(filterType)));
 
+        AnalysisMetrics analysisMetrics = AnalysisMetrics.of(System.nanoTime() - startNanos, stepMetricsCollector.getAnalysisStepMetrics(), countDataLookupsSince(dataLookupCountsAtStart));
+        logger.info("Analysis step timings are:");
+        analysisMetrics.getAnalysisStepMetrics()
+                .forEach(stepMetrics -> logger.info("{}: {} ms for {} items ({} items/sec)", stepMetrics.getStepName(), stepMetrics.getElapsedMillis(), stepMetrics.getItemsProcessed(), String.format("%.0f", stepMetrics.getItemsPerSecond())));
+        logger.info("Data source lookups: {}", analysisMetrics.getDataLookupCounts());
+
         logger.info("Creating analysis results from VCF {}", vcfPath);
         AnalysisResults analysisResults = AnalysisResults.builder()
                 .probandSampleName(probandSample.getId())
                 .sampleNames(sampleNames)
                 .genes(genes)
                 .variantEvaluations(variants)
+                .analysisMetrics(analysisMetrics)
                 .build();
 
         Duration duration = Duration.between(timeStart, Instant.now());
@@ -150,6 +215,13 @@ public AnalysisResults run(Analysis analysis) {
         return analysisResults;
     }
 
+    private Map<String, Long> countDataLookupsSince(Map<String, Long> dataLookupCountsAtStart) {
+        Map<String, Long> dataLookupCounts = new LinkedHashMap<>();
+        genomeAnalysisService.getDataLookupCounts()
+                .forEach((source, count) -> dataLookupCounts.put(source, count - dataLookupCountsAtStart.getOrDefault(source, 0L)));
+        return dataLookupCounts;
+    }
+
     /**
      * @return a map of genes indexed by gene symbol.
      */
@@ -159,13 +231,14 @@ private Map<String, Gene> makeKnownGenes() {
                 .collect(toConcurrentMap(Gene::getGeneSymbol, Function.identity()));
     }
 
-    private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, SampleIdentifier probandSample, Map<String, Gene> allGenes, List<AnalysisStep> analysisGroup, Analysis analysis, FilterStats filterStats) {
+    private List<VariantEvaluation> loadAndFilterVariants(Function<Predicate<VariantEvaluation>, Stream<VariantEvaluation>> variantLoader, SampleIdentifier probandSample, Map<String, Gene> allGenes, List<AnalysisStep> analysisGroup, Analysis analysis, FilterStats filterStats, AnalysisStepMetricsCollector stepMetricsCollector) {
         GeneReassigner geneReassigner = createNonCodingVariantGeneReassigner(analysis, allGenes);
         List<VariantFilter> variantFilters = getVariantFilterSteps(analysisGroup);
+        VariantLogger variantLogger = new VariantLogger();
+        Predicate<VariantEvaluation> preAnnotationFilter = createPreAnnotationFilter(variantFilters, probandSample, allGenes, filterStats, stepMetricsCollector, variantLogger);
 
         List<VariantEvaluation> filteredVariants;
-        VariantLogger variantLogger = new VariantLogger();
-        try (Stream<VariantEvaluation> variantStream = loadVariants(vcfPath)) {
+        try (Stream<VariantEvaluation> variantStream = variantLoader.apply(preAnnotationFilter)) {
             filteredVariants = variantStream
                     .peek(variantLogger.logLoadedAndPassedVariants())
                     .filter(isObservedInProband(probandSample))
@@ -175,7 +248,7 @@ private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, SampleIdenti
                     // An alternative would be in a VariantFilterDataProvider
                     .map(flagWhiteListedVariants())
                     .filter(isAssociatedWithKnownGene(allGenes))
-                    .filter(runVariantFilters(variantFilters, filterStats))
+                    .filter(runVariantFilters(variantFilters, filterStats, stepMetricsCollector))
                     .peek(variantLogger.countPassedVariant())
                     .collect(toList());
         }
@@ -183,6 +256,98 @@ private List<VariantEvaluation> loadAndFilterVariants(Path vcfPath, SampleIdenti
         return filteredVariants;
     }
 
+    /**
+     * Creates a test of the leading VCF record filters from the {@link VariantFilterPlanner} to run before the variants
+     * are annotated. Variants passing are tested again by the same filters in the usual place, so only the results and
+     * step metrics for the failed variants are recorded here, in the same order as the filters, and only for variants
+     * observed in the proband. The failed variants are never passed on, so they are counted as loaded by the
+     * {@link VariantLogger} here.
+     * <p>
+     * The gene of a variant isn't known until it is annotated, and without the pre-annotation filter the variants with no
+     * known gene are removed before the filters are run and are never counted. So that the {@code FilterStats} and step
+     * metrics are exactly those of the usual order, variants are only filtered here when they are on a chromosome where
+     * every gene the {@link VariantFactory} can assign them to is a known gene, and have alleles of plain bases which will
+     * be annotated against one of them. See {@link #getChromosomesWithOnlyKnownGenes(Map)}.
+     * <p>
+     * This is only done when the variants failing the filters are discarded, and so long as no gene has already failed
+     * a filter, as the failed variants are never annotated.
+     */
+    private Predicate<VariantEvaluation> createPreAnnotationFilter(List<VariantFilter> variantFilters, SampleIdentifier probandSample, Map<String, Gene> allGenes, FilterStats filterStats, AnalysisStepMetricsCollector stepMetricsCollector, VariantLogger variantLogger) {
+        List<VariantFilter> preAnnotationFilters = VariantFilterPlanner.preAnnotationFilters(variantFilters);
+        if (preAnnotationFilters.isEmpty() || !discardsVariantsFailingInitialFilters() || !allGenes.values().stream().allMatch(Gene::passedFilters)) {
+            return NO_PRE_ANNOTATION_FILTER;
+        }
+        Set<Integer> chromosomesWithOnlyKnownGenes = getChromosomesWithOnlyKnownGenes(allGenes);
+        if (chromosomesWithOnlyKnownGenes.isEmpty()) {
+            return NO_PRE_ANNOTATION_FILTER;
+        }
+        logger.info("Running {} before annotating variants on chromosomes {}", preAnnotationFilters, chromosomesWithOnlyKnownGenes);
+        Predicate<VariantEvaluation> isObservedInProband = isObservedInProband(probandSample);
+        return variantEvaluation -> {
+            if (!canBeFilteredBeforeAnnotation(variantEvaluation, chromosomesWithOnlyKnownGenes)) {
+                return true;
+            }
+            List<FilterResult> results = new ArrayList<>(preAnnotationFilters.size());
+            long[] elapsedNanos = new long[preAnnotationFilters.size()];
+            for (int i = 0; i < preAnnotationFilters.size(); i++) {
+                long startNanos = System.nanoTime();
+                FilterResult result = preAnnotationFilters.get(i).runFilter(variantEvaluation);
+                elapsedNanos[i] = System.nanoTime() - startNanos;
+                results.add(result);
+                if (result.failed()) {
+                    variantLogger.countLoadedVariant();
+                    if (isObservedInProband.test(variantEvaluation)) {
+                        for (int j = 0; j < results.size(); j++) {
+                            stepMetricsCollector.record(preAnnotationFilters.get(j), elapsedNanos[j], 1);
+                            filterStats.addResult(results.get(j));
+                        }
+                    }
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Jannovar annotates a variant against the nearest transcript on its chromosome, so a variant on a chromosome with
+     * transcripts is always assigned to one of the genes of these. Where all of these are known genes, a variant on the
+     * chromosome can't be removed for having no known gene and can be filtered before it is annotated without changing
+     * the counts.
+     */
+    private Set<Integer> getChromosomesWithOnlyKnownGenes(Map<String, Gene> allGenes) {
+        return genomeAnalysisService.getChromosomeGeneSymbols().entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty() && allGenes.keySet().containsAll(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(toSet());
+    }
+
+    /**
+     * Variants with symbolic or other non-base alleles, such as the '*' of an overlapping deletion, might not be
+     * annotated against a transcript, in which case they would have no known gene and would never have been filtered.
+     * These are left to be filtered after annotation as usual.
+     */
+    private static boolean canBeFilteredBeforeAnnotation(VariantEvaluation variantEvaluation, Set<Integer> chromosomesWithOnlyKnownGenes) {
+        return chromosomesWithOnlyKnownGenes.contains(variantEvaluation.getChromosome())
+                && isBases(variantEvaluation.getRef()) && isBases(variantEvaluation.getAlt());
+    }
+
+    private static boolean isBases(String allele) {
+        for (int i = 0; i < allele.length(); i++) {
+            switch (allele.charAt(i)) {
+                case 'A':
+                case 'C':
+                case 'G':
+                case 'T':
+                case 'N':
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
     private GeneReassigner createNonCodingVariantGeneReassigner(Analysis analysis, Map<String, Gene> allGenes) {
         ChromosomalRegionIndex<TopologicalDomain> tadIndex = genomeAnalysisService.getTopologicallyAssociatedDomainIndex();
         PriorityType mainPriorityType = analysis.getMainPrioritiserType();
@@ -200,9 +365,12 @@ private List<VariantFilter> getVariantFilterSteps(List<AnalysisStep> analysisSte
                 .collect(toList());
     }
 
-    private Stream<VariantEvaluation> loadVariants(Path vcfPath) {
+    private Stream<VariantEvaluation> loadVariants(Stream<VariantContext> variantContexts, Predicate<VariantEvaluation> preAnnotationFilter) {
         //WARNING!!! THIS IS NOT THREADSAFE DO NOT USE PARALLEL STREAMS
-        return genomeAnalysisService.createVariantEvaluations(vcfPath);
+        if (preAnnotationFilter == NO_PRE_ANNOTATION_FILTER) {
+            return genomeAnalysisService.createVariantEvaluations(variantContexts);
+        }
+        return genomeAnalysisService.createVariantEvaluations(variantContexts, preAnnotationFilter);
     }
 
     private Predicate<VariantEvaluation> isObservedInProband(SampleIdentifier probandSample) {
@@ -256,10 +424,22 @@ private Function<VariantEvaluation, VariantEvaluation> flagWhiteListedVariants()
      * concrete runner to define whether a variant should pass or fail when running the variant through the variant
      * filters defined in the variant filter group, or the initial group if there are more than one.
      *
+     * Implementations should record the time taken by each filter with the {@link AnalysisStepMetricsCollector}.
+     *
      * @param variantFilters
      * @return
      */
-    abstract Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> variantFilters, FilterStats filterStats);
+    abstract Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> variantFilters, FilterStats filterStats, AnalysisStepMetricsCollector stepMetricsCollector);
+
+    /**
+     * Defines whether variants failing the filters run during the initial load are discarded by the concrete runner.
+     * If so, and the initial filters include an {@link IntervalFilter}, only the variants in its regions need to be
+     * read from an indexed VCF. Otherwise the failed variants are part of the results and the whole VCF must be read.
+     *
+     * @return true if the variants failing the initial filters are not part of the results
+     * @since 12.1.0
+     */
+    abstract boolean discardsVariantsFailingInitialFilters();
 
     private void assignVariantsToGenes(List<VariantEvaluation> variantEvaluations, Map<String, Gene> allGenes) {
         for (VariantEvaluation variantEvaluation : variantEvaluations) {
@@ -285,7 +465,7 @@ protected Stream<Gene> getGenesWithVariants(Map<String, Gene> allGenes) {
     abstract List<VariantEvaluation> getFinalVariantList(List<VariantEvaluation> variants);
 
     //might this be a nascent class waiting to get out here?
-    private void runSteps(List<AnalysisStep> analysisSteps, List<String> hpoIds, List<Gene> genes, InheritanceModeAnnotator inheritanceModeAnnotator, FilterStats filterStats) {
+    private void runSteps(List<AnalysisStep> analysisSteps, List<String> hpoIds, List<Gene> genes, InheritanceModeAnnotator inheritanceModeAnnotator, FilterStats filterStats, AnalysisStepMetricsCollector stepMetricsCollector) {
         boolean inheritanceModesCalculated = false;
         for (AnalysisStep analysisStep : analysisSteps) {
             if (!inheritanceModesCalculated && analysisStep.isInheritanceModeDependent()) {
@@ -293,7 +473,9 @@ private void runSteps(List<AnalysisStep> analysisSteps, List<String> hpoIds, Lis
                 inheritanceModesCalculated = true;
             }
 
-            runStep(analysisStep, hpoIds, genes);
+            long stepStartNanos = System.nanoTime();
+            long itemsProcessed = runStep(analysisStep, hpoIds, genes);
+            stepMetricsCollector.record(analysisStep, System.nanoTime() - stepStartNanos, itemsProcessed);
 
             if (analysisStep instanceof Filter) {
                 collectFilterStatsForFilter((Filter) analysisStep, genes, filterStats);
@@ -304,32 +486,39 @@ private void runSteps(List<AnalysisStep> analysisSteps, List<String> hpoIds, Lis
     private void analyseGeneCompatibilityWithInheritanceMode(List<Gene> genes, InheritanceModeAnnotator inheritanceModeAnnotator) {
         logger.info("Checking inheritance mode compatibility with {} for genes which passed filters", inheritanceModeAnnotator.getDefinedModes());
         InheritanceModeAnalyser inheritanceModeAnalyser = new InheritanceModeAnalyser(inheritanceModeAnnotator);
-        inheritanceModeAnalyser.analyseInheritanceModes(genes);
+        inheritanceModeAnalyser.analyseInheritanceModes(genes, geneScoringPool);
     }
 
-    private void runStep(AnalysisStep analysisStep, List<String> hpoIds, List<Gene> genes) {
+    /**
+     * @return the number of variants or genes run through the step
+     */
+    private long runStep(AnalysisStep analysisStep, List<String> hpoIds, List<Gene> genes) {
         
         if (analysisStep instanceof VariantFilter) {
             VariantFilter filter = (VariantFilter) analysisStep;
             logger.info("Running VariantFilter: {}", filter);
+            long variantsProcessed = 0;
             for (Gene gene : genes) {
                 variantFilterRunner.run(filter, gene.getVariantEvaluations());
+                variantsProcessed += gene.getNumberOfVariants();
             }
-            return;
+            return variantsProcessed;
         }
 
         if (analysisStep instanceof GeneFilter) {
             GeneFilter filter = (GeneFilter) analysisStep;
             logger.info("Running GeneFilter: {}", filter);
             geneFilterRunner.run(filter, genes);
-            return;
+            return genes.size();
         }
 
         if (analysisStep instanceof Prioritiser) {
             Prioritiser prioritiser = (Prioritiser) analysisStep;
             logger.info("Running Prioritiser: {}", prioritiser);
             prioritiser.prioritizeGenes(hpoIds, genes);
+            return genes.size();
         }
+        return 0;
     }
 
     private void collectFilterStatsForFilter(Filter filter, List<Gene> genes, FilterStats filterStats) {
@@ -360,12 +549,14 @@ private class VariantLogger {
         private AtomicInteger passed = new AtomicInteger();
 
         private Consumer<VariantEvaluation> logLoadedAndPassedVariants() {
-            return variantEvaluation -> {
-                loaded.incrementAndGet();
-                if (loaded.get() % 100000 == 0) {
-                    logger.info("Loaded {} variants - {} passed variant filters...", loaded.get(), passed.get());
-                }
-            };
+            return variantEvaluation -> countLoadedVariant();
+        }
+
+        private void countLoadedVariant() {
+            int count = loaded.incrementAndGet();
+            if (count % 100000 == 0) {
+                logger.info("Loaded {} variants - {} passed variant filters...", count, passed.get());
+            }
         }
 
         private Consumer<VariantEvaluation> countPassedVariant() {
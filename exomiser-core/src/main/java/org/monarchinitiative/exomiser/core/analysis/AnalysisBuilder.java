@@ -68,6 +68,8 @@ public class AnalysisBuilder {
     private Set<PathogenicitySource> pathogenicitySources = EnumSet.noneOf(PathogenicitySource.class);
 
     private List<AnalysisStep> analysisSteps = new ArrayList<>();
+    // the data providers created by this builder, rather than added with addAnalysisStep
+    private final Set<AnalysisStep> dataProviderSteps = Collections.newSetFromMap(new IdentityHashMap<>());
 
     AnalysisBuilder(GenomeAnalysisServiceProvider genomeAnalysisServiceProvider, PriorityFactory priorityFactory, OntologyService ontologyService) {
         this.ontologyService = ontologyService;
@@ -78,10 +80,38 @@ public class AnalysisBuilder {
 
     public Analysis build() {
         new AnalysisStepChecker().check(analysisSteps);
-        builder.steps(analysisSteps);
+        builder.steps(readFrequencyAndPathogenicityDataTogether(analysisSteps));
         return builder.build();
     }
 
+    /**
+     * The frequency and pathogenicity data are held in the same data store. When the analysis has steps requiring
+     * both, the data providers are replaced with ones which read the two together, so that a variant tested by both
+     * only needs a single lookup rather than one for each. Only the data providers created by this builder are
+     * replaced, so any step added with {@link #addAnalysisStep(AnalysisStep)} is always run as it was given.
+     */
+    private List<AnalysisStep> readFrequencyAndPathogenicityDataTogether(List<AnalysisStep> analysisSteps) {
+        boolean requiresFrequencyData = analysisSteps.stream().anyMatch(step -> step instanceof FrequencyDataProvider && dataProviderSteps.contains(step));
+        boolean requiresPathogenicityData = analysisSteps.stream().anyMatch(step -> step instanceof PathogenicityDataProvider && dataProviderSteps.contains(step));
+        if (!requiresFrequencyData || !requiresPathogenicityData) {
+            return analysisSteps;
+        }
+        GenomeAnalysisService analysisService = getGenomeAnalysisService();
+        List<AnalysisStep> steps = new ArrayList<>(analysisSteps.size());
+        for (AnalysisStep analysisStep : analysisSteps) {
+            if (dataProviderSteps.contains(analysisStep) && analysisStep instanceof FrequencyDataProvider) {
+                VariantFilter filter = ((FrequencyDataProvider) analysisStep).getDecoratedFilter();
+                steps.add(new FrequencyDataProvider(analysisService, frequencySources, pathogenicitySources, filter));
+            } else if (dataProviderSteps.contains(analysisStep) && analysisStep instanceof PathogenicityDataProvider) {
+                VariantFilter filter = ((PathogenicityDataProvider) analysisStep).getDecoratedFilter();
+                steps.add(new PathogenicityDataProvider(analysisService, frequencySources, pathogenicitySources, filter));
+            } else {
+                steps.add(analysisStep);
+            }
+        }
+        return steps;
+    }
+
     public AnalysisBuilder vcfPath(Path vcfPath) {
         builder.vcfPath(vcfPath);
         return this;
@@ -185,7 +215,9 @@ private FrequencyDataProvider makeFrequencyDependentStep(VariantFilter filter) {
             throw new IllegalArgumentException("Frequency sources have not yet been defined. Add some frequency sources before defining the analysis steps.");
         }
         GenomeAnalysisService analysisService = getGenomeAnalysisService();
-        return new FrequencyDataProvider(analysisService, frequencySources, filter);
+        FrequencyDataProvider frequencyDataProvider = new FrequencyDataProvider(analysisService, frequencySources, filter);
+        dataProviderSteps.add(frequencyDataProvider);
+        return frequencyDataProvider;
     }
 
     private GenomeAnalysisService getGenomeAnalysisService() {
@@ -228,7 +260,9 @@ private PathogenicityDataProvider makePathogenicityDependentStep(PathogenicityFi
             throw new IllegalArgumentException("Pathogenicity sources have not yet been defined. Add some pathogenicity sources before defining the analysis steps.");
         }
         GenomeAnalysisService analysisService = getGenomeAnalysisService();
-        return new PathogenicityDataProvider(analysisService, pathogenicitySources, pathogenicityFilter);
+        PathogenicityDataProvider pathogenicityDataProvider = new PathogenicityDataProvider(analysisService, pathogenicitySources, pathogenicityFilter);
+        dataProviderSteps.add(pathogenicityDataProvider);
+        return pathogenicityDataProvider;
     }
 
     public AnalysisBuilder addPriorityScoreFilter(PriorityType priorityType, float minPriorityScore) {
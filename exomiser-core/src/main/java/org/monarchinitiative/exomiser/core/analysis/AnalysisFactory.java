@@ -31,6 +31,8 @@
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * High-level factory for creating an {@link Analysis} and {@link AnalysisRunner}. This is
  * pretty much all that's needed to run an analysis with.
@@ -58,6 +60,14 @@ public AnalysisFactory(GenomeAnalysisServiceProvider genomeAnalysisServiceProvid
     }
 
     public AnalysisRunner getAnalysisRunner(GenomeAssembly genomeAssembly, AnalysisMode analysisMode) {
+        return getAnalysisRunner(genomeAssembly, analysisMode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param geneScoringPool the pool in which the runner scores the genes in parallel
+     * @since 12.1.0
+     */
+    public AnalysisRunner getAnalysisRunner(GenomeAssembly genomeAssembly, AnalysisMode analysisMode, ForkJoinPool geneScoringPool) {
         //This class primarily exists as an external interface for the Exomiser class to be able to create and run analyses
         //without having to expose too much of the Analysis package implementation. e.g. the AnalysisRunner implementations
         // below are package-private.
@@ -65,14 +75,31 @@ public AnalysisRunner getAnalysisRunner(GenomeAssembly genomeAssembly, AnalysisM
 
         switch (analysisMode) {
             case FULL:
-                return new SimpleAnalysisRunner(genomeAnalysisService);
+                return new SimpleAnalysisRunner(genomeAnalysisService, geneScoringPool);
             case PASS_ONLY:
             default:
                 //this guy takes up the least RAM
-                return new PassOnlyAnalysisRunner(genomeAnalysisService);
+                return new PassOnlyAnalysisRunner(genomeAnalysisService, geneScoringPool);
         }
     }
 
+    /**
+     * @return a runner for analysing each proband of a multi-sample VCF without re-annotating the VCF for each analysis.
+     * @since 12.1.0
+     */
+    public CohortAnalysisRunner getCohortAnalysisRunner(GenomeAssembly genomeAssembly) {
+        return getCohortAnalysisRunner(genomeAssembly, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param geneScoringPool the pool in which the runner scores the genes in parallel
+     * @return a runner for analysing each proband of a multi-sample VCF without re-annotating the VCF for each analysis.
+     * @since 12.1.0
+     */
+    public CohortAnalysisRunner getCohortAnalysisRunner(GenomeAssembly genomeAssembly, ForkJoinPool geneScoringPool) {
+        return new CohortAnalysisRunner(genomeAnalysisServiceProvider.get(genomeAssembly), geneScoringPool);
+    }
+
     public AnalysisBuilder getAnalysisBuilder() {
         return new AnalysisBuilder(genomeAnalysisServiceProvider, priorityFactory, ontologyService);
     }
@@ -0,0 +1,119 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings and data source usage for an {@link Analysis} run. The data lookup counts are taken from the shared
+ * {@link org.monarchinitiative.exomiser.core.genome.VariantDataService} so will include the lookups of any other
+ * analyses running concurrently against the same genome assembly.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class AnalysisMetrics {
+
+    private static final AnalysisMetrics EMPTY = new AnalysisMetrics(0, ImmutableList.of(), ImmutableMap.of());
+
+    private final long elapsedNanos;
+    private final List<AnalysisStepMetrics> analysisStepMetrics;
+    private final Map<String, Long> dataLookupCounts;
+
+    private AnalysisMetrics(long elapsedNanos, List<AnalysisStepMetrics> analysisStepMetrics, Map<String, Long> dataLookupCounts) {
+        this.elapsedNanos = elapsedNanos;
+        this.analysisStepMetrics = ImmutableList.copyOf(analysisStepMetrics);
+        this.dataLookupCounts = ImmutableMap.copyOf(dataLookupCounts);
+    }
+
+    public static AnalysisMetrics empty() {
+        return EMPTY;
+    }
+
+    public static AnalysisMetrics of(long elapsedNanos, List<AnalysisStepMetrics> analysisStepMetrics, Map<String, Long> dataLookupCounts) {
+        return new AnalysisMetrics(elapsedNanos, analysisStepMetrics, dataLookupCounts);
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return the metrics for each step in the order in which the steps were defined in the analysis
+     */
+    public List<AnalysisStepMetrics> getAnalysisStepMetrics() {
+        return analysisStepMetrics;
+    }
+
+    /**
+     * @return the number of lookups made against each data source during the analysis
+     */
+    public Map<String, Long> getDataLookupCounts() {
+        return dataLookupCounts;
+    }
+
+    /**
+     * @return the metrics for the first step with the given name, if it was run
+     */
+    public Optional<AnalysisStepMetrics> getAnalysisStepMetrics(String stepName) {
+        return analysisStepMetrics.stream()
+                .filter(stepMetrics -> stepMetrics.getStepName().equals(stepName))
+                .findFirst();
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return analysisStepMetrics.isEmpty() && dataLookupCounts.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AnalysisMetrics that = (AnalysisMetrics) o;
+        return elapsedNanos == that.elapsedNanos &&
+                analysisStepMetrics.equals(that.analysisStepMetrics) &&
+                dataLookupCounts.equals(that.dataLookupCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(elapsedNanos, analysisStepMetrics, dataLookupCounts);
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisMetrics{" +
+                "elapsedMillis=" + getElapsedMillis() +
+                ", analysisStepMetrics=" + analysisStepMetrics +
+                ", dataLookupCounts=" + dataLookupCounts +
+                '}';
+    }
+}
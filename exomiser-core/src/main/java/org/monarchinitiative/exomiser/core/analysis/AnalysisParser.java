@@ -138,6 +138,8 @@ public OutputSettings construct(Map analysisMap) {
                     .numberOfGenesToShow(parseNumberOfGenesToShow(analysisMap))
                     .outputPrefix(parseOutputPrefix(analysisMap))
                     .outputFormats(parseOutputFormats(analysisMap))
+                    .compressJsonOutput(parseCompressJsonOutput(analysisMap))
+                    .htmlGenesPerPage(parseHtmlGenesPerPage(analysisMap))
                     .build();
         }
 
@@ -160,6 +162,19 @@ private Boolean parseBooleanValue(String key, Map<String, Boolean> analysisMap)
             return booleanValue;
         }
 
+        private boolean parseCompressJsonOutput(Map<String, Boolean> analysisMap) {
+            Boolean compressJsonOutput = analysisMap.get("compressJsonOutput");
+            return compressJsonOutput != null && compressJsonOutput;
+        }
+
+        private int parseHtmlGenesPerPage(Map<String, Integer> analysisMap) {
+            Integer genesPerPage = analysisMap.get("htmlGenesPerPage");
+            if (genesPerPage == null) {
+                genesPerPage = 0;
+            }
+            return genesPerPage;
+        }
+
         private int parseNumberOfGenesToShow(Map<String, Integer> analysisMap) {
             Integer genesToShow = analysisMap.get("numGenes");
             if (genesToShow == null) {
@@ -207,8 +222,11 @@ private Set<OutputFormat> parseOutputFormats(Map<String, List<String>> analysisM
                     case "JSON":
                         parsedOutputFormats.add(OutputFormat.JSON);
                         break;
+                    case "COLUMNAR":
+                        parsedOutputFormats.add(OutputFormat.COLUMNAR);
+                        break;
                     default:
-                        logger.info("{} is not a recognised output format. Please choose one or more of HTML, TSV_GENE, TSV_VARIANT, VCF, JSON - defaulting to HTML", name);
+                        logger.info("{} is not a recognised output format. Please choose one or more of HTML, TSV_GENE, TSV_VARIANT, VCF, JSON, COLUMNAR - defaulting to HTML", name);
                         parsedOutputFormats.add(OutputFormat.HTML);
                         break;
                 }
@@ -32,10 +32,10 @@
 import org.monarchinitiative.exomiser.core.model.GeneScore;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -57,6 +57,14 @@ public class AnalysisResults {
     @JsonIgnore
     private final List<VariantEvaluation> variantEvaluations;
 
+    private final AnalysisMetrics analysisMetrics;
+
+    // lazily computed ranks of the genes for each mode, as indices into a snapshot of the genes list
+    @JsonIgnore
+    private final ConcurrentMap<ModeOfInheritance, int[]> geneRanksForMode = new ConcurrentHashMap<>();
+    @JsonIgnore
+    private Gene[] rankedGenesSnapshot;
+
     public AnalysisResults(Builder builder) {
         this.probandSampleName = builder.probandSampleName;
 
@@ -64,6 +72,7 @@ public AnalysisResults(Builder builder) {
 
         this.genes = builder.genes;
         this.variantEvaluations = builder.variantEvaluations;
+        this.analysisMetrics = builder.analysisMetrics;
     }
 
     /**
@@ -97,6 +106,44 @@ public List<Gene> getGenes() {
         return genes;
     }
 
+    /**
+     * Returns an unmodifiable view of the genes ranked according to their {@link GeneScore} for the given
+     * {@link ModeOfInheritance}. The genes for {@link ModeOfInheritance#ANY} are returned in the order they were
+     * provided to this object. The ranks for each mode are calculated once on first request and the genes list
+     * itself is never re-ordered, so the views for different modes can be safely read concurrently, for instance
+     * when writing the results for several modes and formats in parallel.
+     *
+     * @param modeOfInheritance the mode of inheritance to rank the genes by.
+     * @return the genes ranked for the {@link ModeOfInheritance} argument.
+     * @since 12.1.0
+     */
+    @JsonIgnore
+    public List<Gene> getRankedGenesForMode(ModeOfInheritance modeOfInheritance) {
+        Gene[] snapshot = getRankedGenesSnapshot();
+        int[] ranks = geneRanksForMode.computeIfAbsent(modeOfInheritance, mode -> rankGenesForMode(snapshot, mode));
+        return new RankedGeneList(snapshot, ranks);
+    }
+
+    private synchronized Gene[] getRankedGenesSnapshot() {
+        if (rankedGenesSnapshot == null) {
+            rankedGenesSnapshot = genes.toArray(new Gene[0]);
+        }
+        return rankedGenesSnapshot;
+    }
+
+    private static int[] rankGenesForMode(Gene[] genes, ModeOfInheritance modeOfInheritance) {
+        if (modeOfInheritance == ModeOfInheritance.ANY) {
+            return IntStream.range(0, genes.length).toArray();
+        }
+        Comparator<Gene> geneComparator = Gene.comparingScoreForInheritanceMode(modeOfInheritance);
+        // a stable sort so that equally scored genes retain their original relative order
+        return IntStream.range(0, genes.length)
+                .boxed()
+                .sorted((i, j) -> geneComparator.compare(genes[i], genes[j]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
     /**
      * A list of {@link VariantEvaluation} objects resulting from an {@link Analysis}.
      *
@@ -188,6 +235,18 @@ private Stream<GeneScore> sortedGeneScoresWithContributingVariantsForMode(ModeOf
                 .sorted();
     }
 
+    /**
+     * The timings of the analysis steps and the data source lookups made while running the {@link Analysis}. These are
+     * not considered in the equality of the results.
+     *
+     * @return the metrics for the analysis run. These will be empty if the results were not produced by an analysis.
+     * @since 12.1.0
+     */
+    @JsonIgnore
+    public AnalysisMetrics getAnalysisMetrics() {
+        return analysisMetrics;
+    }
+
     @JsonIgnore
     public List<VariantEvaluation> getUnAnnotatedVariantEvaluations() {
         return variantEvaluations.stream().filter(varEval -> !varEval.hasTranscriptAnnotations()).collect(toList());
@@ -223,6 +282,30 @@ public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * Read-only view of an array of genes in the order given by an array of indices into it.
+     */
+    private static class RankedGeneList extends AbstractList<Gene> implements RandomAccess {
+
+        private final Gene[] genes;
+        private final int[] ranks;
+
+        private RankedGeneList(Gene[] genes, int[] ranks) {
+            this.genes = genes;
+            this.ranks = ranks;
+        }
+
+        @Override
+        public Gene get(int index) {
+            return genes[ranks[index]];
+        }
+
+        @Override
+        public int size() {
+            return ranks.length;
+        }
+    }
+
     public static class Builder {
 
         private String probandSampleName = "";
@@ -232,6 +315,8 @@ public static class Builder {
         private List<VariantEvaluation> variantEvaluations = Collections.emptyList();
         private List<Gene> genes = Collections.emptyList();
 
+        private AnalysisMetrics analysisMetrics = AnalysisMetrics.empty();
+
         public Builder probandSampleName(String probandSampleName) {
             this.probandSampleName = probandSampleName;
             return this;
@@ -252,6 +337,11 @@ public Builder genes(List<Gene> geneList) {
             return this;
         }
 
+        public Builder analysisMetrics(AnalysisMetrics analysisMetrics) {
+            this.analysisMetrics = Objects.requireNonNull(analysisMetrics);
+            return this;
+        }
+
         public AnalysisResults build() {
             return new AnalysisResults(this);
         }
@@ -0,0 +1,104 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The wall-clock time taken to run an {@link AnalysisStep} and the number of variants or genes it processed.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class AnalysisStepMetrics {
+
+    private final String stepName;
+    private final long elapsedNanos;
+    private final long itemsProcessed;
+
+    private AnalysisStepMetrics(String stepName, long elapsedNanos, long itemsProcessed) {
+        this.stepName = Objects.requireNonNull(stepName);
+        this.elapsedNanos = elapsedNanos;
+        this.itemsProcessed = itemsProcessed;
+    }
+
+    public static AnalysisStepMetrics of(String stepName, long elapsedNanos, long itemsProcessed) {
+        return new AnalysisStepMetrics(stepName, elapsedNanos, itemsProcessed);
+    }
+
+    /**
+     * @return the name of the step. This is the {@link org.monarchinitiative.exomiser.core.filters.FilterType} name for
+     * a filter or the {@link org.monarchinitiative.exomiser.core.prioritisers.PriorityType} name for a prioritiser.
+     */
+    public String getStepName() {
+        return stepName;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return the number of variants run through a variant filter or the number of genes run through a gene filter
+     * or prioritiser.
+     */
+    public long getItemsProcessed() {
+        return itemsProcessed;
+    }
+
+    public double getItemsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return itemsProcessed * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AnalysisStepMetrics that = (AnalysisStepMetrics) o;
+        return elapsedNanos == that.elapsedNanos &&
+                itemsProcessed == that.itemsProcessed &&
+                stepName.equals(that.stepName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(stepName, elapsedNanos, itemsProcessed);
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisStepMetrics{" +
+                "stepName='" + stepName + '\'' +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", itemsProcessed=" + itemsProcessed +
+                ", itemsPerSecond=" + String.format("%.1f", getItemsPerSecond()) +
+                '}';
+    }
+}
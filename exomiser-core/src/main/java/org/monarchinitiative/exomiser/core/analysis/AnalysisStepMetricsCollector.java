@@ -0,0 +1,98 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.monarchinitiative.exomiser.core.filters.Filter;
+import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the time taken and items processed by each {@link AnalysisStep} of an {@link Analysis}. The variant
+ * filters in the initial load are run once per variant, so the timings for these are summed over all the calls.
+ * <p>
+ * The steps are registered up-front so that recording is lock-free and the metrics are reported in the order in which
+ * the steps were defined.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class AnalysisStepMetricsCollector {
+
+    private final List<AnalysisStep> analysisSteps;
+    // identity rather than equality as an analysis could contain two identical steps
+    private final Map<AnalysisStep, StepAccumulator> accumulators = new IdentityHashMap<>();
+
+    AnalysisStepMetricsCollector(List<AnalysisStep> analysisSteps) {
+        this.analysisSteps = new ArrayList<>(analysisSteps);
+        for (AnalysisStep analysisStep : analysisSteps) {
+            accumulators.put(analysisStep, new StepAccumulator());
+        }
+    }
+
+    /**
+     * Adds the time taken and the number of variants or genes processed to the totals for the step. Steps not
+     * registered on construction are ignored.
+     */
+    void record(AnalysisStep analysisStep, long elapsedNanos, long itemsProcessed) {
+        StepAccumulator accumulator = accumulators.get(analysisStep);
+        if (accumulator != null) {
+            accumulator.elapsedNanos.add(elapsedNanos);
+            accumulator.itemsProcessed.add(itemsProcessed);
+            accumulator.run = true;
+        }
+    }
+
+    /**
+     * @return the metrics of the steps which have been run, in the order of the analysis steps
+     */
+    List<AnalysisStepMetrics> getAnalysisStepMetrics() {
+        List<AnalysisStepMetrics> stepMetrics = new ArrayList<>(analysisSteps.size());
+        for (AnalysisStep analysisStep : analysisSteps) {
+            StepAccumulator accumulator = accumulators.get(analysisStep);
+            if (accumulator.run) {
+                stepMetrics.add(AnalysisStepMetrics.of(stepName(analysisStep), accumulator.elapsedNanos.sum(), accumulator.itemsProcessed.sum()));
+            }
+        }
+        return stepMetrics;
+    }
+
+    static String stepName(AnalysisStep analysisStep) {
+        if (analysisStep instanceof Filter) {
+            return ((Filter) analysisStep).getFilterType().name();
+        }
+        if (analysisStep instanceof Prioritiser) {
+            return ((Prioritiser) analysisStep).getPriorityType().name();
+        }
+        return analysisStep.getClass().getSimpleName();
+    }
+
+    private static class StepAccumulator {
+        private final LongAdder elapsedNanos = new LongAdder();
+        private final LongAdder itemsProcessed = new LongAdder();
+        private volatile boolean run = false;
+    }
+}
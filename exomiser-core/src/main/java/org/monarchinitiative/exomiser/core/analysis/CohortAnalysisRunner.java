@@ -0,0 +1,209 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import com.google.common.collect.ImmutableMap;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+import org.monarchinitiative.exomiser.core.genome.VcfFiles;
+import org.monarchinitiative.exomiser.core.model.AlleleCall;
+import org.monarchinitiative.exomiser.core.model.Pedigree;
+import org.monarchinitiative.exomiser.core.model.SampleGenotype;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs an {@link Analysis} for each proband in a joint-called multi-sample VCF, such as a cohort of several families.
+ * Rather than each analysis reading and annotating the whole VCF, the VCF is read and annotated once and each analysis
+ * is run on its own copy of the annotated variants.
+ * <p>
+ * Each analysis only sees the samples in its own pedigree, or just the proband if there is no pedigree, so each family
+ * in the VCF can be given its own pedigree. The variant copies for an analysis have a view of the sample genotypes
+ * for these samples only, and variants where none of these samples has an ALT allele are not copied at all. Each
+ * analysis otherwise runs exactly as it would on its own, with its own filters, prioritisers and {@link AnalysisMode},
+ * producing an {@link AnalysisResults} for each proband.
+ * <p>
+ * All the annotated variants of the VCF are held in memory while the analyses are run, so this is best suited to
+ * exome-sized VCFs.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class CohortAnalysisRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CohortAnalysisRunner.class);
+
+    private final GenomeAnalysisService genomeAnalysisService;
+    private final ForkJoinPool geneScoringPool;
+
+    public CohortAnalysisRunner(GenomeAnalysisService genomeAnalysisService) {
+        this(genomeAnalysisService, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param geneScoringPool the pool in which the genes of each analysis are scored in parallel
+     */
+    public CohortAnalysisRunner(GenomeAnalysisService genomeAnalysisService, ForkJoinPool geneScoringPool) {
+        this.genomeAnalysisService = genomeAnalysisService;
+        this.geneScoringPool = Objects.requireNonNull(geneScoringPool);
+    }
+
+    /**
+     * Runs the analyses in order. All the analyses must be for the same VCF file and genome assembly as this runner.
+     *
+     * @param analyses the analysis for each proband in the VCF
+     * @return the results for each analysis, in the same order as the analyses
+     */
+    public List<AnalysisResults> run(List<Analysis> analyses) {
+        if (analyses.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Path vcfPath = checkAnalysesShareVcfAndAssembly(analyses);
+
+        List<String> vcfSampleNames = VcfFiles.readVcfHeader(vcfPath).getGenotypeSamples();
+        List<VariantEvaluation> cohortVariants = loadVariants(vcfPath);
+
+        List<AnalysisResults> analysisResults = new ArrayList<>(analyses.size());
+        for (Analysis analysis : analyses) {
+            List<String> sampleNames = analysisSampleNames(analysis, vcfSampleNames);
+            logger.info("Running cohort analysis for proband {} with samples {}", analysis.getProbandSampleName(), sampleNames);
+            AbstractAnalysisRunner analysisRunner = createAnalysisRunner(analysis.getAnalysisMode());
+            // the cohort variants have already been annotated, so there is nothing to gain from the pre-annotation
+            // filter and the variants are left to be filtered as usual
+            analysisResults.add(analysisRunner.run(analysis, sampleNames, preAnnotationFilter -> copyVariants(cohortVariants, sampleNames, vcfSampleNames)));
+        }
+        return analysisResults;
+    }
+
+    /**
+     * @return the VCF samples in the pedigree of the analysis, or the proband if there is no pedigree.
+     */
+    private List<String> analysisSampleNames(Analysis analysis, List<String> vcfSampleNames) {
+        Pedigree pedigree = analysis.getPedigree();
+        if (pedigree.isEmpty()) {
+            String probandSampleName = analysis.getProbandSampleName();
+            // fall back to all the samples and let the pedigree validation report the problem if the proband is unknown
+            return vcfSampleNames.contains(probandSampleName) ? Collections.singletonList(probandSampleName) : vcfSampleNames;
+        }
+        return vcfSampleNames.stream()
+                .filter(pedigree::containsId)
+                .collect(toList());
+    }
+
+    private Path checkAnalysesShareVcfAndAssembly(List<Analysis> analyses) {
+        Path vcfPath = analyses.get(0).getVcfPath();
+        for (Analysis analysis : analyses) {
+            if (!Objects.equals(vcfPath, analysis.getVcfPath())) {
+                throw new IllegalArgumentException("Cohort analyses must all use the same VCF. Expected " + vcfPath + " but got " + analysis.getVcfPath());
+            }
+            if (analysis.getGenomeAssembly() != genomeAnalysisService.getGenomeAssembly()) {
+                throw new IllegalArgumentException("Cohort analyses must all use the " + genomeAnalysisService.getGenomeAssembly() + " genome assembly but got " + analysis.getGenomeAssembly());
+            }
+        }
+        return vcfPath;
+    }
+
+    private List<VariantEvaluation> loadVariants(Path vcfPath) {
+        logger.info("Loading and annotating cohort variants from {}", vcfPath);
+        Instant start = Instant.now();
+        List<VariantEvaluation> variants;
+        try (Stream<VariantEvaluation> variantStream = genomeAnalysisService.createVariantEvaluations(vcfPath)) {
+            variants = variantStream.collect(toList());
+        }
+        long ms = Duration.between(start, Instant.now()).toMillis();
+        logger.info("Loaded {} cohort variants in {} ms", variants.size(), ms);
+        return variants;
+    }
+
+    private AbstractAnalysisRunner createAnalysisRunner(AnalysisMode analysisMode) {
+        if (analysisMode == AnalysisMode.FULL) {
+            return new SimpleAnalysisRunner(genomeAnalysisService, geneScoringPool);
+        }
+        return new PassOnlyAnalysisRunner(genomeAnalysisService, geneScoringPool);
+    }
+
+    private Stream<VariantEvaluation> copyVariants(List<VariantEvaluation> cohortVariants, List<String> sampleNames, List<String> vcfSampleNames) {
+        Stream<VariantEvaluation> sampleVariants = cohortVariants.stream()
+                .filter(variant -> hasAltAlleleInSamples(variant, sampleNames));
+        if (sampleNames.equals(vcfSampleNames)) {
+            // the genotypes and VariantContext are immutable, so can be shared when all the samples are being analysed
+            return sampleVariants.map(variant -> copyAnnotatedVariant(variant, variant.getVariantContext(), variant.getSampleGenotypes()));
+        }
+        // the alleles of a multi-allelic VariantContext share the same subset, in the same way they share the original
+        Set<String> sampleNameSet = new HashSet<>(sampleNames);
+        Map<VariantContext, VariantContext> sampleVariantContexts = new ConcurrentHashMap<>();
+        return sampleVariants.map(variant -> {
+            VariantContext sampleVariantContext = sampleVariantContexts.computeIfAbsent(variant.getVariantContext(), variantContext -> variantContext
+                    .subContextFromSamples(sampleNameSet, false));
+            return copyAnnotatedVariant(variant, sampleVariantContext, sampleGenotypesView(variant, sampleNames));
+        });
+    }
+
+    private static boolean hasAltAlleleInSamples(VariantEvaluation variant, List<String> sampleNames) {
+        for (String sampleName : sampleNames) {
+            if (variant.getSampleGenotype(sampleName).getCalls().contains(AlleleCall.ALT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, SampleGenotype> sampleGenotypesView(VariantEvaluation variant, List<String> sampleNames) {
+        // IMPORTANT! This map *MUST* be an ordered map, so the genotypes are in the same order as the sample names
+        ImmutableMap.Builder<String, SampleGenotype> sampleGenotypes = ImmutableMap.builder();
+        for (String sampleName : sampleNames) {
+            sampleGenotypes.put(sampleName, variant.getSampleGenotype(sampleName));
+        }
+        return sampleGenotypes.build();
+    }
+
+    /**
+     * Copies the VCF and annotation fields of the variant. The copy has none of the filter results, scores or data added
+     * by an analysis, and only the genotypes of the samples in the analysis.
+     */
+    private static VariantEvaluation copyAnnotatedVariant(VariantEvaluation variant, VariantContext variantContext, Map<String, SampleGenotype> sampleGenotypes) {
+        return VariantEvaluation.builder(variant.getChromosome(), variant.getPosition(), variant.getRef(), variant.getAlt())
+                .genomeAssembly(variant.getGenomeAssembly())
+                .chromosomeName(variant.getChromosomeName())
+                .variantContext(variantContext)
+                .altAlleleId(variant.getAltAlleleId())
+                .id(variant.getId())
+                .quality(variant.getPhredScore())
+                .sampleGenotypes(sampleGenotypes)
+                .geneSymbol(variant.getGeneSymbol())
+                .geneId(variant.getGeneId())
+                .variantEffect(variant.getVariantEffect())
+                .annotations(variant.getTranscriptAnnotations())
+                .build();
+    }
+}
@@ -30,6 +30,7 @@
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -46,6 +47,10 @@ class PassOnlyAnalysisRunner extends AbstractAnalysisRunner {
         super(genomeAnalysisService, new SparseVariantFilterRunner(), new SimpleGeneFilterRunner());
     }
 
+    PassOnlyAnalysisRunner(GenomeAnalysisService genomeAnalysisService, ForkJoinPool geneScoringPool) {
+        super(genomeAnalysisService, new SparseVariantFilterRunner(), new SimpleGeneFilterRunner(), geneScoringPool);
+    }
+
     @Override
     protected Predicate<VariantEvaluation> isAssociatedWithKnownGene(Map<String, Gene> genes) {
         return variantEvaluation -> {
@@ -60,12 +65,14 @@ protected Predicate<VariantEvaluation> isAssociatedWithKnownGene(Map<String, Gen
     }
 
     @Override
-    protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> variantFilters, FilterStats filterStats) {
+    protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> variantFilters, FilterStats filterStats, AnalysisStepMetricsCollector stepMetricsCollector) {
         return variantEvaluation -> {
             //loop through the filters and only run if the variantEvaluation has passed all prior filters
             for (VariantFilter filter : variantFilters) {
                 if (variantEvaluation.passedFilters()) {
+                    long startNanos = System.nanoTime();
                     FilterResult result = variantFilterRunner.run(filter, variantEvaluation);
+                    stepMetricsCollector.record(filter, System.nanoTime() - startNanos, 1);
                     filterStats.addResult(result);
                 }
             }
@@ -73,6 +80,11 @@ protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> var
         };
     }
 
+    @Override
+    boolean discardsVariantsFailingInitialFilters() {
+        return true;
+    }
+
     @Override
     protected Stream<Gene> getGenesWithVariants(Map<String, Gene> allGenes) {
         return allGenes.values()
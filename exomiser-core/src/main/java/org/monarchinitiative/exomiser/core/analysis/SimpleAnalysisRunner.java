@@ -30,6 +30,7 @@
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 /**
@@ -43,23 +44,34 @@ class SimpleAnalysisRunner extends AbstractAnalysisRunner {
         super(genomeAnalysisService, new SimpleVariantFilterRunner(), new SimpleGeneFilterRunner());
     }
 
+    SimpleAnalysisRunner(GenomeAnalysisService genomeAnalysisService, ForkJoinPool geneScoringPool) {
+        super(genomeAnalysisService, new SimpleVariantFilterRunner(), new SimpleGeneFilterRunner(), geneScoringPool);
+    }
+
     @Override
     protected Predicate<VariantEvaluation> isAssociatedWithKnownGene(Map<String, Gene> genes) {
         return variantEvaluation -> genes.containsKey(variantEvaluation.getGeneSymbol());
     }
 
     @Override
-    protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> variantFilters, FilterStats filterStats) {
+    protected Predicate<VariantEvaluation> runVariantFilters(List<VariantFilter> variantFilters, FilterStats filterStats, AnalysisStepMetricsCollector stepMetricsCollector) {
         return variantEvaluation -> {
             //loop through the filters and run them over the variantEvaluation according to the variantFilterRunner behaviour
             variantFilters.forEach(filter -> {
+                long startNanos = System.nanoTime();
                 FilterResult result = variantFilterRunner.run(filter, variantEvaluation);
+                stepMetricsCollector.record(filter, System.nanoTime() - startNanos, 1);
                 filterStats.addResult(result);
             });
             return true;
         };
     }
 
+    @Override
+    boolean discardsVariantsFailingInitialFilters() {
+        return false;
+    }
+
     @Override
     protected List<VariantEvaluation> getFinalVariantList(List<VariantEvaluation> variants) {
         return variants;
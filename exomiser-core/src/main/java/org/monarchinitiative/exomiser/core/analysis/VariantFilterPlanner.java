@@ -0,0 +1,94 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.monarchinitiative.exomiser.core.filters.VariantFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans which of the variant filters run as the variants are loaded can be run before the variants are annotated.
+ * Each filter is classified by the input it needs. Filters needing only the VCF record, such as the quality, interval
+ * and FILTER field, can reject a variant before it is annotated by Jannovar or looked up in the variant data stores.
+ * <p>
+ * Only the leading run of VCF record filters is moved ahead of annotation. Moving a later filter would change which
+ * filters a failing variant had been tested against, and so the reported {@code FilterStats}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class VariantFilterPlanner {
+
+    /**
+     * The input a {@link VariantFilter} needs in order to run, from cheapest to most costly to provide.
+     */
+    enum FilterInput {
+        /**
+         * The position, alleles, quality and FILTER field of the VCF record.
+         */
+        VCF_RECORD,
+        /**
+         * The gene and transcript annotations from Jannovar.
+         */
+        ANNOTATION,
+        /**
+         * The frequency or pathogenicity data from the variant data stores.
+         */
+        VARIANT_DATA
+    }
+
+    private VariantFilterPlanner() {
+        //static utility class
+    }
+
+    static FilterInput classify(VariantFilter variantFilter) {
+        switch (variantFilter.getFilterType()) {
+            case FAILED_VARIANT_FILTER:
+            case QUALITY_FILTER:
+            case INTERVAL_FILTER:
+                return FilterInput.VCF_RECORD;
+            case ENTREZ_GENE_ID_FILTER:
+            case VARIANT_EFFECT_FILTER:
+            case REGULATORY_FEATURE_FILTER:
+            case BED_FILTER:
+                return FilterInput.ANNOTATION;
+            default:
+                // unknown filters could need anything, so are never moved
+                return FilterInput.VARIANT_DATA;
+        }
+    }
+
+    /**
+     * @param variantFilters the variant filters in the order they are to be run
+     * @return the leading filters which only need the VCF record, in the order they are to be run
+     */
+    static List<VariantFilter> preAnnotationFilters(List<VariantFilter> variantFilters) {
+        List<VariantFilter> preAnnotationFilters = new ArrayList<>();
+        for (VariantFilter variantFilter : variantFilters) {
+            if (classify(variantFilter) != FilterInput.VCF_RECORD) {
+                break;
+            }
+            preAnnotationFilters.add(variantFilter);
+        }
+        return preAnnotationFilters;
+    }
+}
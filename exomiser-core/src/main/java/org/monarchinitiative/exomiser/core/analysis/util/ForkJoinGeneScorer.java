@@ -0,0 +1,126 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.analysis.util;
+
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * {@link GeneScorer} which scores the genes in parallel on a {@link ForkJoinPool} using the scoring function of another
+ * {@link GeneScorer}. Each gene is independent of the others so the list of genes is recursively split in half until
+ * each task has at most {@code grainSize} genes. Splitting finely balances the load, as the cost of scoring a gene
+ * grows with the square of its number of variants due to the compound heterozygous checks.
+ * <p>
+ * Only the scoring is run in parallel. The genes are then sorted with the same stable sort as the sequential
+ * {@link GeneScorer#scoreGenes(List)}, so the resulting ranks are identical.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class ForkJoinGeneScorer implements GeneScorer {
+
+    private static final int DEFAULT_GRAIN_SIZE = 16;
+
+    private final GeneScorer geneScorer;
+    private final ForkJoinPool forkJoinPool;
+    private final int grainSize;
+
+    /**
+     * @param geneScorer   the scorer whose {@link GeneScorer#scoreGene()} function is used to score each gene. This must be
+     *                     safe to call from multiple threads.
+     * @param forkJoinPool the pool on which to run the scoring tasks
+     */
+    public ForkJoinGeneScorer(GeneScorer geneScorer, ForkJoinPool forkJoinPool) {
+        this(geneScorer, forkJoinPool, DEFAULT_GRAIN_SIZE);
+    }
+
+    /**
+     * @param geneScorer   the scorer whose {@link GeneScorer#scoreGene()} function is used to score each gene. This must be
+     *                     safe to call from multiple threads.
+     * @param forkJoinPool the pool on which to run the scoring tasks
+     * @param grainSize    the maximum number of genes to be scored sequentially by a single task
+     * @throws IllegalArgumentException if the grainSize is less than 1
+     */
+    public ForkJoinGeneScorer(GeneScorer geneScorer, ForkJoinPool forkJoinPool, int grainSize) {
+        this.geneScorer = Objects.requireNonNull(geneScorer);
+        this.forkJoinPool = Objects.requireNonNull(forkJoinPool);
+        if (grainSize < 1) {
+            throw new IllegalArgumentException("grainSize must be greater than zero");
+        }
+        this.grainSize = grainSize;
+    }
+
+    @Override
+    public Function<Gene, List<GeneScore>> scoreGene() {
+        return geneScorer.scoreGene();
+    }
+
+    @Override
+    public List<Gene> scoreGenes(List<Gene> genes) {
+        Gene[] geneArray = genes.toArray(new Gene[0]);
+        forkJoinPool.invoke(new ScoreGenesTask(geneScorer.scoreGene(), geneArray, 0, geneArray.length, grainSize));
+        Collections.sort(genes);
+        return genes;
+    }
+
+    private static class ScoreGenesTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Function<Gene, List<GeneScore>> scoreGene;
+        private final transient Gene[] genes;
+        private final int from;
+        private final int to;
+        private final int grainSize;
+
+        private ScoreGenesTask(Function<Gene, List<GeneScore>> scoreGene, Gene[] genes, int from, int to, int grainSize) {
+            this.scoreGene = scoreGene;
+            this.genes = genes;
+            this.from = from;
+            this.to = to;
+            this.grainSize = grainSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grainSize) {
+                for (int i = from; i < to; i++) {
+                    Gene gene = genes[i];
+                    for (GeneScore geneScore : scoreGene.apply(gene)) {
+                        gene.addGeneScore(geneScore);
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreGenesTask(scoreGene, genes, from, mid, grainSize),
+                    new ScoreGenesTask(scoreGene, genes, mid, to, grainSize));
+        }
+    }
+}
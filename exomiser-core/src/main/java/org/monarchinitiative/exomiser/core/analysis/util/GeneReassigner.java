@@ -32,11 +32,9 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-
-import static java.util.stream.Collectors.toList;
 
 /**
  * Reassigns regulatory non-coding variants to the gene with the best phenotype score in a topological domain
@@ -54,6 +52,9 @@ public class GeneReassigner {
     private final ChromosomalRegionIndex<TopologicalDomain> tadIndex;
     private final Map<String, Gene> allGenes;
 
+    // lazily built as this is only needed for analyses containing regulatory region variants
+    private volatile Map<TopologicalDomain, Gene> bestGeneInTads;
+
     /**
      * @param priorityType
      * @param tadIndex
@@ -77,10 +78,11 @@ private void assignVariantToGeneWithHighestPhenotypeScore(VariantEvaluation vari
         Gene currentlyAssignedGene = getCurrentlyAssignedGene(variantEvaluation);
         //assign this to the variant's current gene as we don't necessarily want ALL the regulatory region variants to clump into one gene.
         double bestScore = prioritiserScore(currentlyAssignedGene);
-        List<Gene> genesInTad = getGenesInTadForVariant(variantEvaluation);
+        Map<TopologicalDomain, Gene> bestGenes = getBestGeneInTads();
 
         Gene geneWithHighestPhenotypeScore = null;
-        for (Gene gene : genesInTad) {
+        for (TopologicalDomain tad : tadIndex.getRegionsContainingVariant(variantEvaluation)) {
+            Gene gene = bestGenes.get(tad);
             double geneScore = prioritiserScore(gene);
             if (geneScore > bestScore) {
                 bestScore = geneScore;
@@ -102,13 +104,40 @@ private void assignVariantToGeneWithHighestPhenotypeScore(VariantEvaluation vari
         }
     }
 
-    private List<Gene> getGenesInTadForVariant(VariantEvaluation variantEvaluation) {
-        return tadIndex.getRegionsContainingVariant(variantEvaluation).stream()
-                .map(TopologicalDomain::getGenes)
-                .flatMap(geneMap -> geneMap.keySet().stream())
-                .map(allGenes::get)
-                .filter(Objects::nonNull)
-                .collect(toList());
+    private Map<TopologicalDomain, Gene> getBestGeneInTads() {
+        Map<TopologicalDomain, Gene> bestGenes = bestGeneInTads;
+        if (bestGenes == null) {
+            bestGenes = makeBestGeneInTads();
+            bestGeneInTads = bestGenes;
+        }
+        return bestGenes;
+    }
+
+    /**
+     * Finds the first gene with the highest prioritiser score in each TAD, so that each regulatory variant only needs
+     * to look up the TADs containing it. The gene scores do not change once the prioritisers have been run. TADs
+     * without a gene scoring above zero are left out as these can never be better than the currently assigned gene.
+     * The TADs from the index are the same instances, so these are keyed by identity to avoid hashing the gene maps.
+     */
+    private Map<TopologicalDomain, Gene> makeBestGeneInTads() {
+        Map<TopologicalDomain, Gene> bestGenes = new IdentityHashMap<>();
+        for (TopologicalDomain tad : tadIndex.getRegions()) {
+            double bestScore = 0d;
+            Gene bestGene = null;
+            for (String geneSymbol : tad.getGenes().keySet()) {
+                Gene gene = allGenes.get(geneSymbol);
+                double geneScore = prioritiserScore(gene);
+                if (geneScore > bestScore) {
+                    bestScore = geneScore;
+                    bestGene = gene;
+                }
+            }
+            if (bestGene != null) {
+                bestGenes.put(tad, bestGene);
+            }
+        }
+        logger.debug("Found best {} scoring gene for {} of {} TADs", priorityType, bestGenes.size(), tadIndex.size());
+        return bestGenes;
     }
 
     private double prioritiserScore(Gene gene) {
@@ -33,6 +33,7 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 import static java.util.stream.Collectors.toMap;
@@ -41,6 +42,9 @@
  * This class allows us to do segregation analysis for the variants supplied to
  * it i.e., to determine if they are compatible with autosomal recessive,
  * autosomal dominant, or X-linked recessive inheritance.
+ * <p>
+ * Each gene is analysed independently of the others, so a collection of genes is analysed in parallel. The results are
+ * identical to analysing the genes one at a time as only the gene and its variants are updated by the analysis of a gene.
  *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
@@ -60,10 +64,23 @@ public InheritanceModeAnalyser(InheritanceModeAnnotator inheritanceModeAnnotator
     /**
      * Analyses the compatibility of a list of {@link Gene} with the {@link ModeOfInheritance} used in the constructor
      * of this class according to the observed pattern of inheritance in the {@link Pedigree}. This will only be applied
-     * to genes and the variants in the gene which have *PASSED* filtering.
+     * to genes and the variants in the gene which have *PASSED* filtering. The genes are analysed in parallel on the
+     * common pool.
      */
     public void analyseInheritanceModes(Collection<Gene> genes) {
-        genes.forEach(analyseInheritanceModes());
+        analyseInheritanceModes(genes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Analyses the compatibility of a list of {@link Gene} as for {@link #analyseInheritanceModes(Collection)}, with the
+     * genes analysed in parallel on the supplied pool rather than the common pool.
+     *
+     * @param forkJoinPool the pool on which to analyse the genes
+     * @since 12.1.0
+     */
+    public void analyseInheritanceModes(Collection<Gene> genes, ForkJoinPool forkJoinPool) {
+        // a parallel stream started from within a ForkJoinPool task runs its tasks in that pool
+        forkJoinPool.submit(() -> genes.parallelStream().forEach(analyseInheritanceModes())).join();
     }
 
     /**
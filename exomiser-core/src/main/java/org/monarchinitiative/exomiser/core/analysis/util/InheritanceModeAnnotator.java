@@ -45,6 +45,7 @@ public class InheritanceModeAnnotator {
     private final Pedigree pedigree;
     private final InheritanceModeOptions inheritanceModeOptions;
 
+    // The checker only holds immutable pedigree data so is safe to share between threads
     private final MendelianInheritanceChecker mendelChecker;
 
     public InheritanceModeAnnotator(Pedigree pedigree, InheritanceModeOptions inheritanceModeOptions) {
@@ -28,7 +28,9 @@
 import com.google.common.collect.ImmutableList;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisMetrics;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisStepMetrics;
 import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
@@ -40,6 +42,7 @@
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -66,7 +69,24 @@ public List<FilterReport> makeFilterReports(Analysis analysis, AnalysisResults a
 
         List<Filter> filters = getFiltersFromAnalysis(analysis);
 
-        return filters.stream().map(filter -> makeFilterReport(filter, analysisResults)).collect(Collectors.toList());
+        return filters.stream()
+                .map(filter -> addStepMetricsMessage(filter, makeFilterReport(filter, analysisResults), analysisResults.getAnalysisMetrics()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds the time taken by the filter to the report messages, when the results contain the timings for the analysis.
+     */
+    private FilterReport addStepMetricsMessage(Filter<?> filter, FilterReport filterReport, AnalysisMetrics analysisMetrics) {
+        Optional<AnalysisStepMetrics> stepMetrics = analysisMetrics.getAnalysisStepMetrics(filter.getFilterType().name());
+        if (!stepMetrics.isPresent()) {
+            return filterReport;
+        }
+        AnalysisStepMetrics metrics = stepMetrics.get();
+        String itemType = filter instanceof VariantFilter ? "variants" : "genes";
+        List<String> messages = new ArrayList<>(filterReport.getMessages());
+        messages.add(String.format("Filtered %d %s in %d ms (%.0f %s/sec)", metrics.getItemsProcessed(), itemType, metrics.getElapsedMillis(), metrics.getItemsPerSecond(), itemType));
+        return new FilterReport(filterReport.getFilterType(), filterReport.getPassed(), filterReport.getFailed(), messages);
     }
 
     private List<Filter> getFiltersFromAnalysis(Analysis analysis) {
@@ -21,9 +21,11 @@
 package org.monarchinitiative.exomiser.core.filters;
 
 import org.monarchinitiative.exomiser.core.genome.VariantDataService;
+import org.monarchinitiative.exomiser.core.model.VariantData;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
 
 import java.util.EnumSet;
 import java.util.Set;
@@ -37,6 +39,8 @@
 public class FrequencyDataProvider extends AbstractFilterDataProvider {
 
     private final Set<FrequencySource> frequencySources;
+    // only set when the pathogenicity data is also required by the analysis, in which case both are read together
+    private final Set<PathogenicitySource> pathogenicitySources;
 
     public FrequencyDataProvider(VariantDataService variantDataService, Set<FrequencySource> frequencySources, VariantFilter variantFilter) {
         super(variantDataService, variantFilter);
@@ -46,6 +50,30 @@ public FrequencyDataProvider(VariantDataService variantDataService, Set<Frequenc
         } else {
             this.frequencySources = EnumSet.copyOf(frequencySources);
         }
+        this.pathogenicitySources = null;
+    }
+
+    /**
+     * Creates a provider which also provides the pathogenicity data from the same lookup as the frequency data. This
+     * should only be used when the pathogenicity data is required by a later step of the analysis. Only the scores held
+     * with the frequency data are provided, the scores of sources such as CADD and REMM are left to the
+     * {@link PathogenicityDataProvider}, so that these are only looked up for the variants passing this filter.
+     *
+     * @since 12.1.0
+     */
+    public FrequencyDataProvider(VariantDataService variantDataService, Set<FrequencySource> frequencySources, Set<PathogenicitySource> pathogenicitySources, VariantFilter variantFilter) {
+        super(variantDataService, variantFilter);
+
+        if (frequencySources.isEmpty()) {
+            this.frequencySources = EnumSet.noneOf(FrequencySource.class);
+        } else {
+            this.frequencySources = EnumSet.copyOf(frequencySources);
+        }
+        if (pathogenicitySources.isEmpty()) {
+            this.pathogenicitySources = EnumSet.noneOf(PathogenicitySource.class);
+        } else {
+            this.pathogenicitySources = EnumSet.copyOf(pathogenicitySources);
+        }
     }
 
     @Override
@@ -53,8 +81,14 @@ public void provideVariantData(VariantEvaluation variantEvaluation) {
         //check there are no frequencies first - this may be genuine, or possibly the variant hasn't yet had the data added
         //this will cut down on trips to the database if multiple filters require frequency data.
         if (!variantEvaluation.getFrequencyData().hasKnownFrequency()) {
-            FrequencyData frequencyData = variantDataService.getVariantFrequencyData(variantEvaluation, frequencySources);
-            variantEvaluation.setFrequencyData(frequencyData);
+            if (pathogenicitySources != null && variantEvaluation.getPathogenicityData().isEmpty()) {
+                VariantData variantData = variantDataService.getVariantData(variantEvaluation, frequencySources, pathogenicitySources);
+                variantEvaluation.setFrequencyData(variantData.getFrequencyData());
+                variantEvaluation.setPathogenicityData(variantData.getPathogenicityData());
+            } else {
+                FrequencyData frequencyData = variantDataService.getVariantFrequencyData(variantEvaluation, frequencySources);
+                variantEvaluation.setFrequencyData(frequencyData);
+            }
         }
     }
 
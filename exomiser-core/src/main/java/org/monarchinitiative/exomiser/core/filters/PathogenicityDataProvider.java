@@ -26,11 +26,15 @@
 package org.monarchinitiative.exomiser.core.filters;
 
 import org.monarchinitiative.exomiser.core.genome.VariantDataService;
+import org.monarchinitiative.exomiser.core.model.VariantData;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityScore;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
 
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -39,11 +43,14 @@
  */
 public class PathogenicityDataProvider extends AbstractFilterDataProvider {
 
+    // only set when the frequency data is also required by the analysis, in which case both are read together
+    private final Set<FrequencySource> frequencySources;
     private final Set<PathogenicitySource> pathogenicitySources;
 
     public PathogenicityDataProvider(VariantDataService variantDataService, Set<PathogenicitySource> pathogenicitySources, VariantFilter variantFilter) {
         super(variantDataService, variantFilter);
 
+        this.frequencySources = null;
         if (pathogenicitySources.isEmpty()) {
             this.pathogenicitySources = EnumSet.noneOf(PathogenicitySource.class);
         } else {
@@ -51,12 +58,75 @@ public PathogenicityDataProvider(VariantDataService variantDataService, Set<Path
         }
     }
 
+    /**
+     * Creates a provider which also provides the frequency data from the same lookup as the pathogenicity data. This
+     * should only be used when the frequency data is required by another step of the analysis.
+     *
+     * @since 12.1.0
+     */
+    public PathogenicityDataProvider(VariantDataService variantDataService, Set<FrequencySource> frequencySources, Set<PathogenicitySource> pathogenicitySources, VariantFilter variantFilter) {
+        super(variantDataService, variantFilter);
+
+        if (frequencySources.isEmpty()) {
+            this.frequencySources = EnumSet.noneOf(FrequencySource.class);
+        } else {
+            this.frequencySources = EnumSet.copyOf(frequencySources);
+        }
+        if (pathogenicitySources.isEmpty()) {
+            this.pathogenicitySources = EnumSet.noneOf(PathogenicitySource.class);
+        } else {
+            this.pathogenicitySources = EnumSet.copyOf(pathogenicitySources);
+        }
+    }
+
+    /**
+     * When the frequency data is also required, the pathogenicity data held with it may already have been provided by
+     * the {@link FrequencyDataProvider}. Only the scores of any sources which are not held with the frequency data,
+     * such as CADD and REMM, are then looked up here. These are only needed by the variants which reach this filter.
+     */
     @Override
     public void provideVariantData(VariantEvaluation variantEvaluation) {
-        if (variantEvaluation.getPathogenicityData().isEmpty()) {
-            PathogenicityData pathData = variantDataService.getVariantPathogenicityData(variantEvaluation, pathogenicitySources);
-            variantEvaluation.setPathogenicityData(pathData);
+        PathogenicityData pathogenicityData = variantEvaluation.getPathogenicityData();
+        if (frequencySources == null) {
+            if (pathogenicityData.isEmpty()) {
+                provideAllPathogenicityData(variantEvaluation);
+            }
+            return;
+        }
+        if (pathogenicityData.isEmpty()) {
+            if (variantEvaluation.getFrequencyData().hasKnownFrequency()) {
+                provideAllPathogenicityData(variantEvaluation);
+                return;
+            }
+            VariantData variantData = variantDataService.getVariantData(variantEvaluation, frequencySources, pathogenicitySources);
+            variantEvaluation.setFrequencyData(variantData.getFrequencyData());
+            pathogenicityData = variantData.getPathogenicityData();
+        }
+        variantEvaluation.setPathogenicityData(addOptionalPathogenicityData(variantEvaluation, pathogenicityData));
+    }
+
+    private void provideAllPathogenicityData(VariantEvaluation variantEvaluation) {
+        PathogenicityData pathData = variantDataService.getVariantPathogenicityData(variantEvaluation, pathogenicitySources);
+        variantEvaluation.setPathogenicityData(pathData);
+    }
+
+    private PathogenicityData addOptionalPathogenicityData(VariantEvaluation variantEvaluation, PathogenicityData pathogenicityData) {
+        Set<PathogenicitySource> missingSources = EnumSet.noneOf(PathogenicitySource.class);
+        for (PathogenicitySource pathogenicitySource : pathogenicitySources) {
+            if (!pathogenicityData.hasPredictedScore(pathogenicitySource)) {
+                missingSources.add(pathogenicitySource);
+            }
+        }
+        if (missingSources.isEmpty()) {
+            return pathogenicityData;
+        }
+        PathogenicityData optionalPathogenicityData = variantDataService.getOptionalPathogenicityData(variantEvaluation, missingSources);
+        if (!optionalPathogenicityData.hasPredictedScore()) {
+            return pathogenicityData;
         }
+        List<PathogenicityScore> pathogenicityScores = pathogenicityData.getPredictedPathogenicityScores();
+        pathogenicityScores.addAll(optionalPathogenicityData.getPredictedPathogenicityScores());
+        return PathogenicityData.of(pathogenicityData.getClinVarData(), pathogenicityScores);
     }
 
 }
@@ -0,0 +1,122 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link VariantAnnotator} which caches the {@link VariantAnnotation} of the wrapped annotator. A single instance is
+ * expected to be shared by all the analyses for a genome assembly in the JVM, so that the common variants found in most
+ * samples of a cohort are only annotated once. The cache is held in memory, bounded by the maximum size, and the least
+ * recently used annotations are evicted first.
+ * <p>
+ * Only the annotations are cached here. The {@code FrequencyData} and {@code PathogenicityData} of a variant are cached
+ * by the Spring cache of the data access objects, configured using the {@code spring.cache} properties.
+ * <p>
+ * The cached annotations are only valid for the transcript data of the wrapped annotator, so the cache is never
+ * invalidated. Changing the data version means building a new annotator, and with it a new cache.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class CachingVariantAnnotator implements VariantAnnotator {
+
+    private final VariantAnnotator variantAnnotator;
+    private final Cache<AnnotationKey, VariantAnnotation> cache;
+
+    public CachingVariantAnnotator(VariantAnnotator variantAnnotator, long maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be greater than zero");
+        }
+        this.variantAnnotator = Objects.requireNonNull(variantAnnotator);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public VariantAnnotation annotate(String chr, int pos, String ref, String alt) {
+        try {
+            return cache.get(new AnnotationKey(chr, pos, ref, alt), () -> variantAnnotator.annotate(chr, pos, ref, alt));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to annotate " + chr + "-" + pos + "-" + ref + "-" + alt, e.getCause());
+        }
+    }
+
+    @Override
+    public Map<Integer, Set<String>> getChromosomeGeneSymbols() {
+        return variantAnnotator.getChromosomeGeneSymbols();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * @return the hit, miss and eviction counts for the cache since it was created.
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    private static final class AnnotationKey {
+
+        private final String chr;
+        private final int pos;
+        private final String ref;
+        private final String alt;
+        private final int hash;
+
+        private AnnotationKey(String chr, int pos, String ref, String alt) {
+            this.chr = chr;
+            this.pos = pos;
+            this.ref = ref;
+            this.alt = alt;
+            this.hash = Objects.hash(chr, pos, ref, alt);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            AnnotationKey that = (AnnotationKey) o;
+            return pos == that.pos &&
+                    chr.equals(that.chr) &&
+                    ref.equals(that.ref) &&
+                    alt.equals(that.alt);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
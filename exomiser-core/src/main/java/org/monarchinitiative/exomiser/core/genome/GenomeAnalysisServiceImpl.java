@@ -28,7 +28,9 @@
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -89,8 +91,33 @@ public PathogenicityData getVariantPathogenicityData(Variant variant, Set<Pathog
         return variantDataService.getVariantPathogenicityData(variant, pathogenicitySources);
     }
 
+    @Override
+    public VariantData getVariantData(Variant variant, Set<FrequencySource> frequencySources, Set<PathogenicitySource> pathogenicitySources) {
+        return variantDataService.getVariantData(variant, frequencySources, pathogenicitySources);
+    }
+
+    @Override
+    public PathogenicityData getOptionalPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
+        return variantDataService.getOptionalPathogenicityData(variant, pathogenicitySources);
+    }
+
+    @Override
+    public Map<String, Long> getDataLookupCounts() {
+        return variantDataService.getDataLookupCounts();
+    }
+
     @Override
     public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream) {
         return variantFactory.createVariantEvaluations(variantContextStream);
     }
+
+    @Override
+    public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream, Predicate<VariantEvaluation> preAnnotationFilter) {
+        return variantFactory.createVariantEvaluations(variantContextStream, preAnnotationFilter);
+    }
+
+    @Override
+    public Map<Integer, Set<String>> getChromosomeGeneSymbols() {
+        return variantFactory.getChromosomeGeneSymbols();
+    }
 }
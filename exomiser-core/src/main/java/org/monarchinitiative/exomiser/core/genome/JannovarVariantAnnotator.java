@@ -31,9 +31,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Handles creation of {@link VariantAnnotation} using Jannovar.
@@ -47,11 +45,32 @@ public class JannovarVariantAnnotator implements VariantAnnotator {
     private final GenomeAssembly genomeAssembly;
     private final JannovarAnnotationService jannovarAnnotationService;
     private final ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex;
+    private final Map<Integer, Set<String>> chromosomeGeneSymbols;
 
     public JannovarVariantAnnotator(GenomeAssembly genomeAssembly, JannovarData jannovarData, ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex) {
         this.genomeAssembly = genomeAssembly;
         this.jannovarAnnotationService = new JannovarAnnotationService(jannovarData);
         this.regulatoryRegionIndex = regulatoryRegionIndex;
+        this.chromosomeGeneSymbols = makeChromosomeGeneSymbols(jannovarData);
+    }
+
+    private static Map<Integer, Set<String>> makeChromosomeGeneSymbols(JannovarData jannovarData) {
+        Map<Integer, Set<String>> geneSymbols = new HashMap<>();
+        for (TranscriptModel transcriptModel : jannovarData.getTmByAccession().values()) {
+            geneSymbols.computeIfAbsent(transcriptModel.getChr(), chr -> new HashSet<>())
+                    .add(transcriptModel.getGeneSymbol());
+        }
+        geneSymbols.replaceAll((chr, symbols) -> Collections.unmodifiableSet(symbols));
+        return Collections.unmodifiableMap(geneSymbols);
+    }
+
+    /**
+     * Jannovar takes the gene symbol of a variant from the transcript it is annotated against, so a variant on a
+     * chromosome can only be assigned one of the gene symbols of the transcripts on that chromosome.
+     */
+    @Override
+    public Map<Integer, Set<String>> getChromosomeGeneSymbols() {
+        return chromosomeGeneSymbols;
     }
 
     /**
@@ -106,7 +125,9 @@ private VariantAnnotation buildVariantAlleleAnnotation(GenomeAssembly genomeAsse
 
         //Jannovar presently ignores all structural variants, so flag it here. Not that we do anything with them at present.
         VariantEffect highestImpactEffect = allelePosition.isSymbolic() ? VariantEffect.STRUCTURAL_VARIANT : variantAnnotations.getHighestImpactEffect();
-        List<TranscriptAnnotation> annotations = buildTranscriptAnnotations(variantAnnotations.getAnnotations());
+        // building the HGVS strings is costly and most variants are filtered out before these are used, so only
+        // convert the transcript annotations when they are first read
+        List<TranscriptAnnotation> annotations = LazyTranscriptAnnotations.of(variantAnnotations.getAnnotations(), this::toTranscriptAnnotation);
 
         int pos = allelePosition.getPos();
         String ref = allelePosition.getRef();
@@ -127,14 +148,6 @@ private VariantAnnotation buildVariantAlleleAnnotation(GenomeAssembly genomeAsse
                 .build();
     }
 
-    private List<TranscriptAnnotation> buildTranscriptAnnotations(List<Annotation> annotations) {
-        List<TranscriptAnnotation> transcriptAnnotations = new ArrayList<>(annotations.size());
-        for (Annotation annotation : annotations) {
-            transcriptAnnotations.add(toTranscriptAnnotation(annotation));
-        }
-        return transcriptAnnotations;
-    }
-
     private TranscriptAnnotation toTranscriptAnnotation(Annotation annotation) {
         return TranscriptAnnotation.builder()
                 .variantEffect(annotation.getMostPathogenicVarType())
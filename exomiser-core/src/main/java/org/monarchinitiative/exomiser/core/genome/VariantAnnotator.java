@@ -22,6 +22,10 @@
 
 import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
@@ -29,4 +33,16 @@ public interface VariantAnnotator {
 
     public VariantAnnotation annotate(String chr, int pos, String ref, String alt);
 
+    /**
+     * Returns the symbols of every gene which this annotator can assign to a variant, keyed by chromosome. A variant
+     * annotated on a chromosome will only ever have one of these gene symbols or none at all. The default is an empty
+     * map, meaning that nothing is known in advance about the genes a variant could be assigned to.
+     *
+     * @return the gene symbols of the transcripts on each chromosome
+     * @since 12.1.0
+     */
+    public default Map<Integer, Set<String>> getChromosomeGeneSymbols() {
+        return Collections.emptyMap();
+    }
+
 }
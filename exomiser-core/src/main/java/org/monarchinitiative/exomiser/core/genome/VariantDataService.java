@@ -26,11 +26,14 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -45,4 +48,49 @@ public interface VariantDataService {
 
     PathogenicityData getVariantPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources);
 
+    /**
+     * Returns both the frequency and pathogenicity data for the variant, as would be returned by
+     * {@link #getVariantFrequencyData(Variant, Set)} and {@link #getVariantPathogenicityData(Variant, Set)}.
+     * Implementations where these are held in the same data store should override this to read them together. In that
+     * case the pathogenicity data only needs to contain the scores held in that store, and the scores of any other
+     * sources are returned by {@link #getOptionalPathogenicityData(Variant, Set)}.
+     *
+     * @param variant              the variant to get the data for
+     * @param frequencySources     the frequency sources to include
+     * @param pathogenicitySources the pathogenicity sources to include
+     * @return the frequency and pathogenicity data for the variant
+     * @since 12.1.0
+     */
+    default VariantData getVariantData(Variant variant, Set<FrequencySource> frequencySources, Set<PathogenicitySource> pathogenicitySources) {
+        FrequencyData frequencyData = getVariantFrequencyData(variant, frequencySources);
+        PathogenicityData pathogenicityData = getVariantPathogenicityData(variant, pathogenicitySources);
+        return VariantData.of(frequencyData, pathogenicityData);
+    }
+
+    /**
+     * Returns the scores of the pathogenicity sources which are not included in the pathogenicity data returned by
+     * {@link #getVariantData(Variant, Set, Set)}, such as CADD or REMM. These are kept separate so that they are only
+     * looked up once they are needed.
+     *
+     * @param variant              the variant to get the data for
+     * @param pathogenicitySources the pathogenicity sources to include
+     * @return the pathogenicity scores of the requested sources not held with the frequency data
+     * @since 12.1.0
+     */
+    default PathogenicityData getOptionalPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
+        return PathogenicityData.empty();
+    }
+
+    /**
+     * Returns the running total of lookups made against each of the underlying data sources since the service was
+     * created. These are intended for monitoring, so the difference between two calls can be used to find the number
+     * of lookups made by an analysis.
+     *
+     * @return a map of data source name to the number of lookups made against it
+     * @since 12.1.0
+     */
+    default Map<String, Long> getDataLookupCounts() {
+        return Collections.emptyMap();
+    }
+
 }
@@ -22,11 +22,14 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import de.charite.compbio.jannovar.annotation.VariantEffect;
+import org.monarchinitiative.exomiser.core.genome.dao.AllelePropertiesDao;
+import org.monarchinitiative.exomiser.core.genome.dao.AllelePropertiesDaoAdapter;
 import org.monarchinitiative.exomiser.core.genome.dao.FrequencyDao;
 import org.monarchinitiative.exomiser.core.genome.dao.InMemoryVariantWhiteList;
 import org.monarchinitiative.exomiser.core.genome.dao.PathogenicityDao;
 import org.monarchinitiative.exomiser.core.genome.dao.VariantWhiteList;
 import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantData;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
@@ -36,9 +39,8 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.stream.Collectors.toList;
 
@@ -55,6 +57,8 @@ public class VariantDataServiceImpl implements VariantDataService {
     // Default data sources
     private final FrequencyDao defaultFrequencyDao;
     private final PathogenicityDao defaultPathogenicityDao;
+    // The frequency and pathogenicity data are held in the same allele store, so can be read together when this is set
+    private final AllelePropertiesDaoAdapter allelePropertiesDaoAdapter;
 
     // Optional data sources
     private final FrequencyDao localFrequencyDao;
@@ -62,12 +66,23 @@ public class VariantDataServiceImpl implements VariantDataService {
     private final PathogenicityDao remmDao;
     private final PathogenicityDao testPathScoreDao;
 
+    // LongAdder rather than AtomicLong as these are incremented from many threads but only rarely read
+    private final LongAdder whiteListLookups = new LongAdder();
+    private final LongAdder defaultFrequencyLookups = new LongAdder();
+    private final LongAdder localFrequencyLookups = new LongAdder();
+    private final LongAdder defaultPathogenicityLookups = new LongAdder();
+    private final LongAdder defaultVariantDataLookups = new LongAdder();
+    private final LongAdder caddLookups = new LongAdder();
+    private final LongAdder remmLookups = new LongAdder();
+    private final LongAdder testPathScoreLookups = new LongAdder();
+
     private VariantDataServiceImpl(Builder builder) {
 
         this.whiteList = builder.variantWhiteList;
 
         this.defaultFrequencyDao = builder.defaultFrequencyDao;
         this.defaultPathogenicityDao = builder.defaultPathogenicityDao;
+        this.allelePropertiesDaoAdapter = builder.allelePropertiesDaoAdapter;
 
         this.localFrequencyDao = builder.localFrequencyDao;
         this.caddDao = builder.caddDao;
@@ -77,15 +92,57 @@ private VariantDataServiceImpl(Builder builder) {
 
     @Override
     public boolean variantIsWhiteListed(Variant variant) {
+        whiteListLookups.increment();
         return whiteList.contains(variant);
     }
 
     @Override
     public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySource> frequencySources) {
-
-        // This could be run alongside the pathogenicities as they are all stored in the same datastore
+        defaultFrequencyLookups.increment();
         FrequencyData defaultFrequencyData = defaultFrequencyDao.getFrequencyData(variant);
+        return buildFrequencyData(variant, frequencySources, defaultFrequencyData);
+    }
+
+    @Override
+    public PathogenicityData getVariantPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
+        defaultPathogenicityLookups.increment();
+        PathogenicityData defaultPathogenicityData = defaultPathogenicityDao.getPathogenicityData(variant);
+        return buildPathogenicityData(variant, pathogenicitySources, defaultPathogenicityData);
+    }
+
+    /**
+     * Reads the default frequency and pathogenicity data in a single lookup when these are both held in the allele
+     * store, otherwise returns the results of the separate lookups. Only the pathogenicity scores held in the allele
+     * store are read here, the CADD, REMM and TEST scores are returned by
+     * {@link #getOptionalPathogenicityData(Variant, Set)}.
+     */
+    @Override
+    public VariantData getVariantData(Variant variant, Set<FrequencySource> frequencySources, Set<PathogenicitySource> pathogenicitySources) {
+        if (allelePropertiesDaoAdapter == null) {
+            return VariantDataService.super.getVariantData(variant, frequencySources, pathogenicitySources);
+        }
+        defaultVariantDataLookups.increment();
+        VariantData defaultVariantData = allelePropertiesDaoAdapter.getVariantData(variant);
+        FrequencyData frequencyData = buildFrequencyData(variant, frequencySources, defaultVariantData.getFrequencyData());
+        PathogenicityData defaultPathogenicityData = defaultVariantData.getPathogenicityData();
+        List<PathogenicityScore> wantedScores = getWantedScores(variant, pathogenicitySources, defaultPathogenicityData);
+        return VariantData.of(frequencyData, PathogenicityData.of(defaultPathogenicityData.getClinVarData(), wantedScores));
+    }
 
+    @Override
+    public PathogenicityData getOptionalPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
+        if (allelePropertiesDaoAdapter == null) {
+            // these have already been included by getVariantData
+            return PathogenicityData.empty();
+        }
+        List<PathogenicityScore> optionalPathScores = new ArrayList<>();
+        for (PathogenicityData pathogenicityData : lookUpOptionalPathogenicityData(variant, pathogenicitySources)) {
+            optionalPathScores.addAll(pathogenicityData.getPredictedPathogenicityScores());
+        }
+        return PathogenicityData.of(optionalPathScores);
+    }
+
+    private FrequencyData buildFrequencyData(Variant variant, Set<FrequencySource> frequencySources, FrequencyData defaultFrequencyData) {
         List<Frequency> allFrequencies = new ArrayList<>();
         for (Frequency frequency : defaultFrequencyData.getKnownFrequencies()) {
             if (frequencySources.contains(frequency.getSource())) {
@@ -94,6 +151,7 @@ public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySourc
         }
 
         if (frequencySources.contains(FrequencySource.LOCAL)) {
+            localFrequencyLookups.increment();
             FrequencyData localFrequencyData = localFrequencyDao.getFrequencyData(variant);
             allFrequencies.addAll(localFrequencyData.getKnownFrequencies());
         }
@@ -101,24 +159,15 @@ public FrequencyData getVariantFrequencyData(Variant variant, Set<FrequencySourc
         return FrequencyData.of(defaultFrequencyData.getRsId(), allFrequencies);
     }
 
-    @Override
-    public PathogenicityData getVariantPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
-
-        // This could be run alongside the frequencies as they are all stored in the same datastore
-        PathogenicityData defaultPathogenicityData = defaultPathogenicityDao.getPathogenicityData(variant);
+    private PathogenicityData buildPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources, PathogenicityData defaultPathogenicityData) {
         if (pathogenicitySources.isEmpty()) {
             // Fast-path for the unlikely case when no sources are defined - we'll just return the ClinVar data
             return PathogenicityData.of(defaultPathogenicityData.getClinVarData());
         }
 
-        List<PathogenicityScore> allPathScores = new ArrayList<>();
-        // we're going to deliberately ignore synonymous variants from dbNSFP as these shouldn't be there
-        // e.g. ?assembly=hg37&chr=1&start=158581087&ref=G&alt=A has a MutationTaster score of 1
-        if (variant.getVariantEffect() != VariantEffect.SYNONYMOUS_VARIANT) {
-            addAllWantedScores(pathogenicitySources, defaultPathogenicityData, allPathScores);
-        }
+        List<PathogenicityScore> allPathScores = getWantedScores(variant, pathogenicitySources, defaultPathogenicityData);
 
-        List<PathogenicityData> optionalPathData = getOptionalPathogenicityData(variant, pathogenicitySources);
+        List<PathogenicityData> optionalPathData = lookUpOptionalPathogenicityData(variant, pathogenicitySources);
         for (PathogenicityData pathogenicityData : optionalPathData) {
             allPathScores.addAll(pathogenicityData.getPredictedPathogenicityScores());
         }
@@ -126,27 +175,36 @@ public PathogenicityData getVariantPathogenicityData(Variant variant, Set<Pathog
         return PathogenicityData.of(defaultPathogenicityData.getClinVarData(), allPathScores);
     }
 
-    private void addAllWantedScores(Set<PathogenicitySource> pathogenicitySources, PathogenicityData defaultPathogenicityData, List<PathogenicityScore> allPathScores) {
-        for (PathogenicityScore score : defaultPathogenicityData.getPredictedPathogenicityScores()) {
-            if (pathogenicitySources.contains(score.getSource())) {
-                allPathScores.add(score);
+    private List<PathogenicityScore> getWantedScores(Variant variant, Set<PathogenicitySource> pathogenicitySources, PathogenicityData defaultPathogenicityData) {
+        List<PathogenicityScore> allPathScores = new ArrayList<>();
+        // we're going to deliberately ignore synonymous variants from dbNSFP as these shouldn't be there
+        // e.g. ?assembly=hg37&chr=1&start=158581087&ref=G&alt=A has a MutationTaster score of 1
+        if (variant.getVariantEffect() != VariantEffect.SYNONYMOUS_VARIANT) {
+            for (PathogenicityScore score : defaultPathogenicityData.getPredictedPathogenicityScores()) {
+                if (pathogenicitySources.contains(score.getSource())) {
+                    allPathScores.add(score);
+                }
             }
         }
+        return allPathScores;
     }
 
-    private List<PathogenicityData> getOptionalPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
+    private List<PathogenicityData> lookUpOptionalPathogenicityData(Variant variant, Set<PathogenicitySource> pathogenicitySources) {
         List<PathogenicityDao> daosToQuery = new ArrayList<>();
         // REMM is trained on non-coding regulatory bits of the genome, this outperforms CADD for non-coding variants
         if (pathogenicitySources.contains(PathogenicitySource.REMM) && variant.isNonCodingVariant()) {
+            remmLookups.increment();
             daosToQuery.add(remmDao);
         }
 
         // CADD does all of it although is not as good as REMM for the non-coding regions.
         if (pathogenicitySources.contains(PathogenicitySource.CADD)) {
+            caddLookups.increment();
             daosToQuery.add(caddDao);
         }
 
         if (pathogenicitySources.contains(PathogenicitySource.TEST)) {
+            testPathScoreLookups.increment();
             daosToQuery.add(testPathScoreDao);
         }
 
@@ -155,6 +213,24 @@ private List<PathogenicityData> getOptionalPathogenicityData(Variant variant, Se
                 .collect(toList());
     }
 
+    /**
+     * Returns the number of calls made to each of the data sources. Calls answered by a cache in front of the
+     * DAOs are counted as lookups, so these show the demand placed on the data rather than the disk access.
+     */
+    @Override
+    public Map<String, Long> getDataLookupCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("whitelist", whiteListLookups.sum());
+        counts.put("frequency", defaultFrequencyLookups.sum());
+        counts.put("localFrequency", localFrequencyLookups.sum());
+        counts.put("pathogenicity", defaultPathogenicityLookups.sum());
+        counts.put("frequencyAndPathogenicity", defaultVariantDataLookups.sum());
+        counts.put("cadd", caddLookups.sum());
+        counts.put("remm", remmLookups.sum());
+        counts.put("testPathogenicity", testPathScoreLookups.sum());
+        return counts;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -165,6 +241,7 @@ public static class Builder {
 
         private FrequencyDao defaultFrequencyDao;
         private PathogenicityDao defaultPathogenicityDao;
+        private AllelePropertiesDaoAdapter allelePropertiesDaoAdapter;
 
         private FrequencyDao localFrequencyDao;
 
@@ -187,6 +264,20 @@ public Builder defaultPathogenicityDao(PathogenicityDao defaultPathogenicityDao)
             return this;
         }
 
+        /**
+         * Uses the allele store for the default frequency and pathogenicity data. As these are then held in the same
+         * store, {@link VariantDataServiceImpl#getVariantData(Variant, Set, Set)} reads them both in a single lookup.
+         *
+         * @param allelePropertiesDao the allele store holding the default frequency and pathogenicity data
+         * @since 12.1.0
+         */
+        public Builder allelePropertiesDao(AllelePropertiesDao allelePropertiesDao) {
+            this.allelePropertiesDaoAdapter = new AllelePropertiesDaoAdapter(allelePropertiesDao);
+            this.defaultFrequencyDao = allelePropertiesDaoAdapter;
+            this.defaultPathogenicityDao = allelePropertiesDaoAdapter;
+            return this;
+        }
+
         public Builder localFrequencyDao(FrequencyDao localFrequencyDao) {
             this.localFrequencyDao = localFrequencyDao;
             return this;
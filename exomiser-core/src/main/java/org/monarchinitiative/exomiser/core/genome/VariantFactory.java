@@ -21,9 +21,15 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import htsjdk.variant.variantcontext.VariantContext;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -39,6 +45,42 @@ default Stream<VariantEvaluation> createVariantEvaluations(Path vcfPath) {
         return createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath));
     }
 
+    /**
+     * Creates the {@code VariantEvaluation} for the records of the VCF overlapping the regions. Only the overlapping
+     * records are read if the VCF is bgzipped and tabix indexed, otherwise the whole file is read. See
+     * {@link VcfFiles#readVariantContexts(Path, Collection)}.
+     *
+     * @since 12.1.0
+     */
+    default Stream<VariantEvaluation> createVariantEvaluations(Path vcfPath, Collection<? extends ChromosomalRegion> regions) {
+        return createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath, regions));
+    }
+
     Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream);
 
+    /**
+     * Creates the {@code VariantEvaluation} for the alleles which pass the preAnnotationFilter. Implementations can test
+     * the filter against a {@code VariantEvaluation} built only from the VCF record, with the trimmed position, quality,
+     * {@code VariantContext} and sample genotypes but no gene or transcript annotations, so that the failing alleles are
+     * never annotated. The default implementation annotates all the alleles before filtering them.
+     *
+     * @param variantContextStream the VCF records to convert
+     * @param preAnnotationFilter  the test each allele must pass in order to be annotated
+     * @return a stream of the annotated alleles which passed the preAnnotationFilter
+     * @since 12.1.0
+     */
+    default Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream, Predicate<VariantEvaluation> preAnnotationFilter) {
+        return createVariantEvaluations(variantContextStream).filter(preAnnotationFilter);
+    }
+
+    /**
+     * @return the symbols of every gene which the created {@code VariantEvaluation} can be assigned to, keyed by
+     * chromosome, or an empty map if these are not known in advance.
+     * @see VariantAnnotator#getChromosomeGeneSymbols()
+     * @since 12.1.0
+     */
+    default Map<Integer, Set<String>> getChromosomeGeneSymbols() {
+        return Collections.emptyMap();
+    }
+
 }
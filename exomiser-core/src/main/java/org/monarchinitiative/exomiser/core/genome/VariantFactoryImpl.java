@@ -25,11 +25,13 @@
  */
 package org.monarchinitiative.exomiser.core.genome;
 
+import com.google.common.cache.CacheStats;
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.GenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
+import org.monarchinitiative.exomiser.core.model.AllelePosition;
 import org.monarchinitiative.exomiser.core.model.SampleGenotype;
 import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
 import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
@@ -42,9 +44,11 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -73,6 +77,26 @@ public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext>
                 .onClose(counter::logCount);
     }
 
+    @Override
+    public Map<Integer, Set<String>> getChromosomeGeneSymbols() {
+        return variantAnnotator.getChromosomeGeneSymbols();
+    }
+
+    /**
+     * Only annotates the alleles passing the preAnnotationFilter. The filter is tested against a {@code VariantEvaluation}
+     * built from the VCF record alone, so the Jannovar annotation of the failing alleles is skipped entirely.
+     */
+    @Override
+    public Stream<VariantEvaluation> createVariantEvaluations(Stream<VariantContext> variantContextStream, Predicate<VariantEvaluation> preAnnotationFilter) {
+        logger.info("Annotating variant records, trimming sequences and normalising positions...");
+        VariantCounter counter = new VariantCounter();
+        return variantContextStream
+                .peek(counter.countVariantContext())
+                .flatMap(toPreFilteredVariantEvaluations(preAnnotationFilter, counter))
+                .peek(counter.countAnnotatedVariant())
+                .onClose(counter::logCount);
+    }
+
     /**
      * An Exomiser VariantEvaluation is a single-allele variant whereas the VariantContext can have multiple alleles.
      * This means that a multi allele Variant record in a VCF can result in several VariantEvaluations - one for each
@@ -85,6 +109,38 @@ private Function<VariantContext, Stream<VariantEvaluation>> toVariantEvaluations
                 .map(Optional::get);
     }
 
+    private Function<VariantContext, Stream<VariantEvaluation>> toPreFilteredVariantEvaluations(Predicate<VariantEvaluation> preAnnotationFilter, VariantCounter counter) {
+        return variantContext -> variantContext.getAlternateAlleles().stream()
+                .filter(altAllele -> alleleIsObservedInGenotypes(altAllele, variantContext.getGenotypes()))
+                .map(altAllele -> buildUnannotatedVariantEvaluation(variantContext, variantContext.getAlleleIndex(altAllele) - 1, altAllele))
+                .filter(unannotatedVariant -> {
+                    boolean passed = preAnnotationFilter.test(unannotatedVariant);
+                    if (!passed) {
+                        counter.countUnannotatedFailedVariant();
+                    }
+                    return passed;
+                })
+                .map(unannotatedVariant -> {
+                    Allele altAllele = variantContext.getAlternateAllele(unannotatedVariant.getAltAlleleId());
+                    VariantAnnotation variantAnnotation = annotateVariantAllele(variantContext, altAllele);
+                    return buildVariantEvaluation(variantContext, unannotatedVariant.getAltAlleleId(), unannotatedVariant.getSampleGenotypes(), variantAnnotation);
+                });
+    }
+
+    /**
+     * Builds a {@code VariantEvaluation} from the VCF record alone, trimmed in the same way as the
+     * {@link VariantAnnotator} would, but without any gene or transcript annotations.
+     */
+    private VariantEvaluation buildUnannotatedVariantEvaluation(VariantContext variantContext, int altAlleleId, Allele altAllele) {
+        String contig = variantContext.getContig();
+        AllelePosition trimmedAllele = AllelePosition.trim(variantContext.getStart(), variantContext.getReference()
+                .getBaseString(), altAlleleBases(altAllele));
+        Map<String, SampleGenotype> sampleGenotypes = VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, altAlleleId);
+        return variantEvaluationBuilder(variantContext, altAlleleId, sampleGenotypes, Contig.parseId(contig), trimmedAllele.getPos(), trimmedAllele.getRef(), trimmedAllele.getAlt())
+                .chromosomeName(contig)
+                .build();
+    }
+
     private Function<Allele, Optional<VariantEvaluation>> buildAlleleVariantEvaluation(VariantContext variantContext) {
         return altAllele -> {
             //alternate Alleles are always after the reference allele, which is 0
@@ -131,16 +187,21 @@ private VariantAnnotation annotateVariantAllele(VariantContext variantContext, A
         String contig = variantContext.getContig();
         int pos = variantContext.getStart();
         String ref = variantContext.getReference().getBaseString();
+        return variantAnnotator.annotate(contig, pos, ref, altAlleleBases(altAllele));
+    }
+
+    private static String altAlleleBases(Allele altAllele) {
         // Structural variants are 'symbolic' in that they have no actual reported bases
-        String alt = (altAllele.isSymbolic()) ? altAllele.getDisplayString() : altAllele.getBaseString();
-        return variantAnnotator.annotate(contig, pos, ref, alt);
+        return (altAllele.isSymbolic()) ? altAllele.getDisplayString() : altAllele.getBaseString();
     }
 
     private VariantEvaluation buildVariantEvaluation(VariantContext variantContext, int altAlleleId, VariantAnnotation variantAnnotation) {
-
         //See also notes in InheritanceModeAnnotator.
         Map<String, SampleGenotype> sampleGenotypes = VariantContextSampleGenotypeConverter.createAlleleSampleGenotypes(variantContext, altAlleleId);
+        return buildVariantEvaluation(variantContext, altAlleleId, sampleGenotypes, variantAnnotation);
+    }
 
+    private VariantEvaluation buildVariantEvaluation(VariantContext variantContext, int altAlleleId, Map<String, SampleGenotype> sampleGenotypes, VariantAnnotation variantAnnotation) {
         GenomeAssembly genomeAssembly = variantAnnotation.getGenomeAssembly();
         int chr = variantAnnotation.getChromosome();
         String chromosomeName = variantAnnotation.getChromosomeName();
@@ -153,8 +214,24 @@ private VariantEvaluation buildVariantEvaluation(VariantContext variantContext,
         VariantEffect variantEffect = variantAnnotation.getVariantEffect();
         List<TranscriptAnnotation> annotations = variantAnnotation.getTranscriptAnnotations();
 
-        return VariantEvaluation.builder(chr, pos, ref, alt)
+        return variantEvaluationBuilder(variantContext, altAlleleId, sampleGenotypes, chr, pos, ref, alt)
                 .genomeAssembly(genomeAssembly)
+                //jannovar derived data
+                .chromosomeName(chromosomeName)
+                .geneSymbol(geneSymbol)
+                //This used to be an ENTREZ gene identifier, but could now be anything.
+                .geneId(geneId)
+                .variantEffect(variantEffect)
+                .annotations(annotations)
+                .build();
+    }
+
+    /**
+     * Creates a {@code VariantEvaluation.Builder} with the fields taken from the VCF record, which are shared by the
+     * annotated and unannotated variants.
+     */
+    private VariantEvaluation.Builder variantEvaluationBuilder(VariantContext variantContext, int altAlleleId, Map<String, SampleGenotype> sampleGenotypes, int chr, int pos, String ref, String alt) {
+        return VariantEvaluation.builder(chr, pos, ref, alt)
                 //HTSJDK derived data are used for writing out the
                 //HTML (VariantEffectCounter) VCF/TSV-VARIANT formatted files
                 //can be removed from InheritanceModeAnalyser as Jannovar 0.18+ is not reliant on the VariantContext
@@ -166,15 +243,7 @@ private VariantEvaluation buildVariantEvaluation(VariantContext variantContext,
                 .id((".".equals(variantContext.getID())) ? "" : variantContext.getID())
                 .sampleGenotypes(sampleGenotypes)
                 //quality is the only value from the VCF file directly required for analysis
-                .quality(variantContext.getPhredScaledQual())
-                //jannovar derived data
-                .chromosomeName(chromosomeName)
-                .geneSymbol(geneSymbol)
-                //This used to be an ENTREZ gene identifier, but could now be anything.
-                .geneId(geneId)
-                .variantEffect(variantEffect)
-                .annotations(annotations)
-                .build();
+                .quality(variantContext.getPhredScaledQual());
     }
 
     /**
@@ -184,7 +253,9 @@ private class VariantCounter {
         final AtomicInteger variantRecords = new AtomicInteger(0);
         final AtomicInteger unannotatedVariants = new AtomicInteger(0);
         final AtomicInteger annotatedVariants = new AtomicInteger(0);
+        final AtomicInteger unannotatedFailedVariants = new AtomicInteger(0);
         final Instant start = Instant.now();
+        final CacheStats startCacheStats = currentCacheStats();
 
         Consumer<VariantContext> countVariantContext() {
             return variantContext -> variantRecords.incrementAndGet();
@@ -200,6 +271,10 @@ Consumer<VariantEvaluation> countAnnotatedVariant() {
             };
         }
 
+        void countUnannotatedFailedVariant() {
+            unannotatedFailedVariants.incrementAndGet();
+        }
+
         void logCount() {
             if (unannotatedVariants.get() > 0) {
                 logger.info("Processed {} variant records into {} single allele variants, {} are missing annotations, most likely due to non-numeric chromosome designations", variantRecords
@@ -208,9 +283,24 @@ void logCount() {
                 logger.info("Processed {} variant records into {} single allele variants", variantRecords.get(), annotatedVariants
                         .get());
             }
+            if (unannotatedFailedVariants.get() > 0) {
+                logger.info("Skipped annotation of {} variants failing the pre-annotation filters", unannotatedFailedVariants.get());
+            }
             Duration duration = Duration.between(start, Instant.now());
             long ms = duration.toMillis();
             logger.info("Variant annotation finished in {}m {}s {}ms ({} ms)", (ms / 1000) / 60 % 60, ms / 1000 % 60, ms % 1000, ms);
+            if (variantAnnotator instanceof CachingVariantAnnotator) {
+                CacheStats cacheStats = currentCacheStats().minus(startCacheStats);
+                logger.info("Annotation cache hits: {} misses: {} hit rate: {}", cacheStats.hitCount(), cacheStats.missCount(), String
+                        .format("%.3f", cacheStats.hitRate()));
+            }
+        }
+
+        private CacheStats currentCacheStats() {
+            if (variantAnnotator instanceof CachingVariantAnnotator) {
+                return ((CachingVariantAnnotator) variantAnnotator).getCacheStats();
+            }
+            return new CacheStats(0, 0, 0, 0, 0, 0);
         }
     }
 }
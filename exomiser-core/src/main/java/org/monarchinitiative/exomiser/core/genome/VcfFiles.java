@@ -20,15 +20,28 @@
 
 package org.monarchinitiative.exomiser.core.genome;
 
+import htsjdk.samtools.util.IOUtil;
+import htsjdk.tribble.AbstractFeatureReader;
+import htsjdk.tribble.CloseableTribbleIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.tribble.TribbleException;
+import htsjdk.tribble.util.TabixUtils;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
 import htsjdk.variant.vcf.VCFFileReader;
 import htsjdk.variant.vcf.VCFHeader;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
+import org.monarchinitiative.exomiser.core.model.GeneticInterval;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Objects;
+import java.nio.file.Paths;
+import java.util.*;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for providing access to VCF files.
@@ -57,6 +70,162 @@ public static Stream<VariantContext> readVariantContexts(Path vcfPath) {
         }
     }
 
+    /**
+     * Creates a {@code Stream} of the {@code VariantContext} overlapping the given regions from the indicated VCF file.
+     * If the file is bgzipped with a tabix index alongside it, only the blocks of the file containing the regions are
+     * read. Otherwise this falls back to reading the whole file, in which case callers are still responsible for
+     * filtering out the variants outside the regions.
+     * <p>
+     * The regions are merged before querying so that each record is returned only once, in the order of the file.
+     * Records spanning the start of a region, such as deletions, will be returned even though their position is before
+     * the region, so callers should still filter the variants against the regions.
+     *
+     * @param vcfPath path of the VCF file
+     * @param regions the regions of interest
+     * @return a {@code Stream} of {@code VariantContext} overlapping the regions
+     * @since 12.1.0
+     */
+    public static Stream<VariantContext> readVariantContexts(Path vcfPath, Collection<? extends ChromosomalRegion> regions) {
+        Objects.requireNonNull(vcfPath, "Cannot read from null vcfPath");
+        Objects.requireNonNull(regions, "Cannot read from null regions");
+        if (!isTabixIndexed(vcfPath)) {
+            logger.info("VCF file {} is not bgzipped and tabix indexed - reading all variants", vcfPath);
+            return readVariantContexts(vcfPath);
+        }
+        logger.debug("Reading variants in {} regions from indexed VCF file {}", regions.size(), vcfPath);
+        FeatureReader<VariantContext> vcfReader = AbstractFeatureReader.getFeatureReader(vcfPath.toAbsolutePath()
+                .toString(), new VCFCodec(), true);
+        RegionQueryIterator regionQueryIterator = new RegionQueryIterator(vcfReader, mergeRegions(regions));
+        Spliterator<VariantContext> spliterator = Spliterators.spliteratorUnknownSize(regionQueryIterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(regionQueryIterator::close);
+    }
+
+    /**
+     * @param vcfPath path of the VCF file
+     * @return true if the file is block compressed and has a tabix (.tbi) index alongside it.
+     * @since 12.1.0
+     */
+    public static boolean isTabixIndexed(Path vcfPath) {
+        Objects.requireNonNull(vcfPath, "Cannot read from null vcfPath");
+        String vcfPathString = vcfPath.toString();
+        return IOUtil.hasBlockCompressedExtension(vcfPathString)
+                && Files.exists(Paths.get(vcfPathString + TabixUtils.STANDARD_INDEX_EXTENSION));
+    }
+
+    private static List<ChromosomalRegion> mergeRegions(Collection<? extends ChromosomalRegion> regions) {
+        List<ChromosomalRegion> sortedRegions = new ArrayList<>(regions);
+        Collections.sort(sortedRegions);
+        List<ChromosomalRegion> mergedRegions = new ArrayList<>();
+        ChromosomalRegion current = null;
+        for (ChromosomalRegion region : sortedRegions) {
+            if (current != null && current.getChromosome() == region.getChromosome() && region.getStart() <= current.getEnd() + 1) {
+                current = new GeneticInterval(current.getChromosome(), current.getStart(), Math.max(current.getEnd(), region.getEnd()));
+            } else {
+                if (current != null) {
+                    mergedRegions.add(current);
+                }
+                current = region;
+            }
+        }
+        if (current != null) {
+            mergedRegions.add(current);
+        }
+        return mergedRegions;
+    }
+
+    /**
+     * Lazily runs a tabix query for each of the sorted, non-overlapping regions in turn. A record overlapping several
+     * regions is only returned by the query of the first region it overlaps.
+     */
+    private static class RegionQueryIterator implements Iterator<VariantContext> {
+
+        private final FeatureReader<VariantContext> vcfReader;
+        private final Iterator<ChromosomalRegion> regionIterator;
+        private final Map<Integer, List<String>> contigNames;
+
+        private ChromosomalRegion previousRegion;
+        private ChromosomalRegion currentRegion;
+        private Iterator<String> currentContigs = Collections.emptyIterator();
+        private CloseableTribbleIterator<VariantContext> currentQuery;
+        private VariantContext next;
+
+        private RegionQueryIterator(FeatureReader<VariantContext> vcfReader, List<ChromosomalRegion> regions) {
+            this.vcfReader = vcfReader;
+            this.regionIterator = regions.iterator();
+            this.contigNames = new HashMap<>();
+            // the VCF could use either 1 or chr1 style names, so query using whichever the file was indexed with
+            for (String contigName : vcfReader.getSequenceNames()) {
+                contigNames.computeIfAbsent(Contig.parseId(contigName), id -> new ArrayList<>()).add(contigName);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (currentQuery != null && currentQuery.hasNext()) {
+                    VariantContext variantContext = currentQuery.next();
+                    if (!returnedByPreviousRegion(variantContext)) {
+                        next = variantContext;
+                    }
+                } else if (!startNextQuery()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean returnedByPreviousRegion(VariantContext variantContext) {
+            return previousRegion != null
+                    && previousRegion.getChromosome() == currentRegion.getChromosome()
+                    && variantContext.getStart() <= previousRegion.getEnd();
+        }
+
+        private boolean startNextQuery() {
+            closeCurrentQuery();
+            while (!currentContigs.hasNext()) {
+                if (!regionIterator.hasNext()) {
+                    return false;
+                }
+                previousRegion = currentRegion;
+                currentRegion = regionIterator.next();
+                currentContigs = contigNames.getOrDefault(currentRegion.getChromosome(), Collections.emptyList()).iterator();
+            }
+            String contig = currentContigs.next();
+            try {
+                currentQuery = vcfReader.query(contig, currentRegion.getStart(), currentRegion.getEnd());
+            } catch (IOException e) {
+                throw new TribbleException("Unable to query " + contig + ":" + currentRegion.getStart() + "-" + currentRegion.getEnd(), e);
+            }
+            return true;
+        }
+
+        @Override
+        public VariantContext next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            VariantContext variantContext = next;
+            next = null;
+            return variantContext;
+        }
+
+        private void closeCurrentQuery() {
+            if (currentQuery != null) {
+                currentQuery.close();
+                currentQuery = null;
+            }
+        }
+
+        private void close() {
+            closeCurrentQuery();
+            try {
+                vcfReader.close();
+            } catch (IOException e) {
+                logger.error("Unable to close VCF reader", e);
+            }
+        }
+    }
+
     /**
      * Reads the header of the provided VCF file and returns a {@code VCFHeader}.
      *
@@ -22,6 +22,7 @@
 
 import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
 import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto;
@@ -54,4 +55,18 @@ public PathogenicityData getPathogenicityData(Variant variant) {
         AlleleProto.AlleleProperties alleleProperties = allelePropertiesDao.getAlleleProperties(variant);
         return AlleleProtoAdaptor.toPathogenicityData(alleleProperties);
     }
+
+    /**
+     * Reads the {@link AlleleProto.AlleleProperties} for the variant once and converts them into both the
+     * {@link FrequencyData} and {@link PathogenicityData}. This halves the number of reads and decodes of the allele
+     * store when both are required, as they are when a variant is tested by frequency and pathogenicity filters.
+     *
+     * @param variant the variant to read the data for
+     * @return the frequency and pathogenicity data for the variant
+     * @since 12.1.0
+     */
+    public VariantData getVariantData(Variant variant) {
+        AlleleProto.AlleleProperties alleleProperties = allelePropertiesDao.getAlleleProperties(variant);
+        return VariantData.of(AlleleProtoAdaptor.toFrequencyData(alleleProperties), AlleleProtoAdaptor.toPathogenicityData(alleleProperties));
+    }
 }
@@ -20,61 +20,357 @@
 
 package org.monarchinitiative.exomiser.core.genome.dao;
 
-import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
 import org.monarchinitiative.exomiser.core.model.Variant;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto;
 
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 /**
- * An in-memory implementation of the {@link VariantWhiteList}
+ * An in-memory implementation of the {@link VariantWhiteList}.
+ * <p>
+ * Each whitelisted allele is packed into a single long of chromosome, position and alleles held in a sorted array, so
+ * that a whitelist of several hundred thousand ClinVar alleles takes a few MB rather than the hundreds of bytes per
+ * allele needed for a set of {@link AlleleProto.AlleleKey}. SNVs are encoded exactly in the key. Other alleles are
+ * encoded with a hash of the ref and alt and their exact ref and alt are kept alongside so that a hash collision
+ * cannot produce a false positive. Lookups are first checked against a Bloom filter of the keys, which rejects the
+ * great majority of non-whitelisted variants without searching the arrays.
+ *
  * @since 12.0.0
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
 public class InMemoryVariantWhiteList implements VariantWhiteList {
 
-    private static final VariantWhiteList EMPTY = new EmptyVariantWhiteList();
+    private static final int MAGIC = 0x4558574C; // EXWL
+    private static final int VERSION = 1;
+
+    private static final int CHR_SHIFT = 56;
+    private static final int POSITION_SHIFT = 24;
+    private static final long HASHED_ALLELES_FLAG = 1L << 23;
+    private static final long HASH_MASK = HASHED_ALLELES_FLAG - 1;
 
-    private final Set<AlleleProto.AlleleKey> whiteList;
+    private static final InMemoryVariantWhiteList EMPTY = new InMemoryVariantWhiteList(new long[0], new long[0], new String[0], new String[0]);
 
+    // sorted packed keys of SNVs, these are exact so need no further checking
+    private final long[] snvKeys;
+    // sorted packed keys of all other alleles with their exact alleles at the same index
+    private final long[] hashedKeys;
+    private final String[] hashedRefs;
+    private final String[] hashedAlts;
+    private final BloomFilter bloomFilter;
 
-    public static VariantWhiteList empty() {
+    public static InMemoryVariantWhiteList empty() {
         return EMPTY;
     }
 
-    public static VariantWhiteList of(Set<AlleleProto.AlleleKey> whiteList) {
+    public static InMemoryVariantWhiteList of(Set<AlleleProto.AlleleKey> whiteList) {
         Objects.requireNonNull(whiteList);
 
         if (whiteList.isEmpty()) {
             return EMPTY;
         }
-        return new InMemoryVariantWhiteList(whiteList);
+        Builder builder = builder();
+        for (AlleleProto.AlleleKey alleleKey : whiteList) {
+            builder.add(alleleKey.getChr(), alleleKey.getPosition(), alleleKey.getRef(), alleleKey.getAlt());
+        }
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
     }
 
-    private InMemoryVariantWhiteList(Set<AlleleProto.AlleleKey> whiteList) {
-        this.whiteList = new HashSet<>(whiteList);
+    private InMemoryVariantWhiteList(long[] snvKeys, long[] hashedKeys, String[] hashedRefs, String[] hashedAlts) {
+        this.snvKeys = snvKeys;
+        this.hashedKeys = hashedKeys;
+        this.hashedRefs = hashedRefs;
+        this.hashedAlts = hashedAlts;
+        this.bloomFilter = new BloomFilter(snvKeys.length + hashedKeys.length);
+        for (long key : snvKeys) {
+            bloomFilter.add(key);
+        }
+        for (long key : hashedKeys) {
+            bloomFilter.add(key);
+        }
     }
 
     @Override
     public boolean contains(Variant variant) {
-        AlleleProto.AlleleKey alleleKey = AlleleProtoAdaptor.toAlleleKey(variant);
-        return whiteList.contains(alleleKey);
+        if (size() == 0) {
+            return false;
+        }
+        int chr = variant.getChromosome();
+        int position = variant.getPosition();
+        String ref = variant.getRef();
+        String alt = variant.getAlt();
+        long key = packedKey(chr, position, ref, alt);
+        if (!bloomFilter.mightContain(key)) {
+            return false;
+        }
+        if ((key & HASHED_ALLELES_FLAG) == 0) {
+            return Arrays.binarySearch(snvKeys, key) >= 0;
+        }
+        return containsHashed(key, ref, alt);
+    }
+
+    private boolean containsHashed(long key, String ref, String alt) {
+        int index = Arrays.binarySearch(hashedKeys, key);
+        if (index < 0) {
+            return false;
+        }
+        // binarySearch returns any one of the matching keys, so check all the alleles with the same key
+        int first = index;
+        while (first > 0 && hashedKeys[first - 1] == key) {
+            first--;
+        }
+        for (int i = first; i < hashedKeys.length && hashedKeys[i] == key; i++) {
+            if (hashedRefs[i].equals(ref) && hashedAlts[i].equals(alt)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return snvKeys.length + hashedKeys.length;
+    }
+
+    private static long packedKey(int chr, int position, String ref, String alt) {
+        long prefix = ((long) chr & 0xFF) << CHR_SHIFT | ((long) position & 0xFFFFFFFFL) << POSITION_SHIFT;
+        int refCode = baseCode(ref);
+        int altCode = baseCode(alt);
+        if (refCode >= 0 && altCode >= 0) {
+            return prefix | refCode << 2 | altCode;
+        }
+        int hash = 31 * ref.hashCode() + alt.hashCode();
+        return prefix | HASHED_ALLELES_FLAG | (hash & HASH_MASK);
+    }
+
+    private static int baseCode(String allele) {
+        if (allele.length() != 1) {
+            return -1;
+        }
+        switch (allele.charAt(0)) {
+            case 'A':
+                return 0;
+            case 'C':
+                return 1;
+            case 'G':
+                return 2;
+            case 'T':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Writes the whitelist in a compact binary format which can be read using {@link #read(InputStream)} much faster
+     * than parsing the original whitelist file. The stream is not closed.
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(snvKeys.length);
+        for (long key : snvKeys) {
+            output.writeLong(key);
+        }
+        output.writeInt(hashedKeys.length);
+        for (int i = 0; i < hashedKeys.length; i++) {
+            output.writeLong(hashedKeys[i]);
+            writeString(output, hashedRefs[i]);
+            writeString(output, hashedAlts[i]);
+        }
+        output.flush();
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a whitelist written by {@link #write(OutputStream)}. The stream is not closed.
+     *
+     * @throws IOException if the stream does not contain a whitelist in the expected format
+     */
+    public static InMemoryVariantWhiteList read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(inputStream);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a binary variant whitelist");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary variant whitelist version " + version);
+        }
+        long[] snvKeys = new long[input.readInt()];
+        for (int i = 0; i < snvKeys.length; i++) {
+            snvKeys[i] = input.readLong();
+        }
+        int numHashed = input.readInt();
+        long[] hashedKeys = new long[numHashed];
+        String[] hashedRefs = new String[numHashed];
+        String[] hashedAlts = new String[numHashed];
+        for (int i = 0; i < numHashed; i++) {
+            hashedKeys[i] = input.readLong();
+            hashedRefs[i] = readString(input);
+            hashedAlts[i] = readString(input);
+        }
+        if (snvKeys.length == 0 && numHashed == 0) {
+            return EMPTY;
+        }
+        return new InMemoryVariantWhiteList(snvKeys, hashedKeys, hashedRefs, hashedAlts);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
     @Override
     public String toString() {
         return "InMemoryVariantWhiteList{" +
-                "whiteList=" + whiteList +
+                "snvs=" + snvKeys.length +
+                ", otherAlleles=" + hashedKeys.length +
                 '}';
     }
 
-    private static class EmptyVariantWhiteList implements VariantWhiteList {
+    /**
+     * Collects the whitelisted alleles without creating an object per allele.
+     */
+    public static class Builder {
+
+        private long[] snvKeys = new long[1024];
+        private int numSnvs = 0;
+        private final List<HashedAllele> hashedAlleles = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(int chr, int position, String ref, String alt) {
+            long key = packedKey(chr, position, ref, alt);
+            if ((key & HASHED_ALLELES_FLAG) == 0) {
+                if (numSnvs == snvKeys.length) {
+                    snvKeys = Arrays.copyOf(snvKeys, numSnvs * 2);
+                }
+                snvKeys[numSnvs++] = key;
+            } else {
+                hashedAlleles.add(new HashedAllele(key, ref, alt));
+            }
+            return this;
+        }
+
+        public InMemoryVariantWhiteList build() {
+            long[] sortedSnvKeys = Arrays.copyOf(snvKeys, numSnvs);
+            Arrays.sort(sortedSnvKeys);
+            long[] distinctSnvKeys = Arrays.stream(sortedSnvKeys).distinct().toArray();
+
+            hashedAlleles.sort(Comparator.comparingLong((HashedAllele allele) -> allele.key)
+                    .thenComparing(allele -> allele.ref)
+                    .thenComparing(allele -> allele.alt));
+            List<HashedAllele> distinctHashedAlleles = new ArrayList<>(hashedAlleles.size());
+            for (HashedAllele allele : hashedAlleles) {
+                if (distinctHashedAlleles.isEmpty() || !allele.equals(distinctHashedAlleles.get(distinctHashedAlleles.size() - 1))) {
+                    distinctHashedAlleles.add(allele);
+                }
+            }
+            if (distinctSnvKeys.length == 0 && distinctHashedAlleles.isEmpty()) {
+                return EMPTY;
+            }
+
+            int numHashed = distinctHashedAlleles.size();
+            long[] hashedKeys = new long[numHashed];
+            String[] hashedRefs = new String[numHashed];
+            String[] hashedAlts = new String[numHashed];
+            for (int i = 0; i < numHashed; i++) {
+                HashedAllele allele = distinctHashedAlleles.get(i);
+                hashedKeys[i] = allele.key;
+                hashedRefs[i] = allele.ref;
+                hashedAlts[i] = allele.alt;
+            }
+            return new InMemoryVariantWhiteList(distinctSnvKeys, hashedKeys, hashedRefs, hashedAlts);
+        }
+    }
+
+    private static class HashedAllele {
+
+        private final long key;
+        private final String ref;
+        private final String alt;
+
+        private HashedAllele(long key, String ref, String alt) {
+            this.key = key;
+            this.ref = ref;
+            this.alt = alt;
+        }
 
         @Override
-        public boolean contains(Variant variant) {
-            return false;
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            HashedAllele that = (HashedAllele) o;
+            return key == that.key && ref.equals(that.ref) && alt.equals(that.alt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, ref, alt);
+        }
+    }
+
+    /**
+     * A Bloom filter of the packed keys using about ten bits per key and six hash functions, giving a false
+     * positive rate of around 1%. False positives are resolved by the exact search of the key arrays.
+     */
+    private static class BloomFilter {
+
+        private static final int NUM_HASHES = 6;
+
+        private final long[] bits;
+        private final long mask;
+
+        private BloomFilter(int expectedEntries) {
+            long numBits = Long.highestOneBit(Math.max(64L, expectedEntries * 10L - 1)) << 1;
+            this.bits = new long[(int) (numBits >>> 6)];
+            this.mask = numBits - 1;
+        }
+
+        private void add(long key) {
+            long hash = mix(key);
+            int hash1 = (int) hash;
+            int hash2 = (int) (hash >>> 32);
+            for (int i = 0; i < NUM_HASHES; i++) {
+                long bit = (hash1 + (long) i * hash2) & mask;
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        private boolean mightContain(long key) {
+            long hash = mix(key);
+            int hash1 = (int) hash;
+            int hash2 = (int) (hash >>> 32);
+            for (int i = 0; i < NUM_HASHES; i++) {
+                long bit = (hash1 + (long) i * hash2) & mask;
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // the finaliser from MurmurHash3 to spread the bits of the structured keys
+        private static long mix(long key) {
+            long hash = key;
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
         }
     }
 
@@ -118,6 +118,18 @@ public List<T> getRegionsOverlappingPosition(int chromosome, int position) {
         return queryResult.getEntries();
     }
 
+    /**
+     * Returns all the regions stored in the index, ordered by chromosome and start position.
+     *
+     * @return a list of all the regions in the index.
+     * @since 12.1.0
+     */
+    public List<T> getRegions() {
+        List<T> regions = new ArrayList<>(size());
+        new TreeMap<>(index).values().forEach(intervalArray -> intervalArray.getIntervals().forEach(interval -> regions.add(interval.getValue())));
+        return regions;
+    }
+
     /**
      * Returns the number of intervals stored in the index.
      * @return the number of intervals stored in the index.
@@ -0,0 +1,110 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.model;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable list of {@link TranscriptAnnotation} which are only built from their source annotations when an element is
+ * first requested. Building the HGVS strings for every transcript of every variant is costly and most variants are
+ * removed by the filters before their transcript annotations are ever read. The size of the list is known without
+ * building the elements, so {@link #isEmpty()} is cheap. Once built, the source annotations are released.
+ *
+ * @param <T> the type of the source annotation, for example a Jannovar {@code Annotation}
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public final class LazyTranscriptAnnotations<T> extends AbstractList<TranscriptAnnotation> {
+
+    private final int size;
+    private List<T> sourceAnnotations;
+    private Function<T, TranscriptAnnotation> converter;
+
+    private volatile List<TranscriptAnnotation> transcriptAnnotations;
+
+    private LazyTranscriptAnnotations(List<T> sourceAnnotations, Function<T, TranscriptAnnotation> converter) {
+        this.size = sourceAnnotations.size();
+        this.sourceAnnotations = sourceAnnotations;
+        this.converter = converter;
+    }
+
+    public static <T> List<TranscriptAnnotation> of(List<T> sourceAnnotations, Function<T, TranscriptAnnotation> converter) {
+        Objects.requireNonNull(sourceAnnotations);
+        Objects.requireNonNull(converter);
+        if (sourceAnnotations.isEmpty()) {
+            return ImmutableList.of();
+        }
+        return new LazyTranscriptAnnotations<>(sourceAnnotations, converter);
+    }
+
+    /**
+     * Returns an immutable copy of the annotations without building the elements of a lazy list.
+     */
+    static List<TranscriptAnnotation> immutableCopyOf(List<TranscriptAnnotation> annotations) {
+        if (annotations instanceof LazyTranscriptAnnotations) {
+            return annotations;
+        }
+        return ImmutableList.copyOf(annotations);
+    }
+
+    /**
+     * @return true if the {@link TranscriptAnnotation} have been built from the source annotations.
+     */
+    public boolean isMaterialised() {
+        return transcriptAnnotations != null;
+    }
+
+    private List<TranscriptAnnotation> transcriptAnnotations() {
+        List<TranscriptAnnotation> result = transcriptAnnotations;
+        if (result == null) {
+            synchronized (this) {
+                result = transcriptAnnotations;
+                if (result == null) {
+                    ImmutableList.Builder<TranscriptAnnotation> builder = ImmutableList.builder();
+                    for (T sourceAnnotation : sourceAnnotations) {
+                        builder.add(converter.apply(sourceAnnotation));
+                    }
+                    result = builder.build();
+                    transcriptAnnotations = result;
+                    sourceAnnotations = null;
+                    converter = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public TranscriptAnnotation get(int index) {
+        return transcriptAnnotations().get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -58,7 +58,7 @@ private VariantAnnotation(Builder builder) {
         this.geneSymbol = builder.geneSymbol;
         this.geneId = builder.geneId;
         this.variantEffect = builder.variantEffect;
-        this.annotations = ImmutableList.copyOf(builder.annotations);
+        this.annotations = LazyTranscriptAnnotations.immutableCopyOf(builder.annotations);
     }
 
     public GenomeAssembly getGenomeAssembly() {
@@ -23,7 +23,6 @@
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
@@ -111,7 +110,7 @@ private VariantEvaluation(Builder builder) {
         this.id = builder.id;
         phredScore = builder.phredScore;
         variantEffect = builder.variantEffect;
-        annotations = ImmutableList.copyOf(builder.annotations);
+        annotations = LazyTranscriptAnnotations.immutableCopyOf(builder.annotations);
         geneSymbol = builder.geneSymbol;
         geneId = builder.geneId;
 
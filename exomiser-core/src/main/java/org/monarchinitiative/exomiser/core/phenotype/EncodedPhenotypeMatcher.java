@@ -0,0 +1,155 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.phenotype;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.*;
+
+/**
+ * Holds the matches of a {@link PhenotypeMatcher} in primitive arrays, where the model phenotypes are represented by the
+ * integer codes assigned to them in a {@link ModelIndex}. This replaces the string concatenation and map lookup made
+ * for each pair of query and model phenotypes with an array lookup, so that scoring many models for the same query is
+ * much cheaper. The results are identical to those of {@link CrossSpeciesPhenotypeMatcher#matchPhenotypeIds(List)}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class EncodedPhenotypeMatcher {
+
+    private final int numQueryPhenotypes;
+    // model phenotype code -> row of the score and match arrays, or -1 if there is no match for the phenotype
+    private final int[] rowForCode;
+    // row * numQueryPhenotypes + query phenotype index. A score of zero is stored where there is no match.
+    private final double[] scores;
+    private final PhenotypeMatch[] matches;
+
+    EncodedPhenotypeMatcher(PhenotypeMatcher phenotypeMatcher, Map<String, Integer> phenotypeCodes) {
+        // the query phenotypes are matched in order of their id, as in the CrossSpeciesPhenotypeMatcher
+        List<String> queryPhenotypeIds = new ArrayList<>(new TreeSet<>(bestMatchQueryPhenotypeIds(phenotypeMatcher)));
+        Map<String, Integer> queryIndex = new HashMap<>();
+        for (int i = 0; i < queryPhenotypeIds.size(); i++) {
+            queryIndex.put(queryPhenotypeIds.get(i), i);
+        }
+        this.numQueryPhenotypes = queryPhenotypeIds.size();
+
+        // all matched model phenotypes are counted as matching, even when the query phenotype has no best match
+        this.rowForCode = new int[phenotypeCodes.size()];
+        Arrays.fill(rowForCode, -1);
+        List<PhenotypeMatch> allMatches = new ArrayList<>();
+        int numRows = 0;
+        for (Set<PhenotypeMatch> termMatches : phenotypeMatcher.getTermPhenotypeMatches().values()) {
+            for (PhenotypeMatch match : termMatches) {
+                Integer code = phenotypeCodes.get(match.getMatchPhenotypeId());
+                if (code != null) {
+                    if (rowForCode[code] == -1) {
+                        rowForCode[code] = numRows++;
+                    }
+                    allMatches.add(match);
+                }
+            }
+        }
+
+        this.scores = new double[numRows * numQueryPhenotypes];
+        this.matches = new PhenotypeMatch[numRows * numQueryPhenotypes];
+        for (PhenotypeMatch match : allMatches) {
+            Integer queryPosition = queryIndex.get(match.getQueryPhenotypeId());
+            if (queryPosition != null) {
+                int index = rowForCode[phenotypeCodes.get(match.getMatchPhenotypeId())] * numQueryPhenotypes + queryPosition;
+                scores[index] = match.getScore();
+                matches[index] = match;
+            }
+        }
+    }
+
+    private static Set<String> bestMatchQueryPhenotypeIds(PhenotypeMatcher phenotypeMatcher) {
+        Set<String> queryPhenotypeIds = new HashSet<>();
+        for (PhenotypeMatch bestMatch : phenotypeMatcher.getBestPhenotypeMatches()) {
+            queryPhenotypeIds.add(bestMatch.getQueryPhenotypeId());
+        }
+        return queryPhenotypeIds;
+    }
+
+    /**
+     * @param phenotypeCodes the codes of the model phenotypes
+     * @param phenotypeIds   the ids of the model phenotypes, in the same order as the codes
+     */
+    PhenodigmMatchRawScore matchPhenotypeCodes(int[] phenotypeCodes, List<String> phenotypeIds) {
+        int[] matchedRows = new int[phenotypeCodes.length];
+        List<String> matchedModelPhenotypeIds = new ArrayList<>();
+        int numMatched = 0;
+        for (int i = 0; i < phenotypeCodes.length; i++) {
+            int row = rowForCode[phenotypeCodes[i]];
+            if (row != -1) {
+                matchedRows[numMatched++] = row;
+                matchedModelPhenotypeIds.add(phenotypeIds.get(i));
+            }
+        }
+
+        double maxModelMatchScore = 0;
+        double sumModelBestMatchScores = 0;
+        Map<PhenotypeTerm, PhenotypeMatch> bestPhenotypeMatchForTerms = new LinkedHashMap<>();
+
+        // forward hp-mp scores
+        for (int q = 0; q < numQueryPhenotypes; q++) {
+            double bestMatchScore = 0;
+            for (int m = 0; m < numMatched; m++) {
+                int index = matchedRows[m] * numQueryPhenotypes + q;
+                double matchScore = scores[index];
+                bestMatchScore = Math.max(matchScore, bestMatchScore);
+                if (matchScore > 0) {
+                    addMatchIfAbsentOrBetterThanCurrent(matches[index], bestPhenotypeMatchForTerms);
+                }
+            }
+            if (bestMatchScore > 0) {
+                sumModelBestMatchScores += bestMatchScore;
+                maxModelMatchScore = Math.max(bestMatchScore, maxModelMatchScore);
+            }
+        }
+        // reciprocal mp-hp scores
+        for (int m = 0; m < numMatched; m++) {
+            int rowStart = matchedRows[m] * numQueryPhenotypes;
+            double bestMatchScore = 0;
+            for (int q = 0; q < numQueryPhenotypes; q++) {
+                double matchScore = scores[rowStart + q];
+                bestMatchScore = Math.max(matchScore, bestMatchScore);
+                if (matchScore > 0) {
+                    addMatchIfAbsentOrBetterThanCurrent(matches[rowStart + q], bestPhenotypeMatchForTerms);
+                }
+            }
+            if (bestMatchScore > 0) {
+                sumModelBestMatchScores += bestMatchScore;
+                maxModelMatchScore = Math.max(bestMatchScore, maxModelMatchScore);
+            }
+        }
+
+        return new PhenodigmMatchRawScore(maxModelMatchScore, sumModelBestMatchScores, matchedModelPhenotypeIds, ImmutableList
+                .copyOf(bestPhenotypeMatchForTerms.values()));
+    }
+
+    private void addMatchIfAbsentOrBetterThanCurrent(PhenotypeMatch match, Map<PhenotypeTerm, PhenotypeMatch> bestPhenotypeMatchForTerms) {
+        PhenotypeTerm matchQueryTerm = match.getQueryPhenotype();
+        PhenotypeMatch currentBest = bestPhenotypeMatchForTerms.get(matchQueryTerm);
+        if (currentBest == null || currentBest.getScore() < match.getScore()) {
+            bestPhenotypeMatchForTerms.put(matchQueryTerm, match);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.phenotype;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Index of a set of {@link Model} grouped by a key, such as the Entrez gene id of a gene model. The phenotype ids of
+ * each model are encoded once as an array of integers, so that only the models for the keys of interest need to be
+ * scored for a query and these can be scored using primitive arrays. An index is intended to be built once for all the
+ * models of an organism and shared between analyses.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class ModelIndex<T extends Model> {
+
+    private final Map<String, Integer> phenotypeCodes;
+    private final Map<Integer, List<EncodedModel<T>>> modelsByKey;
+    private final int numModels;
+
+    private ModelIndex(Map<String, Integer> phenotypeCodes, Map<Integer, List<EncodedModel<T>>> modelsByKey, int numModels) {
+        this.phenotypeCodes = phenotypeCodes;
+        this.modelsByKey = modelsByKey;
+        this.numModels = numModels;
+    }
+
+    public static <T extends Model> ModelIndex<T> of(Collection<T> models, Function<T, Integer> keyFunction) {
+        Map<String, Integer> phenotypeCodes = new HashMap<>();
+        Map<Integer, List<EncodedModel<T>>> modelsByKey = new HashMap<>();
+        for (T model : models) {
+            List<String> phenotypeIds = model.getPhenotypeIds();
+            int[] codes = new int[phenotypeIds.size()];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = phenotypeCodes.computeIfAbsent(phenotypeIds.get(i), id -> phenotypeCodes.size());
+            }
+            modelsByKey.computeIfAbsent(keyFunction.apply(model), key -> new ArrayList<>()).add(new EncodedModel<>(model, codes));
+        }
+        return new ModelIndex<>(ImmutableMap.copyOf(phenotypeCodes), ImmutableMap.copyOf(modelsByKey), models.size());
+    }
+
+    /**
+     * @return the total number of models in the index
+     */
+    public int size() {
+        return numModels;
+    }
+
+    public List<T> getModels(Integer key) {
+        return modelsByKey.getOrDefault(key, Collections.emptyList()).stream()
+                .map(encodedModel -> encodedModel.model)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Scores only the models for the given keys. The scores are identical to those from calling
+     * {@link PhenodigmModelScorer#scoreModel(Model)} on each of these models.
+     *
+     * @param keys        the keys of the models to be scored
+     * @param modelScorer the scorer for the query phenotypes against the organism of the models
+     * @return the scored models for the keys, which may be empty if there are no models for any of the keys
+     */
+    public List<ModelPhenotypeMatch<T>> scoreModels(Collection<Integer> keys, PhenodigmModelScorer<T> modelScorer) {
+        List<EncodedModel<T>> modelsToScore = new ArrayList<>();
+        for (Integer key : keys) {
+            modelsToScore.addAll(modelsByKey.getOrDefault(key, Collections.emptyList()));
+        }
+        if (modelsToScore.isEmpty()) {
+            return Collections.emptyList();
+        }
+        EncodedPhenotypeMatcher encodedPhenotypeMatcher = new EncodedPhenotypeMatcher(modelScorer.getOrganismPhenotypeMatcher(), phenotypeCodes);
+        return modelsToScore.parallelStream()
+                .map(encodedModel -> {
+                    T model = encodedModel.model;
+                    PhenodigmMatchRawScore rawModelScore = encodedPhenotypeMatcher.matchPhenotypeCodes(encodedModel.phenotypeCodes, model.getPhenotypeIds());
+                    return modelScorer.scoreModel(model, rawModelScore);
+                })
+                .collect(toList());
+    }
+
+    private static class EncodedModel<T extends Model> {
+        private final T model;
+        private final int[] phenotypeCodes;
+
+        private EncodedModel(T model, int[] phenotypeCodes) {
+            this.model = model;
+            this.phenotypeCodes = phenotypeCodes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ModelIndex{" +
+                "keys=" + modelsByKey.size() +
+                ", models=" + numModels +
+                ", phenotypes=" + phenotypeCodes.size() +
+                '}';
+    }
+}
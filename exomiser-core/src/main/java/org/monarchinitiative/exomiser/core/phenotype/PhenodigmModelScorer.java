@@ -131,10 +131,18 @@ private void logOrganismPhenotypeMatches() {
     @Override
     public ModelPhenotypeMatch<T> scoreModel(T model) {
         PhenodigmMatchRawScore rawModelScore = organismPhenotypeMatcher.matchPhenotypeIds(model.getPhenotypeIds());
+        return scoreModel(model, rawModelScore);
+    }
+
+    ModelPhenotypeMatch<T> scoreModel(T model, PhenodigmMatchRawScore rawModelScore) {
         double score = calculateCombinedScore(rawModelScore);
         return ModelPhenotypeMatch.of(score, model, rawModelScore.getBestPhenotypeMatches());
     }
 
+    PhenotypeMatcher getOrganismPhenotypeMatcher() {
+        return organismPhenotypeMatcher;
+    }
+
     private double calculateCombinedScore(PhenodigmMatchRawScore rawModelScore) {
         double maxModelMatchScore = rawModelScore.getMaxModelMatchScore();
         double sumModelBestMatchScores = rawModelScore.getSumModelBestMatchScores();
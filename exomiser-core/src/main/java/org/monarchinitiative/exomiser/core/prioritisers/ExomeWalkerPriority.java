@@ -24,6 +24,7 @@
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrix;
 import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrixIO;
+import org.monarchinitiative.exomiser.core.prioritisers.util.SparseRandomWalkDataMatrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -149,6 +150,11 @@ public PriorityType getPriorityType() {
      * seed genes given by the user.
      */
     private void computeDistanceAllNodesFromStartNodes() {
+        if (randomWalkMatrix instanceof SparseRandomWalkDataMatrix && !seedGenes.isEmpty()) {
+            // the walk is linear in the seeds, so one walk from all the seeds is the sum of the walks from each seed
+            combinedProximityVector = ((SparseRandomWalkDataMatrix) randomWalkMatrix).randomWalkWithRestart(seedGenes);
+            return;
+        }
         boolean first = true;
         for (Integer seedGeneEntrezId : seedGenes) {
             if (!randomWalkMatrix.containsGene(seedGeneEntrezId)) {
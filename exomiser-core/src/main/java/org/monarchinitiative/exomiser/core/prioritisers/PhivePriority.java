@@ -84,11 +84,7 @@ public Stream<PhivePriorityResult> prioritise(List<String> hpoIds, List<Gene> ge
 
         Set<Integer> wantedGeneIds = genes.stream().map(Gene::getEntrezGeneID).collect(ImmutableSet.toImmutableSet());
 
-        Set<GeneModel> modelsToScore = priorityService.getModelsForOrganism(Organism.MOUSE).stream()
-                .filter(model -> wantedGeneIds.contains(model.getEntrezGeneId()))
-                .collect(ImmutableSet.toImmutableSet());
-
-        List<GeneModelPhenotypeMatch> scoredModels = scoreModels(humanMousePhenotypeMatcher, modelsToScore);
+        List<GeneModelPhenotypeMatch> scoredModels = scoreModels(humanMousePhenotypeMatcher, wantedGeneIds);
 
         //n.b. this will contain models but with a phenotype score of zero
         Map<Integer, Optional<GeneModelPhenotypeMatch>> geneModelPhenotypeMatches = scoredModels.parallelStream()
@@ -111,21 +107,21 @@ private Function<GeneModelPhenotypeMatch, PhivePriorityResult> makeModelPhivePri
         return modelPhenotypeMatch -> new PhivePriorityResult(modelPhenotypeMatch.getEntrezGeneId(), modelPhenotypeMatch.getHumanGeneSymbol(), modelPhenotypeMatch.getScore(), modelPhenotypeMatch);
     }
 
-    private List<GeneModelPhenotypeMatch> scoreModels(PhenotypeMatcher organismPhenotypeMatcher, Collection<GeneModel> models) {
+    private List<GeneModelPhenotypeMatch> scoreModels(PhenotypeMatcher organismPhenotypeMatcher, Set<Integer> wantedGeneIds) {
         Organism organism = organismPhenotypeMatcher.getOrganism();
 
-        ModelScorer<GeneModel> modelScorer = PhenodigmModelScorer.forSingleCrossSpecies(organismPhenotypeMatcher);
+        PhenodigmModelScorer<GeneModel> modelScorer = PhenodigmModelScorer.forSingleCrossSpecies(organismPhenotypeMatcher);
+        //the index is only built once per organism, so only the models for the wanted genes are touched here
+        ModelIndex<GeneModel> modelIndex = priorityService.getModelIndexForOrganism(organism);
 
         logger.info("Scoring {} models", organism);
         Instant timeStart = Instant.now();
-        //running this in parallel here can cut the overall time for this method in half or better - ~650ms -> ~350ms on Pfeiffer test set.
-        List<GeneModelPhenotypeMatch> geneModelPhenotypeMatches = models.parallelStream()
-                .map(modelScorer::scoreModel)
+        List<GeneModelPhenotypeMatch> geneModelPhenotypeMatches = modelIndex.scoreModels(wantedGeneIds, modelScorer).stream()
                 .map(GeneModelPhenotypeMatch::new)
                 .collect(toList());
 
         Duration duration = Duration.between(timeStart, Instant.now());
-        logger.info("Scored {} {} models - {} ms", models.size(), organism, duration.toMillis());
+        logger.info("Scored {} {} models - {} ms", geneModelPhenotypeMatches.size(), organism, duration.toMillis());
         return geneModelPhenotypeMatches;
     }
 
@@ -26,6 +26,7 @@
 package org.monarchinitiative.exomiser.core.prioritisers.service;
 
 import com.google.common.collect.ImmutableList;
+import org.monarchinitiative.exomiser.core.phenotype.ModelIndex;
 import org.monarchinitiative.exomiser.core.phenotype.Organism;
 import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatchService;
 import org.monarchinitiative.exomiser.core.phenotype.PhenotypeMatcher;
@@ -41,6 +42,8 @@
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service class which offers a single interface to other services required by
@@ -57,6 +60,8 @@ public class PriorityService {
     private final PhenotypeMatchService phenotypeMatchService;
     private final DiseaseDao diseaseDao;
 
+    private final Map<Organism, ModelIndex<GeneModel>> modelIndexes = new ConcurrentHashMap<>();
+
     @Autowired
     public PriorityService(ModelService modelService, PhenotypeMatchService phenotypeMatchService, DiseaseDao diseaseDao) {
         this.modelService = modelService;
@@ -103,6 +108,23 @@ public List<GeneModel> getModelsForOrganism(Organism species) {
         }
     }
 
+    /**
+     * Returns an index of the models for the organism keyed by their Entrez gene id. This is built once on the first
+     * request for each organism and is re-used for the lifetime of this service.
+     *
+     * @param species the organism of the models to be indexed
+     * @return an index of the models for the organism
+     * @since 12.1.0
+     */
+    public ModelIndex<GeneModel> getModelIndexForOrganism(Organism species) {
+        return modelIndexes.computeIfAbsent(species, organism -> {
+            List<GeneModel> models = getModelsForOrganism(organism);
+            ModelIndex<GeneModel> modelIndex = ModelIndex.of(models, GeneModel::getEntrezGeneId);
+            logger.debug("Built {} model index {}", organism, modelIndex);
+            return modelIndex;
+        });
+    }
+
     public List<Disease> getDiseaseDataAssociatedWithGeneId(int geneId) {
         return diseaseDao.getDiseaseDataAssociatedWithGeneId(geneId);
     }
@@ -137,6 +137,36 @@ public static DataMatrix loadInMemoryDataMatrixFromFile(String matrixFileZip, St
         return new InMemoryDataMatrix(floatMatrix, index);
     }
 
+    /**
+     * Loads a {@link SparseRandomWalkDataMatrix} from a gzipped, tab-delimited file of gene interactions. Each line
+     * contains the entrez gene ids of the two interacting genes followed by an optional interaction weight, e.g. the
+     * STRING combined score, which defaults to 1. This requires a fraction of the memory of the dense matrix as the
+     * columns of the random walk matrix are computed when required.
+     *
+     * @param interactionsFileZip   a {@code String} containing the full system path to the gzipped interactions file.
+     * @param restartProbability    the probability of the walk restarting from the seed genes at each step
+     * @param convergenceThreshold  the L1 change between iterations below which a walk is considered to have converged
+     * @return a sparse instance of the {@code DataMatrix)
+     * @since 12.1.0
+     */
+    public static SparseRandomWalkDataMatrix loadSparseRandomWalkDataMatrix(String interactionsFileZip, double restartProbability, double convergenceThreshold) {
+        logger.debug("Loading sparse PPI network from file...");
+        SparseRandomWalkDataMatrix.Builder builder = SparseRandomWalkDataMatrix.builder()
+                .restartProbability(restartProbability)
+                .convergenceThreshold(convergenceThreshold);
+        try (BufferedReader reader = gzippedFileBufferedReader(new File(interactionsFileZip))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(TAB_DELIMITER);
+                double weight = fields.length > 2 ? Double.parseDouble(fields[2]) : 1;
+                builder.addInteraction(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), weight);
+            }
+        } catch (IOException e) {
+            throw new DataMatrixIoException(e);
+        }
+        return builder.build();
+    }
+
     private static Map<Integer, Integer> createIndex(String object2idxFileZip) {
         Map<Integer, Integer> index = new HashMap<>();
         File indexFile = new File(object2idxFileZip);
@@ -0,0 +1,329 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.prioritisers.util;
+
+import com.google.common.collect.ImmutableMap;
+import org.jblas.FloatMatrix;
+
+import java.util.*;
+
+/**
+ * {@link DataMatrix} which holds only the sparse protein-protein interaction network, in compressed sparse row (CSR)
+ * form, rather than the precomputed dense random walk matrix. The column for a gene is computed when requested as the
+ * random walk with restart from that gene, using power iteration until the L1 change between iterations falls below
+ * the convergence threshold. The converged column is the same as the column of the dense matrix
+ * r(I - (1 - r)W)<sup>-1</sup>, where W is the column-normalised adjacency matrix and r the restart probability.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class SparseRandomWalkDataMatrix implements DataMatrix {
+
+    public static final double DEFAULT_RESTART_PROBABILITY = 0.7;
+    public static final double DEFAULT_CONVERGENCE_THRESHOLD = 1e-6;
+
+    private static final int MAX_ITERATIONS = 1000;
+
+    private final Map<Integer, Integer> entrezIdToRowIndex;
+    private final double restartProbability;
+    private final double convergenceThreshold;
+
+    // CSR form of W - the neighbours of row i are columnIndices[rowPointers[i]] until columnIndices[rowPointers[i + 1]]
+    private final int[] rowPointers;
+    private final int[] columnIndices;
+    private final double[] values;
+
+    private SparseRandomWalkDataMatrix(Map<Integer, Integer> entrezIdToRowIndex, int[] rowPointers, int[] columnIndices, double[] values, double restartProbability, double convergenceThreshold) {
+        this.entrezIdToRowIndex = entrezIdToRowIndex;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+        this.restartProbability = restartProbability;
+        this.convergenceThreshold = convergenceThreshold;
+    }
+
+    @Override
+    public Map<Integer, Integer> getEntrezIdToRowIndex() {
+        return entrezIdToRowIndex;
+    }
+
+    /**
+     * Computes the full random walk matrix. This is as large as the dense matrix, so should only be used for small
+     * networks.
+     */
+    @Override
+    public FloatMatrix getMatrix() {
+        int size = numRows();
+        FloatMatrix matrix = new FloatMatrix(size, size);
+        for (int column = 0; column < size; column++) {
+            double[] restartVector = new double[size];
+            restartVector[column] = 1;
+            matrix.putColumn(column, toColumnMatrix(randomWalk(restartVector)));
+        }
+        return matrix;
+    }
+
+    @Override
+    public int numRows() {
+        return rowPointers.length - 1;
+    }
+
+    @Override
+    public int numColumns() {
+        return numRows();
+    }
+
+    @Override
+    public boolean containsGene(Integer entrezGeneId) {
+        return entrezIdToRowIndex.containsKey(entrezGeneId);
+    }
+
+    @Override
+    public Integer getRowIndexForGene(int entrezGeneId) {
+        return entrezIdToRowIndex.get(entrezGeneId);
+    }
+
+    @Override
+    public FloatMatrix getColumnMatrixForGene(int entrezGeneId) {
+        Integer rowIndex = entrezIdToRowIndex.get(entrezGeneId);
+        if (rowIndex == null) {
+            return null;
+        }
+        return randomWalkWithRestart(Collections.singletonList(entrezGeneId));
+    }
+
+    /**
+     * Computes the random walk with restart from the seed genes in a single walk. As the walk is linear in the restart
+     * vector, this is the sum of the columns for each of the seed genes contained in the network.
+     *
+     * @param entrezSeedGeneIds the entrez gene identifiers of the seed genes
+     * @return the column of the proximity of every gene in the network to the seed genes
+     */
+    public FloatMatrix randomWalkWithRestart(Collection<Integer> entrezSeedGeneIds) {
+        double[] restartVector = new double[numRows()];
+        for (Integer entrezGeneId : entrezSeedGeneIds) {
+            Integer rowIndex = entrezIdToRowIndex.get(entrezGeneId);
+            if (rowIndex != null) {
+                restartVector[rowIndex] += 1;
+            }
+        }
+        return toColumnMatrix(randomWalk(restartVector));
+    }
+
+    private double[] randomWalk(double[] restartVector) {
+        int size = restartVector.length;
+        double[] current = restartVector.clone();
+        double[] next = new double[size];
+        double walkProbability = 1 - restartProbability;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double change = 0;
+            for (int row = 0; row < size; row++) {
+                double sum = 0;
+                for (int k = rowPointers[row]; k < rowPointers[row + 1]; k++) {
+                    sum += values[k] * current[columnIndices[k]];
+                }
+                next[row] = walkProbability * sum + restartProbability * restartVector[row];
+                change += Math.abs(next[row] - current[row]);
+            }
+            double[] previous = current;
+            current = next;
+            next = previous;
+            if (change < convergenceThreshold) {
+                break;
+            }
+        }
+        return current;
+    }
+
+    private static FloatMatrix toColumnMatrix(double[] vector) {
+        FloatMatrix column = new FloatMatrix(vector.length, 1);
+        for (int i = 0; i < vector.length; i++) {
+            column.put(i, (float) vector[i]);
+        }
+        return column;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SparseRandomWalkDataMatrix)) return false;
+        SparseRandomWalkDataMatrix that = (SparseRandomWalkDataMatrix) o;
+        return Double.compare(that.restartProbability, restartProbability) == 0 &&
+                Double.compare(that.convergenceThreshold, convergenceThreshold) == 0 &&
+                Objects.equals(entrezIdToRowIndex, that.entrezIdToRowIndex) &&
+                Arrays.equals(rowPointers, that.rowPointers) &&
+                Arrays.equals(columnIndices, that.columnIndices) &&
+                Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(entrezIdToRowIndex, restartProbability, convergenceThreshold);
+        result = 31 * result + Arrays.hashCode(rowPointers);
+        result = 31 * result + Arrays.hashCode(columnIndices);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SparseRandomWalkDataMatrix{" +
+                "genes=" + numRows() +
+                ", interactions=" + columnIndices.length +
+                ", restartProbability=" + restartProbability +
+                ", convergenceThreshold=" + convergenceThreshold +
+                '}';
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        // both directions of each interaction, in the order these were added
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private double[] weights = new double[1024];
+        private int numEdges = 0;
+        private double restartProbability = DEFAULT_RESTART_PROBABILITY;
+        private double convergenceThreshold = DEFAULT_CONVERGENCE_THRESHOLD;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an undirected interaction between the two genes. Repeated interactions between the same genes have
+         * their weights summed.
+         */
+        public Builder addInteraction(int entrezIdA, int entrezIdB, double weight) {
+            addEdge(entrezIdA, entrezIdB, weight);
+            if (entrezIdA != entrezIdB) {
+                addEdge(entrezIdB, entrezIdA, weight);
+            }
+            return this;
+        }
+
+        private void addEdge(int source, int target, double weight) {
+            if (numEdges == sources.length) {
+                int capacity = numEdges * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[numEdges] = source;
+            targets[numEdges] = target;
+            weights[numEdges] = weight;
+            numEdges++;
+        }
+
+        public Builder restartProbability(double restartProbability) {
+            if (restartProbability <= 0 || restartProbability > 1) {
+                throw new IllegalArgumentException("restartProbability must be in the range (0, 1]. Got " + restartProbability);
+            }
+            this.restartProbability = restartProbability;
+            return this;
+        }
+
+        public Builder convergenceThreshold(double convergenceThreshold) {
+            if (convergenceThreshold <= 0) {
+                throw new IllegalArgumentException("convergenceThreshold must be greater than 0. Got " + convergenceThreshold);
+            }
+            this.convergenceThreshold = convergenceThreshold;
+            return this;
+        }
+
+        public SparseRandomWalkDataMatrix build() {
+            // genes are indexed in entrez id order. Every gene is the source of an edge, as both directions are added.
+            int[] entrezIds = distinctSorted(Arrays.copyOf(sources, numEdges));
+            int size = entrezIds.length;
+
+            // bucket the edges by source row, then sort each row by target column
+            int[] rowPointers = new int[size + 1];
+            int[] edgeRows = new int[numEdges];
+            for (int edge = 0; edge < numEdges; edge++) {
+                int row = Arrays.binarySearch(entrezIds, sources[edge]);
+                edgeRows[edge] = row;
+                rowPointers[row + 1]++;
+            }
+            for (int row = 0; row < size; row++) {
+                rowPointers[row + 1] += rowPointers[row];
+            }
+            int[] nextInRow = Arrays.copyOf(rowPointers, size);
+            // target column in the high bits, edge in the low bits, so that repeated edges keep the order they were added
+            long[] rowEdges = new long[numEdges];
+            for (int edge = 0; edge < numEdges; edge++) {
+                int column = Arrays.binarySearch(entrezIds, targets[edge]);
+                rowEdges[nextInRow[edgeRows[edge]]++] = ((long) column << 32) | edge;
+            }
+
+            // sum the weights of repeated interactions, compacting the rows as these are merged
+            int[] columnIndices = new int[numEdges];
+            double[] values = new double[numEdges];
+            int[] mergedRowPointers = new int[size + 1];
+            int k = 0;
+            for (int row = 0; row < size; row++) {
+                Arrays.sort(rowEdges, rowPointers[row], rowPointers[row + 1]);
+                for (int i = rowPointers[row]; i < rowPointers[row + 1]; i++) {
+                    int column = (int) (rowEdges[i] >>> 32);
+                    double weight = weights[(int) rowEdges[i]];
+                    if (k > mergedRowPointers[row] && columnIndices[k - 1] == column) {
+                        values[k - 1] += weight;
+                    } else {
+                        columnIndices[k] = column;
+                        values[k] = weight;
+                        k++;
+                    }
+                }
+                mergedRowPointers[row + 1] = k;
+            }
+
+            // the adjacency matrix is symmetric, so the column sums are the row sums
+            double[] columnSums = new double[size];
+            for (int row = 0; row < size; row++) {
+                for (int i = mergedRowPointers[row]; i < mergedRowPointers[row + 1]; i++) {
+                    columnSums[row] += values[i];
+                }
+            }
+            for (int i = 0; i < k; i++) {
+                int column = columnIndices[i];
+                values[i] = columnSums[column] == 0 ? 0 : values[i] / columnSums[column];
+            }
+
+            ImmutableMap.Builder<Integer, Integer> entrezIdToRowIndex = ImmutableMap.builder();
+            for (int row = 0; row < size; row++) {
+                entrezIdToRowIndex.put(entrezIds[row], row);
+            }
+            return new SparseRandomWalkDataMatrix(entrezIdToRowIndex.build(), mergedRowPointers, Arrays.copyOf(columnIndices, k), Arrays.copyOf(values, k), restartProbability, convergenceThreshold);
+        }
+
+        private static int[] distinctSorted(int[] values) {
+            Arrays.sort(values);
+            int numDistinct = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (i == 0 || values[i] != values[i - 1]) {
+                    values[numDistinct++] = values[i];
+                }
+            }
+            return Arrays.copyOf(values, numDistinct);
+        }
+    }
+}
@@ -24,11 +24,12 @@
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
-import org.monarchinitiative.exomiser.core.model.Gene;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -43,43 +44,50 @@ public class AnalysisResultsWriter {
     private AnalysisResultsWriter() {
     }
 
+    /**
+     * Writes the results in each of the output formats for each of the defined {@link ModeOfInheritance}. The writers
+     * read the genes in the order ranked for their mode using {@link AnalysisResults#getRankedGenesForMode(ModeOfInheritance)}
+     * rather than re-sorting the results, so all the files are written concurrently.
+     */
     public static void writeToFile(Analysis analysis, AnalysisResults analysisResults, OutputSettings outputSettings) {
         ResultsWriterFactory resultsWriterFactory = new ResultsWriterFactory();
         logger.info("Writing results...");
 
+        List<ResultsWriteTask> writeTasks = new ArrayList<>();
         Set<OutputFormat> outputFormatsForAnyMoi = EnumSet.noneOf(OutputFormat.class);
         for (OutputFormat outputFormat : outputSettings.getOutputFormats()) {
-            if (outputFormat == OutputFormat.HTML || outputFormat == OutputFormat.JSON) {
-                writeResultsToFileForMoiWithFormat(ModeOfInheritance.ANY, outputFormat, analysis, analysisResults, outputSettings, resultsWriterFactory);
+            // the PHENOGRID output is always written for ANY mode as the HiPhive scores are not mode dependent
+            if (outputFormat == OutputFormat.HTML || outputFormat == OutputFormat.JSON || outputFormat == OutputFormat.PHENOGRID) {
+                writeTasks.add(new ResultsWriteTask(ModeOfInheritance.ANY, outputFormat));
             } else {
                 outputFormatsForAnyMoi.add(outputFormat);
             }
         }
 
         InheritanceModeOptions inheritanceModeOptions = analysis.getInheritanceModeOptions();
-        if (inheritanceModeOptions.isEmpty()) {
-            writeForInheritanceMode(ModeOfInheritance.ANY, outputFormatsForAnyMoi, analysis, analysisResults, outputSettings, resultsWriterFactory);
-        } else {
-            for (ModeOfInheritance modeOfInheritance : inheritanceModeOptions.getDefinedModes()) {
-                logger.debug("Writing {} results:", modeOfInheritance);
-                // Can't do this in parallel because theses are mutated each time for a different mode here.
-                // AnalysisResults could return a view for a ModeOfInheritance which can be called by the Writer
-                // without interfering with other writes for different modes. Check RAM requirements.
-                // Will only save a few seconds, so is not a rate-limiting step.
-                analysisResults.getGenes().sort(Gene.comparingScoreForInheritanceMode(modeOfInheritance));
-                writeForInheritanceMode(modeOfInheritance, outputFormatsForAnyMoi, analysis, analysisResults, outputSettings, resultsWriterFactory);
+        Set<ModeOfInheritance> modesToWrite = inheritanceModeOptions.isEmpty() ? EnumSet.of(ModeOfInheritance.ANY) : inheritanceModeOptions.getDefinedModes();
+        for (ModeOfInheritance modeOfInheritance : modesToWrite) {
+            for (OutputFormat outputFormat : outputFormatsForAnyMoi) {
+                writeTasks.add(new ResultsWriteTask(modeOfInheritance, outputFormat));
             }
         }
-    }
 
-    private static void writeForInheritanceMode(ModeOfInheritance modeOfInheritance, Set<OutputFormat> outputFormats, Analysis analysis, AnalysisResults analysisResults, OutputSettings outputSettings, ResultsWriterFactory resultsWriterFactory) {
-        for (OutputFormat outFormat : outputFormats) {
-            writeResultsToFileForMoiWithFormat(modeOfInheritance, outFormat, analysis, analysisResults, outputSettings, resultsWriterFactory);
-        }
+        writeTasks.parallelStream()
+                .forEach(writeTask -> {
+                    logger.debug("Writing {} {} results", writeTask.modeOfInheritance, writeTask.outputFormat);
+                    ResultsWriter resultsWriter = resultsWriterFactory.getResultsWriter(writeTask.outputFormat);
+                    resultsWriter.writeFile(writeTask.modeOfInheritance, analysis, analysisResults, outputSettings);
+                });
     }
 
-    private static void writeResultsToFileForMoiWithFormat(ModeOfInheritance modeOfInheritance, OutputFormat outputFormat, Analysis analysis, AnalysisResults analysisResults, OutputSettings outputSettings, ResultsWriterFactory resultsWriterFactory) {
-        ResultsWriter resultsWriter = resultsWriterFactory.getResultsWriter(outputFormat);
-        resultsWriter.writeFile(modeOfInheritance, analysis, analysisResults, outputSettings);
+    private static class ResultsWriteTask {
+
+        private final ModeOfInheritance modeOfInheritance;
+        private final OutputFormat outputFormat;
+
+        private ResultsWriteTask(ModeOfInheritance modeOfInheritance, OutputFormat outputFormat) {
+            this.modeOfInheritance = modeOfInheritance;
+            this.outputFormat = outputFormat;
+        }
     }
 }
@@ -0,0 +1,233 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import org.monarchinitiative.exomiser.core.writers.ColumnarTableWriter.ColumnType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads the tables written by the {@link ColumnarResultsWriter} into memory as primitive column arrays.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class ColumnarResultsReader {
+
+    private ColumnarResultsReader() {
+        //static utility class
+    }
+
+    /**
+     * @return the tables in the file, keyed by table name in the order in which they were written.
+     */
+    public static Map<String, Table> read(Path path) {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path), 64 * 1024)) {
+            return read(inputStream);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to read columnar results from " + path, ex);
+        }
+    }
+
+    public static Map<String, Table> read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(inputStream);
+        byte[] magic = new byte[ColumnarResultsWriter.MAGIC.length];
+        input.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarResultsWriter.MAGIC)) {
+            throw new IOException("Not an Exomiser columnar results file");
+        }
+        byte version = input.readByte();
+        if (version != ColumnarResultsWriter.VERSION) {
+            throw new IOException("Unsupported columnar results version " + version);
+        }
+        Map<String, Table> tables = new LinkedHashMap<>();
+        while (input.readByte() == ColumnarTableWriter.TABLE_MARKER) {
+            Table table = readTable(input);
+            tables.put(table.getName(), table);
+        }
+        return tables;
+    }
+
+    private static Table readTable(DataInputStream input) throws IOException {
+        String name = input.readUTF();
+        int numColumns = input.readInt();
+        List<String> columnNames = new ArrayList<>(numColumns);
+        List<ColumnReader> columnReaders = new ArrayList<>(numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            columnNames.add(input.readUTF());
+            columnReaders.add(new ColumnReader(ColumnType.values()[input.readByte()]));
+        }
+        int numRows = 0;
+        int batchRows;
+        while ((batchRows = input.readInt()) > 0) {
+            for (ColumnReader columnReader : columnReaders) {
+                byte[] chunk = new byte[input.readInt()];
+                input.readFully(chunk);
+                try (DataInputStream chunkInput = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(chunk)))) {
+                    columnReader.readChunk(chunkInput, numRows, batchRows);
+                }
+            }
+            numRows += batchRows;
+        }
+        Map<String, Object> columns = new LinkedHashMap<>();
+        for (int i = 0; i < numColumns; i++) {
+            columns.put(columnNames.get(i), columnReaders.get(i).values(numRows));
+        }
+        return new Table(name, numRows, columns);
+    }
+
+    private static class ColumnReader {
+
+        private final ColumnType type;
+        private int[] ints = new int[0];
+        private float[] floats = new float[0];
+        private boolean[] booleans = new boolean[0];
+        private String[] strings = new String[0];
+        private final List<String> dictionary = new ArrayList<>();
+
+        ColumnReader(ColumnType type) {
+            this.type = type;
+        }
+
+        void readChunk(DataInputStream chunk, int offset, int numRows) throws IOException {
+            int size = offset + numRows;
+            switch (type) {
+                case INT:
+                    ints = Arrays.copyOf(ints, size);
+                    for (int i = offset; i < size; i++) {
+                        ints[i] = chunk.readInt();
+                    }
+                    break;
+                case FLOAT:
+                    floats = Arrays.copyOf(floats, size);
+                    for (int i = offset; i < size; i++) {
+                        floats[i] = chunk.readFloat();
+                    }
+                    break;
+                case BOOLEAN:
+                    booleans = Arrays.copyOf(booleans, size);
+                    for (int i = offset; i < size; i++) {
+                        booleans[i] = chunk.readBoolean();
+                    }
+                    break;
+                case STRING:
+                    strings = Arrays.copyOf(strings, size);
+                    for (int i = offset; i < size; i++) {
+                        strings[i] = readString(chunk);
+                    }
+                    break;
+                case DICTIONARY:
+                    int newEntries = chunk.readInt();
+                    for (int i = 0; i < newEntries; i++) {
+                        dictionary.add(readString(chunk));
+                    }
+                    strings = Arrays.copyOf(strings, size);
+                    for (int i = offset; i < size; i++) {
+                        strings[i] = dictionary.get(chunk.readInt());
+                    }
+                    break;
+                default:
+                    throw new IOException("Unsupported column type " + type);
+            }
+        }
+
+        Object values(int numRows) {
+            switch (type) {
+                case INT:
+                    return Arrays.copyOf(ints, numRows);
+                case FLOAT:
+                    return Arrays.copyOf(floats, numRows);
+                case BOOLEAN:
+                    return Arrays.copyOf(booleans, numRows);
+                case STRING:
+                case DICTIONARY:
+                default:
+                    return Arrays.copyOf(strings, numRows);
+            }
+        }
+
+        private static String readString(DataInputStream chunk) throws IOException {
+            byte[] bytes = new byte[chunk.readInt()];
+            chunk.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * A fully materialised table of typed columns.
+     */
+    public static class Table {
+
+        private final String name;
+        private final int numRows;
+        private final Map<String, Object> columns;
+
+        private Table(String name, int numRows, Map<String, Object> columns) {
+            this.name = name;
+            this.numRows = numRows;
+            this.columns = columns;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getNumRows() {
+            return numRows;
+        }
+
+        public List<String> getColumnNames() {
+            return new ArrayList<>(columns.keySet());
+        }
+
+        public int[] getIntColumn(String column) {
+            return (int[]) getColumn(column);
+        }
+
+        public float[] getFloatColumn(String column) {
+            return (float[]) getColumn(column);
+        }
+
+        public boolean[] getBooleanColumn(String column) {
+            return (boolean[]) getColumn(column);
+        }
+
+        /**
+         * @return the values of a STRING or DICTIONARY column.
+         */
+        public String[] getStringColumn(String column) {
+            return (String[]) getColumn(column);
+        }
+
+        private Object getColumn(String column) {
+            Object values = columns.get(column);
+            if (values == null) {
+                throw new IllegalArgumentException("Table " + name + " has no column " + column);
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityScore;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.writers.ColumnarTableWriter.ColumnType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Writes the gene and variant results as typed, column-oriented binary tables for loading into downstream analytics
+ * without having to parse the TSV output. The genes table contains the same genes as the {@link TsvGeneResultsWriter}
+ * and the variants table the same variants as the {@link TsvVariantResultsWriter}.
+ * <p>
+ * The file layout is:
+ * <pre>
+ * file   := "EXCOL" version:byte table* 0:byte
+ * table  := 1:byte name:UTF numColumns:int (columnName:UTF columnType:byte)* batch* 0:int
+ * batch  := numRows:int (chunkLength:int deflatedChunk)*       one chunk per column, in header order
+ * </pre>
+ * All numbers are big-endian. Column chunks are separately deflate compressed and decode to {@code numRows} values:
+ * INT as int, FLOAT as float with NaN for missing values, BOOLEAN as byte and STRING as a length-prefixed UTF-8 byte
+ * array. DICTIONARY chunks begin with a count and the strings added to the table dictionary since the previous batch,
+ * followed by an int dictionary code for each row, with code 0 being the empty string. These can be read using the
+ * {@link ColumnarResultsReader}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class ColumnarResultsWriter implements ResultsWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarResultsWriter.class);
+
+    private static final OutputFormat OUTPUT_FORMAT = OutputFormat.COLUMNAR;
+
+    static final byte[] MAGIC = {'E', 'X', 'C', 'O', 'L'};
+    static final byte VERSION = 1;
+    static final String GENES_TABLE = "genes";
+    static final String VARIANTS_TABLE = "variants";
+
+    private static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+
+    /**
+     * Columns of the genes table, in table order. The ordinal of each constant is its column index.
+     */
+    private enum GeneColumn {
+        GENE_SYMBOL(ColumnType.DICTIONARY),
+        ENTREZ_GENE_ID(ColumnType.INT),
+        EXOMISER_GENE_PHENO_SCORE(ColumnType.FLOAT),
+        EXOMISER_GENE_VARIANT_SCORE(ColumnType.FLOAT),
+        EXOMISER_GENE_COMBINED_SCORE(ColumnType.FLOAT);
+
+        private final ColumnType columnType;
+
+        GeneColumn(ColumnType columnType) {
+            this.columnType = columnType;
+        }
+    }
+
+    /**
+     * Columns of the variants table, in table order. The ordinal of each constant is its column index.
+     */
+    private enum VariantColumn {
+        CHROM(ColumnType.DICTIONARY),
+        POS(ColumnType.INT),
+        REF(ColumnType.STRING),
+        ALT(ColumnType.STRING),
+        QUAL(ColumnType.FLOAT),
+        FILTER(ColumnType.DICTIONARY),
+        GENOTYPE(ColumnType.DICTIONARY),
+        COVERAGE(ColumnType.INT),
+        FUNCTIONAL_CLASS(ColumnType.DICTIONARY),
+        HGVS(ColumnType.STRING),
+        EXOMISER_GENE(ColumnType.DICTIONARY),
+        CADD(ColumnType.FLOAT),
+        POLYPHEN(ColumnType.FLOAT),
+        MUTATIONTASTER(ColumnType.FLOAT),
+        SIFT(ColumnType.FLOAT),
+        REMM(ColumnType.FLOAT),
+        DBSNP_ID(ColumnType.STRING),
+        MAX_FREQUENCY(ColumnType.FLOAT),
+        DBSNP_FREQUENCY(ColumnType.FLOAT),
+        EVS_EA_FREQUENCY(ColumnType.FLOAT),
+        EVS_AA_FREQUENCY(ColumnType.FLOAT),
+        EXAC_AFR_FREQ(ColumnType.FLOAT),
+        EXAC_AMR_FREQ(ColumnType.FLOAT),
+        EXAC_EAS_FREQ(ColumnType.FLOAT),
+        EXAC_FIN_FREQ(ColumnType.FLOAT),
+        EXAC_NFE_FREQ(ColumnType.FLOAT),
+        EXAC_SAS_FREQ(ColumnType.FLOAT),
+        EXAC_OTH_FREQ(ColumnType.FLOAT),
+        EXOMISER_VARIANT_SCORE(ColumnType.FLOAT),
+        EXOMISER_GENE_PHENO_SCORE(ColumnType.FLOAT),
+        EXOMISER_GENE_VARIANT_SCORE(ColumnType.FLOAT),
+        EXOMISER_GENE_COMBINED_SCORE(ColumnType.FLOAT),
+        CONTRIBUTING_VARIANT(ColumnType.BOOLEAN);
+
+        private final ColumnType columnType;
+
+        VariantColumn(ColumnType columnType) {
+            this.columnType = columnType;
+        }
+    }
+
+    // in the same order as ResultsWriterUtils.VARIANT_FREQUENCY_SOURCES
+    private static final VariantColumn[] FREQUENCY_COLUMNS = {
+            VariantColumn.DBSNP_FREQUENCY,
+            VariantColumn.EVS_EA_FREQUENCY, VariantColumn.EVS_AA_FREQUENCY,
+            VariantColumn.EXAC_AFR_FREQ, VariantColumn.EXAC_AMR_FREQ, VariantColumn.EXAC_EAS_FREQ, VariantColumn.EXAC_FIN_FREQ, VariantColumn.EXAC_NFE_FREQ, VariantColumn.EXAC_SAS_FREQ, VariantColumn.EXAC_OTH_FREQ};
+
+    private final int batchSize;
+
+    public ColumnarResultsWriter() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    ColumnarResultsWriter(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
+        String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
+        Path outFile = Paths.get(outFileName);
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(outFile), 64 * 1024)) {
+            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), outputStream);
+        } catch (IOException ex) {
+            logger.error("Unable to write results to file {}", outFileName, ex);
+        }
+        logger.debug("{} {} results written to file {}", OUTPUT_FORMAT, modeOfInheritance.getAbbreviation(), outFileName);
+    }
+
+    /**
+     * As this is a binary format, the returned String is the Base64 encoded file content.
+     */
+    @Override
+    public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), outputStream);
+        } catch (IOException ex) {
+            logger.error("Unable to write results to string", ex);
+            return "";
+        }
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
+    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.write(MAGIC);
+        output.writeByte(VERSION);
+        List<Gene> rankedGenes = analysisResults.getRankedGenesForMode(modeOfInheritance);
+        writeGenesTable(modeOfInheritance, rankedGenes, output);
+        writeVariantsTable(modeOfInheritance, rankedGenes, writeOnlyContributingVariants, output);
+        output.writeByte(ColumnarTableWriter.END_MARKER);
+        output.flush();
+    }
+
+    private void writeGenesTable(ModeOfInheritance modeOfInheritance, List<Gene> rankedGenes, DataOutputStream output) throws IOException {
+        ColumnarTableWriter table = new ColumnarTableWriter(output, batchSize);
+        for (GeneColumn column : GeneColumn.values()) {
+            table.column(column.name(), column.columnType);
+        }
+        table.writeHeader(GENES_TABLE);
+        for (Gene gene : rankedGenes) {
+            if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
+                table.setString(GeneColumn.GENE_SYMBOL.ordinal(), gene.getGeneSymbol());
+                table.setInt(GeneColumn.ENTREZ_GENE_ID.ordinal(), gene.getEntrezGeneID());
+                table.setFloat(GeneColumn.EXOMISER_GENE_PHENO_SCORE.ordinal(), gene.getPriorityScoreForMode(modeOfInheritance));
+                table.setFloat(GeneColumn.EXOMISER_GENE_VARIANT_SCORE.ordinal(), gene.getVariantScoreForMode(modeOfInheritance));
+                table.setFloat(GeneColumn.EXOMISER_GENE_COMBINED_SCORE.ordinal(), gene.getCombinedScoreForMode(modeOfInheritance));
+                table.endRow();
+            }
+        }
+        table.finish();
+    }
+
+    private void writeVariantsTable(ModeOfInheritance modeOfInheritance, List<Gene> rankedGenes, boolean writeOnlyContributingVariants, DataOutputStream output) throws IOException {
+        ColumnarTableWriter table = new ColumnarTableWriter(output, batchSize);
+        for (VariantColumn column : VariantColumn.values()) {
+            table.column(column.name(), column.columnType);
+        }
+        table.writeHeader(VARIANTS_TABLE);
+
+        for (Gene gene : rankedGenes) {
+            if (writeOnlyContributingVariants) {
+                if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
+                    for (VariantEvaluation variantEvaluation : gene.getGeneScoreForMode(modeOfInheritance).getContributingVariants()) {
+                        writeVariantRow(modeOfInheritance, gene, variantEvaluation, table);
+                    }
+                }
+            } else {
+                for (VariantEvaluation variantEvaluation : gene.getVariantEvaluations()) {
+                    writeVariantRow(modeOfInheritance, gene, variantEvaluation, table);
+                }
+            }
+        }
+        table.finish();
+    }
+
+    private void writeVariantRow(ModeOfInheritance modeOfInheritance, Gene gene, VariantEvaluation ve, ColumnarTableWriter table) throws IOException {
+        table.setString(VariantColumn.CHROM.ordinal(), ve.getChromosomeName());
+        table.setInt(VariantColumn.POS.ordinal(), ve.getPosition());
+        table.setString(VariantColumn.REF.ordinal(), ve.getRef());
+        table.setString(VariantColumn.ALT.ordinal(), ve.getAlt());
+        table.setFloat(VariantColumn.QUAL.ordinal(), (float) ve.getPhredScore());
+        table.setString(VariantColumn.FILTER.ordinal(), ResultsWriterUtils.makeFiltersField(modeOfInheritance, ve));
+        table.setString(VariantColumn.GENOTYPE.ordinal(), ve.getGenotypeString());
+        table.setInt(VariantColumn.COVERAGE.ordinal(), ve.getVariantContext().getCommonInfo().getAttributeAsInt("DP", 0));
+        table.setString(VariantColumn.FUNCTIONAL_CLASS.ordinal(), ve.getVariantEffect().getSequenceOntologyTerm());
+        table.setString(VariantColumn.HGVS.ordinal(), ResultsWriterUtils.getRepresentativeAnnotation(ve.getTranscriptAnnotations(), ""));
+        table.setString(VariantColumn.EXOMISER_GENE.ordinal(), ve.getGeneSymbol());
+
+        PathogenicityData pathogenicityData = ve.getPathogenicityData();
+        table.setFloat(VariantColumn.CADD.ordinal(), scoreOrNaN(pathogenicityData.getPredictedScore(PathogenicitySource.CADD)));
+        table.setFloat(VariantColumn.POLYPHEN.ordinal(), scoreOrNaN(pathogenicityData.getPredictedScore(PathogenicitySource.POLYPHEN)));
+        table.setFloat(VariantColumn.MUTATIONTASTER.ordinal(), scoreOrNaN(pathogenicityData.getPredictedScore(PathogenicitySource.MUTATION_TASTER)));
+        table.setFloat(VariantColumn.SIFT.ordinal(), scoreOrNaN(pathogenicityData.getPredictedScore(PathogenicitySource.SIFT)));
+        table.setFloat(VariantColumn.REMM.ordinal(), scoreOrNaN(pathogenicityData.getPredictedScore(PathogenicitySource.REMM)));
+
+        FrequencyData frequencyData = ve.getFrequencyData();
+        table.setString(VariantColumn.DBSNP_ID.ordinal(), frequencyData.getRsId().isEmpty() ? "" : frequencyData.getRsId().toString());
+        table.setFloat(VariantColumn.MAX_FREQUENCY.ordinal(), frequencyData.hasKnownFrequency() ? frequencyData.getMaxFreq() : Float.NaN);
+        List<FrequencySource> frequencySources = ResultsWriterUtils.VARIANT_FREQUENCY_SOURCES;
+        for (int i = 0; i < frequencySources.size(); i++) {
+            Frequency frequency = frequencyData.getFrequencyForSource(frequencySources.get(i));
+            table.setFloat(FREQUENCY_COLUMNS[i].ordinal(), frequency == null ? Float.NaN : frequency.getFrequency());
+        }
+
+        table.setFloat(VariantColumn.EXOMISER_VARIANT_SCORE.ordinal(), ve.getVariantScore());
+        table.setFloat(VariantColumn.EXOMISER_GENE_PHENO_SCORE.ordinal(), gene.getPriorityScoreForMode(modeOfInheritance));
+        table.setFloat(VariantColumn.EXOMISER_GENE_VARIANT_SCORE.ordinal(), gene.getVariantScoreForMode(modeOfInheritance));
+        table.setFloat(VariantColumn.EXOMISER_GENE_COMBINED_SCORE.ordinal(), gene.getCombinedScoreForMode(modeOfInheritance));
+        table.setBoolean(VariantColumn.CONTRIBUTING_VARIANT.ordinal(), ve.contributesToGeneScoreUnderMode(modeOfInheritance));
+        table.endRow();
+    }
+
+    private float scoreOrNaN(PathogenicityScore score) {
+        return score == null ? Float.NaN : score.getScore();
+    }
+}
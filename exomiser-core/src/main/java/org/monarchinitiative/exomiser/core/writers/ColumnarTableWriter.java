@@ -0,0 +1,372 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a single table of the {@link ColumnarResultsWriter} format. Rows are buffered column-wise and flushed to the
+ * output as a batch of compressed column chunks every {@code batchSize} rows, so only a single batch is ever held in
+ * memory. Values are set by column index, which is the order the columns were added in, so that callers can refer to a
+ * column by a constant, such as the ordinal of an enum of the columns, rather than looking it up by name for each cell.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class ColumnarTableWriter {
+
+    /**
+     * The physical type of a column. The ordinal is written to the table header so new types must only ever be
+     * added to the end.
+     */
+    enum ColumnType {
+        INT, FLOAT, BOOLEAN, STRING, DICTIONARY
+    }
+
+    static final byte TABLE_MARKER = 1;
+    static final byte END_MARKER = 0;
+
+    private final DataOutputStream output;
+    private final int batchSize;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Column> columns = new ArrayList<>();
+    private int rowsInBatch = 0;
+    private boolean headerWritten = false;
+
+    ColumnarTableWriter(DataOutputStream output, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be greater than zero");
+        }
+        this.output = output;
+        this.batchSize = batchSize;
+    }
+
+    ColumnarTableWriter intColumn(String name) {
+        return addColumn(name, new IntColumn(batchSize));
+    }
+
+    ColumnarTableWriter floatColumn(String name) {
+        return addColumn(name, new FloatColumn(batchSize));
+    }
+
+    ColumnarTableWriter booleanColumn(String name) {
+        return addColumn(name, new BooleanColumn(batchSize));
+    }
+
+    ColumnarTableWriter stringColumn(String name) {
+        return addColumn(name, new StringColumn(batchSize));
+    }
+
+    /**
+     * Adds a column for low-cardinality strings, such as gene symbols or variant effects. Each distinct value is
+     * written once per table and the rows store an int code for the value.
+     */
+    ColumnarTableWriter dictionaryColumn(String name) {
+        return addColumn(name, new DictionaryColumn(batchSize));
+    }
+
+    /**
+     * Adds a column of the given {@link ColumnType}.
+     */
+    ColumnarTableWriter column(String name, ColumnType type) {
+        switch (type) {
+            case INT:
+                return intColumn(name);
+            case FLOAT:
+                return floatColumn(name);
+            case BOOLEAN:
+                return booleanColumn(name);
+            case STRING:
+                return stringColumn(name);
+            case DICTIONARY:
+            default:
+                return dictionaryColumn(name);
+        }
+    }
+
+    private ColumnarTableWriter addColumn(String name, Column column) {
+        if (headerWritten) {
+            throw new IllegalStateException("Cannot add column " + name + " after rows have been written");
+        }
+        if (columnNames.contains(name)) {
+            throw new IllegalArgumentException("Duplicate column " + name);
+        }
+        columnNames.add(name);
+        columns.add(column);
+        return this;
+    }
+
+    void writeHeader(String tableName) throws IOException {
+        output.writeByte(TABLE_MARKER);
+        output.writeUTF(tableName);
+        output.writeInt(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            output.writeUTF(columnNames.get(i));
+            output.writeByte(columns.get(i).type().ordinal());
+        }
+        headerWritten = true;
+    }
+
+    void setInt(int column, int value) {
+        ((IntColumn) columns.get(column)).values[rowsInBatch] = value;
+    }
+
+    /**
+     * Sets a float value for the current row. Missing values should be set as {@link Float#NaN}.
+     */
+    void setFloat(int column, float value) {
+        ((FloatColumn) columns.get(column)).values[rowsInBatch] = value;
+    }
+
+    void setBoolean(int column, boolean value) {
+        ((BooleanColumn) columns.get(column)).values[rowsInBatch] = value;
+    }
+
+    void setString(int column, String value) {
+        Column target = columns.get(column);
+        if (target instanceof DictionaryColumn) {
+            ((DictionaryColumn) target).set(rowsInBatch, value);
+        } else {
+            ((StringColumn) target).values[rowsInBatch] = value;
+        }
+    }
+
+    /**
+     * Completes the current row. Any values not set for the row will be the type default - 0, NaN, false or an
+     * empty string.
+     */
+    void endRow() throws IOException {
+        rowsInBatch++;
+        if (rowsInBatch == batchSize) {
+            writeBatch();
+        }
+    }
+
+    /**
+     * Writes any buffered rows and the end of table marker.
+     */
+    void finish() throws IOException {
+        if (rowsInBatch > 0) {
+            writeBatch();
+        }
+        output.writeInt(0);
+    }
+
+    private void writeBatch() throws IOException {
+        output.writeInt(rowsInBatch);
+        ByteArrayOutputStream chunkBytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (Column column : columns) {
+                chunkBytes.reset();
+                deflater.reset();
+                try (DataOutputStream chunk = new DataOutputStream(new DeflaterOutputStream(chunkBytes, deflater))) {
+                    column.writeChunk(chunk, rowsInBatch);
+                }
+                output.writeInt(chunkBytes.size());
+                chunkBytes.writeTo(output);
+                column.clear(rowsInBatch);
+            }
+        } finally {
+            deflater.end();
+        }
+        rowsInBatch = 0;
+    }
+
+    private interface Column {
+
+        ColumnType type();
+
+        void writeChunk(DataOutputStream chunk, int numRows) throws IOException;
+
+        void clear(int numRows);
+    }
+
+    private static class IntColumn implements Column {
+
+        private final int[] values;
+
+        IntColumn(int batchSize) {
+            this.values = new int[batchSize];
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.INT;
+        }
+
+        @Override
+        public void writeChunk(DataOutputStream chunk, int numRows) throws IOException {
+            for (int i = 0; i < numRows; i++) {
+                chunk.writeInt(values[i]);
+            }
+        }
+
+        @Override
+        public void clear(int numRows) {
+            Arrays.fill(values, 0, numRows, 0);
+        }
+    }
+
+    private static class FloatColumn implements Column {
+
+        private final float[] values;
+
+        FloatColumn(int batchSize) {
+            this.values = new float[batchSize];
+            Arrays.fill(values, Float.NaN);
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.FLOAT;
+        }
+
+        @Override
+        public void writeChunk(DataOutputStream chunk, int numRows) throws IOException {
+            for (int i = 0; i < numRows; i++) {
+                chunk.writeFloat(values[i]);
+            }
+        }
+
+        @Override
+        public void clear(int numRows) {
+            Arrays.fill(values, 0, numRows, Float.NaN);
+        }
+    }
+
+    private static class BooleanColumn implements Column {
+
+        private final boolean[] values;
+
+        BooleanColumn(int batchSize) {
+            this.values = new boolean[batchSize];
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.BOOLEAN;
+        }
+
+        @Override
+        public void writeChunk(DataOutputStream chunk, int numRows) throws IOException {
+            for (int i = 0; i < numRows; i++) {
+                chunk.writeBoolean(values[i]);
+            }
+        }
+
+        @Override
+        public void clear(int numRows) {
+            Arrays.fill(values, 0, numRows, false);
+        }
+    }
+
+    private static class StringColumn implements Column {
+
+        private final String[] values;
+
+        StringColumn(int batchSize) {
+            this.values = new String[batchSize];
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.STRING;
+        }
+
+        @Override
+        public void writeChunk(DataOutputStream chunk, int numRows) throws IOException {
+            for (int i = 0; i < numRows; i++) {
+                writeString(chunk, values[i]);
+            }
+        }
+
+        @Override
+        public void clear(int numRows) {
+            Arrays.fill(values, 0, numRows, null);
+        }
+    }
+
+    /**
+     * Stores each row as an int code into a dictionary which grows over the lifetime of the table. Each chunk starts
+     * with the dictionary entries added since the previous chunk, so a reader builds up the same dictionary as it
+     * reads the batches in order.
+     */
+    private static class DictionaryColumn implements Column {
+
+        private final int[] codes;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> newEntries = new ArrayList<>();
+
+        DictionaryColumn(int batchSize) {
+            this.codes = new int[batchSize];
+            // code 0 is reserved for missing values so that unset rows need no special handling
+            dictionary.put("", 0);
+            newEntries.add("");
+        }
+
+        void set(int row, String value) {
+            String key = value == null ? "" : value;
+            Integer code = dictionary.get(key);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.put(key, code);
+                newEntries.add(key);
+            }
+            codes[row] = code;
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.DICTIONARY;
+        }
+
+        @Override
+        public void writeChunk(DataOutputStream chunk, int numRows) throws IOException {
+            chunk.writeInt(newEntries.size());
+            for (String entry : newEntries) {
+                writeString(chunk, entry);
+            }
+            for (int i = 0; i < numRows; i++) {
+                chunk.writeInt(codes[i]);
+            }
+        }
+
+        @Override
+        public void clear(int numRows) {
+            newEntries.clear();
+            Arrays.fill(codes, 0, numRows, 0);
+        }
+    }
+
+    private static void writeString(DataOutputStream chunk, String value) throws IOException {
+        // writeUTF is limited to 64KB which could be exceeded by the alleles of large structural variants
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        chunk.writeInt(bytes.length);
+        chunk.write(bytes);
+    }
+}
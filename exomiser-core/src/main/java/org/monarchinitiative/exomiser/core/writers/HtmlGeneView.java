@@ -0,0 +1,115 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneScore;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * View of a {@link Gene} for the HTML results template. The sorting and filtering of the variants is done once when
+ * the view is created rather than by the template as each gene is rendered.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class HtmlGeneView {
+
+    private static final Comparator<VariantEvaluation> VARIANT_RANK_COMPARATOR = new VariantEvaluation.RankBasedComparator();
+
+    private final Gene gene;
+    private final List<GeneScoreView> contributingGeneScores;
+    private final List<VariantEvaluation> otherPassedVariants;
+
+    private HtmlGeneView(Gene gene, List<GeneScoreView> contributingGeneScores, List<VariantEvaluation> otherPassedVariants) {
+        this.gene = gene;
+        this.contributingGeneScores = contributingGeneScores;
+        this.otherPassedVariants = otherPassedVariants;
+    }
+
+    static HtmlGeneView of(Gene gene) {
+        List<GeneScoreView> contributingGeneScores = new ArrayList<>();
+        for (GeneScore geneScore : gene.getGeneScores()) {
+            List<VariantEvaluation> contributingVariants = geneScore.getContributingVariants();
+            if (!contributingVariants.isEmpty()) {
+                contributingGeneScores.add(new GeneScoreView(geneScore, sortByRank(contributingVariants)));
+            }
+        }
+        List<VariantEvaluation> otherPassedVariants = gene.getPassedVariantEvaluations().stream()
+                .filter(variantEvaluation -> !variantEvaluation.contributesToGeneScore())
+                .sorted(VARIANT_RANK_COMPARATOR)
+                .collect(toList());
+        return new HtmlGeneView(gene, contributingGeneScores, otherPassedVariants);
+    }
+
+    private static List<VariantEvaluation> sortByRank(List<VariantEvaluation> variantEvaluations) {
+        List<VariantEvaluation> sorted = new ArrayList<>(variantEvaluations);
+        sorted.sort(VARIANT_RANK_COMPARATOR);
+        return sorted;
+    }
+
+    public Gene getGene() {
+        return gene;
+    }
+
+    /**
+     * @return the scores of the gene under the modes of inheritance for which it has contributing variants.
+     */
+    public List<GeneScoreView> getContributingGeneScores() {
+        return contributingGeneScores;
+    }
+
+    /**
+     * @return the passed variants of the gene which do not contribute to a gene score, in rank order.
+     */
+    public List<VariantEvaluation> getOtherPassedVariants() {
+        return otherPassedVariants;
+    }
+
+    /**
+     * A {@link GeneScore} with its contributing variants in rank order.
+     */
+    public static class GeneScoreView {
+
+        private final GeneScore geneScore;
+        private final List<VariantEvaluation> contributingVariants;
+
+        private GeneScoreView(GeneScore geneScore, List<VariantEvaluation> contributingVariants) {
+            this.geneScore = geneScore;
+            this.contributingVariants = contributingVariants;
+        }
+
+        public GeneScore getGeneScore() {
+            return geneScore;
+        }
+
+        public List<VariantEvaluation> getContributingVariants() {
+            return contributingVariants;
+        }
+    }
+}
@@ -30,6 +30,7 @@
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.datatype.jdk7.Jdk7Module;
+import com.google.common.collect.Lists;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
@@ -43,10 +44,13 @@
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
@@ -66,25 +70,76 @@ public HtmlResultsWriter() {
         this.templateEngine = ThymeleafConfig.coreTemplateEngine();
     }
 
+    /**
+     * Writes the results to the output HTML file. Where {@link OutputSettings#getHtmlGenesPerPage()} is set and there
+     * are more genes than this, the genes are split across several linked pages. The first page is written to the
+     * usual output file and the following pages alongside it with a _page2, _page3... suffix. Each page is streamed to
+     * the file as it is rendered.
+     */
     @Override
     public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         logger.debug("Writing HTML results");
         String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
         Path outFile = Paths.get(outFileName);
-        try (BufferedWriter writer = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
-            Context context = buildContext(modeOfInheritance, analysis, analysisResults, settings);
-            templateEngine.process("results", context, writer);
-        } catch (IOException ex) {
-            logger.error("Unable to write results to file {}", outFileName, ex);
+        Context context = buildContext(modeOfInheritance, analysis, analysisResults, settings);
+        List<HtmlGeneView> geneViews = buildGeneViews(modeOfInheritance, analysisResults, settings);
+        List<List<HtmlGeneView>> pages = paginate(geneViews, settings.getHtmlGenesPerPage());
+        List<String> pageFileNames = makePageFileNames(outFile, pages.size());
+        context.setVariable("pageFileNames", pageFileNames);
+        for (int i = 0; i < pages.size(); i++) {
+            Path pageFile = outFile.resolveSibling(pageFileNames.get(i));
+            context.setVariable("pageNumber", i + 1);
+            context.setVariable("geneViews", pages.get(i));
+            try (BufferedWriter writer = Files.newBufferedWriter(pageFile, StandardCharsets.UTF_8)) {
+                templateEngine.process("results", context, writer);
+            } catch (IOException ex) {
+                logger.error("Unable to write results to file {}", pageFile, ex);
+            }
         }
-        logger.debug("{} ALL results written to file {}", OUTPUT_FORMAT, outFileName);
+        logger.debug("{} ALL results written to file {} in {} page(s)", OUTPUT_FORMAT, outFileName, pages.size());
     }
 
+    /**
+     * Writes all the genes to a single page.
+     */
     @Override
     public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         logger.debug("Writing HTML results");
         Context context = buildContext(modeOfInheritance, analysis, analysisResults, settings);
-        return templateEngine.process("results", context);
+        context.setVariable("pageFileNames", Collections.singletonList(""));
+        context.setVariable("pageNumber", 1);
+        context.setVariable("geneViews", buildGeneViews(modeOfInheritance, analysisResults, settings));
+        StringWriter writer = new StringWriter();
+        templateEngine.process("results", context, writer);
+        return writer.toString();
+    }
+
+    private List<HtmlGeneView> buildGeneViews(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings settings) {
+        List<Gene> passedGenes = ResultsWriterUtils.getMaxPassedGenes(analysisResults.getRankedGenesForMode(modeOfInheritance), settings.getNumberOfGenesToShow());
+        List<HtmlGeneView> geneViews = new ArrayList<>(passedGenes.size());
+        for (Gene gene : passedGenes) {
+            geneViews.add(HtmlGeneView.of(gene));
+        }
+        return geneViews;
+    }
+
+    private static List<List<HtmlGeneView>> paginate(List<HtmlGeneView> geneViews, int genesPerPage) {
+        if (genesPerPage <= 0 || geneViews.size() <= genesPerPage) {
+            return Collections.singletonList(geneViews);
+        }
+        return Lists.partition(geneViews, genesPerPage);
+    }
+
+    private static List<String> makePageFileNames(Path outFile, int numPages) {
+        String fileName = outFile.getFileName().toString();
+        String extension = "." + OUTPUT_FORMAT.getFileExtension();
+        String baseName = fileName.endsWith(extension) ? fileName.substring(0, fileName.length() - extension.length()) : fileName;
+        List<String> pageFileNames = new ArrayList<>(numPages);
+        pageFileNames.add(fileName);
+        for (int page = 2; page <= numPages; page++) {
+            pageFileNames.add(baseName + "_page" + page + extension);
+        }
+        return pageFileNames;
     }
 
     private Context buildContext(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
@@ -125,15 +180,12 @@ private Context buildContext(ModeOfInheritance modeOfInheritance, Analysis analy
         context.setVariable("variantTypeCounters", variantTypeCounters);
 
         context.setVariable("modeOfInheritance", modeOfInheritance);
-        List<Gene> passedGenes = ResultsWriterUtils.getMaxPassedGenes(analysisResults.getGenes(), settings.getNumberOfGenesToShow());
-        context.setVariable("genes", passedGenes);
 
         //this will change the links to the relevant resource.
         // For the time being we're going to maintain the original behaviour (UCSC)
         // Need to wire it up through the system or it might be easiest to autodetect this from the transcripts of passed variants.
         // One of UCSC, ENSEMBL or REFSEQ
         context.setVariable("transcriptDb", "ENSEMBL");
-        context.setVariable("variantRankComparator", new VariantEvaluation.RankBasedComparator());
         return context;
     }
 
@@ -20,29 +20,32 @@
 
 package org.monarchinitiative.exomiser.core.writers;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisMetrics;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
+import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-
-import static java.util.stream.Collectors.toList;
+import java.util.zip.GZIPOutputStream;
 
 /**
+ * Writes the {@link AnalysisResults} out as a JSON array of genes. The genes are written one at a time to a streaming
+ * {@link JsonGenerator} so that, unlike serialising the whole list in one go, the memory required is independent of
+ * the number of genes and variants in the results.
+ * <p>
+ * When the results contain {@link AnalysisMetrics} these are written alongside the genes to a
+ * {@code .metrics.json} file, leaving the format of the gene array unchanged.
+ *
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  * @since 10.1.0
  */
@@ -51,28 +54,57 @@ public class JsonResultsWriter implements ResultsWriter {
     private static final Logger logger = LoggerFactory.getLogger(JsonResultsWriter.class);
 
     private static final OutputFormat OUTPUT_FORMAT = OutputFormat.JSON;
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String METRICS_EXTENSION = ".metrics.json";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    //ObjectMapper is thread-safe once configured so this can be shared between the per-mode writers
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
 
     @Override
     public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
-        String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
+        String outputFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
+        String outFileName = settings.compressJsonOutput() ? outputFileName + GZIP_EXTENSION : outputFileName;
         Path outFile = Paths.get(outFileName);
-        ObjectWriter objectWriter = new ObjectMapper().writer();
-        try (Writer bufferedWriter = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
-            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), objectWriter, bufferedWriter);
+        try (OutputStream outputStream = newOutputStream(outFile, settings.compressJsonOutput())) {
+            writeTo(modeOfInheritance, analysisResults, settings, outputStream);
         } catch (IOException ex) {
             logger.error("Unable to write results to file {}", outFileName, ex);
         }
         logger.debug("{} {} results written to file {}", OUTPUT_FORMAT, (modeOfInheritance.getAbbreviation() == null) ? "ALL" : modeOfInheritance
                 .getAbbreviation(), outFileName);
+        if (modeOfInheritance == ModeOfInheritance.ANY && !analysisResults.getAnalysisMetrics().isEmpty()) {
+            writeMetricsFile(outputFileName, analysisResults.getAnalysisMetrics());
+        }
+    }
+
+    private void writeMetricsFile(String outputFileName, AnalysisMetrics analysisMetrics) {
+        String fileExtension = "." + OUTPUT_FORMAT.getFileExtension();
+        Path metricsFile = Paths.get(outputFileName.substring(0, outputFileName.length() - fileExtension.length()) + METRICS_EXTENSION);
+        try (OutputStream outputStream = Files.newOutputStream(metricsFile)) {
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(outputStream, analysisMetrics);
+        } catch (IOException ex) {
+            logger.error("Unable to write analysis metrics to file {}", metricsFile, ex);
+        }
+        logger.debug("Analysis metrics written to file {}", metricsFile);
+    }
+
+    private OutputStream newOutputStream(Path outFile, boolean compress) throws IOException {
+        OutputStream outputStream = Files.newOutputStream(outFile);
+        if (compress) {
+            return new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(outputStream, BUFFER_SIZE);
     }
 
     @Override
     public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         //Add prettyPrintJson option to outputSettings?
-        ObjectWriter objectWriter = new ObjectMapper().writerWithDefaultPrettyPrinter();
-        try (Writer stringWriter = new StringWriter()) {
-            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), objectWriter, stringWriter);
-            stringWriter.flush();
+        try (Writer stringWriter = new StringWriter();
+             JsonGenerator jsonGenerator = OBJECT_MAPPER.getFactory().createGenerator(stringWriter)) {
+            jsonGenerator.useDefaultPrettyPrinter();
+            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), jsonGenerator);
             logger.info("{} {} results written to string", OUTPUT_FORMAT, (modeOfInheritance.getAbbreviation() == null) ? "ALL" : modeOfInheritance
                     .getAbbreviation());
             return stringWriter.toString();
@@ -82,36 +114,42 @@ public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis
         return "";
     }
 
-    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, ObjectWriter objectWriter, Writer writer) throws IOException {
-        List<Gene> compatibleGenes = getCompatibleGene(modeOfInheritance, analysisResults.getGenes());
-
-        if (writeOnlyContributingVariants) {
-            logger.debug("Writing out only CONTRIBUTING variants");
-            List<Gene> passedGenes = makePassedGenes(modeOfInheritance, compatibleGenes);
-            objectWriter.writeValue(writer, passedGenes);
-        } else {
-            objectWriter.writeValue(writer, compatibleGenes);
+    /**
+     * Streams the results for the given mode of inheritance to the {@link OutputStream} as UTF-8 encoded JSON. The
+     * stream is flushed, but not closed, once the results have been written so this is suitable for writing directly
+     * to an HTTP response body or a compressing stream owned by the caller.
+     *
+     * @param modeOfInheritance the mode of inheritance for which the results should be written
+     * @param analysisResults   the results to write
+     * @param settings          the output settings
+     * @param outputStream      the stream to write the JSON to
+     * @throws IOException if the results could not be written to the stream
+     * @since 12.1.0
+     */
+    public void writeTo(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, OutputSettings settings, OutputStream outputStream) throws IOException {
+        try (JsonGenerator jsonGenerator = OBJECT_MAPPER.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), jsonGenerator);
         }
     }
 
-    private List<Gene> getCompatibleGene(ModeOfInheritance modeOfInheritance, List<Gene> genes) {
-        if (modeOfInheritance == ModeOfInheritance.ANY) {
-            return genes;
+    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, JsonGenerator jsonGenerator) throws IOException {
+        if (writeOnlyContributingVariants) {
+            logger.debug("Writing out only CONTRIBUTING variants");
         }
-        return genes.stream()
-                .filter(gene -> gene.isCompatibleWith(modeOfInheritance))
-                .collect(toList());
-    }
-
-    private List<Gene> makePassedGenes(ModeOfInheritance modeOfInheritance, List<Gene> compatibleGenes) {
-        List<Gene> passedGenes = new ArrayList<>();
-        for (Gene gene : compatibleGenes) {
-            if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
-                Gene makePassOnlyGene = makeContributingOnlyGene(modeOfInheritance, gene);
-                passedGenes.add(makePassOnlyGene);
+        jsonGenerator.writeStartArray();
+        for (Gene gene : analysisResults.getRankedGenesForMode(modeOfInheritance)) {
+            if (!gene.isCompatibleWith(modeOfInheritance)) {
+                continue;
+            }
+            if (!writeOnlyContributingVariants) {
+                jsonGenerator.writeObject(gene);
+            } else if (gene.passedFilters()) {
+                // only one of these copies is alive at any time, rather than one for every passed gene
+                jsonGenerator.writeObject(makeContributingOnlyGene(modeOfInheritance, gene));
             }
         }
-        return passedGenes;
+        jsonGenerator.writeEndArray();
+        jsonGenerator.flush();
     }
 
     private Gene makeContributingOnlyGene(ModeOfInheritance modeOfInheritance, Gene gene) {
@@ -37,7 +37,8 @@ public enum OutputFormat {
     TSV_GENE("genes.tsv"),
     TSV_VARIANT("variants.tsv"),
     PHENOGRID("phenogrid.json"),
-    JSON("json");
+    JSON("json"),
+    COLUMNAR("columnar");
 
     private final String fileExtension;
 
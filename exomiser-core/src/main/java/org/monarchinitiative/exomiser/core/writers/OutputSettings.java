@@ -48,12 +48,18 @@ public class OutputSettings {
     private final int numberOfGenesToShow;
     private final String outputPrefix;
     private final Set<OutputFormat> outputFormats;
+    @JsonProperty
+    private final boolean compressJsonOutput;
+    @JsonProperty
+    private final int htmlGenesPerPage;
 
     private OutputSettings(Builder builder) {
         this.outputContributingVariantsOnly = builder.outputContributinVariantsOnly;
         this.numberOfGenesToShow = builder.numberOfGenesToShow;
         this.outputPrefix = builder.outputPrefix;
         this.outputFormats = builder.outputFormats;
+        this.compressJsonOutput = builder.compressJsonOutput;
+        this.htmlGenesPerPage = builder.htmlGenesPerPage;
     }
 
     public static Builder builder() {
@@ -66,6 +72,8 @@ public static class Builder {
         private int numberOfGenesToShow = 0;
         private String outputPrefix = "";
         private Set<OutputFormat> outputFormats = EnumSet.of(OutputFormat.HTML);
+        private boolean compressJsonOutput = false;
+        private int htmlGenesPerPage = 0;
 
         private Builder() {}
 
@@ -96,6 +104,32 @@ public Builder outputFormats(Set<OutputFormat> outputFormats) {
             this.outputFormats = outputFormats;
             return this;
         }
+
+        /**
+         * Write the JSON results gzip compressed to a file with a .json.gz extension. Defaults to false.
+         *
+         * @since 12.1.0
+         */
+        @JsonSetter
+        public Builder compressJsonOutput(boolean compressJsonOutput) {
+            this.compressJsonOutput = compressJsonOutput;
+            return this;
+        }
+
+        /**
+         * The maximum number of genes written to each page of the HTML results. Results with more genes are written to
+         * several linked pages. Defaults to 0, which writes all the genes to a single page.
+         *
+         * @since 12.1.0
+         */
+        @JsonSetter
+        public Builder htmlGenesPerPage(int htmlGenesPerPage) {
+            if (htmlGenesPerPage < 0) {
+                throw new IllegalArgumentException("htmlGenesPerPage must be 0 or greater. Got " + htmlGenesPerPage);
+            }
+            this.htmlGenesPerPage = htmlGenesPerPage;
+            return this;
+        }
     }
 
     public boolean outputContributingVariantsOnly() {
@@ -114,6 +148,18 @@ public String getOutputPrefix() {
         return outputPrefix;
     }
 
+    public boolean compressJsonOutput() {
+        return compressJsonOutput;
+    }
+
+    /**
+     * @return the maximum number of genes to write to each page of the HTML results, or 0 for a single page.
+     * @since 12.1.0
+     */
+    public int getHtmlGenesPerPage() {
+        return htmlGenesPerPage;
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
@@ -121,6 +167,8 @@ public int hashCode() {
         hash = 79 * hash + this.numberOfGenesToShow;
         hash = 79 * hash + Objects.hashCode(this.outputPrefix);
         hash = 79 * hash + Objects.hashCode(this.outputFormats);
+        hash = 79 * hash + (this.compressJsonOutput ? 1 : 0);
+        hash = 79 * hash + this.htmlGenesPerPage;
         return hash;
     }
 
@@ -142,12 +190,18 @@ public boolean equals(Object obj) {
         if (!Objects.equals(this.outputPrefix, other.outputPrefix)) {
             return false;
         }
+        if (this.compressJsonOutput != other.compressJsonOutput) {
+            return false;
+        }
+        if (this.htmlGenesPerPage != other.htmlGenesPerPage) {
+            return false;
+        }
         return Objects.equals(this.outputFormats, other.outputFormats);
     }
 
     @Override
     public String toString() {
-        return "OutputOptions{" + "outputContributingVariantsOnly=" + outputContributingVariantsOnly + ", numberOfGenesToShow=" + numberOfGenesToShow + ", outputPrefix=" + outputPrefix + ", outputFormats=" + outputFormats + '}';
+        return "OutputOptions{" + "outputContributingVariantsOnly=" + outputContributingVariantsOnly + ", numberOfGenesToShow=" + numberOfGenesToShow + ", outputPrefix=" + outputPrefix + ", outputFormats=" + outputFormats + ", compressJsonOutput=" + compressJsonOutput + ", htmlGenesPerPage=" + htmlGenesPerPage + '}';
     }
 
 }
@@ -74,7 +74,7 @@ public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, An
 
     @Override
     public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
-        List<Gene> passedGenes = ResultsWriterUtils.getMaxPassedGenes(analysisResults.getGenes(), settings.getNumberOfGenesToShow());
+        List<Gene> passedGenes = ResultsWriterUtils.getMaxPassedGenes(analysisResults.getRankedGenesForMode(modeOfInheritance), settings.getNumberOfGenesToShow());
         List<HiPhivePriorityResult> hiPhiveResults = new ArrayList<>();
         for (Gene gene : passedGenes) {
             if (gene.getPriorityResults().containsKey(PriorityType.HIPHIVE_PRIORITY)) {
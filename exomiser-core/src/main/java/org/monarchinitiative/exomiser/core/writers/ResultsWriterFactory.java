@@ -34,6 +34,9 @@
  */
 public class ResultsWriterFactory {
 
+    // shared so that the original VCF lines are only read once for all the modes of inheritance written
+    private final VcfResultsWriter vcfResultsWriter = new VcfResultsWriter();
+
     /**
      * Build {@link ResultsWriter} for the given {@link OutputFormat}.
      * 
@@ -48,11 +51,13 @@ public ResultsWriter getResultsWriter(OutputFormat outputFormat) {
             case TSV_VARIANT:
                 return new TsvVariantResultsWriter();
             case VCF:
-                return new VcfResultsWriter();
+                return vcfResultsWriter;
             case PHENOGRID:
                 return new PhenogridWriter();
             case JSON:
                 return new JsonResultsWriter();
+            case COLUMNAR:
+                return new ColumnarResultsWriter();
             case HTML:
             default:
                 return new HtmlResultsWriter();
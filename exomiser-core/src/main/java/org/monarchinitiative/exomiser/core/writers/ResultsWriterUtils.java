@@ -25,6 +25,7 @@
  */
 package org.monarchinitiative.exomiser.core.writers;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
@@ -32,14 +33,18 @@
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.filters.FilterReport;
 import org.monarchinitiative.exomiser.core.filters.FilterReportFactory;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
 import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 /**
@@ -54,6 +59,17 @@ public class ResultsWriterUtils {
 
     private static final String DEFAULT_OUTPUT_DIR = "results";
 
+    /**
+     * The sources of the per-source frequency columns of the variant outputs, in column order:
+     * "DBSNP_FREQUENCY", "EVS_EA_FREQUENCY", "EVS_AA_FREQUENCY", "EXAC_AFR_FREQ", "EXAC_AMR_FREQ", "EXAC_EAS_FREQ",
+     * "EXAC_FIN_FREQ", "EXAC_NFE_FREQ", "EXAC_SAS_FREQ", "EXAC_OTH_FREQ". Don't change the order of these - it's
+     * necessary for the data to end up in the correct column.
+     */
+    static final List<FrequencySource> VARIANT_FREQUENCY_SOURCES = ImmutableList.of(
+            FrequencySource.THOUSAND_GENOMES,
+            FrequencySource.ESP_EUROPEAN_AMERICAN, FrequencySource.ESP_AFRICAN_AMERICAN,
+            FrequencySource.EXAC_AFRICAN_INC_AFRICAN_AMERICAN, FrequencySource.EXAC_AMERICAN, FrequencySource.EXAC_EAST_ASIAN, FrequencySource.EXAC_FINNISH, FrequencySource.EXAC_NON_FINNISH_EUROPEAN, FrequencySource.EXAC_SOUTH_ASIAN, FrequencySource.EXAC_OTHER);
+
     private ResultsWriterUtils() {
         //Empty - this is a static class.
     }
@@ -148,4 +164,51 @@ private static List<Gene> getMaxGenes(List<Gene> genes, int maxGenes) {
         return passedGenes;
     }
 
+    /**
+     * @return the FILTER field value of the variant under the given mode of inheritance - PASS, a semicolon separated
+     * list of the failed filters, or '.' for unfiltered variants.
+     */
+    static String makeFiltersField(ModeOfInheritance modeOfInheritance, VariantEvaluation variantEvaluation) {
+        //under some modes a variant should not pass, but others it will, so we need to check this here
+        //otherwise when running FULL or SPARSE modes alleles will be reported as having passed under the wrong MOI
+        switch (variantEvaluation.getFilterStatusForMode(modeOfInheritance)) {
+            case FAILED:
+                return formatFailedFilters(variantEvaluation.getFailedFilterTypesForMode(modeOfInheritance));
+            case PASSED:
+                return "PASS";
+            case UNFILTERED:
+            default:
+                return ".";
+        }
+    }
+
+    private static String formatFailedFilters(Set<FilterType> failedFilters) {
+        StringJoiner stringJoiner = new StringJoiner(";");
+        for (FilterType filterType : failedFilters) {
+            stringJoiner.add(filterType.toVcfValue());
+        }
+        return stringJoiner.toString();
+    }
+
+    /**
+     * @param annotations        transcript annotations of a variant, most pathogenic first
+     * @param noAnnotationsValue value to return if there are no annotations
+     * @return An annotation for a single transcript, representing one of the
+     * annotations with the most pathogenic annotation.
+     */
+    static String getRepresentativeAnnotation(List<TranscriptAnnotation> annotations, String noAnnotationsValue) {
+        if (annotations.isEmpty()) {
+            return noAnnotationsValue;
+        }
+
+        TranscriptAnnotation anno = annotations.get(0);
+
+        StringJoiner stringJoiner = new StringJoiner(":");
+        stringJoiner.add(anno.getGeneSymbol());
+        stringJoiner.add(anno.getAccession());
+        stringJoiner.add(anno.getHgvsCdna());
+        stringJoiner.add(anno.getHgvsProtein());
+        return stringJoiner.toString();
+    }
+
 }
@@ -112,7 +112,7 @@ public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis
     }
 
     private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, CSVPrinter printer) throws IOException {
-        for (Gene gene : analysisResults.getGenes()) {
+        for (Gene gene : analysisResults.getRankedGenesForMode(modeOfInheritance)) {
             if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
                 List<String> geneRecord = makeGeneRecord(modeOfInheritance, gene);
                 printer.printRecord(geneRecord);
@@ -26,10 +26,8 @@
 import org.apache.commons.csv.CSVPrinter;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
-import org.monarchinitiative.exomiser.core.filters.FilterType;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneScore;
-import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
@@ -101,13 +99,13 @@ private void writeData(ModeOfInheritance modeOfInheritance, Analysis analysis, A
                            boolean writeOnlyContributingVariants, CSVPrinter printer) throws IOException {
         if (writeOnlyContributingVariants) {
             logger.debug("Writing out only CONTRIBUTING variants");
-            for (Gene gene : analysisResults.getGenes()) {
+            for (Gene gene : analysisResults.getRankedGenesForMode(modeOfInheritance)) {
                 if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
                     writeOnlyContributingVariantsOfGene(modeOfInheritance, gene, printer);
                 }
             }
         } else {
-            for (Gene gene : analysisResults.getGenes()) {
+            for (Gene gene : analysisResults.getRankedGenesForMode(modeOfInheritance)) {
                 writeAllVariantsOfGene(modeOfInheritance, gene, printer);
             }
         }
@@ -143,7 +141,7 @@ private List<Object> buildVariantRecord(ModeOfInheritance modeOfInheritance, Var
         // QUAL
         record.add(formatter.format(ve.getPhredScore()));
         // FILTER
-        record.add(makeFiltersField(modeOfInheritance, ve));
+        record.add(ResultsWriterUtils.makeFiltersField(modeOfInheritance, ve));
         // GENOTYPE
         record.add(ve.getGenotypeString());
         // COVERAGE
@@ -151,7 +149,7 @@ private List<Object> buildVariantRecord(ModeOfInheritance modeOfInheritance, Var
         // FUNCTIONAL_CLASS
         record.add(ve.getVariantEffect().getSequenceOntologyTerm());
         // HGVS
-        record.add(getRepresentativeAnnotation(ve.getTranscriptAnnotations()));
+        record.add(ResultsWriterUtils.getRepresentativeAnnotation(ve.getTranscriptAnnotations(), "?"));
         // EXOMISER_GENE
         record.add(ve.getGeneSymbol());
         PathogenicityData pathogenicityData = ve.getPathogenicityData();
@@ -186,15 +184,9 @@ private void addFrequencyData(FrequencyData frequencyData, List<Object> record)
         record.add(dotIfNull(frequencyData.getRsId()));
         // MAX_FREQUENCY
         record.add(dotIfNull(frequencyData.getMaxFreq()));
-        // Don't change the order of these - it's necessary for the data to end up in the correct column
-        FrequencySource[] experimentalFrequencySources = {
-                // "DBSNP_FREQUENCY",
-                FrequencySource.THOUSAND_GENOMES,
-                // "EVS_EA_FREQUENCY", "EVS_AA_FREQUENCY",
-                FrequencySource.ESP_EUROPEAN_AMERICAN, FrequencySource.ESP_AFRICAN_AMERICAN,
-                // "EXAC_AFR_FREQ", "EXAC_AMR_FREQ", "EXAC_EAS_FREQ", "EXAC_FIN_FREQ", "EXAC_NFE_FREQ", "EXAC_SAS_FREQ", "EXAC_OTH_FREQ",
-                FrequencySource.EXAC_AFRICAN_INC_AFRICAN_AMERICAN, FrequencySource.EXAC_AMERICAN, FrequencySource.EXAC_EAST_ASIAN, FrequencySource.EXAC_FINNISH, FrequencySource.EXAC_NON_FINNISH_EUROPEAN, FrequencySource.EXAC_SOUTH_ASIAN, FrequencySource.EXAC_OTHER};
-        for (FrequencySource source : experimentalFrequencySources) {
+        // "DBSNP_FREQUENCY", "EVS_EA_FREQUENCY", "EVS_AA_FREQUENCY",
+        // "EXAC_AFR_FREQ", "EXAC_AMR_FREQ", "EXAC_EAS_FREQ", "EXAC_FIN_FREQ", "EXAC_NFE_FREQ", "EXAC_SAS_FREQ", "EXAC_OTH_FREQ",
+        for (FrequencySource source : ResultsWriterUtils.VARIANT_FREQUENCY_SOURCES) {
             record.add(dotIfFrequencyNull(frequencyData.getFrequencyForSource(source)));
         }
     }
@@ -223,46 +215,4 @@ private Object getPathScore(PathogenicityScore score) {
         }
     }
 
-    private String makeFiltersField(ModeOfInheritance modeOfInheritance, VariantEvaluation variantEvaluation) {
-        //under some modes a variant should not pass, but others it will, so we need to check this here
-        //otherwise when running FULL or SPARSE modes alleles will be reported as having passed under the wrong MOI
-        switch (variantEvaluation.getFilterStatusForMode(modeOfInheritance)) {
-            case FAILED:
-                Set<FilterType> failedFilterTypes = variantEvaluation.getFailedFilterTypesForMode(modeOfInheritance);
-                return formatFailedFilters(failedFilterTypes);
-            case PASSED:
-                return "PASS";
-            case UNFILTERED:
-            default:
-                return ".";
-        }
-    }
-
-    private String formatFailedFilters(Set<FilterType> failedFilters) {
-        StringJoiner stringJoiner = new StringJoiner(";");
-        for (FilterType filterType : failedFilters) {
-            stringJoiner.add(filterType.toVcfValue());
-        }
-        return stringJoiner.toString();
-    }
-
-    /**
-     * @return An annotation for a single transcript, representing one of the
-     * annotations with the most pathogenic annotation.
-     */
-    private String getRepresentativeAnnotation(List<TranscriptAnnotation> annotations) {
-        if (annotations.isEmpty()) {
-            return "?";
-        }
-
-        TranscriptAnnotation anno = annotations.get(0);
-
-        StringJoiner stringJoiner = new StringJoiner(":");
-        stringJoiner.add(anno.getGeneSymbol());
-        stringJoiner.add(anno.getAccession());
-        stringJoiner.add(anno.getHgvsCdna());
-        stringJoiner.add(anno.getHgvsProtein());
-        return stringJoiner.toString();
-    }
-
 }
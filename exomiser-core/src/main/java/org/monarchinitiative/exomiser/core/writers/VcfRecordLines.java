@@ -0,0 +1,230 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import htsjdk.samtools.util.IOUtil;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Holds the original text of the VCF lines for a set of bi-allelic {@link VariantContext}s so that these can be written
+ * back out with only the FILTER and INFO columns changed, rather than being re-encoded by HTSJDK. Lines are matched on
+ * their CHROM, POS, REF and ALT columns. Multi-allelic lines, and sites present on more than one line, are not
+ * retained and so will need to be encoded in full. When only some of the samples in the VCF are to be written, only
+ * their genotype columns are retained.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class VcfRecordLines {
+
+    private static final Logger logger = LoggerFactory.getLogger(VcfRecordLines.class);
+
+    private static final VcfRecordLines EMPTY = new VcfRecordLines(Collections.emptyMap());
+
+    private static final int FILTER_COLUMN = 6;
+    private static final int INFO_COLUMN = 7;
+    private static final int FORMAT_COLUMN = 8;
+
+    private final Map<String, String> lines;
+
+    private VcfRecordLines(Map<String, String> lines) {
+        this.lines = lines;
+    }
+
+    static VcfRecordLines empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Reads the lines of the VCF file matching any of the <code>keys</code>. Only the matched lines are retained so
+     * the memory required is proportional to the number of records to be written, not the size of the input file.
+     *
+     * @param vcfPath       path of the plain-text or gzipped VCF file
+     * @param keys          keys of the records to be retained, as created by {@link #keyOf(VariantContext)}
+     * @param sampleOffsets the zero-based offsets of the genotype columns to retain, in output order, or null to
+     *                      retain all the columns
+     * @return the lines of the VCF file matching the <code>keys</code>, or an empty instance if the file could not be read
+     */
+    static VcfRecordLines read(Path vcfPath, Set<String> keys, int[] sampleOffsets) {
+        if (keys.isEmpty() || vcfPath == null || !Files.isRegularFile(vcfPath)) {
+            return EMPTY;
+        }
+        Map<String, String> lines = new HashMap<>(keys.size() * 2);
+        Set<String> duplicateKeys = new HashSet<>();
+        try (BufferedReader reader = IOUtil.openFileForBufferedReading(vcfPath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                String key = keyOf(line);
+                if (key != null && keys.contains(key) && lines.put(key, selectSampleColumns(line, sampleOffsets)) != null) {
+                    duplicateKeys.add(key);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Unable to read lines from {} - all records will be fully encoded", vcfPath, e);
+            return EMPTY;
+        }
+        // we can't tell which line a VariantContext came from, so these need to be encoded from the VariantContext
+        duplicateKeys.forEach(lines::remove);
+        logger.debug("Read {} of {} record lines from {}", lines.size(), keys.size(), vcfPath);
+        return new VcfRecordLines(lines);
+    }
+
+    /**
+     * @return the line with the fixed columns followed by only the genotype columns at the <code>sampleOffsets</code>,
+     * or the original line if the offsets are null.
+     */
+    static String selectSampleColumns(String line, int[] sampleOffsets) {
+        if (sampleOffsets == null) {
+            return line;
+        }
+        String[] columns = line.split("\t", -1);
+        // a VCF without genotypes has no FORMAT column
+        int numFixedColumns = sampleOffsets.length == 0 ? FORMAT_COLUMN : FORMAT_COLUMN + 1;
+        StringJoiner stringJoiner = new StringJoiner("\t");
+        for (int i = 0; i < numFixedColumns && i < columns.length; i++) {
+            stringJoiner.add(columns[i]);
+        }
+        for (int sampleOffset : sampleOffsets) {
+            int column = FORMAT_COLUMN + 1 + sampleOffset;
+            stringJoiner.add(column < columns.length ? columns[column] : ".");
+        }
+        return stringJoiner.toString();
+    }
+
+    /**
+     * @return a key of the form chr10-123256215-T-G for a bi-allelic {@link VariantContext} or null if the variant is
+     * multi-allelic.
+     */
+    static String keyOf(VariantContext variantContext) {
+        if (variantContext.getNAlleles() != 2) {
+            return null;
+        }
+        return variantContext.getContig() + '-' + variantContext.getStart() + '-' + variantContext.getReference()
+                .getDisplayString() + '-' + variantContext.getAlternateAllele(0).getDisplayString();
+    }
+
+    private static String keyOf(String line) {
+        int[] tabs = tabPositions(line, 5);
+        if (tabs == null) {
+            return null;
+        }
+        String alt = line.substring(tabs[3] + 1, tabs[4]);
+        if (alt.indexOf(',') >= 0) {
+            return null;
+        }
+        // HTSJDK upper-cases the bases of the alleles
+        return line.substring(0, tabs[0]) + '-' + line.substring(tabs[0] + 1, tabs[1]) + '-'
+                + line.substring(tabs[2] + 1, tabs[3]).toUpperCase(Locale.ROOT) + '-' + alt.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the original line for the <code>variantContext</code> or null if there is none.
+     */
+    String get(VariantContext variantContext) {
+        String key = keyOf(variantContext);
+        return key == null ? null : lines.get(key);
+    }
+
+    int size() {
+        return lines.size();
+    }
+
+    /**
+     * Replaces the FILTER column of the <code>line</code> and adds the <code>infoFields</code> to the INFO column. As
+     * with the HTSJDK VCFEncoder the INFO fields are written in key order and any existing values for the keys in
+     * <code>infoFields</code> are replaced. All the other columns are copied verbatim.
+     *
+     * @param line       the original VCF line
+     * @param filter     the new FILTER column value
+     * @param infoFields INFO fields to add to the line
+     * @return the updated line or null if the line has less than the eight mandatory columns
+     */
+    static String updateFilterAndInfo(String line, String filter, Map<String, Object> infoFields) {
+        int[] tabs = tabPositions(line, INFO_COLUMN);
+        if (tabs == null) {
+            return null;
+        }
+        int infoEnd = line.indexOf('\t', tabs[INFO_COLUMN - 1] + 1);
+        if (infoEnd < 0) {
+            infoEnd = line.length();
+        }
+        String info = line.substring(tabs[INFO_COLUMN - 1] + 1, infoEnd);
+
+        StringBuilder stringBuilder = new StringBuilder(line.length() + 256);
+        stringBuilder.append(line, 0, tabs[FILTER_COLUMN - 1] + 1);
+        stringBuilder.append(filter).append('\t');
+        appendInfo(stringBuilder, info, infoFields);
+        stringBuilder.append(line, infoEnd, line.length());
+        return stringBuilder.toString();
+    }
+
+    private static void appendInfo(StringBuilder stringBuilder, String info, Map<String, Object> infoFields) {
+        Map<String, String> sortedFields = new TreeMap<>();
+        if (!info.isEmpty() && !".".equals(info)) {
+            for (String field : info.split(";")) {
+                if (!field.isEmpty()) {
+                    int equals = field.indexOf('=');
+                    sortedFields.put(equals < 0 ? field : field.substring(0, equals), field);
+                }
+            }
+        }
+        for (Map.Entry<String, Object> entry : infoFields.entrySet()) {
+            sortedFields.put(entry.getKey(), entry.getKey() + '=' + entry.getValue());
+        }
+        if (sortedFields.isEmpty()) {
+            stringBuilder.append('.');
+            return;
+        }
+        StringJoiner stringJoiner = new StringJoiner(";");
+        sortedFields.values().forEach(stringJoiner::add);
+        stringBuilder.append(stringJoiner.toString());
+    }
+
+    /**
+     * @return the positions of the first <code>count</code> tab characters in the line, or null if there are fewer
+     * tabs than this.
+     */
+    private static int[] tabPositions(String line, int count) {
+        int[] tabs = new int[count];
+        int from = 0;
+        for (int i = 0; i < count; i++) {
+            int tab = line.indexOf('\t', from);
+            if (tab < 0) {
+                return null;
+            }
+            tabs[i] = tab;
+            from = tab + 1;
+        }
+        return tabs;
+    }
+}
@@ -40,16 +40,25 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 /**
  * Generate results in VCF format using HTS-JDK.
+ * <p>
+ * Bi-allelic records are written by copying their line from the input VCF file and updating only the FILTER and INFO
+ * columns. Multi-allelic records, or those which can't be found in the input VCF, are fully encoded by HTS-JDK. Finding
+ * the original lines means reading the whole input VCF again, so when only a few records are to be written, for
+ * instance only the contributing variants, these are all fully encoded instead.
  *
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  * @author Manuel Holtgrewe <manuel.holtgrewe@charite.de>
@@ -102,26 +111,51 @@ VCFHeaderLine getVcfHeaderLine() {
 
     private static final OutputFormat OUTPUT_FORMAT = OutputFormat.VCF;
 
+    // fewer records than this are cheap to encode in full compared with reading the whole input VCF again
+    private static final int MIN_RECORDS_FOR_ORIGINAL_LINES = 10_000;
+
+    private final int minRecordsForOriginalLines;
+
+    // the original lines are read once for the results and re-used for each mode of inheritance written
+    private final AtomicReference<OriginalVcfLines> originalVcfLines = new AtomicReference<>();
+
     /**
      * Initialize the object, given the original {@link VCFFileReader} from the
      * input.
      */
     public VcfResultsWriter() {
+        this(MIN_RECORDS_FOR_ORIGINAL_LINES);
+    }
+
+    /**
+     * @param useOriginalVcfLines when true, bi-allelic records are always written by updating the FILTER and INFO
+     *                            columns of the original line in the input VCF rather than by re-encoding their
+     *                            {@link VariantContext}
+     * @since 12.1.0
+     */
+    VcfResultsWriter(boolean useOriginalVcfLines) {
+        this(useOriginalVcfLines ? 1 : Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param minRecordsForOriginalLines the number of records to be written at or above which the original lines of
+     *                                   the bi-allelic records are read from the input VCF
+     * @since 12.1.0
+     */
+    VcfResultsWriter(int minRecordsForOriginalLines) {
         Locale.setDefault(Locale.UK);
+        this.minRecordsForOriginalLines = minRecordsForOriginalLines;
     }
 
     @Override
     public void writeFile(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
-        // create a VariantContextWriter writing to the output file path
         String outFileName = ResultsWriterUtils.makeOutputFilename(analysis.getVcfPath(), settings.getOutputPrefix(), OUTPUT_FORMAT, modeOfInheritance);
         Path outFile = Paths.get(outFileName);
         VCFHeader vcfHeader = getVcfHeader(analysis);
-        try (VariantContextWriter writer = VariantContextWriterConstructionHelper.openVariantContextWriter(
-                vcfHeader,
-                outFile.toString(),
-                getAdditionalHeaderLines(),
-                false)) {
-            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), writer);
+        try (Writer writer = Files.newBufferedWriter(outFile, VCFEncoder.VCF_CHARSET)) {
+            writeData(modeOfInheritance, analysis, analysisResults, settings.outputContributingVariantsOnly(), vcfHeader, writer);
+        } catch (IOException ex) {
+            logger.error("Unable to write results to file {}", outFileName, ex);
         }
         logger.debug("{} {} results written to file {}.", OUTPUT_FORMAT, modeOfInheritance.getAbbreviation(), outFileName);
     }
@@ -139,70 +173,155 @@ private VCFHeader getVcfHeader(Analysis analysis) {
     @Override
     public String writeString(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, OutputSettings settings) {
         VCFHeader vcfHeader = VcfFiles.readVcfHeader(analysis.getVcfPath());
-        // create a VariantContextWriter writing to a buffer
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (VariantContextWriter writer = VariantContextWriterConstructionHelper.openVariantContextWriter(vcfHeader, baos, getAdditionalHeaderLines())) {
-            writeData(modeOfInheritance, analysisResults, settings.outputContributingVariantsOnly(), writer);
+        StringWriter writer = new StringWriter();
+        try {
+            writeData(modeOfInheritance, analysis, analysisResults, settings.outputContributingVariantsOnly(), vcfHeader, writer);
+        } catch (IOException ex) {
+            logger.error("Unable to write results to string {}", writer, ex);
         }
         logger.info("{} results written to string buffer", OUTPUT_FORMAT);
-        return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+        return writer.toString();
     }
 
-    private void writeData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, VariantContextWriter writer) {
-        writeUnannotatedVariants(modeOfInheritance, analysisResults, writer);
-        // actually write the data and close writer again
+    private void writeData(ModeOfInheritance modeOfInheritance, Analysis analysis, AnalysisResults analysisResults, boolean writeOnlyContributingVariants, VCFHeader vcfHeader, Writer writer) throws IOException {
+        List<VariantRecord> records = new ArrayList<>();
+        records.addAll(makeUnannotatedVariantRecords(analysisResults));
         if (writeOnlyContributingVariants) {
             logger.debug("Writing out only CONTRIBUTING variants");
-            writeOnlyContributingData(modeOfInheritance, analysisResults, writer);
+            records.addAll(makeOnlyContributingRecords(modeOfInheritance, analysisResults));
         } else {
-            writeAllSampleData(modeOfInheritance, analysisResults, writer);
+            records.addAll(makeAllSampleRecords(modeOfInheritance, analysisResults));
+        }
+
+        VCFHeader sampleHeader = makeSampleHeader(vcfHeader, analysisResults.getSampleNames());
+        writeHeader(sampleHeader, writer);
+        // the VCFEncoder is set up in the same way as the VariantContextWriter would be so that the fully encoded
+        // records are identical to those written by it
+        VCFHeader outputHeader = VariantContextWriterConstructionHelper.extendHeaderFields(new VCFHeader(sampleHeader));
+        getAdditionalHeaderLines().forEach(outputHeader::addMetaDataLine);
+        VCFEncoder vcfEncoder = new VCFEncoder(outputHeader, true, false);
+        boolean writeGenotypes = outputHeader.hasGenotypingData();
+
+        VcfRecordLines originalLines = getOriginalVcfLines(analysis.getVcfPath(), analysisResults, sampleOffsets(vcfHeader, sampleHeader), records);
+        int linesCopied = 0;
+        for (VariantRecord record : records) {
+            String updatedLine = updateOriginalLine(originalLines, record, modeOfInheritance);
+            if (updatedLine != null) {
+                writer.write(updatedLine);
+                linesCopied++;
+            } else {
+                VariantContext updatedRecord = updateRecord(record.variantEvaluations, record.gene, modeOfInheritance);
+                vcfEncoder.write(writer, writeGenotypes ? updatedRecord : new VariantContextBuilder(updatedRecord).noGenotypes().make());
+            }
+            writer.write('\n');
         }
+        logger.debug("Wrote {} records - {} updated from the original VCF lines, {} fully encoded", records.size(), linesCopied, records.size() - linesCopied);
     }
 
-    private void writeUnannotatedVariants(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, VariantContextWriter writer) {
-        List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, null, analysisResults.getUnAnnotatedVariantEvaluations());
-        updatedRecords.forEach(writer::add);
+    /**
+     * Writes the header using a Jannovar {@link VariantContextWriter} so that the extra Jannovar and Exomiser header
+     * lines are added in the usual way.
+     */
+    private void writeHeader(VCFHeader vcfHeader, Writer writer) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // the header is written as the writer is opened
+        VariantContextWriter headerWriter = VariantContextWriterConstructionHelper.openVariantContextWriter(vcfHeader, baos, getAdditionalHeaderLines());
+        headerWriter.close();
+        writer.write(new String(baos.toByteArray(), VCFEncoder.VCF_CHARSET));
     }
 
-    private void writeOnlyContributingData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, VariantContextWriter writer) {
-        for (Gene gene : analysisResults.getGenes()) {
+    /**
+     * @return the header with only the genotype columns of the analysed samples. An analysis of one family from a
+     * multi-family VCF only analyses the samples in the pedigree, so the genotypes of the other families are not written.
+     */
+    private VCFHeader makeSampleHeader(VCFHeader vcfHeader, List<String> sampleNames) {
+        List<String> vcfSampleNames = vcfHeader.getGenotypeSamples();
+        if (sampleNames.isEmpty() || sampleNames.equals(vcfSampleNames) || !vcfSampleNames.containsAll(sampleNames)) {
+            return vcfHeader;
+        }
+        return new VCFHeader(vcfHeader.getMetaDataInInputOrder(), sampleNames);
+    }
+
+    /**
+     * @return the offsets in the original VCF of the genotype columns in the sample header, or null if these are the same
+     */
+    private int[] sampleOffsets(VCFHeader vcfHeader, VCFHeader sampleHeader) {
+        if (sampleHeader == vcfHeader) {
+            return null;
+        }
+        return sampleHeader.getGenotypeSamples().stream()
+                .mapToInt(vcfHeader.getSampleNameToOffset()::get)
+                .toArray();
+    }
+
+    /**
+     * Returns the original lines of the records to be written. Writing all the variants of the results writes the same
+     * records for each mode of inheritance, so the input VCF is only read once however many modes are written by this
+     * writer. The lines of the last results are kept until the lines of different results or records are requested.
+     * Writers of other results read their lines independently, while those of the same results wait for the one read.
+     */
+    private VcfRecordLines getOriginalVcfLines(Path vcfPath, AnalysisResults analysisResults, int[] sampleOffsets, List<VariantRecord> records) {
+        if (records.size() < minRecordsForOriginalLines) {
+            return VcfRecordLines.empty();
+        }
+        Set<String> keys = makeOriginalLineKeys(records);
+        return originalVcfLines.updateAndGet(current -> current != null && current.isFor(vcfPath, analysisResults, sampleOffsets, keys) ? current : new OriginalVcfLines(vcfPath, analysisResults, sampleOffsets, keys))
+                .getLines();
+    }
+
+    /**
+     * @return the keys of the original lines of the bi-allelic records to be written
+     */
+    private Set<String> makeOriginalLineKeys(List<VariantRecord> records) {
+        Set<String> keys = new HashSet<>(records.size() * 2);
+        for (VariantRecord record : records) {
+            String key = VcfRecordLines.keyOf(record.getVariantContext());
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private List<VariantRecord> makeUnannotatedVariantRecords(AnalysisResults analysisResults) {
+        return makeGeneVariantRecords(null, analysisResults.getUnAnnotatedVariantEvaluations());
+    }
+
+    private List<VariantRecord> makeOnlyContributingRecords(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults) {
+        List<VariantRecord> records = new ArrayList<>();
+        for (Gene gene : analysisResults.getRankedGenesForMode(modeOfInheritance)) {
             if (gene.passedFilters() && gene.isCompatibleWith(modeOfInheritance)) {
                 List<VariantEvaluation> compatibleVariants = gene.getGeneScoreForMode(modeOfInheritance).getContributingVariants();
-                List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, gene, compatibleVariants);
-                updatedRecords.forEach(writer::add);
+                records.addAll(makeGeneVariantRecords(gene, compatibleVariants));
             }
         }
+        return records;
     }
 
     /**
-     * Write the <code>analysisResults</code> as VCF to <code>writer</code>.
-     * <p>
-     * <code>writer</code> is already completely initialized, including all
-     * headers, so data is written out directly for each
-     * {@link VariantEvaluation} in <code>analysisResults</code>.
+     * Creates the records for all the {@link VariantEvaluation}s of the genes in <code>analysisResults</code>.
      *
      * @param analysisResults data set to write out
-     * @param writer          writer to write to
      */
-    private void writeAllSampleData(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults, VariantContextWriter writer) {
-        for (Gene gene : analysisResults.getGenes()) {
-                logger.debug("updating variant records for gene {}", gene);
-                List<VariantContext> updatedRecords = updateGeneVariantRecords(modeOfInheritance, gene, gene.getVariantEvaluations());
-                updatedRecords.forEach(writer::add);
+    private List<VariantRecord> makeAllSampleRecords(ModeOfInheritance modeOfInheritance, AnalysisResults analysisResults) {
+        List<VariantRecord> records = new ArrayList<>();
+        for (Gene gene : analysisResults.getRankedGenesForMode(modeOfInheritance)) {
+            logger.debug("updating variant records for gene {}", gene);
+            records.addAll(makeGeneVariantRecords(gene, gene.getVariantEvaluations()));
         }
+        return records;
     }
 
     //this needs a MultiMap<VariantContext, VariantEvaluation> (see InheritanceModeAnalyser for this)
-    private List<VariantContext> updateGeneVariantRecords(ModeOfInheritance modeOfInheritance, Gene gene, List<VariantEvaluation> variants) {
+    private List<VariantRecord> makeGeneVariantRecords(Gene gene, List<VariantEvaluation> variants) {
         if (variants.isEmpty()) {
             return Collections.emptyList();
         }
-//        maybe check if the variant is multi-allelic first?
         Multimap<String, VariantEvaluation> variantContextToEvaluations = mapVariantEvaluationsToVariantContextString(variants);
         return variantContextToEvaluations.asMap()
                 .values()
                 .stream()
-                .map(variantEvaluations -> updateRecord(Lists.newArrayList(variantEvaluations), gene, modeOfInheritance))
+                .map(variantEvaluations -> new VariantRecord(gene, Lists.newArrayList(variantEvaluations)))
                 .collect(toList());
     }
 
@@ -233,6 +352,23 @@ private String variantContextKeyValue(VariantContext variantContext) {
         return stringJoiner.toString();
     }
 
+    /**
+     * Updates the FILTER and INFO columns of the original VCF line of a bi-allelic record. This is much faster than
+     * re-encoding the whole {@link VariantContext}, especially for multi-sample VCF files.
+     *
+     * @return the updated line or null if there is no original line for the record
+     */
+    private String updateOriginalLine(VcfRecordLines originalLines, VariantRecord record, ModeOfInheritance modeOfInheritance) {
+        String originalLine = originalLines.get(record.getVariantContext());
+        if (originalLine == null) {
+            return null;
+        }
+        VariantEvaluation variantEvaluation = record.variantEvaluations.get(0);
+        String filter = makeFilterValue(variantEvaluation, modeOfInheritance);
+        Map<String, Object> infoFields = makeInfoFields(record.variantEvaluations, record.gene, modeOfInheritance);
+        return VcfRecordLines.updateFilterAndInfo(originalLine, filter, infoFields);
+    }
+
     private VariantContext updateRecord(List<VariantEvaluation> variantEvaluations, Gene gene, ModeOfInheritance modeOfInheritance) {
         // create a new VariantContextBuilder, based on the original line
         // n.b. variantContexts with alternative alleles will be shared between
@@ -257,15 +393,34 @@ private void updateFilterField(VariantContextBuilder builder, VariantEvaluation
                 builder.filters(makeFailedFilters(variantEvaluation.getFailedFilterTypesForMode(modeOfInheritance)));
                 break;
             case PASSED:
-                builder.filter("PASS");
+                // n.b. builder.filter(String) would add to the original filter Set, which HTSJDK shares between all
+                // the VariantContexts read with the same FILTER value.
+                builder.passFilters();
                 break;
             case UNFILTERED:
             default:
-                builder.filter(".");
+                builder.unfiltered();
                 break;
         }
     }
 
+    /**
+     * @return the FILTER column value for the {@link VariantEvaluation}, as it would be encoded by HTSJDK from the
+     * filters set by {@link #updateFilterField(VariantContextBuilder, VariantEvaluation, ModeOfInheritance)}.
+     */
+    private String makeFilterValue(VariantEvaluation variantEvaluation, ModeOfInheritance modeOfInheritance) {
+        switch (variantEvaluation.getFilterStatusForMode(modeOfInheritance)) {
+            case FAILED:
+                Set<String> failedFilters = new TreeSet<>(makeFailedFilters(variantEvaluation.getFailedFilterTypesForMode(modeOfInheritance)));
+                return failedFilters.isEmpty() ? "PASS" : String.join(";", failedFilters);
+            case PASSED:
+                return "PASS";
+            case UNFILTERED:
+            default:
+                return ".";
+        }
+    }
+
     /**
      * Write all failed filter types from <code>failedFilterTypes</code> into
      * <code>builder</code>.
@@ -299,24 +454,33 @@ private List<VCFHeaderLine> getAdditionalHeaderLines() {
      * {@link VariantEvaluation} and <code>gene</code>.
      */
     private void updateInfoField(VariantContextBuilder builder, List<VariantEvaluation> variantEvaluations, Gene gene, ModeOfInheritance modeOfInheritance) {
+        makeInfoFields(variantEvaluations, gene, modeOfInheritance).forEach(builder::attribute);
+    }
+
+    /**
+     * @return the Exomiser INFO field values for the {@link VariantEvaluation}s of a record and their <code>gene</code>
+     */
+    private Map<String, Object> makeInfoFields(List<VariantEvaluation> variantEvaluations, Gene gene, ModeOfInheritance modeOfInheritance) {
+        Map<String, Object> infoFields = new LinkedHashMap<>();
         if (!variantEvaluations.isEmpty() && gene != null) {
-            builder.attribute(ExomiserVcfInfoField.GENE_SYMBOL.getId(), gene.getGeneSymbol().replace(" ", "_"));
-            builder.attribute(ExomiserVcfInfoField.GENE_ID.getId(), gene.getGeneId());
-            builder.attribute(ExomiserVcfInfoField.GENE_COMBINED_SCORE.getId(), gene.getCombinedScoreForMode(modeOfInheritance));
-            builder.attribute(ExomiserVcfInfoField.GENE_PHENO_SCORE.getId(), gene.getPriorityScoreForMode(modeOfInheritance));
-            builder.attribute(ExomiserVcfInfoField.GENE_VARIANT_SCORE.getId(), gene.getVariantScoreForMode(modeOfInheritance));
+            infoFields.put(ExomiserVcfInfoField.GENE_SYMBOL.getId(), gene.getGeneSymbol().replace(" ", "_"));
+            infoFields.put(ExomiserVcfInfoField.GENE_ID.getId(), gene.getGeneId());
+            infoFields.put(ExomiserVcfInfoField.GENE_COMBINED_SCORE.getId(), gene.getCombinedScoreForMode(modeOfInheritance));
+            infoFields.put(ExomiserVcfInfoField.GENE_PHENO_SCORE.getId(), gene.getPriorityScoreForMode(modeOfInheritance));
+            infoFields.put(ExomiserVcfInfoField.GENE_VARIANT_SCORE.getId(), gene.getVariantScoreForMode(modeOfInheritance));
             //variant scores need a list of VariantEvaluations so as to concatenate the fields in Allele order
-            builder.attribute(ExomiserVcfInfoField.VARIANT_SCORE.getId(), buildVariantScore(variantEvaluations));
-            builder.attribute(ExomiserVcfInfoField.VARIANT_EFFECT.getId(), buildVariantEffects(variantEvaluations));
-            builder.attribute(ExomiserVcfInfoField.VARIANT_HGVS.getId(), buildHgvs(variantEvaluations));
+            infoFields.put(ExomiserVcfInfoField.VARIANT_SCORE.getId(), buildVariantScore(variantEvaluations));
+            infoFields.put(ExomiserVcfInfoField.VARIANT_EFFECT.getId(), buildVariantEffects(variantEvaluations));
+            infoFields.put(ExomiserVcfInfoField.VARIANT_HGVS.getId(), buildHgvs(variantEvaluations));
             for (VariantEvaluation variantEvaluation : variantEvaluations) {
                 if (variantEvaluation.contributesToGeneScoreUnderMode(modeOfInheritance)) {
-                    builder.attribute(ExomiserVcfInfoField.ALLELE_CONTRIBUTES.getId(), variantEvaluation.getAltAlleleId());
+                    infoFields.put(ExomiserVcfInfoField.ALLELE_CONTRIBUTES.getId(), variantEvaluation.getAltAlleleId());
                 }
             }
         } else {
-            builder.attribute(ExomiserVcfInfoField.WARNING.getId(), "VARIANT_NOT_ANALYSED_NO_GENE_ANNOTATIONS");
+            infoFields.put(ExomiserVcfInfoField.WARNING.getId(), "VARIANT_NOT_ANALYSED_NO_GENE_ANNOTATIONS");
         }
+        return infoFields;
     }
 
     private String buildVariantScore(List<VariantEvaluation> variantEvaluations) {
@@ -375,4 +539,53 @@ private String getContributingVariantFlag(VariantEvaluation variantEvaluation) {
         return variantEvaluation.contributesToGeneScore() ? ExomiserVcfInfoField.ALLELE_CONTRIBUTES.getId() : ".";
     }
 
+    /**
+     * The {@link VariantEvaluation}s of a single VCF record, in ALT allele order, and the gene they are written out for.
+     */
+    private static class VariantRecord {
+
+        private final Gene gene;
+        private final List<VariantEvaluation> variantEvaluations;
+
+        private VariantRecord(Gene gene, List<VariantEvaluation> variantEvaluations) {
+            this.gene = gene;
+            this.variantEvaluations = variantEvaluations;
+        }
+
+        private VariantContext getVariantContext() {
+            return variantEvaluations.get(0).getVariantContext();
+        }
+    }
+
+    /**
+     * The original VCF lines of an {@link AnalysisResults} for the keys and genotype columns they were read with. The
+     * lines are read by the first caller of {@link #getLines()}.
+     */
+    private static class OriginalVcfLines {
+
+        private final Path vcfPath;
+        private final AnalysisResults analysisResults;
+        private final int[] sampleOffsets;
+        private final Set<String> keys;
+        private VcfRecordLines lines;
+
+        private OriginalVcfLines(Path vcfPath, AnalysisResults analysisResults, int[] sampleOffsets, Set<String> keys) {
+            this.vcfPath = vcfPath;
+            this.analysisResults = analysisResults;
+            this.sampleOffsets = sampleOffsets;
+            this.keys = keys;
+        }
+
+        private boolean isFor(Path vcfPath, AnalysisResults analysisResults, int[] sampleOffsets, Set<String> keys) {
+            return this.analysisResults == analysisResults && Objects.equals(this.vcfPath, vcfPath) && Arrays.equals(this.sampleOffsets, sampleOffsets) && this.keys.containsAll(keys);
+        }
+
+        private synchronized VcfRecordLines getLines() {
+            if (lines == null) {
+                lines = VcfRecordLines.read(vcfPath, keys, sampleOffsets);
+            }
+            return lines;
+        }
+    }
+
 }
@@ -29,6 +29,7 @@
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
 import org.monarchinitiative.exomiser.core.filters.*;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
 import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisServiceProvider;
 import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
 import org.monarchinitiative.exomiser.core.genome.TestFactory;
@@ -48,6 +49,7 @@
 import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -494,4 +496,20 @@ public void testCanAddFilterStep() {
 
         assertThat(analysisSteps(), equalTo(singletonList(filter)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAddedDataProviderStepsAreNotReplaced() {
+        GenomeAnalysisService genomeAnalysisService = TestFactory.buildDefaultHg19GenomeAnalysisService();
+        AnalysisStep pathogenicityStep = new PathogenicityDataProvider(genomeAnalysisService, EnumSet.of(PathogenicitySource.CADD), new PathogenicityFilter(true));
+
+        analysisBuilder.genomeAssembly(GenomeAssembly.HG19)
+                .frequencySources(EnumSet.of(FrequencySource.ESP_ALL))
+                .pathogenicitySources(EnumSet.of(PathogenicitySource.SIFT))
+                .addFrequencyFilter(1f)
+                .addAnalysisStep(pathogenicityStep);
+
+        List<AnalysisStep> steps = analysisSteps();
+        assertThat(steps.size(), equalTo(2));
+        assertThat(steps.get(1), sameInstance(pathogenicityStep));
+    }
+}
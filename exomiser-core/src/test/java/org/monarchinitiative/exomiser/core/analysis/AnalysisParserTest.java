@@ -688,6 +688,25 @@ public void testParseOutputSettingsUnsupportedOutputFormatDefaultsToHtml() {
         assertThat(outputSettings.getOutputFormats(), equalTo((outputFormats)));
     }
 
+    @Test
+    public void testParseOutputSettingsCompressJsonOutputDefaultsToFalse() {
+        OutputSettings outputSettings = instance.parseOutputSettings(
+                "outputOptions:\n"
+                        + "    outputContributingVariantsOnly: true\n"
+                        + "    outputFormats: [JSON]\n");
+        assertThat(outputSettings.compressJsonOutput(), equalTo(false));
+    }
+
+    @Test
+    public void testParseOutputSettingsCompressJsonOutput() {
+        OutputSettings outputSettings = instance.parseOutputSettings(
+                "outputOptions:\n"
+                        + "    outputContributingVariantsOnly: true\n"
+                        + "    outputFormats: [JSON]\n"
+                        + "    compressJsonOutput: true\n");
+        assertThat(outputSettings.compressJsonOutput(), equalTo(true));
+    }
+
     @Test
     public void testParseOutputSettings() {
         OutputSettings outputSettings = instance.parseOutputSettings(Paths.get("src/test/resources/analysisExample.yml"));
@@ -40,6 +40,7 @@
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -192,6 +193,60 @@ public void testGetGeneScoresForMode() {
         assertThat(instance.getGeneScoresForMode(ModeOfInheritance.AUTOSOMAL_RECESSIVE), equalTo(ImmutableList.of(thirdAR)));
     }
 
+    @Test
+    public void testGetRankedGenesForMode() {
+        Gene fgfr2Gene = TestFactory.newGeneFGFR2();
+        fgfr2Gene.addGeneScore(GeneScore.builder()
+                .geneIdentifier(fgfr2Gene.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_DOMINANT)
+                .combinedScore(0.25f)
+                .build());
+        fgfr2Gene.addGeneScore(GeneScore.builder()
+                .geneIdentifier(fgfr2Gene.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_RECESSIVE)
+                .combinedScore(1f)
+                .build());
+
+        Gene rbm8aGene = TestFactory.newGeneRBM8A();
+        rbm8aGene.addGeneScore(GeneScore.builder()
+                .geneIdentifier(rbm8aGene.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_DOMINANT)
+                .combinedScore(0.75f)
+                .build());
+        rbm8aGene.addGeneScore(GeneScore.builder()
+                .geneIdentifier(rbm8aGene.getGeneIdentifier())
+                .modeOfInheritance(ModeOfInheritance.AUTOSOMAL_RECESSIVE)
+                .combinedScore(0.5f)
+                .build());
+
+        //no gene score for SHH
+        Gene shhGene = TestFactory.newGeneSHH();
+
+        List<Gene> genes = new ArrayList<>(ImmutableList.of(shhGene, fgfr2Gene, rbm8aGene));
+
+        AnalysisResults instance = AnalysisResults.builder()
+                .genes(genes)
+                .build();
+
+        assertThat(instance.getRankedGenesForMode(ModeOfInheritance.AUTOSOMAL_DOMINANT), equalTo(ImmutableList.of(rbm8aGene, fgfr2Gene, shhGene)));
+        assertThat(instance.getRankedGenesForMode(ModeOfInheritance.AUTOSOMAL_RECESSIVE), equalTo(ImmutableList.of(fgfr2Gene, rbm8aGene, shhGene)));
+        // ANY returns the genes in their original order
+        assertThat(instance.getRankedGenesForMode(ModeOfInheritance.ANY), equalTo(ImmutableList.of(shhGene, fgfr2Gene, rbm8aGene)));
+        // ranking the genes does not re-order the original list
+        assertThat(instance.getGenes(), equalTo(ImmutableList.of(shhGene, fgfr2Gene, rbm8aGene)));
+    }
+
+    @Test
+    public void testGetRankedGenesForModeIsUnmodifiable() {
+        AnalysisResults instance = AnalysisResults.builder()
+                .genes(new ArrayList<>(ImmutableList.of(TestFactory.newGeneFGFR2())))
+                .build();
+
+        List<Gene> rankedGenes = instance.getRankedGenesForMode(ModeOfInheritance.AUTOSOMAL_DOMINANT);
+        assertThrows(UnsupportedOperationException.class, () -> rankedGenes.add(TestFactory.newGeneSHH()));
+        assertThrows(UnsupportedOperationException.class, () -> rankedGenes.set(0, TestFactory.newGeneSHH()));
+    }
+
     @Test
     public void testCanReturnUnannotatedVariantEvaluations() {
         VariantEvaluation annotatedVariantEvaluation = VariantEvaluation.builder(10, 123353297, "G", "C")
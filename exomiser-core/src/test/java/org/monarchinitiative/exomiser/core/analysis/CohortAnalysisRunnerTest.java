@@ -0,0 +1,202 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.filters.IntervalFilter;
+import org.monarchinitiative.exomiser.core.genome.*;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.GeneticInterval;
+import org.monarchinitiative.exomiser.core.model.Pedigree;
+import org.monarchinitiative.exomiser.core.model.Pedigree.Individual;
+import org.monarchinitiative.exomiser.core.model.Pedigree.Individual.Sex;
+import org.monarchinitiative.exomiser.core.model.Pedigree.Individual.Status;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class CohortAnalysisRunnerTest extends AnalysisRunnerTestBase {
+
+    private final Path cohortVcfPath = Paths.get("src/test/resources/multiSampleWithProbandHomRef.vcf");
+
+    private Analysis probandAnalysis(String probandSampleName, AnalysisMode analysisMode, AnalysisStep... analysisSteps) {
+        return Analysis.builder()
+                .vcfPath(cohortVcfPath)
+                .probandSampleName(probandSampleName)
+                .pedigree(Pedigree.justProband(probandSampleName))
+                .analysisMode(analysisMode)
+                .steps(Arrays.asList(analysisSteps))
+                .build();
+    }
+
+    /**
+     * The default test service returns the same {@link Gene} instances for each analysis, so the variants of one
+     * analysis would leak into the next. This one builds new genes for each analysis, as the real one does.
+     */
+    private GenomeAnalysisService newGeneGenomeAnalysisService() {
+        GenomeDataService genomeDataService = Mockito.mock(GenomeDataService.class);
+        Mockito.when(genomeDataService.getKnownGenes()).thenAnswer(invocation -> TestFactory.buildGenes());
+        return new GenomeAnalysisServiceImpl(GenomeAssembly.HG19, genomeDataService, TestVariantDataService.stub(), TestFactory.buildDefaultVariantFactory());
+    }
+
+    private List<String> variantStrings(AnalysisResults analysisResults) {
+        return analysisResults.getVariantEvaluations().stream()
+                .map(VariantEvaluation::toString)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> geneStrings(AnalysisResults analysisResults) {
+        return analysisResults.getGenes().stream()
+                .map(gene -> gene.getGeneSymbol() + " " + gene.getGeneScores() + " " + gene.getVariantEvaluations())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void runEmptyAnalysesReturnsEmptyResults() {
+        CohortAnalysisRunner instance = new CohortAnalysisRunner(genomeAnalysisService);
+        assertThat(instance.run(Collections.emptyList()).isEmpty(), is(true));
+    }
+
+    @Test
+    void throwsExceptionWhenAnalysesUseDifferentVcfs() {
+        CohortAnalysisRunner instance = new CohortAnalysisRunner(genomeAnalysisService);
+        List<Analysis> analyses = Arrays.asList(probandAnalysis("Adam", AnalysisMode.FULL), makeAnalysis(vcfPath));
+        assertThrows(IllegalArgumentException.class, () -> instance.run(analyses));
+    }
+
+    @Test
+    void throwsExceptionWhenAnalysisUsesDifferentAssembly() {
+        CohortAnalysisRunner instance = new CohortAnalysisRunner(genomeAnalysisService);
+        Analysis hg38Analysis = probandAnalysis("Adam", AnalysisMode.FULL).copy().genomeAssembly(GenomeAssembly.HG38).build();
+        assertThrows(IllegalArgumentException.class, () -> instance.run(Collections.singletonList(hg38Analysis)));
+    }
+
+    @Test
+    void annotatesVcfOnceForAllProbands() {
+        GenomeAnalysisService spyGenomeAnalysisService = Mockito.spy(genomeAnalysisService);
+        CohortAnalysisRunner instance = new CohortAnalysisRunner(spyGenomeAnalysisService);
+
+        List<Analysis> analyses = Arrays.asList(
+                probandAnalysis("Seth", AnalysisMode.FULL),
+                probandAnalysis("Adam", AnalysisMode.FULL),
+                probandAnalysis("Eva", AnalysisMode.FULL)
+        );
+        List<AnalysisResults> results = instance.run(analyses);
+
+        assertThat(results.size(), equalTo(3));
+        verify(spyGenomeAnalysisService, times(1)).createVariantEvaluations(any(Path.class));
+    }
+
+    @Test
+    void resultsAreSameAsSeparateAnalysisWhenPedigreeContainsAllSamples() {
+        Pedigree pedigree = Pedigree.of(
+                Individual.builder().familyId("FAM").id("Seth").fatherId("Adam").motherId("Eva").sex(Sex.MALE).status(Status.AFFECTED).build(),
+                Individual.builder().familyId("FAM").id("Adam").sex(Sex.MALE).status(Status.UNAFFECTED).build(),
+                Individual.builder().familyId("FAM").id("Eva").sex(Sex.FEMALE).status(Status.UNAFFECTED).build()
+        );
+        IntervalFilter intervalFilter = new IntervalFilter(new GeneticInterval(10, 123239370, 123239370));
+        List<Analysis> analyses = Arrays.asList(
+                probandAnalysis("Seth", AnalysisMode.FULL).copy().pedigree(pedigree).build(),
+                probandAnalysis("Seth", AnalysisMode.PASS_ONLY, intervalFilter).copy().pedigree(pedigree).build()
+        );
+
+        CohortAnalysisRunner instance = new CohortAnalysisRunner(newGeneGenomeAnalysisService());
+        List<AnalysisResults> cohortResults = instance.run(analyses);
+
+        for (int i = 0; i < analyses.size(); i++) {
+            Analysis analysis = analyses.get(i);
+            GenomeAnalysisService analysisService = newGeneGenomeAnalysisService();
+            AnalysisRunner analysisRunner = analysis.getAnalysisMode() == AnalysisMode.FULL ? new SimpleAnalysisRunner(analysisService) : new PassOnlyAnalysisRunner(analysisService);
+            AnalysisResults expected = analysisRunner.run(analysis);
+            AnalysisResults actual = cohortResults.get(i);
+
+            assertThat(actual.getSampleNames(), equalTo(expected.getSampleNames()));
+            assertThat(variantStrings(actual), equalTo(variantStrings(expected)));
+            assertThat(geneStrings(actual), equalTo(geneStrings(expected)));
+        }
+    }
+
+    @Test
+    void eachProbandOnlySeesTheSamplesInItsPedigree() {
+        List<Analysis> analyses = Arrays.asList(
+                probandAnalysis("Seth", AnalysisMode.FULL),
+                probandAnalysis("Adam", AnalysisMode.FULL)
+        );
+
+        CohortAnalysisRunner instance = new CohortAnalysisRunner(genomeAnalysisService);
+        List<AnalysisResults> cohortResults = instance.run(analyses);
+
+        AnalysisResults sethResults = cohortResults.get(0);
+        assertThat(sethResults.getProbandSampleName(), equalTo("Seth"));
+        assertThat(sethResults.getSampleNames(), equalTo(Collections.singletonList("Seth")));
+        // Seth is hom ref for the chr1 variant, so should only have the FGFR2 variant
+        assertThat(sethResults.getVariantEvaluations().size(), equalTo(1));
+        assertThat(sethResults.getVariantEvaluations().get(0).getSampleGenotypes().keySet(), equalTo(Collections.singleton("Seth")));
+        // the VariantContext is also restricted to the proband, so only their genotypes are written out
+        assertThat(sethResults.getVariantEvaluations().get(0).getVariantContext().getSampleNames(), equalTo(Collections.singleton("Seth")));
+
+        AnalysisResults adamResults = cohortResults.get(1);
+        assertThat(adamResults.getProbandSampleName(), equalTo("Adam"));
+        assertThat(adamResults.getSampleNames(), equalTo(Collections.singletonList("Adam")));
+        assertThat(adamResults.getVariantEvaluations().size(), equalTo(2));
+    }
+
+    @Test
+    void eachProbandHasItsOwnVariants() {
+        IntervalFilter intervalFilter = new IntervalFilter(new GeneticInterval(10, 123239370, 123239370));
+        List<Analysis> analyses = Arrays.asList(
+                probandAnalysis("Seth", AnalysisMode.FULL),
+                probandAnalysis("Adam", AnalysisMode.FULL, intervalFilter)
+        );
+
+        CohortAnalysisRunner instance = new CohortAnalysisRunner(genomeAnalysisService);
+        List<AnalysisResults> cohortResults = instance.run(analyses);
+
+        VariantEvaluation sethVariant = cohortResults.get(0).getVariantEvaluations().get(0);
+        VariantEvaluation adamVariant = cohortResults.get(1).getVariantEvaluations().stream()
+                .filter(variant -> variant.getChromosome() == 10)
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+
+        assertThat(adamVariant, equalTo(sethVariant));
+        assertThat(adamVariant, not(sameInstance(sethVariant)));
+        // the filter was only run in Adam's analysis
+        assertThat(sethVariant.getFailedFilterTypes().isEmpty() && sethVariant.getPassedFilterTypes().isEmpty(), is(true));
+        assertThat(adamVariant.getPassedFilterTypes().isEmpty(), is(false));
+    }
+}
@@ -25,14 +25,26 @@
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
 import org.monarchinitiative.exomiser.core.analysis.util.TestPedigrees;
 import org.monarchinitiative.exomiser.core.filters.*;
+import org.monarchinitiative.exomiser.core.genome.*;
 import org.monarchinitiative.exomiser.core.model.*;
 import org.monarchinitiative.exomiser.core.prioritisers.MockPrioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -423,4 +435,157 @@ public void testRunAnalysisAutosomalRecessiveTrioInheritanceFilter() {
         assertThat(passedGene.getVariantEvaluations().get(0).getPosition(), equalTo(123239370));
     }
 
+
+    private List<String> variantStrings(AnalysisResults analysisResults) {
+        return analysisResults.getVariantEvaluations().stream()
+                .map(VariantEvaluation::toString)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRunAnalysisWithIntervalFilterOnlyReadsVariantsInIntervalFromIndexedVcf() throws IOException {
+        Path testOutDir = Files.createTempDirectory("exomiser_pass_only_test");
+        // 120 variants across FGFR2
+        List<Integer> positions = IntStream.range(0, 120).mapToObj(i -> 123_237_000 + i * 1000).collect(Collectors.toList());
+        Path unindexedVcfPath = TestVcfFiles.writeSnvs(testOutDir.resolve("fgfr2.vcf"), "10", positions);
+        Path indexedVcfPath = TestVcfFiles.writeSnvs(testOutDir.resolve("fgfr2.vcf.gz"), "10", positions);
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(10, 123_240_000, 123_249_000));
+
+        AtomicInteger unindexedRecordsRead = new AtomicInteger();
+        PassOnlyAnalysisRunner unindexedRunner = new PassOnlyAnalysisRunner(recordCountingGenomeAnalysisService(unindexedRecordsRead));
+        AnalysisResults unindexedResults = unindexedRunner.run(makeAnalysis(unindexedVcfPath, intervalFilter));
+
+        AtomicInteger indexedRecordsRead = new AtomicInteger();
+        PassOnlyAnalysisRunner indexedRunner = new PassOnlyAnalysisRunner(recordCountingGenomeAnalysisService(indexedRecordsRead));
+        AnalysisResults indexedResults = indexedRunner.run(makeAnalysis(indexedVcfPath, intervalFilter));
+
+        try (Stream<Path> paths = Files.list(testOutDir)) {
+            for (Path path : paths.collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(testOutDir);
+
+        assertThat(variantStrings(indexedResults).size(), equalTo(10));
+        assertThat(variantStrings(indexedResults), equalTo(variantStrings(unindexedResults)));
+        assertThat(indexedResults.getGenes().toString(), equalTo(unindexedResults.getGenes().toString()));
+        assertThat(unindexedRecordsRead.get(), equalTo(120));
+        assertThat(indexedRecordsRead.get(), equalTo(10));
+        // the only difference is that the variants outside the interval are not counted by the interval filter
+        assertThat(intervalFilterItemsProcessed(unindexedResults), equalTo(120L));
+        assertThat(intervalFilterItemsProcessed(indexedResults), equalTo(10L));
+    }
+
+    private long intervalFilterItemsProcessed(AnalysisResults analysisResults) {
+        return analysisResults.getAnalysisMetrics()
+                .getAnalysisStepMetrics(FilterType.INTERVAL_FILTER.name())
+                .map(AnalysisStepMetrics::getItemsProcessed)
+                .orElse(0L);
+    }
+
+    @Test
+    public void testRunAnalysisWithLeadingVcfRecordFiltersOnlyAnnotatesVariantsPassingThem() throws IOException {
+        Path testOutDir = Files.createTempDirectory("exomiser_pass_only_test");
+        // 120 variants across FGFR2
+        List<Integer> positions = IntStream.range(0, 120).mapToObj(i -> 123_237_000 + i * 1000).collect(Collectors.toList());
+        Path vcfPath = TestVcfFiles.writeSnvs(testOutDir.resolve("fgfr2.vcf"), "10", positions);
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(10, 123_240_000, 123_249_000));
+        VariantFilter qualityFilter = new QualityFilter(50);
+        // needs the variant annotations, so stops the following filters being run before annotation
+        VariantFilter variantEffectFilter = new VariantEffectFilter(Collections.emptySet());
+
+        AtomicInteger preFilteredAnnotations = new AtomicInteger();
+        PassOnlyAnalysisRunner preFilteredRunner = new PassOnlyAnalysisRunner(annotationCountingGenomeAnalysisService(preFilteredAnnotations));
+        AnalysisResults preFilteredResults = preFilteredRunner.run(makeAnalysis(vcfPath, intervalFilter, qualityFilter));
+
+        AtomicInteger unfilteredAnnotations = new AtomicInteger();
+        PassOnlyAnalysisRunner unfilteredRunner = new PassOnlyAnalysisRunner(annotationCountingGenomeAnalysisService(unfilteredAnnotations));
+        AnalysisResults unfilteredResults = unfilteredRunner.run(makeAnalysis(vcfPath, variantEffectFilter, intervalFilter, qualityFilter));
+
+        Files.delete(vcfPath);
+        Files.delete(testOutDir);
+
+        assertThat(preFilteredAnnotations.get(), equalTo(10));
+        assertThat(unfilteredAnnotations.get(), equalTo(120));
+
+        assertThat(variantPositions(preFilteredResults).size(), equalTo(10));
+        assertThat(variantPositions(preFilteredResults), equalTo(variantPositions(unfilteredResults)));
+        assertThat(geneSymbols(preFilteredResults), equalTo(geneSymbols(unfilteredResults)));
+
+        for (String stepName : Arrays.asList("INTERVAL_FILTER", "QUALITY_FILTER")) {
+            long preFilteredItems = preFilteredResults.getAnalysisMetrics().getAnalysisStepMetrics(stepName).map(AnalysisStepMetrics::getItemsProcessed).orElse(0L);
+            long unfilteredItems = unfilteredResults.getAnalysisMetrics().getAnalysisStepMetrics(stepName).map(AnalysisStepMetrics::getItemsProcessed).orElse(0L);
+            assertThat(stepName, preFilteredItems, equalTo(unfilteredItems));
+        }
+        assertThat(preFilteredResults.getAnalysisMetrics().getAnalysisStepMetrics("INTERVAL_FILTER").map(AnalysisStepMetrics::getItemsProcessed).orElse(0L), equalTo(120L));
+    }
+
+    @Test
+    public void testRunAnalysisWithLeadingVcfRecordFiltersHasSameFilterStatsForVariantsWithNoKnownGene() throws IOException {
+        Path testOutDir = Files.createTempDirectory("exomiser_pass_only_test");
+        // variants around RBM8A and GNRHR2, neither of which is a known gene here, so these never reach the filters
+        List<Integer> positions = IntStream.range(0, 10).mapToObj(i -> 145_500_000 + i * 1000).collect(Collectors.toList());
+        Path vcfPath = TestVcfFiles.writeSnvs(testOutDir.resolve("chr1.vcf"), "1", positions);
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(10, 123_240_000, 123_249_000));
+        // needs the variant annotations, so stops the following filters being run before annotation
+        VariantFilter variantEffectFilter = new VariantEffectFilter(Collections.emptySet());
+        GenomeDataService genomeDataService = TestGenomeDataService.builder()
+                .genes(Arrays.asList(TestFactory.newGeneFGFR2(), TestFactory.newGeneSHH()))
+                .geneIdentifiers(TestFactory.buildGeneIdentifiers())
+                .build();
+
+        AtomicInteger preFilteredAnnotations = new AtomicInteger();
+        PassOnlyAnalysisRunner preFilteredRunner = new PassOnlyAnalysisRunner(annotationCountingGenomeAnalysisService(preFilteredAnnotations, genomeDataService));
+        AnalysisResults preFilteredResults = preFilteredRunner.run(makeAnalysis(vcfPath, intervalFilter));
+
+        AtomicInteger unfilteredAnnotations = new AtomicInteger();
+        PassOnlyAnalysisRunner unfilteredRunner = new PassOnlyAnalysisRunner(annotationCountingGenomeAnalysisService(unfilteredAnnotations, genomeDataService));
+        AnalysisResults unfilteredResults = unfilteredRunner.run(makeAnalysis(vcfPath, variantEffectFilter, intervalFilter));
+
+        Files.delete(vcfPath);
+        Files.delete(testOutDir);
+
+        assertThat(preFilteredResults.getVariantEvaluations().isEmpty(), is(true));
+        assertThat(unfilteredResults.getVariantEvaluations().isEmpty(), is(true));
+        // chromosome 1 has genes which aren't known, so its variants are annotated before being filtered
+        assertThat(preFilteredAnnotations.get(), equalTo(10));
+        assertThat(unfilteredAnnotations.get(), equalTo(10));
+        assertThat(intervalFilterItemsProcessed(preFilteredResults), equalTo(0L));
+        assertThat(intervalFilterItemsProcessed(unfilteredResults), equalTo(0L));
+    }
+
+    private List<Integer> variantPositions(AnalysisResults analysisResults) {
+        return analysisResults.getVariantEvaluations().stream().map(VariantEvaluation::getPosition).collect(Collectors.toList());
+    }
+
+    private List<String> geneSymbols(AnalysisResults analysisResults) {
+        return analysisResults.getGenes().stream().map(Gene::getGeneSymbol).collect(Collectors.toList());
+    }
+
+    private GenomeAnalysisService annotationCountingGenomeAnalysisService(AtomicInteger annotations) {
+        return annotationCountingGenomeAnalysisService(annotations, TestFactory.buildDefaultGenomeDataService());
+    }
+
+    private GenomeAnalysisService annotationCountingGenomeAnalysisService(AtomicInteger annotations, GenomeDataService genomeDataService) {
+        VariantAnnotator variantAnnotator = TestFactory.buildDefaultVariantAnnotator();
+        VariantAnnotator countingVariantAnnotator = new VariantAnnotator() {
+            @Override
+            public VariantAnnotation annotate(String contig, int pos, String ref, String alt) {
+                annotations.incrementAndGet();
+                return variantAnnotator.annotate(contig, pos, ref, alt);
+            }
+
+            @Override
+            public Map<Integer, Set<String>> getChromosomeGeneSymbols() {
+                return variantAnnotator.getChromosomeGeneSymbols();
+            }
+        };
+        return new GenomeAnalysisServiceImpl(GenomeAssembly.HG19, genomeDataService, TestVariantDataService.stub(), new VariantFactoryImpl(countingVariantAnnotator));
+    }
+
+    private GenomeAnalysisService recordCountingGenomeAnalysisService(AtomicInteger recordsRead) {
+        VariantFactory variantFactory = TestFactory.buildDefaultVariantFactory();
+        VariantFactory countingVariantFactory = variantContexts -> variantFactory.createVariantEvaluations(variantContexts.peek(variantContext -> recordsRead.incrementAndGet()));
+        return new GenomeAnalysisServiceImpl(GenomeAssembly.HG19, TestFactory.buildDefaultGenomeDataService(), TestVariantDataService.stub(), countingVariantFactory);
+    }
 }
@@ -32,10 +32,11 @@
 import org.monarchinitiative.exomiser.core.prioritisers.Prioritiser;
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
 
-import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -162,6 +163,30 @@ public void testRunAnalysisTwoVariantFiltersOnePrioritiserVariantsShouldHaveAllV
         assertThat(rbm8Variant2.passedFilter(FilterType.QUALITY_FILTER), is(true));
     }
     
+    @Test
+    public void testRunAnalysisRecordsAnalysisStepMetricsInStepOrder() {
+        VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
+        VariantFilter qualityFilter = new QualityFilter(120);
+        Map<String, Float> hiPhiveGeneScores = new HashMap<>();
+        hiPhiveGeneScores.put("RBM8A", 0.65f);
+        Prioritiser mockHiPhivePrioritiser = new MockPrioritiser(PriorityType.HIPHIVE_PRIORITY, hiPhiveGeneScores);
+        GeneFilter priorityScoreFilter = new PriorityScoreFilter(PriorityType.HIPHIVE_PRIORITY, 0.6f);
+
+        Analysis analysis = makeAnalysis(vcfPath, intervalFilter, qualityFilter, mockHiPhivePrioritiser, priorityScoreFilter);
+        AnalysisResults analysisResults = instance.run(analysis);
+
+        List<AnalysisStepMetrics> stepMetrics = analysisResults.getAnalysisMetrics().getAnalysisStepMetrics();
+        List<String> stepNames = stepMetrics.stream().map(AnalysisStepMetrics::getStepName).collect(toList());
+        assertThat(stepNames, equalTo(Arrays.asList("INTERVAL_FILTER", "QUALITY_FILTER", "HIPHIVE_PRIORITY", "PRIORITY_SCORE_FILTER")));
+        // the variant filters are run on each of the three variants in known genes as they are loaded
+        assertThat(stepMetrics.get(0).getItemsProcessed(), equalTo(3L));
+        assertThat(stepMetrics.get(1).getItemsProcessed(), equalTo(3L));
+        // the prioritiser and gene filter are run over all the known genes
+        long numKnownGenes = genomeAnalysisService.getKnownGenes().size();
+        assertThat(stepMetrics.get(2).getItemsProcessed(), equalTo(numKnownGenes));
+        assertThat(stepMetrics.get(3).getItemsProcessed(), equalTo(numKnownGenes));
+    }
+
     @Test
     public void testRunAnalysisTwoVariantFiltersOnePrioritiserRecessiveInheritanceFilterVariantsShouldContainOnlyOneFailedFilterResult() {
         VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(1, 145508800, 145508800));
@@ -356,4 +381,24 @@ public void testRunAnalysisVariantFilterPrioritiserPriorityScoreFilterVariantFil
         assertThat(rbm8Variant2.passedFilter(FilterType.INHERITANCE_FILTER), is(true));
     }
 
+    @Test
+    public void testRunAnalysisScoresGenesInSuppliedPool() {
+        AtomicInteger workerThreadsStarted = new AtomicInteger();
+        ForkJoinPool geneScoringPool = new ForkJoinPool(1, pool -> {
+            workerThreadsStarted.incrementAndGet();
+            return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        }, null, false);
+        try {
+            SimpleAnalysisRunner poolRunner = new SimpleAnalysisRunner(genomeAnalysisService, geneScoringPool);
+            Analysis analysis = makeAnalysis(vcfPath, new InheritanceFilter(ModeOfInheritance.AUTOSOMAL_RECESSIVE));
+
+            AnalysisResults analysisResults = poolRunner.run(analysis);
+
+            assertThat(workerThreadsStarted.get() > 0, is(true));
+            assertThat(analysisResults.getGenes(), equalTo(instance.run(analysis).getGenes()));
+        } finally {
+            geneScoringPool.shutdown();
+        }
+    }
+
 }
@@ -0,0 +1,90 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.analysis;
+
+import com.google.common.collect.ImmutableSet;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.analysis.VariantFilterPlanner.FilterInput;
+import org.monarchinitiative.exomiser.core.filters.*;
+import org.monarchinitiative.exomiser.core.model.GeneticInterval;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class VariantFilterPlannerTest {
+
+    private final VariantFilter failedVariantFilter = new FailedVariantFilter();
+    private final VariantFilter qualityFilter = new QualityFilter(100);
+    private final VariantFilter intervalFilter = new IntervalFilter(new GeneticInterval(10, 123_240_000, 123_249_000));
+    private final VariantFilter variantEffectFilter = new VariantEffectFilter(EnumSet.of(VariantEffect.INTERGENIC_VARIANT));
+    private final VariantFilter geneSymbolFilter = new GeneSymbolFilter(ImmutableSet.of("FGFR2"));
+    private final VariantFilter frequencyFilter = new FrequencyFilter(1f);
+    private final VariantFilter knownVariantFilter = new KnownVariantFilter();
+    private final VariantFilter pathogenicityFilter = new PathogenicityFilter(true);
+
+    @Test
+    void classifiesVcfRecordFilters() {
+        assertThat(VariantFilterPlanner.classify(failedVariantFilter), equalTo(FilterInput.VCF_RECORD));
+        assertThat(VariantFilterPlanner.classify(qualityFilter), equalTo(FilterInput.VCF_RECORD));
+        assertThat(VariantFilterPlanner.classify(intervalFilter), equalTo(FilterInput.VCF_RECORD));
+    }
+
+    @Test
+    void classifiesAnnotationFilters() {
+        assertThat(VariantFilterPlanner.classify(variantEffectFilter), equalTo(FilterInput.ANNOTATION));
+        assertThat(VariantFilterPlanner.classify(geneSymbolFilter), equalTo(FilterInput.ANNOTATION));
+        assertThat(VariantFilterPlanner.classify(new RegulatoryFeatureFilter()), equalTo(FilterInput.ANNOTATION));
+    }
+
+    @Test
+    void classifiesVariantDataFilters() {
+        assertThat(VariantFilterPlanner.classify(frequencyFilter), equalTo(FilterInput.VARIANT_DATA));
+        assertThat(VariantFilterPlanner.classify(knownVariantFilter), equalTo(FilterInput.VARIANT_DATA));
+        assertThat(VariantFilterPlanner.classify(pathogenicityFilter), equalTo(FilterInput.VARIANT_DATA));
+    }
+
+    @Test
+    void preAnnotationFiltersEmpty() {
+        assertThat(VariantFilterPlanner.preAnnotationFilters(Collections.emptyList()), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    void preAnnotationFiltersAreLeadingVcfRecordFiltersInOrder() {
+        List<VariantFilter> variantFilters = Arrays.asList(intervalFilter, failedVariantFilter, variantEffectFilter, qualityFilter, frequencyFilter);
+        assertThat(VariantFilterPlanner.preAnnotationFilters(variantFilters), equalTo(Arrays.asList(intervalFilter, failedVariantFilter)));
+    }
+
+    @Test
+    void preAnnotationFiltersNotMovedAheadOfEarlierFilters() {
+        List<VariantFilter> variantFilters = Arrays.asList(frequencyFilter, qualityFilter, intervalFilter);
+        assertThat(VariantFilterPlanner.preAnnotationFilters(variantFilters), equalTo(Collections.emptyList()));
+    }
+}
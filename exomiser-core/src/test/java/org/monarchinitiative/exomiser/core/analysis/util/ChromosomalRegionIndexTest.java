@@ -175,4 +175,15 @@ public void testGetTadsContainingVariantTwoOverlappingTadsVariantInOne() {
         assertThat(instance.getRegionsContainingVariant(variant), equalTo(ImmutableList.of(tad)));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getRegions() {
+        TopologicalDomain tad = new TopologicalDomain(1, 1, 100, ImmutableMap.of());
+        TopologicalDomain tad1 = new TopologicalDomain(1, 25, 75, ImmutableMap.of());
+        TopologicalDomain tad2 = new TopologicalDomain(2, 1, 100, ImmutableMap.of());
+        ChromosomalRegionIndex<TopologicalDomain> instance = ChromosomalRegionIndex.of(ImmutableList.of(tad2, tad1, tad));
+
+        assertThat(instance.getRegions(), equalTo(ImmutableList.of(tad, tad1, tad2)));
+        assertThat(ChromosomalRegionIndex.empty().getRegions(), equalTo(ImmutableList.of()));
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.analysis.util;
+
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.model.*;
+import org.monarchinitiative.exomiser.core.prioritisers.MockPriorityResult;
+import org.monarchinitiative.exomiser.core.prioritisers.PriorityType;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class ForkJoinGeneScorerTest {
+
+    private static final String PROBAND = "proband";
+    private static final VariantEffect[] VARIANT_EFFECTS = {
+            VariantEffect.MISSENSE_VARIANT, VariantEffect.FRAMESHIFT_VARIANT, VariantEffect.STOP_GAINED,
+            VariantEffect.SYNONYMOUS_VARIANT, VariantEffect.SPLICE_REGION_VARIANT
+    };
+    private static final List<Set<ModeOfInheritance>> INHERITANCE_MODES = Arrays.asList(
+            EnumSet.noneOf(ModeOfInheritance.class),
+            EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT),
+            EnumSet.of(ModeOfInheritance.AUTOSOMAL_RECESSIVE),
+            EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT, ModeOfInheritance.AUTOSOMAL_RECESSIVE),
+            EnumSet.of(ModeOfInheritance.X_DOMINANT, ModeOfInheritance.X_RECESSIVE)
+    );
+
+    private RawScoreGeneScorer rawScoreGeneScorer() {
+        InheritanceModeAnnotator inheritanceModeAnnotator = new InheritanceModeAnnotator(Pedigree.justProband(PROBAND), InheritanceModeOptions.defaults());
+        return new RawScoreGeneScorer(SampleIdentifier.of(PROBAND, 0), inheritanceModeAnnotator);
+    }
+
+    /**
+     * Makes a set of genes with a mixture of passed and failed variants, genotypes and inheritance modes. The scores
+     * are drawn from a small set of values so that many genes have tied scores and must keep their relative order.
+     */
+    private List<Gene> syntheticGenes(long seed, int numGenes) {
+        Random random = new Random(seed);
+        List<Gene> genes = new ArrayList<>(numGenes);
+        for (int i = 0; i < numGenes; i++) {
+            Gene gene = new Gene("GENE" + i, i + 1);
+            int numVariants = random.nextInt(8);
+            for (int j = 0; j < numVariants; j++) {
+                FilterResult filterResult = random.nextInt(4) == 0 ? FilterResult.fail(FilterType.FREQUENCY_FILTER) : FilterResult.pass(FilterType.FREQUENCY_FILTER);
+                SampleGenotype genotype = random.nextInt(3) == 0 ? SampleGenotype.homAlt() : SampleGenotype.het();
+                VariantEvaluation variant = VariantEvaluation.builder(1 + (i % 23), 1000 * i + j, "A", "T")
+                        .variantEffect(VARIANT_EFFECTS[random.nextInt(VARIANT_EFFECTS.length)])
+                        .sampleGenotypes(Collections.singletonMap(PROBAND, genotype))
+                        .filterResults(filterResult)
+                        .build();
+                variant.setCompatibleInheritanceModes(INHERITANCE_MODES.get(random.nextInt(INHERITANCE_MODES.size())));
+                gene.addVariant(variant);
+            }
+            gene.setCompatibleInheritanceModes(INHERITANCE_MODES.get(random.nextInt(INHERITANCE_MODES.size())));
+            double priorityScore = random.nextInt(5) / 4d;
+            gene.addPriorityResult(new MockPriorityResult(PriorityType.HIPHIVE_PRIORITY, gene.getEntrezGeneID(), gene.getGeneSymbol(), priorityScore));
+            genes.add(gene);
+        }
+        Collections.shuffle(genes, random);
+        return genes;
+    }
+
+    @Test
+    void throwsExceptionWithZeroGrainSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ForkJoinGeneScorer(rawScoreGeneScorer(), ForkJoinPool.commonPool(), 0));
+    }
+
+    @Test
+    void scoreGenesRanksAreIdenticalToSequentialScorer() {
+        List<Gene> sequentialGenes = rawScoreGeneScorer().scoreGenes(syntheticGenes(42, 10_000));
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            ForkJoinGeneScorer instance = new ForkJoinGeneScorer(rawScoreGeneScorer(), forkJoinPool, 8);
+            List<Gene> parallelGenes = instance.scoreGenes(syntheticGenes(42, 10_000));
+
+            assertThat(parallelGenes.stream().map(Gene::getGeneSymbol).collect(toList()), equalTo(sequentialGenes.stream().map(Gene::getGeneSymbol).collect(toList())));
+            for (int i = 0; i < sequentialGenes.size(); i++) {
+                Gene sequentialGene = sequentialGenes.get(i);
+                Gene parallelGene = parallelGenes.get(i);
+                assertThat(parallelGene.getGeneScores(), equalTo(sequentialGene.getGeneScores()));
+                for (ModeOfInheritance mode : ModeOfInheritance.values()) {
+                    assertThat(Float.floatToIntBits(parallelGene.getCombinedScoreForMode(mode)), equalTo(Float.floatToIntBits(sequentialGene.getCombinedScoreForMode(mode))));
+                }
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    void scoreGenesEmptyList() {
+        ForkJoinGeneScorer instance = new ForkJoinGeneScorer(rawScoreGeneScorer(), ForkJoinPool.commonPool());
+        assertThat(instance.scoreGenes(new ArrayList<>()), equalTo(Collections.emptyList()));
+    }
+}
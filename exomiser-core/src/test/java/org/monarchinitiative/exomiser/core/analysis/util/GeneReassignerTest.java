@@ -521,6 +521,81 @@ public void testBuildGeneTranscriptModel() {
                 .forEach(variantEvaluation -> logger.info("{} {}", variantEvaluation, variantEvaluation.getTranscriptAnnotations()));
 
     }
+    @Test
+    public void assignsRegulatoryVariantsInDenseOverlappingTadsToSameGenesAsCheckingEveryGeneInTads() {
+        Random random = new Random(42);
+        List<Gene> genes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Gene gene = new Gene("GENE" + i, 10000 + i);
+            // leave some genes without a score and make plenty of ties
+            if (i % 7 != 0) {
+                addPriorityResultWithScore(gene, random.nextInt(10) / 10d);
+            }
+            genes.add(gene);
+            allGenes.put(gene.getGeneSymbol(), gene);
+        }
+
+        List<TopologicalDomain> tads = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int chr = 1 + random.nextInt(2);
+            int start = 1 + random.nextInt(100_000);
+            int end = start + random.nextInt(20_000);
+            Map<String, Integer> genesInTad = new LinkedHashMap<>();
+            int numGenes = random.nextInt(8);
+            for (int j = 0; j < numGenes; j++) {
+                Gene gene = genes.get(random.nextInt(genes.size()));
+                genesInTad.put(gene.getGeneSymbol(), gene.getEntrezGeneID());
+            }
+            // genes not in the known genes should be ignored
+            if (random.nextBoolean()) {
+                genesInTad.put("UNKNOWN" + i, -i);
+            }
+            tads.add(new TopologicalDomain(chr, start, end, genesInTad));
+        }
+        ChromosomalRegionIndex<TopologicalDomain> tadIndex = ChromosomalRegionIndex.of(tads);
+        instance = new GeneReassigner(PriorityType.HIPHIVE_PRIORITY, allGenes, tadIndex);
+
+        int numReassigned = 0;
+        for (int i = 0; i < 5000; i++) {
+            int chr = 1 + random.nextInt(2);
+            int pos = 1 + random.nextInt(120_000);
+            Gene gene = random.nextInt(10) == 0 ? new Gene(".", -1) : genes.get(random.nextInt(genes.size()));
+            VariantEvaluation variant = variant(chr, pos, "A", "T", VariantEffect.REGULATORY_REGION_VARIANT, gene);
+
+            Gene expected = bestGeneCheckingEveryGeneInTads(tadIndex, variant, gene);
+            instance.reassignRegulatoryRegionVariantToMostPhenotypicallySimilarGeneInTad(variant);
+
+            assertThat(variant, isAssignedTo(expected));
+            if (expected != gene) {
+                numReassigned++;
+            }
+        }
+        assertThat(numReassigned > 0, equalTo(true));
+    }
+
+    private Gene bestGeneCheckingEveryGeneInTads(ChromosomalRegionIndex<TopologicalDomain> tadIndex, VariantEvaluation variant, Gene currentGene) {
+        double bestScore = hiphiveScore(allGenes.get(currentGene.getGeneSymbol()));
+        Gene bestGene = currentGene;
+        for (TopologicalDomain tad : tadIndex.getRegionsContainingVariant(variant)) {
+            for (String geneSymbol : tad.getGenes().keySet()) {
+                Gene gene = allGenes.get(geneSymbol);
+                double geneScore = hiphiveScore(gene);
+                if (geneScore > bestScore) {
+                    bestScore = geneScore;
+                    bestGene = gene;
+                }
+            }
+        }
+        return bestGene;
+    }
+
+    private double hiphiveScore(Gene gene) {
+        if (gene == null || !gene.getPriorityResults().containsKey(PriorityType.HIPHIVE_PRIORITY)) {
+            return 0d;
+        }
+        return gene.getPriorityResult(PriorityType.HIPHIVE_PRIORITY).getScore();
+    }
+
 //    gene lies within two overlapping TADs
 
     //variant lies two overlapping TADs, but the gene is in one only
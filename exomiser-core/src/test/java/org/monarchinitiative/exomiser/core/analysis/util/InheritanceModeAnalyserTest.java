@@ -39,11 +39,14 @@
 import org.monarchinitiative.exomiser.core.model.Pedigree.Individual;
 import org.monarchinitiative.exomiser.core.model.Pedigree.Individual.Sex;
 import org.monarchinitiative.exomiser.core.model.Pedigree.Individual.Status;
+import org.monarchinitiative.exomiser.core.model.SampleGenotype;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
-import java.util.Arrays;
-import java.util.EnumSet;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -696,4 +699,92 @@ public void testAnalyseMultipleInheritanceModesMultipleGenesForSingleSample() {
 
         assertThat(mitoHetVar.getCompatibleInheritanceModes(), equalTo(EnumSet.of(ModeOfInheritance.MITOCHONDRIAL)));
     }
+
+    private List<Gene> randomTrioGenes(long seed, int numGenes) {
+        Random random = new Random(seed);
+        SampleGenotype[] genotypes = {SampleGenotype.het(), SampleGenotype.homAlt(), SampleGenotype.homRef(), SampleGenotype.noCall()};
+        String[] bases = {"A", "C", "G", "T"};
+        List<Gene> genes = new ArrayList<>(numGenes);
+        for (int i = 0; i < numGenes; i++) {
+            Gene gene = new Gene("GENE" + i, i);
+            // every fourth gene is on the X chromosome so that the X-linked modes are also checked
+            int chr = i % 4 == 0 ? 23 : 1 + random.nextInt(22);
+            int numVariants = 1 + random.nextInt(4);
+            for (int j = 0; j < numVariants; j++) {
+                int ref = random.nextInt(bases.length);
+                int alt = (ref + 1 + random.nextInt(bases.length - 1)) % bases.length;
+                Map<String, SampleGenotype> sampleGenotypes = new LinkedHashMap<>();
+                sampleGenotypes.put("Cain", genotypes[random.nextInt(genotypes.length)]);
+                sampleGenotypes.put("Adam", genotypes[random.nextInt(genotypes.length)]);
+                sampleGenotypes.put("Eve", genotypes[random.nextInt(genotypes.length)]);
+                VariantEvaluation variant = VariantEvaluation.builder(chr, 1000 * i + 10 * j, bases[ref], bases[alt])
+                        .sampleGenotypes(sampleGenotypes)
+                        .filterResults(FilterResult.pass(FilterType.FREQUENCY_FILTER))
+                        .build();
+                gene.addVariant(variant);
+            }
+            genes.add(gene);
+        }
+        return genes;
+    }
+
+    private List<Set<ModeOfInheritance>> variantInheritanceModes(List<Gene> genes) {
+        return genes.stream()
+                .flatMap(gene -> gene.getVariantEvaluations().stream())
+                .map(VariantEvaluation::getCompatibleInheritanceModes)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testAnalyseInheritanceModesForGenesInParallelIsSameAsSequential() {
+        Individual proband = Individual.builder().id("Cain").fatherId("Adam").motherId("Eve").sex(Sex.MALE).status(Status.AFFECTED).build();
+        Individual father = Individual.builder().id("Adam").sex(Sex.MALE).status(Status.UNAFFECTED).build();
+        Individual mother = Individual.builder().id("Eve").sex(Sex.FEMALE).status(Status.UNAFFECTED).build();
+        Pedigree pedigree = Pedigree.of(proband, father, mother);
+
+        InheritanceModeAnalyser instance = new InheritanceModeAnalyser(new InheritanceModeAnnotator(pedigree, InheritanceModeOptions.defaults()));
+
+        List<Gene> sequentialGenes = randomTrioGenes(42, 5000);
+        sequentialGenes.forEach(instance::analyseInheritanceModes);
+
+        List<Gene> parallelGenes = randomTrioGenes(42, 5000);
+        instance.analyseInheritanceModes(parallelGenes);
+
+        assertThat(variantInheritanceModes(parallelGenes), equalTo(variantInheritanceModes(sequentialGenes)));
+        for (int i = 0; i < sequentialGenes.size(); i++) {
+            assertThat(parallelGenes.get(i).getCompatibleInheritanceModes(), equalTo(sequentialGenes.get(i).getCompatibleInheritanceModes()));
+        }
+        // check the test data actually exercises the analysis
+        assertThat(variantInheritanceModes(sequentialGenes).stream().anyMatch(modes -> !modes.isEmpty()), is(true));
+    }
+
+    @Test
+    public void testAnalyseInheritanceModesForGenesRunsOnlyInSuppliedPool() {
+        Set<Thread> analysingThreads = ConcurrentHashMap.newKeySet();
+        InheritanceModeAnnotator threadRecordingAnnotator = new InheritanceModeAnnotator(Pedigree.justProband("Cain"), InheritanceModeOptions.defaults()) {
+            @Override
+            public Map<ModeOfInheritance, List<VariantEvaluation>> computeCompatibleInheritanceModes(List<VariantEvaluation> variantEvaluations) {
+                analysingThreads.add(Thread.currentThread());
+                return super.computeCompatibleInheritanceModes(variantEvaluations);
+            }
+        };
+        InheritanceModeAnalyser instance = new InheritanceModeAnalyser(threadRecordingAnnotator);
+
+        List<Gene> genes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            genes.add(new Gene("GENE" + i, i));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            instance.analyseInheritanceModes(genes, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(analysingThreads.isEmpty(), is(false));
+        for (Thread thread : analysingThreads) {
+            assertThat(thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool, is(true));
+        }
+    }
 }
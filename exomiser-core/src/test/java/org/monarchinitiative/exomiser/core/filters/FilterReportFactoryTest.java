@@ -31,7 +31,9 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisMetrics;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisStepMetrics;
 import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
 import org.monarchinitiative.exomiser.core.model.Gene;
 import org.monarchinitiative.exomiser.core.model.GeneticInterval;
@@ -46,6 +48,7 @@
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -139,6 +142,29 @@ public void testMakeFilterReportsDecoratedFrequencyPathogenicityTypesSpecifiedRe
         assertThat(reports.get(2).getFilterType(), equalTo(FilterType.PATHOGENICITY_FILTER));
     }
 
+    @Test
+    public void testMakeFilterReportsAddsStepMetricsMessageWhenResultsHaveMetrics() {
+        VariantEffectFilter filter = new VariantEffectFilter(EnumSet.noneOf(VariantEffect.class));
+        Analysis analysis = Analysis.builder()
+                .addStep(filter)
+                .build();
+
+        AnalysisStepMetrics stepMetrics = AnalysisStepMetrics.of("VARIANT_EFFECT_FILTER", TimeUnit.MILLISECONDS.toNanos(250), 1000);
+        AnalysisResults resultsWithMetrics = AnalysisResults.builder()
+                .variantEvaluations(variantEvaluations)
+                .genes(genes)
+                .analysisMetrics(AnalysisMetrics.of(TimeUnit.SECONDS.toNanos(1), ImmutableList.of(stepMetrics), Collections.emptyMap()))
+                .build();
+
+        List<FilterReport> reports = instance.makeFilterReports(analysis, resultsWithMetrics);
+
+        ImmutableList<String> messages = ImmutableList.of(
+                String.format("Removed variants with effects of type: %s", filter.getOffTargetVariantTypes()),
+                "Filtered 1000 variants in 250 ms (4000 variants/sec)"
+        );
+        assertThat(reports, equalTo(ImmutableList.of(new FilterReport(filter.getFilterType(), 0, 0, messages))));
+    }
+
     @Test
     public void testMakeDefaultGeneFilterReportContainsCorrectNumberOfPassedAndFailedGenes() {
         Filter filter = new InheritanceFilter(ModeOfInheritance.AUTOSOMAL_RECESSIVE);    
@@ -22,13 +22,22 @@
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import com.google.common.collect.ImmutableMap;
 import org.monarchinitiative.exomiser.core.genome.TestVariantDataService;
 import org.monarchinitiative.exomiser.core.genome.VariantDataService;
+import org.monarchinitiative.exomiser.core.genome.VariantDataServiceImpl;
+import org.monarchinitiative.exomiser.core.genome.dao.CountingAllelePropertiesDao;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.CaddScore;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicitySource;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.SiftScore;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto;
 
 import java.util.Collections;
 import java.util.EnumSet;
@@ -140,6 +149,57 @@ public void testFrequencyDataOnlyContainsSpecifiedSourcesTwoSourcesSpecifiedAllD
         assertThat(variant.getFrequencyData(), equalTo(FrequencyData.of(RsId.of(123456), espAll, exacAfr)));
     }
     
+    @Test
+    public void testProvidesFrequencyAndPathogenicityDataFromOneLookupWhenBothRequired() {
+        AlleleProto.AlleleProperties properties = AlleleProto.AlleleProperties.newBuilder()
+                .setRsId("rs123456")
+                .putProperties("ESP_ALL", 0.01f)
+                .putProperties("SIFT", 0.0f)
+                .build();
+        CountingAllelePropertiesDao countingDao = new CountingAllelePropertiesDao(ImmutableMap.of(AlleleProtoAdaptor.toAlleleKey(variant), properties));
+        VariantDataService variantDataService = VariantDataServiceImpl.builder().allelePropertiesDao(countingDao).build();
+
+        EnumSet<FrequencySource> frequencySources = EnumSet.of(ESP_ALL);
+        EnumSet<PathogenicitySource> pathogenicitySources = EnumSet.of(PathogenicitySource.SIFT);
+        instance = new FrequencyDataProvider(variantDataService, frequencySources, pathogenicitySources, new FrequencyFilter(1f));
+        PathogenicityDataProvider pathogenicityDataProvider = new PathogenicityDataProvider(variantDataService, frequencySources, pathogenicitySources, new PathogenicityFilter(true));
+
+        instance.runFilter(variant);
+        pathogenicityDataProvider.runFilter(variant);
+
+        assertThat(countingDao.getLookups(), equalTo(1));
+        assertThat(variant.getFrequencyData(), equalTo(FrequencyData.of(RsId.of(123456), Frequency.of(ESP_ALL, 0.01f))));
+        assertThat(variant.getPathogenicityData(), equalTo(PathogenicityData.of(SiftScore.of(0f))));
+    }
+
+    @Test
+    public void testOnlyVariantsPassingFrequencyFilterHaveOptionalPathogenicityDataLookedUp() {
+        AlleleProto.AlleleProperties properties = AlleleProto.AlleleProperties.newBuilder()
+                .setRsId("rs123456")
+                .putProperties("ESP_ALL", 5.0f)
+                .putProperties("SIFT", 0.0f)
+                .build();
+        CountingAllelePropertiesDao countingDao = new CountingAllelePropertiesDao(ImmutableMap.of(AlleleProtoAdaptor.toAlleleKey(variant), properties));
+        VariantDataService variantDataService = VariantDataServiceImpl.builder()
+                .allelePropertiesDao(countingDao)
+                .caddDao(caddVariant -> PathogenicityData.of(CaddScore.of(15f)))
+                .build();
+
+        EnumSet<FrequencySource> frequencySources = EnumSet.of(ESP_ALL);
+        EnumSet<PathogenicitySource> pathogenicitySources = EnumSet.of(PathogenicitySource.SIFT, PathogenicitySource.CADD);
+        instance = new FrequencyDataProvider(variantDataService, frequencySources, pathogenicitySources, new FrequencyFilter(1f));
+        PathogenicityDataProvider pathogenicityDataProvider = new PathogenicityDataProvider(variantDataService, frequencySources, pathogenicitySources, new PathogenicityFilter(true));
+
+        assertThat(instance.runFilter(variant).failed(), is(true));
+        assertThat(variant.getPathogenicityData(), equalTo(PathogenicityData.of(SiftScore.of(0f))));
+        assertThat(variantDataService.getDataLookupCounts().get("cadd"), equalTo(0L));
+
+        pathogenicityDataProvider.runFilter(variant);
+        assertThat(countingDao.getLookups(), equalTo(1));
+        assertThat(variantDataService.getDataLookupCounts().get("cadd"), equalTo(1L));
+        assertThat(variant.getPathogenicityData(), equalTo(PathogenicityData.of(SiftScore.of(0f), CaddScore.of(15f))));
+    }
+
     @Test
     public void testGetDecoratedFilter() {
         VariantFilter decoratedFilter = new KnownVariantFilter();
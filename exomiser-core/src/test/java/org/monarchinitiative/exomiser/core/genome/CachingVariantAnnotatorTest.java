@@ -0,0 +1,106 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import com.google.common.cache.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class CachingVariantAnnotatorTest {
+
+    private final AtomicInteger annotations = new AtomicInteger();
+
+    private final VariantAnnotator countingAnnotator = (chr, pos, ref, alt) -> {
+        annotations.incrementAndGet();
+        return VariantAnnotation.builder()
+                .chromosomeName(chr)
+                .position(pos)
+                .ref(ref)
+                .alt(alt)
+                .geneSymbol("GENE")
+                .build();
+    };
+
+    @Test
+    void throwsExceptionWithZeroMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingVariantAnnotator(countingAnnotator, 0));
+    }
+
+    @Test
+    void annotatesRecurrentVariantOnce() {
+        CachingVariantAnnotator instance = new CachingVariantAnnotator(countingAnnotator, 100);
+
+        VariantAnnotation first = instance.annotate("1", 12345, "A", "T");
+        VariantAnnotation second = instance.annotate("1", 12345, "A", "T");
+
+        assertThat(second, sameInstance(first));
+        assertThat(annotations.get(), equalTo(1));
+    }
+
+    @Test
+    void annotatesDifferentAllelesSeparately() {
+        CachingVariantAnnotator instance = new CachingVariantAnnotator(countingAnnotator, 100);
+
+        assertThat(instance.annotate("1", 12345, "A", "T").getAlt(), equalTo("T"));
+        assertThat(instance.annotate("1", 12345, "A", "C").getAlt(), equalTo("C"));
+        assertThat(instance.annotate("2", 12345, "A", "T").getChromosomeName(), equalTo("2"));
+        assertThat(instance.annotate("1", 12346, "A", "T").getPosition(), equalTo(12346));
+
+        assertThat(annotations.get(), equalTo(4));
+        assertThat(instance.size(), equalTo(4L));
+    }
+
+    @Test
+    void reportsHitRate() {
+        CachingVariantAnnotator instance = new CachingVariantAnnotator(countingAnnotator, 100);
+
+        for (int i = 0; i < 4; i++) {
+            instance.annotate("1", 12345, "A", "T");
+        }
+
+        CacheStats cacheStats = instance.getCacheStats();
+        assertThat(cacheStats.hitCount(), equalTo(3L));
+        assertThat(cacheStats.missCount(), equalTo(1L));
+        assertThat(cacheStats.hitRate(), equalTo(0.75));
+    }
+
+    @Test
+    void cacheSizeIsBounded() {
+        CachingVariantAnnotator instance = new CachingVariantAnnotator(countingAnnotator, 10);
+
+        for (int i = 0; i < 100; i++) {
+            instance.annotate("1", i, "A", "T");
+        }
+
+        assertThat(instance.size() <= 10, is(true));
+        assertThat(instance.getCacheStats().evictionCount() >= 90, is(true));
+    }
+}
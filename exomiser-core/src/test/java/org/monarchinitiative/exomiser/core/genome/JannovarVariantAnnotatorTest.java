@@ -21,16 +21,29 @@
 package org.monarchinitiative.exomiser.core.genome;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
 import org.monarchinitiative.exomiser.core.model.*;
 
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
+@ExtendWith(TempDirectory.class)
 public class JannovarVariantAnnotatorTest {
 
     private JannovarVariantAnnotator instance = new JannovarVariantAnnotator(TestFactory.getDefaultGenomeAssembly(), TestFactory
@@ -163,6 +176,15 @@ public void testAnnotateIntergenicVariant() {
         assertThat(transcriptAnnotation.getDistanceFromNearestGene(), equalTo(26762157));
     }
 
+    @Test
+    public void testGetChromosomeGeneSymbols() {
+        Map<Integer, Set<String>> expected = new HashMap<>();
+        expected.put(1, ImmutableSet.of("GNRHR2", "RBM8A"));
+        expected.put(7, ImmutableSet.of("SHH"));
+        expected.put(10, ImmutableSet.of("FGFR2"));
+        assertThat(instance.getChromosomeGeneSymbols(), equalTo(expected));
+    }
+
     @Test
     public void testUpstreamGeneIntergenicVariantsInRegulatoryRegion() {
         //Without the regulatory regions in the annotator
@@ -279,4 +301,114 @@ void testStructuralVariant() {
         assertThat(variantAnnotation.hasTranscriptAnnotations(), is(false));
         assertThat(variantAnnotation.getVariantEffect(), equalTo(VariantEffect.STRUCTURAL_VARIANT));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTranscriptAnnotationsAreNotBuiltUntilRead() {
+        VariantAnnotation annotations = instance.annotate("10", 123256215, "T", "G");
+        List<TranscriptAnnotation> transcriptAnnotations = annotations.getTranscriptAnnotations();
+
+        assertThat(transcriptAnnotations, instanceOf(LazyTranscriptAnnotations.class));
+        assertThat(annotations.hasTranscriptAnnotations(), is(true));
+        assertThat(((LazyTranscriptAnnotations) transcriptAnnotations).isMaterialised(), is(false));
+
+        assertThat(transcriptAnnotations.get(0).getHgvsCdna(), equalTo("c.1694A>C"));
+        assertThat(((LazyTranscriptAnnotations) transcriptAnnotations).isMaterialised(), is(true));
+    }
+
+    /**
+     * Annotates a block of synthetic variants across FGFR2 and builds a {@link VariantEvaluation} for each, as happens
+     * while the VCF is loaded. None of the transcript annotations should be built until they are read.
+     */
+    @Test
+    void testTranscriptAnnotationsOfVariantEvaluationsAreOnlyBuiltForVariantsWhichAreRead() {
+        String[] bases = {"A", "C", "G", "T"};
+        List<VariantEvaluation> variantEvaluations = new ArrayList<>();
+        // FGFR2 txRegion=123237843-123357972
+        for (int i = 0; i < 1000; i++) {
+            int pos = 123237843 + i * 6;
+            VariantAnnotation variantAnnotation = instance.annotate("10", pos, bases[i % 4], bases[(i + 1) % 4]);
+            variantEvaluations.add(VariantEvaluation.builder(variantAnnotation.getChromosome(), variantAnnotation.getPosition(), variantAnnotation.getRef(), variantAnnotation.getAlt())
+                    .geneSymbol(variantAnnotation.getGeneSymbol())
+                    .variantEffect(variantAnnotation.getVariantEffect())
+                    .annotations(variantAnnotation.getTranscriptAnnotations())
+                    .build());
+        }
+
+        int numAnnotated = 0;
+        for (VariantEvaluation variantEvaluation : variantEvaluations) {
+            // the parts of the annotations used when filtering a variant
+            assertThat(variantEvaluation.getGeneSymbol(), equalTo("FGFR2"));
+            assertThat(variantEvaluation.getVariantEffect(), notNullValue());
+            if (variantEvaluation.hasTranscriptAnnotations()) {
+                numAnnotated++;
+                assertThat(isMaterialised(variantEvaluation), is(false));
+            }
+        }
+        assertThat(numAnnotated, equalTo(variantEvaluations.size()));
+
+        VariantEvaluation readVariant = variantEvaluations.get(500);
+        assertThat(readVariant.getTranscriptAnnotations().get(0).getGeneSymbol(), equalTo("FGFR2"));
+
+        for (VariantEvaluation variantEvaluation : variantEvaluations) {
+            assertThat(isMaterialised(variantEvaluation), is(variantEvaluation == readVariant));
+        }
+    }
+
+    /**
+     * Measures the memory allocated while loading a synthetic VCF of 100,000 SNVs across FGFR2 through the
+     * {@link VariantFactoryImpl}. A whole genome VCF has millions of variants, but the saving is the same for each one.
+     * Only reading the gene symbol and variant effect, as the filters do for most variants, is compared with also
+     * reading the transcript annotations, which is what building them when the variant was annotated used to cost.
+     */
+    @Test
+    void testLazyTranscriptAnnotationsAllocateLessWhenLoadingVcf(@TempDirectory.TempDir Path tempDir) {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported() && allocationMXBean.isThreadAllocatedMemoryEnabled());
+
+        // FGFR2 txRegion=123237843-123357972
+        List<Integer> positions = IntStream.range(0, 100_000).mapToObj(i -> 123_237_843 + i).collect(Collectors.toList());
+        Path vcfPath = TestVcfFiles.writeSnvs(tempDir.resolve("fgfr2.vcf"), "10", positions);
+        VariantFactory variantFactory = new VariantFactoryImpl(instance);
+
+        Consumer<VariantEvaluation> readFilterFields = variantEvaluation -> {
+            variantEvaluation.getGeneSymbol();
+            variantEvaluation.getVariantEffect();
+        };
+        Consumer<VariantEvaluation> readTranscriptAnnotations = readFilterFields.andThen(variantEvaluation -> variantEvaluation
+                .getTranscriptAnnotations()
+                .forEach(TranscriptAnnotation::getHgvsProtein));
+
+        // warm up so that the JIT compiler allocates as little as possible during the measured runs
+        allocatedBytes(allocationMXBean, variantFactory, vcfPath, readTranscriptAnnotations);
+        long lazyBytes = allocatedBytes(allocationMXBean, variantFactory, vcfPath, readFilterFields);
+        long eagerBytes = allocatedBytes(allocationMXBean, variantFactory, vcfPath, readTranscriptAnnotations);
+
+        System.out.printf("Loaded %d variants - filter fields only: %d bytes, with transcript annotations: %d bytes (%.1f%% saved)%n",
+                positions.size(), lazyBytes, eagerBytes, 100.0 * (eagerBytes - lazyBytes) / eagerBytes);
+        // a generous bound - reading the transcript annotations allocates about a kilobyte for each of these variants
+        assertThat(eagerBytes - lazyBytes > 100L * positions.size(), is(true));
+    }
+
+    private long allocatedBytes(com.sun.management.ThreadMXBean allocationMXBean, VariantFactory variantFactory, Path vcfPath, Consumer<VariantEvaluation> reader) {
+        long threadId = Thread.currentThread().getId();
+        long start = allocationMXBean.getThreadAllocatedBytes(threadId);
+        int[] count = {0};
+        try (Stream<VariantEvaluation> variantEvaluations = variantFactory.createVariantEvaluations(vcfPath)) {
+            variantEvaluations.forEach(variantEvaluation -> {
+                reader.accept(variantEvaluation);
+                count[0]++;
+            });
+        }
+        long allocated = allocationMXBean.getThreadAllocatedBytes(threadId) - start;
+        assertThat(count[0], equalTo(100_000));
+        return allocated;
+    }
+
+    private static boolean isMaterialised(VariantEvaluation variantEvaluation) {
+        List<TranscriptAnnotation> transcriptAnnotations = variantEvaluation.getTranscriptAnnotations();
+        assertThat(transcriptAnnotations, instanceOf(LazyTranscriptAnnotations.class));
+        return ((LazyTranscriptAnnotations<?>) transcriptAnnotations).isMaterialised();
+    }
+}
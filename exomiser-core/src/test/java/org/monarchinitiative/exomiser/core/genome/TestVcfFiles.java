@@ -0,0 +1,81 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.tribble.index.IndexFactory;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndex;
+import htsjdk.tribble.util.TabixUtils;
+import htsjdk.variant.vcf.VCFCodec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Writes small VCF files for tests which need a bgzipped and tabix indexed VCF.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class TestVcfFiles {
+
+    private TestVcfFiles() {
+    }
+
+    /**
+     * Writes a single sample VCF with a heterozygous A>G SNV at each of the positions.
+     *
+     * @param vcfPath   the path of the VCF to write. If this ends in .gz the file will be bgzipped and tabix indexed.
+     * @param contig    the name of the contig for the variants
+     * @param positions the sorted positions of the variants
+     * @return the path of the written VCF
+     */
+    public static Path writeSnvs(Path vcfPath, String contig, List<Integer> positions) {
+        StringBuilder vcf = new StringBuilder();
+        vcf.append("##fileformat=VCFv4.2\n");
+        vcf.append("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+        vcf.append("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tsample\n");
+        for (int position : positions) {
+            vcf.append(contig).append('\t').append(position).append("\t.\tA\tG\t100\tPASS\t.\tGT\t0/1\n");
+        }
+        byte[] bytes = vcf.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (vcfPath.toString().endsWith(".gz")) {
+                try (OutputStream outputStream = new BlockCompressedOutputStream(vcfPath.toFile())) {
+                    outputStream.write(bytes);
+                }
+                TabixIndex tabixIndex = IndexFactory.createTabixIndex(vcfPath.toFile(), new VCFCodec(), TabixFormat.VCF, null);
+                tabixIndex.write(Paths.get(vcfPath + TabixUtils.STANDARD_INDEX_EXTENSION));
+            } else {
+                Files.write(vcfPath, bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return vcfPath;
+    }
+}
@@ -20,6 +20,7 @@
 
 package org.monarchinitiative.exomiser.core.genome;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,15 +32,19 @@
 import org.monarchinitiative.exomiser.core.genome.dao.*;
 import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
 import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantData;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
 import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
 import org.monarchinitiative.exomiser.core.model.frequency.RsId;
 import org.monarchinitiative.exomiser.core.model.pathogenicity.*;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto;
 
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -110,6 +115,92 @@ public void testInstanceIsNotNull() {
         assertThat(instance, notNullValue());
     }
 
+    @Test
+    public void serviceCountsDataLookups() {
+        variant = buildVariantOfType(VariantEffect.MISSENSE_VARIANT);
+        instance.getVariantPathogenicityData(variant, EnumSet.of(PathogenicitySource.CADD, PathogenicitySource.POLYPHEN));
+        instance.getVariantPathogenicityData(variant, EnumSet.of(PathogenicitySource.POLYPHEN));
+        instance.getVariantFrequencyData(variant, EnumSet.of(FrequencySource.LOCAL));
+        instance.variantIsWhiteListed(variant);
+
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("whitelist", 1L);
+        expected.put("frequency", 1L);
+        expected.put("localFrequency", 1L);
+        expected.put("pathogenicity", 2L);
+        expected.put("frequencyAndPathogenicity", 0L);
+        expected.put("cadd", 1L);
+        expected.put("remm", 0L);
+        expected.put("testPathogenicity", 0L);
+        assertThat(instance.getDataLookupCounts(), equalTo(expected));
+    }
+
+    @Test
+    public void serviceReadsFrequencyAndPathogenicityDataInOneLookup() {
+        AlleleProto.AlleleProperties properties = AlleleProto.AlleleProperties.newBuilder()
+                .setRsId("rs54321")
+                .putProperties("ESP_ALL", 0.01f)
+                .putProperties("EXAC_FIN", 0.02f)
+                .putProperties("POLYPHEN", 1.0f)
+                .putProperties("SIFT", 0.0f)
+                .build();
+        CountingAllelePropertiesDao countingDao = new CountingAllelePropertiesDao(ImmutableMap.of(AlleleProtoAdaptor.toAlleleKey(variant), properties));
+        Mockito.when(localFrequencyDao.getFrequencyData(variant)).thenReturn(FrequencyData.of(Frequency.of(FrequencySource.LOCAL, 1f)));
+
+        VariantDataServiceImpl allelePropertiesInstance = VariantDataServiceImpl.builder()
+                .allelePropertiesDao(countingDao)
+                .localFrequencyDao(localFrequencyDao)
+                .caddDao(mockCaddDao)
+                .build();
+
+        EnumSet<FrequencySource> frequencySources = EnumSet.of(FrequencySource.ESP_ALL, FrequencySource.LOCAL);
+        EnumSet<PathogenicitySource> pathogenicitySources = EnumSet.of(PathogenicitySource.POLYPHEN, PathogenicitySource.CADD);
+
+        VariantData variantData = allelePropertiesInstance.getVariantData(variant, frequencySources, pathogenicitySources);
+        assertThat(countingDao.getLookups(), equalTo(1));
+        // the CADD scores are not held in the allele store, so are left until they are needed
+        assertThat(allelePropertiesInstance.getDataLookupCounts().get("cadd"), equalTo(0L));
+
+        FrequencyData expectedFrequencyData = allelePropertiesInstance.getVariantFrequencyData(variant, frequencySources);
+        assertThat(countingDao.getLookups(), equalTo(2));
+
+        assertThat(variantData.getFrequencyData(), equalTo(expectedFrequencyData));
+        assertThat(variantData.getFrequencyData(), equalTo(FrequencyData.of(RsId.of("rs54321"), Frequency.of(FrequencySource.ESP_ALL, 0.01f), Frequency.of(FrequencySource.LOCAL, 1f))));
+        assertThat(variantData.getPathogenicityData(), equalTo(PathogenicityData.of(PolyPhenScore.of(1f))));
+        assertThat(allelePropertiesInstance.getDataLookupCounts().get("frequencyAndPathogenicity"), equalTo(1L));
+    }
+
+    @Test
+    public void serviceReturnsOptionalPathogenicityDataSeparatelyFromAlleleStoreData() {
+        CountingAllelePropertiesDao countingDao = new CountingAllelePropertiesDao(Collections.emptyMap());
+        VariantDataServiceImpl allelePropertiesInstance = VariantDataServiceImpl.builder()
+                .allelePropertiesDao(countingDao)
+                .caddDao(mockCaddDao)
+                .build();
+
+        PathogenicityData optionalData = allelePropertiesInstance.getOptionalPathogenicityData(variant, EnumSet.of(PathogenicitySource.POLYPHEN, PathogenicitySource.CADD));
+        assertThat(optionalData, equalTo(CADD_DATA));
+        assertThat(countingDao.getLookups(), equalTo(0));
+        assertThat(allelePropertiesInstance.getDataLookupCounts().get("cadd"), equalTo(1L));
+    }
+
+    @Test
+    public void serviceReturnsNoOptionalPathogenicityDataWhenNotInAlleleStore() {
+        PathogenicitySource cadd = PathogenicitySource.CADD;
+        assertThat(instance.getVariantData(variant, EnumSet.noneOf(FrequencySource.class), EnumSet.of(cadd)).getPathogenicityData(), equalTo(PathogenicityData.of(PATH_CLINVAR_DATA, CaddScore.of(15f))));
+        assertThat(instance.getOptionalPathogenicityData(variant, EnumSet.of(cadd)), equalTo(PathogenicityData.empty()));
+    }
+
+    @Test
+    public void serviceReadsFrequencyAndPathogenicityDataSeparatelyWhenNotInAlleleStore() {
+        EnumSet<FrequencySource> frequencySources = EnumSet.of(FrequencySource.ESP_AFRICAN_AMERICAN);
+        EnumSet<PathogenicitySource> pathogenicitySources = EnumSet.of(PathogenicitySource.POLYPHEN);
+
+        VariantData variantData = instance.getVariantData(variant, frequencySources, pathogenicitySources);
+        assertThat(variantData.getFrequencyData(), equalTo(instance.getVariantFrequencyData(variant, frequencySources)));
+        assertThat(variantData.getPathogenicityData(), equalTo(instance.getVariantPathogenicityData(variant, pathogenicitySources)));
+    }
+
     @Test
     public void serviceReturnsPathogenicityDataForVariant() {
         PathogenicityData result = instance.getVariantPathogenicityData(variant, EnumSet.of(PathogenicitySource.POLYPHEN, PathogenicitySource.MUTATION_TASTER, PathogenicitySource.SIFT));
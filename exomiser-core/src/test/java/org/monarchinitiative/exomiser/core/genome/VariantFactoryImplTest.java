@@ -25,6 +25,7 @@
  */
 package org.monarchinitiative.exomiser.core.genome;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import htsjdk.variant.variantcontext.Genotype;
@@ -38,7 +39,9 @@
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -350,4 +353,32 @@ void testVariantContextIdIsEmptyWhenDotInVcf() {
         VariantEvaluation variantEvaluation = variants.get(0);
         assertThat(variantEvaluation.getId(), equalTo(""));
     }
+
+    @Test
+    void testCreateVariantsWithPreAnnotationFilterOnlyAnnotatesPassingVariants() {
+        VariantAnnotator defaultAnnotator = TestFactory.buildDefaultVariantAnnotator();
+        AtomicInteger annotationCount = new AtomicInteger();
+        VariantAnnotator countingAnnotator = (contig, pos, ref, alt) -> {
+            annotationCount.incrementAndGet();
+            return defaultAnnotator.annotate(contig, pos, ref, alt);
+        };
+        VariantFactory countingInstance = new VariantFactoryImpl(countingAnnotator);
+
+        Path vcfPath = Paths.get("src/test/resources/smallTest.vcf");
+        List<Integer> filteredPositions = new ArrayList<>();
+        List<VariantEvaluation> variants = countingInstance.createVariantEvaluations(VcfFiles.readVariantContexts(vcfPath), variantEvaluation -> {
+            filteredPositions.add(variantEvaluation.getPosition());
+            return variantEvaluation.getPosition() != 145508800;
+        }).collect(toList());
+
+        // the CA>CC variant at 123256213 is trimmed to A>C at 123256214 before the filter is run
+        assertThat(filteredPositions, equalTo(ImmutableList.of(123256214, 145508800, 145510000)));
+        assertThat(annotationCount.get(), equalTo(2));
+
+        List<String> expected = instance.createVariantEvaluations(vcfPath)
+                .filter(variantEvaluation -> variantEvaluation.getPosition() != 145508800)
+                .map(VariantEvaluation::toString)
+                .collect(toList());
+        assertThat(variants.stream().map(VariantEvaluation::toString).collect(toList()), equalTo(expected));
+    }
 }
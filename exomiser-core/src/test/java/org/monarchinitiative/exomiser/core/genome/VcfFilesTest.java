@@ -24,15 +24,25 @@
 import htsjdk.tribble.TribbleException;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.ChromosomalRegion;
+import org.monarchinitiative.exomiser.core.model.GeneticInterval;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -42,6 +52,32 @@
 
 public class VcfFilesTest {
 
+    private static Path testOutDir;
+
+    @BeforeAll
+    public static void makeTempDir() throws IOException {
+        testOutDir = Files.createTempDirectory("exomiser_vcf_files_test");
+    }
+
+    @AfterAll
+    public static void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(testOutDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static List<Integer> everyThousandBasesTo(int end) {
+        return IntStream.rangeClosed(1, end / 1000).mapToObj(i -> i * 1000).collect(toList());
+    }
+
+    private static List<Integer> readPositions(Path vcfPath, List<ChromosomalRegion> regions) {
+        try (Stream<VariantContext> variantStream = VcfFiles.readVariantContexts(vcfPath, regions)) {
+            return variantStream.map(VariantContext::getStart).collect(toList());
+        }
+    }
+
     @Test
     public void testCreateVariantContextsNullPath() {
         assertThrows(NullPointerException.class, () -> VcfFiles.readVariantContexts(null));
@@ -86,4 +122,50 @@ public void testReadVcfHeader() {
         VCFHeader header = VcfFiles.readVcfHeader(vcfPath);
         assertThat(header.getGenotypeSamples(), equalTo(ImmutableList.of("sample")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIsTabixIndexed() {
+        Path indexed = TestVcfFiles.writeSnvs(testOutDir.resolve("isIndexed.vcf.gz"), "10", everyThousandBasesTo(10_000));
+        Path unindexed = TestVcfFiles.writeSnvs(testOutDir.resolve("isNotIndexed.vcf"), "10", everyThousandBasesTo(10_000));
+        assertThat(VcfFiles.isTabixIndexed(indexed), is(true));
+        assertThat(VcfFiles.isTabixIndexed(unindexed), is(false));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsNullRegions() {
+        Path vcfPath = Paths.get("src/test/resources/smallTest.vcf");
+        assertThrows(NullPointerException.class, () -> VcfFiles.readVariantContexts(vcfPath, null));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsFromIndexedVcfOnlyReadsRegions() {
+        Path vcfPath = TestVcfFiles.writeSnvs(testOutDir.resolve("regions.vcf.gz"), "10", everyThousandBasesTo(100_000));
+        List<ChromosomalRegion> regions = Arrays.asList(
+                new GeneticInterval(10, 50_000, 52_000),
+                new GeneticInterval(10, 5_000, 7_000),
+                // overlaps the previous region, so should not return duplicate variants
+                new GeneticInterval(10, 6_500, 8_000),
+                // no variants on this chromosome
+                new GeneticInterval(1, 1, 100_000)
+        );
+
+        assertThat(readPositions(vcfPath, regions), equalTo(Arrays.asList(5000, 6000, 7000, 8000, 50000, 51000, 52000)));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsFromIndexedVcfWithChrPrefixedContigs() {
+        Path vcfPath = TestVcfFiles.writeSnvs(testOutDir.resolve("chrPrefix.vcf.gz"), "chr10", everyThousandBasesTo(100_000));
+        List<ChromosomalRegion> regions = Arrays.asList(new GeneticInterval(10, 5_000, 7_000));
+
+        assertThat(readPositions(vcfPath, regions), equalTo(Arrays.asList(5000, 6000, 7000)));
+    }
+
+    @Test
+    public void testReadVariantContextsInRegionsFromUnindexedVcfReadsAllVariants() {
+        List<Integer> positions = everyThousandBasesTo(10_000);
+        Path vcfPath = TestVcfFiles.writeSnvs(testOutDir.resolve("unindexed.vcf"), "10", positions);
+        List<ChromosomalRegion> regions = Arrays.asList(new GeneticInterval(10, 5_000, 7_000));
+
+        assertThat(readPositions(vcfPath, regions), equalTo(positions));
+    }
+}
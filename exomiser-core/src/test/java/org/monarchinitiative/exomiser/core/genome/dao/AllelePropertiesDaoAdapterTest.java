@@ -20,11 +20,27 @@
 
 package org.monarchinitiative.exomiser.core.genome.dao;
 
+import com.google.common.collect.ImmutableMap;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
 import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.model.VariantAnnotation;
+import org.monarchinitiative.exomiser.core.model.VariantData;
+import org.monarchinitiative.exomiser.core.model.frequency.Frequency;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencyData;
+import org.monarchinitiative.exomiser.core.model.frequency.FrequencySource;
+import org.monarchinitiative.exomiser.core.model.frequency.RsId;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.SiftScore;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto;
 
 import java.util.Map;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
@@ -36,4 +52,41 @@ AllelePropertiesDaoAdapter newInstanceWithData(Map<AlleleProto.AlleleKey, Allele
         return new AllelePropertiesDaoAdapter(allelePropertiesDao);
     }
 
-}
\ No newline at end of file
+    private final Variant variant = VariantAnnotation.builder().chromosome(1).position(12345).ref("A").alt("T")
+            .variantEffect(VariantEffect.MISSENSE_VARIANT)
+            .build();
+
+    private final AlleleProto.AlleleProperties properties = AlleleProto.AlleleProperties.newBuilder()
+            .setRsId("rs54321")
+            .putProperties("KG", 0.04f)
+            .putProperties("SIFT", 0.0f)
+            .build();
+
+    @Test
+    void getVariantData() {
+        AllelePropertiesDaoAdapter instance = newInstanceWithData(ImmutableMap.of(AlleleProtoAdaptor.toAlleleKey(variant), properties));
+
+        FrequencyData expectedFrequencyData = FrequencyData.of(RsId.of("rs54321"), Frequency.of(FrequencySource.THOUSAND_GENOMES, 0.04f));
+        PathogenicityData expectedPathogenicityData = PathogenicityData.of(SiftScore.of(0f));
+        assertThat(instance.getVariantData(variant), equalTo(VariantData.of(expectedFrequencyData, expectedPathogenicityData)));
+    }
+
+    @Test
+    void getVariantDataNoData() {
+        AllelePropertiesDaoAdapter instance = newInstanceWithData(ImmutableMap.of());
+        assertThat(instance.getVariantData(variant), equalTo(VariantData.empty()));
+    }
+
+    @Test
+    void getVariantDataReadsAllelePropertiesOnce() {
+        CountingAllelePropertiesDao countingDao = new CountingAllelePropertiesDao(ImmutableMap.of(AlleleProtoAdaptor.toAlleleKey(variant), properties));
+        AllelePropertiesDaoAdapter instance = new AllelePropertiesDaoAdapter(countingDao);
+
+        VariantData variantData = instance.getVariantData(variant);
+        assertThat(countingDao.getLookups(), equalTo(1));
+
+        assertThat(variantData.getFrequencyData(), equalTo(instance.getFrequencyData(variant)));
+        assertThat(variantData.getPathogenicityData(), equalTo(instance.getPathogenicityData(variant)));
+        assertThat(countingDao.getLookups(), equalTo(3));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.genome.dao;
+
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.monarchinitiative.exomiser.core.model.AlleleProtoAdaptor;
+import org.monarchinitiative.exomiser.core.model.Variant;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleKey;
+import org.monarchinitiative.exomiser.core.proto.AlleleProto.AlleleProperties;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test {@link AllelePropertiesDao} backed by a map, which counts the number of lookups made against it.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class CountingAllelePropertiesDao implements AllelePropertiesDao {
+
+    private final Map<AlleleKey, AlleleProperties> alleles;
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    public CountingAllelePropertiesDao(Map<AlleleKey, AlleleProperties> alleles) {
+        this.alleles = alleles;
+    }
+
+    @Override
+    public AlleleProperties getAlleleProperties(AlleleKey alleleKey, GenomeAssembly genomeAssembly) {
+        lookups.incrementAndGet();
+        return alleles.getOrDefault(alleleKey, AlleleProperties.getDefaultInstance());
+    }
+
+    @Override
+    public AlleleProperties getAlleleProperties(Variant variant) {
+        return getAlleleProperties(AlleleProtoAdaptor.toAlleleKey(variant), variant.getGenomeAssembly());
+    }
+
+    public int getLookups() {
+        return lookups.get();
+    }
+}
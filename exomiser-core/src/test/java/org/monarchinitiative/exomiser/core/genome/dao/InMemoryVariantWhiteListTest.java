@@ -27,7 +27,10 @@
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 import org.monarchinitiative.exomiser.core.proto.AlleleProto;
 
-import java.util.Collections;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
@@ -60,4 +63,126 @@ void testContains() {
         VariantWhiteList emptyInstance = InMemoryVariantWhiteList.empty();
         assertThat(emptyInstance.contains(whiteListedVariant), is(false));
     }
-}
\ No newline at end of file
+
+    private static final String[] BASES = {"A", "C", "G", "T"};
+
+    private static String randomAllele(Random random, int maxLength) {
+        int length = 1 + random.nextInt(maxLength);
+        StringBuilder allele = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            allele.append(BASES[random.nextInt(4)]);
+        }
+        return allele.toString();
+    }
+
+    private static Variant variant(int chr, int position, String ref, String alt) {
+        return VariantEvaluation.builder(chr, position, ref, alt).build();
+    }
+
+    private static Variant randomVariant(Random random) {
+        int chr = 1 + random.nextInt(25);
+        int position = 1 + random.nextInt(5000);
+        String ref = randomAllele(random, 3);
+        String alt = randomAllele(random, 3);
+        while (alt.equals(ref)) {
+            alt = randomAllele(random, 3);
+        }
+        return variant(chr, position, ref, alt);
+    }
+
+    /**
+     * Builds a whitelist of SNVs, MNVs and indels clustered in a small region so that many of the test variants share
+     * a position with, but are not, a whitelisted allele.
+     */
+    private static List<Variant> randomWhiteListedVariants(Random random, int numVariants) {
+        List<Variant> variants = new ArrayList<>(numVariants);
+        for (int i = 0; i < numVariants; i++) {
+            variants.add(randomVariant(random));
+        }
+        return variants;
+    }
+
+    private static Set<AlleleProto.AlleleKey> toAlleleKeys(List<Variant> variants) {
+        Set<AlleleProto.AlleleKey> alleleKeys = new HashSet<>();
+        for (Variant variant : variants) {
+            alleleKeys.add(AlleleProtoAdaptor.toAlleleKey(variant));
+        }
+        return alleleKeys;
+    }
+
+    @Test
+    void testContainsIndelAndMnv() {
+        Variant insertion = variant(1, 234567, "A", "AGT");
+        Variant deletion = variant(1, 234567, "AGT", "A");
+        Variant mnv = variant(2, 345678, "AT", "GC");
+        InMemoryVariantWhiteList instance = InMemoryVariantWhiteList.builder()
+                .add(1, 234567, "A", "AGT")
+                .add(2, 345678, "AT", "GC")
+                .build();
+
+        assertThat(instance.size(), equalTo(2));
+        assertThat(instance.contains(insertion), is(true));
+        assertThat(instance.contains(mnv), is(true));
+        assertThat(instance.contains(deletion), is(false));
+        assertThat(instance.contains(variant(1, 234567, "A", "G")), is(false));
+        assertThat(instance.contains(variant(1, 234568, "A", "AGT")), is(false));
+        assertThat(instance.contains(variant(3, 234567, "A", "AGT")), is(false));
+    }
+
+    @Test
+    void testBuilderRemovesDuplicates() {
+        InMemoryVariantWhiteList instance = InMemoryVariantWhiteList.builder()
+                .add(1, 12345, "A", "G")
+                .add(1, 12345, "A", "G")
+                .add(1, 12345, "A", "GT")
+                .add(1, 12345, "A", "GT")
+                .build();
+        assertThat(instance.size(), equalTo(2));
+    }
+
+    @Test
+    void testEmptyBuilderReturnsEmptyWhiteList() {
+        assertThat(InMemoryVariantWhiteList.builder().build(), equalTo(InMemoryVariantWhiteList.empty()));
+    }
+
+    @Test
+    void testNoFalsePositivesOrNegatives() {
+        Random random = new Random(1234);
+        List<Variant> whiteListed = randomWhiteListedVariants(random, 50_000);
+        Set<AlleleProto.AlleleKey> whiteListedKeys = toAlleleKeys(whiteListed);
+
+        VariantWhiteList instance = InMemoryVariantWhiteList.of(whiteListedKeys);
+
+        for (Variant variant : whiteListed) {
+            assertThat(variant.toString(), instance.contains(variant), is(true));
+        }
+        // test variants in the same region as the whitelist, so many share a position and some share alleles
+        for (int i = 0; i < 500_000; i++) {
+            Variant variant = randomVariant(random);
+            boolean expected = whiteListedKeys.contains(AlleleProtoAdaptor.toAlleleKey(variant));
+            assertThat(variant.toString(), instance.contains(variant), is(expected));
+        }
+    }
+
+    @Test
+    void testWriteAndReadBinaryWhiteList() throws IOException {
+        Random random = new Random(5678);
+        List<Variant> whiteListed = randomWhiteListedVariants(random, 10_000);
+        InMemoryVariantWhiteList instance = InMemoryVariantWhiteList.of(toAlleleKeys(whiteListed));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        instance.write(outputStream);
+        InMemoryVariantWhiteList read = InMemoryVariantWhiteList.read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        assertThat(read.size(), equalTo(instance.size()));
+        for (Variant variant : whiteListed) {
+            assertThat(read.contains(variant), is(true));
+        }
+        assertThat(read.contains(variant(1, 1_000_000, "A", "G")), is(false));
+    }
+
+    @Test
+    void testReadThrowsExceptionForNonBinaryWhiteList() {
+        assertThrows(IOException.class, () -> InMemoryVariantWhiteList.read(new ByteArrayInputStream("1\t12345\tA\tG\n".getBytes())));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.model;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class LazyTranscriptAnnotationsTest {
+
+    private final AtomicInteger conversions = new AtomicInteger();
+
+    private final Function<String, TranscriptAnnotation> converter = accession -> {
+        conversions.incrementAndGet();
+        return TranscriptAnnotation.builder().accession(accession).build();
+    };
+
+    @Test
+    void emptySourceReturnsEmptyList() {
+        List<TranscriptAnnotation> instance = LazyTranscriptAnnotations.of(ImmutableList.of(), converter);
+        assertThat(instance.isEmpty(), is(true));
+        assertThat(instance instanceof LazyTranscriptAnnotations, is(false));
+    }
+
+    @Test
+    void sizeDoesNotBuildAnnotations() {
+        List<TranscriptAnnotation> instance = LazyTranscriptAnnotations.of(Arrays.asList("uc001", "uc002"), converter);
+
+        assertThat(instance.size(), equalTo(2));
+        assertThat(instance.isEmpty(), is(false));
+        assertThat(conversions.get(), equalTo(0));
+        assertThat(((LazyTranscriptAnnotations) instance).isMaterialised(), is(false));
+    }
+
+    @Test
+    void annotationsAreBuiltOnceOnFirstAccess() {
+        List<TranscriptAnnotation> instance = LazyTranscriptAnnotations.of(Arrays.asList("uc001", "uc002"), converter);
+
+        assertThat(instance.get(1).getAccession(), equalTo("uc002"));
+        assertThat(instance.get(0).getAccession(), equalTo("uc001"));
+        assertThat(instance.get(1), sameInstance(instance.get(1)));
+        assertThat(conversions.get(), equalTo(2));
+        assertThat(((LazyTranscriptAnnotations) instance).isMaterialised(), is(true));
+    }
+
+    @Test
+    void equalsEagerlyBuiltList() {
+        List<TranscriptAnnotation> instance = LazyTranscriptAnnotations.of(Arrays.asList("uc001", "uc002"), converter);
+
+        List<TranscriptAnnotation> expected = ImmutableList.of(
+                TranscriptAnnotation.builder().accession("uc001").build(),
+                TranscriptAnnotation.builder().accession("uc002").build()
+        );
+        assertThat(instance, equalTo(expected));
+        assertThat(instance.hashCode(), equalTo(expected.hashCode()));
+    }
+
+    @Test
+    void immutableCopyOfDoesNotBuildAnnotations() {
+        List<TranscriptAnnotation> instance = LazyTranscriptAnnotations.of(Arrays.asList("uc001", "uc002"), converter);
+
+        VariantEvaluation variantEvaluation = VariantEvaluation.builder(1, 12345, "A", "T").annotations(instance).build();
+
+        assertThat(variantEvaluation.getTranscriptAnnotations(), sameInstance(instance));
+        assertThat(variantEvaluation.hasTranscriptAnnotations(), is(true));
+        assertThat(conversions.get(), equalTo(0));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.phenotype;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.phenotype.service.OntologyService;
+import org.monarchinitiative.exomiser.core.prioritisers.model.GeneModel;
+import org.monarchinitiative.exomiser.core.prioritisers.model.GeneOrthologModel;
+import org.monarchinitiative.exomiser.core.prioritisers.service.TestPriorityServiceFactory;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class ModelIndexTest {
+
+    private final OntologyService ontologyService = TestPriorityServiceFactory.TEST_ONTOLOGY_SERVICE;
+    private final PhenotypeMatchService phenotypeMatchService = new PhenotypeMatchService(ontologyService);
+
+    private final List<GeneModel> mouseModels = TestPriorityServiceFactory.TEST_SERVICE.getModelsForOrganism(Organism.MOUSE);
+
+    private PhenodigmModelScorer<GeneModel> mouseModelScorer() {
+        List<PhenotypeTerm> queryTerms = ImmutableList.copyOf(ontologyService.getHpoTerms());
+        PhenotypeMatcher mousePhenotypeMatcher = phenotypeMatchService.getMousePhenotypeMatcherForTerms(queryTerms);
+        return PhenodigmModelScorer.forSingleCrossSpecies(mousePhenotypeMatcher);
+    }
+
+    @Test
+    void emptyIndex() {
+        ModelIndex<GeneModel> instance = ModelIndex.of(Collections.emptyList(), GeneModel::getEntrezGeneId);
+        assertThat(instance.size(), equalTo(0));
+        assertThat(instance.getModels(2263).isEmpty(), is(true));
+        assertThat(instance.scoreModels(Collections.singleton(2263), mouseModelScorer()).isEmpty(), is(true));
+    }
+
+    @Test
+    void getModelsForKey() {
+        ModelIndex<GeneModel> instance = ModelIndex.of(mouseModels, GeneModel::getEntrezGeneId);
+        assertThat(instance.size(), equalTo(mouseModels.size()));
+
+        List<GeneModel> expected = mouseModels.stream()
+                .filter(model -> model.getEntrezGeneId() == 2263)
+                .collect(toList());
+        assertThat(instance.getModels(2263), equalTo(expected));
+    }
+
+    @Test
+    void scoreModelsOnlyScoresModelsForKeys() {
+        ModelIndex<GeneModel> instance = ModelIndex.of(mouseModels, GeneModel::getEntrezGeneId);
+
+        List<ModelPhenotypeMatch<GeneModel>> results = instance.scoreModels(Collections.singleton(2263), mouseModelScorer());
+
+        assertThat(results.isEmpty(), is(false));
+        assertThat(results.stream().map(result -> result.getModel().getEntrezGeneId()).collect(toSet()), equalTo(Collections.singleton(2263)));
+    }
+
+    @Test
+    void scoreModelsIsSameAsScoringEachModel() {
+        PhenodigmModelScorer<GeneModel> modelScorer = mouseModelScorer();
+        ModelIndex<GeneModel> instance = ModelIndex.of(mouseModels, GeneModel::getEntrezGeneId);
+
+        Set<Integer> allGeneIds = mouseModels.stream().map(GeneModel::getEntrezGeneId).collect(toSet());
+        Map<String, ModelPhenotypeMatch<GeneModel>> results = new HashMap<>();
+        instance.scoreModels(allGeneIds, modelScorer).forEach(result -> results.put(result.getModel().getId(), result));
+
+        assertThat(results.size(), equalTo(mouseModels.size()));
+        for (GeneModel model : mouseModels) {
+            ModelPhenotypeMatch<GeneModel> expected = modelScorer.scoreModel(model);
+            ModelPhenotypeMatch<GeneModel> actual = results.get(model.getId());
+            assertThat(actual.getScore(), equalTo(expected.getScore()));
+            assertThat(actual.getBestPhenotypeMatches(), equalTo(expected.getBestPhenotypeMatches()));
+        }
+    }
+
+    @Test
+    void scoreModelsWithUnknownAndRepeatedPhenotypes() {
+        PhenodigmModelScorer<GeneModel> modelScorer = mouseModelScorer();
+        GeneModel mouseModel = mouseModels.get(0);
+        List<String> phenotypeIds = new ArrayList<>(mouseModel.getPhenotypeIds());
+        phenotypeIds.add("MP:0000000");
+        phenotypeIds.addAll(mouseModel.getPhenotypeIds());
+        GeneModel model = new GeneOrthologModel("MOUSE:1", Organism.MOUSE, 12345, "GENE1", "MGI:12345", "gene1", phenotypeIds);
+
+        ModelIndex<GeneModel> instance = ModelIndex.of(Collections.singletonList(model), GeneModel::getEntrezGeneId);
+        ModelPhenotypeMatch<GeneModel> actual = instance.scoreModels(Collections.singleton(12345), modelScorer).get(0);
+        ModelPhenotypeMatch<GeneModel> expected = modelScorer.scoreModel(model);
+
+        assertThat(actual.getScore(), equalTo(expected.getScore()));
+        assertThat(actual.getBestPhenotypeMatches(), equalTo(expected.getBestPhenotypeMatches()));
+    }
+}
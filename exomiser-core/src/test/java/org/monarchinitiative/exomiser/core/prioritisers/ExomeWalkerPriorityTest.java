@@ -0,0 +1,185 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.prioritisers;
+
+import org.jblas.FloatMatrix;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrix;
+import org.monarchinitiative.exomiser.core.prioritisers.util.InMemoryDataMatrix;
+import org.monarchinitiative.exomiser.core.prioritisers.util.SparseRandomWalkDataMatrix;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class ExomeWalkerPriorityTest {
+
+    private static final double RESTART_PROBABILITY = 0.7;
+
+    // entrez id pairs and weights of a small network with two components
+    private static final int[][] INTERACTIONS = {
+            {1, 2, 900}, {1, 3, 400}, {2, 3, 700}, {3, 4, 150}, {4, 5, 999}, {5, 6, 300}, {2, 6, 500}, {6, 7, 800},
+            {8, 9, 600}, {9, 10, 250}
+    };
+
+    private SparseRandomWalkDataMatrix sparseMatrix() {
+        SparseRandomWalkDataMatrix.Builder builder = SparseRandomWalkDataMatrix.builder()
+                .restartProbability(RESTART_PROBABILITY)
+                .convergenceThreshold(1e-9);
+        for (int[] interaction : INTERACTIONS) {
+            builder.addInteraction(interaction[0], interaction[1], interaction[2]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Computes the dense random walk matrix r(I - (1 - r)W)^-1 directly, where W is the column-normalised adjacency
+     * matrix of the network.
+     */
+    private DataMatrix denseMatrix() {
+        Map<Integer, Integer> entrezIdToRowIndex = new TreeMap<>();
+        for (int[] interaction : INTERACTIONS) {
+            entrezIdToRowIndex.put(interaction[0], 0);
+            entrezIdToRowIndex.put(interaction[1], 0);
+        }
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : entrezIdToRowIndex.entrySet()) {
+            entry.setValue(index++);
+        }
+        int size = entrezIdToRowIndex.size();
+        double[][] adjacency = new double[size][size];
+        for (int[] interaction : INTERACTIONS) {
+            int a = entrezIdToRowIndex.get(interaction[0]);
+            int b = entrezIdToRowIndex.get(interaction[1]);
+            adjacency[a][b] = interaction[2];
+            adjacency[b][a] = interaction[2];
+        }
+        // M = I - (1 - r)W
+        double[][] m = new double[size][size];
+        for (int column = 0; column < size; column++) {
+            double columnSum = 0;
+            for (int row = 0; row < size; row++) {
+                columnSum += adjacency[row][column];
+            }
+            for (int row = 0; row < size; row++) {
+                m[row][column] = (row == column ? 1 : 0) - (1 - RESTART_PROBABILITY) * adjacency[row][column] / columnSum;
+            }
+        }
+        double[][] inverse = invert(m);
+        FloatMatrix randomWalk = new FloatMatrix(size, size);
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                randomWalk.put(row, column, (float) (RESTART_PROBABILITY * inverse[row][column]));
+            }
+        }
+        return new InMemoryDataMatrix(randomWalk, entrezIdToRowIndex);
+    }
+
+    /**
+     * Gauss-Jordan elimination with partial pivoting.
+     */
+    private double[][] invert(double[][] matrix) {
+        int size = matrix.length;
+        double[][] augmented = new double[size][2 * size];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(matrix[row], 0, augmented[row], 0, size);
+            augmented[row][size + row] = 1;
+        }
+        for (int pivot = 0; pivot < size; pivot++) {
+            int best = pivot;
+            for (int row = pivot + 1; row < size; row++) {
+                if (Math.abs(augmented[row][pivot]) > Math.abs(augmented[best][pivot])) {
+                    best = row;
+                }
+            }
+            double[] swap = augmented[pivot];
+            augmented[pivot] = augmented[best];
+            augmented[best] = swap;
+            double pivotValue = augmented[pivot][pivot];
+            for (int column = 0; column < 2 * size; column++) {
+                augmented[pivot][column] /= pivotValue;
+            }
+            for (int row = 0; row < size; row++) {
+                double factor = augmented[row][pivot];
+                if (row != pivot && factor != 0) {
+                    for (int column = 0; column < 2 * size; column++) {
+                        augmented[row][column] -= factor * augmented[pivot][column];
+                    }
+                }
+            }
+        }
+        double[][] inverse = new double[size][size];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(augmented[row], size, inverse[row], 0, size);
+        }
+        return inverse;
+    }
+
+    private List<Gene> genes() {
+        List<Gene> genes = new ArrayList<>();
+        for (int entrezId = 1; entrezId <= 11; entrezId++) {
+            genes.add(new Gene("GENE" + entrezId, entrezId));
+        }
+        return genes;
+    }
+
+    private List<Double> scores(ExomeWalkerPriority prioritiser) {
+        return prioritiser.prioritise(Collections.emptyList(), genes())
+                .map(ExomeWalkerPriorityResult::getScore)
+                .collect(toList());
+    }
+
+    @Test
+    void sparseMatrixColumnsMatchDenseMatrix() {
+        DataMatrix dense = denseMatrix();
+        SparseRandomWalkDataMatrix sparse = sparseMatrix();
+
+        assertThat(sparse.getEntrezIdToRowIndex(), equalTo(dense.getEntrezIdToRowIndex()));
+        FloatMatrix denseMatrix = dense.getMatrix();
+        FloatMatrix sparseMatrix = sparse.getMatrix();
+        for (int i = 0; i < denseMatrix.length; i++) {
+            assertThat((double) sparseMatrix.get(i), closeTo(denseMatrix.get(i), 1e-6));
+        }
+    }
+
+    @Test
+    void sparseMatrixScoresMatchDenseMatrixScores() {
+        List<Integer> seedGenes = Arrays.asList(2, 5, 9, 12);
+
+        List<Double> denseScores = scores(new ExomeWalkerPriority(denseMatrix(), seedGenes));
+        List<Double> sparseScores = scores(new ExomeWalkerPriority(sparseMatrix(), seedGenes));
+
+        assertThat(sparseScores.size(), equalTo(denseScores.size()));
+        for (int i = 0; i < denseScores.size(); i++) {
+            assertThat(sparseScores.get(i), closeTo(denseScores.get(i), 1e-6));
+        }
+        // gene 11 isn't in the network
+        assertThat(sparseScores.get(10), equalTo(0.0));
+    }
+}
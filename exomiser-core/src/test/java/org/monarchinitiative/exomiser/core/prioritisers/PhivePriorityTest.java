@@ -23,16 +23,17 @@
 import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Test;
 import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.phenotype.*;
+import org.monarchinitiative.exomiser.core.prioritisers.model.GeneModel;
+import org.monarchinitiative.exomiser.core.prioritisers.service.PriorityService;
 import org.monarchinitiative.exomiser.core.prioritisers.service.TestPriorityServiceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
+import static java.util.Comparator.comparingDouble;
+import static java.util.stream.Collectors.*;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -116,6 +117,35 @@ public void testPrioritise() {
         checkScores(actualScores, expectedMouseScores());
     }
 
+    @Test
+    public void testPrioritiseScoresAreSameAsScoringAllModels() {
+        List<Gene> genes = getGenes();
+        List<String> hpoIds = Lists.newArrayList("HP:0010055", "HP:0001363", "HP:0001156", "HP:0011304");
+        PriorityService priorityService = TestPriorityServiceFactory.TEST_SERVICE;
+
+        List<PhenotypeTerm> hpoPhenotypeTerms = priorityService.makePhenotypeTermsFromHpoIds(hpoIds);
+        PhenotypeMatcher mousePhenotypeMatcher = priorityService.getPhenotypeMatcherForOrganism(hpoPhenotypeTerms, Organism.MOUSE);
+        ModelScorer<GeneModel> modelScorer = PhenodigmModelScorer.forSingleCrossSpecies(mousePhenotypeMatcher);
+        Set<Integer> wantedGeneIds = genes.stream().map(Gene::getEntrezGeneID).collect(toSet());
+
+        Map<Integer, Optional<ModelPhenotypeMatch<GeneModel>>> expectedBestModels = priorityService.getModelsForOrganism(Organism.MOUSE)
+                .stream()
+                .filter(model -> wantedGeneIds.contains(model.getEntrezGeneId()))
+                .map(modelScorer::scoreModel)
+                .collect(groupingBy(match -> match.getModel().getEntrezGeneId(), maxBy(comparingDouble(ModelPhenotypeMatch::getScore))));
+
+        Map<String, Double> expectedScores = genes.stream()
+                .collect(toMap(Gene::getGeneSymbol, gene -> expectedBestModels.getOrDefault(gene.getEntrezGeneID(), Optional.empty())
+                        .map(ModelPhenotypeMatch::getScore)
+                        .orElse((double) PhivePriority.NO_MOUSE_MODEL_SCORE)));
+
+        PhivePriority phivePriority = new PhivePriority(priorityService);
+        Map<String, Double> actualScores = phivePriority.prioritise(hpoIds, genes)
+                .collect(toMap(PhivePriorityResult::getGeneSymbol, PhivePriorityResult::getScore));
+
+        checkScores(actualScores, expectedScores);
+    }
+
     @Test
     public void testHashCode() {
         PhivePriority phivePriority = new PhivePriority(TestPriorityServiceFactory.TEST_SERVICE);
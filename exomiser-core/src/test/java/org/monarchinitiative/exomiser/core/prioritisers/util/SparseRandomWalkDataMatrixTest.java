@@ -0,0 +1,84 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.prioritisers.util;
+
+import org.jblas.FloatMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class SparseRandomWalkDataMatrixTest {
+
+    private final SparseRandomWalkDataMatrix instance = SparseRandomWalkDataMatrix.builder()
+            .addInteraction(3333, 1111, 0.5)
+            .addInteraction(1111, 2222, 0.9)
+            .addInteraction(2222, 3333, 0.2)
+            .addInteraction(3333, 4444, 0.7)
+            .convergenceThreshold(1e-9)
+            .build();
+
+    @Test
+    void genesAreIndexedInEntrezIdOrder() {
+        assertThat(instance.numRows(), equalTo(4));
+        assertThat(instance.numColumns(), equalTo(4));
+        assertThat(instance.getRowIndexForGene(1111), equalTo(0));
+        assertThat(instance.getRowIndexForGene(4444), equalTo(3));
+        assertThat(instance.containsGene(5555), is(false));
+        assertThat(instance.getRowIndexForGene(5555), is(nullValue()));
+        assertThat(instance.getColumnMatrixForGene(5555), is(nullValue()));
+    }
+
+    @Test
+    void columnIsProbabilityDistributionPeakingAtSeedGene() {
+        FloatMatrix column = instance.getColumnMatrixForGene(4444);
+        assertThat(column.rows, equalTo(4));
+        assertThat((double) column.sum(), closeTo(1.0, 1e-6));
+        assertThat(column.argmax(), equalTo(instance.getRowIndexForGene(4444)));
+    }
+
+    @Test
+    void randomWalkFromSeedsIsSumOfColumns() {
+        FloatMatrix expected = instance.getColumnMatrixForGene(1111).add(instance.getColumnMatrixForGene(4444));
+        FloatMatrix actual = instance.randomWalkWithRestart(Arrays.asList(1111, 4444, 5555));
+        for (int i = 0; i < expected.length; i++) {
+            assertThat((double) actual.get(i), closeTo(expected.get(i), 1e-6));
+        }
+    }
+
+    @Test
+    void throwsExceptionWithInvalidRestartProbability() {
+        assertThrows(IllegalArgumentException.class, () -> SparseRandomWalkDataMatrix.builder().restartProbability(0));
+        assertThrows(IllegalArgumentException.class, () -> SparseRandomWalkDataMatrix.builder().restartProbability(1.5));
+    }
+
+    @Test
+    void throwsExceptionWithInvalidConvergenceThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> SparseRandomWalkDataMatrix.builder().convergenceThreshold(0));
+    }
+}
@@ -33,10 +33,9 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.EnumSet;
-import java.util.Set;
+import java.util.*;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -184,4 +183,29 @@ public void testWriteToFileDoesNotOutputsSingleHtmlFileIfAbsentFromSettings() th
         Path outputPath = Paths.get(String.format("%s.%s", outputPrefix, OutputFormat.HTML.getFileExtension()));
         assertThat(outputPath.toFile().exists(), is(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWriteToFileDoesNotReorderGenes() throws Exception {
+        String outputPrefix = tempFile.toString();
+
+        OutputSettings settings = OutputSettings.builder()
+                .outputPrefix(outputPrefix)
+                .outputFormats(EnumSet.of(OutputFormat.TSV_GENE))
+                .build();
+
+        Analysis analysis = Analysis.builder()
+                .vcfPath(Paths.get("src/test/resources/smallTest.vcf"))
+                .inheritanceModeOptions(InheritanceModeOptions.defaults())
+                .build();
+        AnalysisResults analysisResults = newAnalysisResults();
+        List<Gene> originalGenes = new ArrayList<>(analysisResults.getGenes());
+
+        AnalysisResultsWriter.writeToFile(analysis, analysisResults, settings);
+
+        assertThat(analysisResults.getGenes(), equalTo(originalGenes));
+        for (String moi : Arrays.asList("AD", "AR", "XR", "XD", "MT")) {
+            Path outputPath = Paths.get(String.format("%s_%s.%s", outputPrefix, moi, OutputFormat.TSV_GENE.getFileExtension()));
+            assertThat(outputPath.toFile().delete(), is(true));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import de.charite.compbio.jannovar.pedigree.Genotype;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.analysis.Analysis;
+import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
+import org.monarchinitiative.exomiser.core.genome.TestFactory;
+import org.monarchinitiative.exomiser.core.genome.TestVariantFactory;
+import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PathogenicityData;
+import org.monarchinitiative.exomiser.core.model.pathogenicity.PolyPhenScore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class ColumnarResultsWriterTest {
+
+    private final TestVariantFactory varFactory = new TestVariantFactory();
+
+    private final OutputSettings.Builder settingsBuilder = OutputSettings.builder()
+            .outputFormats(EnumSet.of(OutputFormat.COLUMNAR));
+    private final Analysis analysis = Analysis.builder().build();
+    private AnalysisResults analysisResults;
+
+    @BeforeEach
+    public void setUp() {
+        Gene fgfr2 = TestFactory.newGeneFGFR2();
+        fgfr2.addVariant(makePassVariant());
+
+        Gene shh = TestFactory.newGeneSHH();
+        shh.addVariant(makeFailVariant());
+
+        analysisResults = AnalysisResults.builder()
+                .genes(Arrays.asList(fgfr2, shh))
+                .build();
+    }
+
+    private VariantEvaluation makeFailVariant() {
+        VariantEvaluation variant = varFactory.buildVariant(7, 155604800, "C", "CTT", Genotype.HETEROZYGOUS, 30, 0, 1.0);
+        variant.addFilterResult(FilterResult.fail(FilterType.VARIANT_EFFECT_FILTER));
+        return variant;
+    }
+
+    private VariantEvaluation makePassVariant() {
+        VariantEvaluation variant = varFactory.buildVariant(10, 123256214, "A", "G", Genotype.HETEROZYGOUS, 30, 0, 2.2);
+        variant.addFilterResult(FilterResult.pass(FilterType.VARIANT_EFFECT_FILTER));
+        variant.setPathogenicityData(PathogenicityData.of(PolyPhenScore.of(0.89f)));
+        return variant;
+    }
+
+    private Map<String, ColumnarResultsReader.Table> writeAndRead(ColumnarResultsWriter instance, OutputSettings settings) throws IOException {
+        String output = instance.writeString(ModeOfInheritance.ANY, analysis, analysisResults, settings);
+        return ColumnarResultsReader.read(new ByteArrayInputStream(Base64.getDecoder().decode(output)));
+    }
+
+    @Test
+    public void writesGenesAndVariantsTables() throws Exception {
+        Map<String, ColumnarResultsReader.Table> tables = writeAndRead(new ColumnarResultsWriter(), settingsBuilder.build());
+        assertThat(new ArrayList<>(tables.keySet()), equalTo(Arrays.asList("genes", "variants")));
+    }
+
+    @Test
+    public void writesPassedGenes() throws Exception {
+        ColumnarResultsReader.Table genes = writeAndRead(new ColumnarResultsWriter(), settingsBuilder.build()).get("genes");
+
+        assertThat(genes.getNumRows(), equalTo(1));
+        assertThat(genes.getStringColumn("GENE_SYMBOL"), equalTo(new String[]{"FGFR2"}));
+        assertThat(genes.getIntColumn("ENTREZ_GENE_ID"), equalTo(new int[]{2263}));
+        assertThat(genes.getFloatColumn("EXOMISER_GENE_COMBINED_SCORE"), equalTo(new float[]{0f}));
+    }
+
+    @Test
+    public void writesAllVariants() throws Exception {
+        ColumnarResultsReader.Table variants = writeAndRead(new ColumnarResultsWriter(), settingsBuilder.build()).get("variants");
+
+        assertThat(variants.getNumRows(), equalTo(2));
+        assertThat(variants.getStringColumn("CHROM"), equalTo(new String[]{"10", "7"}));
+        assertThat(variants.getIntColumn("POS"), equalTo(new int[]{123256214, 155604800}));
+        assertThat(variants.getStringColumn("REF"), equalTo(new String[]{"A", "C"}));
+        assertThat(variants.getStringColumn("ALT"), equalTo(new String[]{"G", "CTT"}));
+        assertThat(variants.getFloatColumn("QUAL"), equalTo(new float[]{2.2f, 1.0f}));
+        assertThat(variants.getStringColumn("FILTER"), equalTo(new String[]{"PASS", "var-effect"}));
+        assertThat(variants.getStringColumn("GENOTYPE"), equalTo(new String[]{"0/1", "0/1"}));
+        assertThat(variants.getStringColumn("FUNCTIONAL_CLASS"), equalTo(new String[]{"missense_variant", "frameshift_variant"}));
+        assertThat(variants.getStringColumn("HGVS"), equalTo(new String[]{"FGFR2:uc021pzz.1:c.1695G>C:p.(Glu565Asp)", "SHH:uc003wmk.1:c.16_17insAA:p.(Arg6Lysfs*6)"}));
+        assertThat(variants.getStringColumn("EXOMISER_GENE"), equalTo(new String[]{"FGFR2", "SHH"}));
+        assertThat(variants.getFloatColumn("POLYPHEN"), equalTo(new float[]{0.89f, Float.NaN}));
+        assertThat(variants.getFloatColumn("CADD"), equalTo(new float[]{Float.NaN, Float.NaN}));
+        assertThat(variants.getStringColumn("DBSNP_ID"), equalTo(new String[]{"", ""}));
+        assertThat(variants.getFloatColumn("MAX_FREQUENCY"), equalTo(new float[]{Float.NaN, Float.NaN}));
+        assertThat(variants.getFloatColumn("EXOMISER_VARIANT_SCORE"), equalTo(new float[]{0.89f, 1.0f}));
+        assertThat(variants.getBooleanColumn("CONTRIBUTING_VARIANT"), equalTo(new boolean[]{false, false}));
+    }
+
+    @Test
+    public void writesOnlyContributingVariants() throws Exception {
+        OutputSettings settings = settingsBuilder.outputContributingVariantsOnly(true).build();
+        ColumnarResultsReader.Table variants = writeAndRead(new ColumnarResultsWriter(), settings).get("variants");
+
+        assertThat(variants.getNumRows(), equalTo(0));
+    }
+
+    @Test
+    public void writesVariantsInMultipleBatches() throws Exception {
+        List<Gene> genes = new ArrayList<>();
+        List<String> expectedChromosomes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Gene gene = new Gene("GENE" + i, i);
+            int chr = i % 22 + 1;
+            gene.addVariant(varFactory.buildVariant(chr, 1000 + i, "A", "T", Genotype.HETEROZYGOUS, 30, 0, 1.0));
+            genes.add(gene);
+            expectedChromosomes.add(Integer.toString(chr));
+        }
+        analysisResults = AnalysisResults.builder().genes(genes).build();
+
+        // with a batch size of 7 the dictionary for CHROM is split over several batches
+        ColumnarResultsReader.Table variants = writeAndRead(new ColumnarResultsWriter(7), settingsBuilder.build()).get("variants");
+
+        assertThat(variants.getNumRows(), equalTo(100));
+        assertThat(Arrays.asList(variants.getStringColumn("CHROM")), equalTo(expectedChromosomes));
+        assertThat(variants.getIntColumn("POS")[99], equalTo(1099));
+    }
+
+    @Test
+    public void readThrowsExceptionForNonColumnarInput() {
+        assertThrows(IOException.class, () -> ColumnarResultsReader.read(new ByteArrayInputStream("#CHROM\tPOS".getBytes())));
+    }
+
+    @Test
+    public void writeFile() throws Exception {
+        Path outPath = Files.createTempFile("exomiser_test", "");
+        OutputSettings settings = settingsBuilder.outputPrefix(outPath + "testWrite").build();
+
+        ColumnarResultsWriter instance = new ColumnarResultsWriter();
+        instance.writeFile(ModeOfInheritance.AUTOSOMAL_DOMINANT, analysis, analysisResults, settings);
+
+        Path outputPath = Paths.get(outPath + "testWrite_AD.columnar");
+        assertThat(outputPath.toFile().exists(), is(true));
+        Map<String, ColumnarResultsReader.Table> tables = ColumnarResultsReader.read(outputPath);
+        assertThat(tables.get("variants").getNumRows(), equalTo(2));
+        assertThat(outputPath.toFile().delete(), is(true));
+        Files.delete(outPath);
+    }
+}
@@ -32,6 +32,8 @@
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.filters.*;
@@ -49,11 +51,20 @@
 import org.monarchinitiative.exomiser.core.prioritisers.service.TestPriorityServiceFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -218,4 +229,83 @@ public void testWriteTemplateWithFullDataAndFullAnalysis() throws Exception {
         assertTrue(output.contains("SHH"));
     }
 
+
+    private List<Gene> syntheticGenes(int numGenes) {
+        List<Gene> genes = new ArrayList<>(numGenes);
+        for (int i = 1; i <= numGenes; i++) {
+            genes.add(new Gene("GENE" + i, i));
+        }
+        return genes;
+    }
+
+    @Test
+    @ExtendWith(TempDirectory.class)
+    public void testWriteFileSplitsGenesAcrossLinkedPages(@TempDirectory.TempDir Path tempDir) throws Exception {
+        AnalysisResults analysisResults = buildAnalysisResults(syntheticGenes(5), Collections.emptyList());
+        Analysis analysis = Analysis.builder().build();
+        OutputSettings settings = OutputSettings.builder()
+                .outputPrefix(tempDir.resolve("paged").toString())
+                .htmlGenesPerPage(2)
+                .build();
+
+        instance.writeFile(ModeOfInheritance.ANY, analysis, analysisResults, settings);
+
+        String page1 = new String(Files.readAllBytes(tempDir.resolve("paged.html")), StandardCharsets.UTF_8);
+        String page2 = new String(Files.readAllBytes(tempDir.resolve("paged_page2.html")), StandardCharsets.UTF_8);
+        String page3 = new String(Files.readAllBytes(tempDir.resolve("paged_page3.html")), StandardCharsets.UTF_8);
+        assertFalse(Files.exists(tempDir.resolve("paged_page4.html")));
+
+        assertTrue(page1.contains(">GENE1<") && page1.contains(">GENE2<") && !page1.contains(">GENE3<"));
+        assertTrue(page2.contains(">GENE3<") && page2.contains(">GENE4<") && !page2.contains(">GENE2<"));
+        assertTrue(page3.contains(">GENE5<") && !page3.contains(">GENE4<"));
+        for (String page : Arrays.asList(page1, page2, page3)) {
+            assertTrue(page.contains("href=\"paged.html\""));
+            assertTrue(page.contains("href=\"paged_page2.html\""));
+            assertTrue(page.contains("href=\"paged_page3.html\""));
+        }
+    }
+
+    @Test
+    @ExtendWith(TempDirectory.class)
+    public void testWriteFileWithSingleDefaultPageHasNoPageLinks(@TempDirectory.TempDir Path tempDir) throws Exception {
+        AnalysisResults analysisResults = buildAnalysisResults(syntheticGenes(5), Collections.emptyList());
+        OutputSettings settings = OutputSettings.builder()
+                .outputPrefix(tempDir.resolve("single").toString())
+                .build();
+
+        instance.writeFile(ModeOfInheritance.ANY, Analysis.builder().build(), analysisResults, settings);
+
+        String page = new String(Files.readAllBytes(tempDir.resolve("single.html")), StandardCharsets.UTF_8);
+        assertTrue(page.contains(">GENE1<") && page.contains(">GENE5<"));
+        assertFalse(page.contains("class=\"pagination\""));
+        assertFalse(Files.exists(tempDir.resolve("single_page2.html")));
+    }
+
+    @Test
+    @ExtendWith(TempDirectory.class)
+    public void testWriteFileWith50kGenesWritesOnePageOfBoundedSizePerThousandGenes(@TempDirectory.TempDir Path tempDir) throws Exception {
+        int numGenes = 50_000;
+        int genesPerPage = 1_000;
+        AnalysisResults analysisResults = buildAnalysisResults(syntheticGenes(numGenes), Collections.emptyList());
+        OutputSettings settings = OutputSettings.builder()
+                .outputPrefix(tempDir.resolve("genome").toString())
+                .htmlGenesPerPage(genesPerPage)
+                .build();
+
+        instance.writeFile(ModeOfInheritance.ANY, Analysis.builder().build(), analysisResults, settings);
+
+        List<Path> pages;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            pages = files.collect(Collectors.toList());
+        }
+        assertThat(pages.size(), equalTo(numGenes / genesPerPage));
+        // each page only holds its own genes, so the size of a page doesn't grow with the total number of genes
+        long maxPageSize = 4L * 1024 * 1024;
+        for (Path page : pages) {
+            assertThat(Files.size(page), lessThan(maxPageSize));
+        }
+        String lastPage = new String(Files.readAllBytes(tempDir.resolve("genome_page50.html")), StandardCharsets.UTF_8);
+        assertTrue(lastPage.contains(">GENE50000<"));
+    }
+
 }
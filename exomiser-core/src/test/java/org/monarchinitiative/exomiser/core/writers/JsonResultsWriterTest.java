@@ -39,12 +39,15 @@
 import org.monarchinitiative.exomiser.core.model.pathogenicity.PolyPhenScore;
 import org.skyscreamer.jsonassert.JSONAssert;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -227,4 +230,56 @@ public void writeToFileOutputFullAnyModeOfInheritancePassOnlyVariants() throws I
         assertThat(adOutputPath.toFile().delete(), is(true));
         Files.delete(outPath);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void writeToOutputStreamFullAnalysisAnyModeOfInheritanceAllVariants() throws Exception {
+        AnalysisResults analysisResults = this.analysisResultsBuilder.build();
+        OutputSettings outputSettings = this.settingsBuilder.outputContributingVariantsOnly(false).build();
+
+        JsonResultsWriter instance = new JsonResultsWriter();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        instance.writeTo(ModeOfInheritance.ANY, analysisResults, outputSettings, outputStream);
+        String result = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        String expected = readFromFile("src/test/resources/writers/full_any_moi_test.json");
+        JSONAssert.assertEquals(expected, result, true);
+    }
+
+    @Test
+    public void writeToOutputStreamPassOnlyAutosomalDominant() throws Exception {
+        AnalysisResults analysisResults = this.analysisResultsBuilder.build();
+        OutputSettings outputSettings = this.settingsBuilder.outputContributingVariantsOnly(true).build();
+
+        JsonResultsWriter instance = new JsonResultsWriter();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        instance.writeTo(ModeOfInheritance.AUTOSOMAL_DOMINANT, analysisResults, outputSettings, outputStream);
+        String result = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        String expected = readFromFile("src/test/resources/writers/contributing_only_autosomal_dominant_moi_test.json");
+        JSONAssert.assertEquals(expected, result, true);
+    }
+
+    @Test
+    public void writeToFileCompressedJson() throws Exception {
+        Analysis analysis = this.analysisBuilder.analysisMode(AnalysisMode.FULL).build();
+        AnalysisResults analysisResults = this.analysisResultsBuilder.build();
+
+        Path outPath = Files.createTempFile("exomiser_test", "");
+        OutputSettings outputSettings = settingsBuilder.outputPrefix(outPath + "testWrite")
+                .compressJsonOutput(true)
+                .build();
+
+        JsonResultsWriter instance = new JsonResultsWriter();
+        instance.writeFile(ModeOfInheritance.ANY, analysis, analysisResults, outputSettings);
+        Path anyOutputPath = Paths.get(outPath + "testWrite.json.gz");
+        assertThat(anyOutputPath.toFile().exists(), is(true));
+
+        String result;
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(anyOutputPath)), StandardCharsets.UTF_8)) {
+            result = new BufferedReader(reader).lines().collect(Collectors.joining());
+        }
+        String expected = readFromFile("src/test/resources/writers/full_any_moi_test.json");
+        JSONAssert.assertEquals(expected, result, true);
+
+        assertThat(anyOutputPath.toFile().delete(), is(true));
+        Files.delete(outPath);
+    }
+}
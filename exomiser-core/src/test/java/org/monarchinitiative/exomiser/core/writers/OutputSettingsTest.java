@@ -35,6 +35,7 @@
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -110,6 +111,39 @@ public void testThatBuilderProducesSetOutputFormat() {
         assertThat(instance.getOutputFormats(), equalTo(outputFormats));
     }
 
+    @Test
+    public void testThatDefaultCompressJsonOutputIsFalse() {
+        OutputSettings instance = OutputSettings.builder().build();
+        assertThat(instance.compressJsonOutput(), equalTo(false));
+    }
+
+    @Test
+    public void testThatBuilderCanSetCompressJsonOutput() {
+        OutputSettings instance = OutputSettings.builder()
+                .compressJsonOutput(true)
+                .build();
+        assertThat(instance.compressJsonOutput(), equalTo(true));
+    }
+
+    @Test
+    public void testThatDefaultHtmlGenesPerPageIsZero() {
+        OutputSettings instance = OutputSettings.builder().build();
+        assertThat(instance.getHtmlGenesPerPage(), equalTo(0));
+    }
+
+    @Test
+    public void testThatBuilderCanSetHtmlGenesPerPage() {
+        OutputSettings instance = OutputSettings.builder()
+                .htmlGenesPerPage(500)
+                .build();
+        assertThat(instance.getHtmlGenesPerPage(), equalTo(500));
+    }
+
+    @Test
+    public void testThatBuilderThrowsExceptionWithNegativeHtmlGenesPerPage() {
+        assertThrows(IllegalArgumentException.class, () -> OutputSettings.builder().htmlGenesPerPage(-1));
+    }
+
     @Test
     public void testHashCode() {
         OutputSettings instance = OutputSettings.builder().build();
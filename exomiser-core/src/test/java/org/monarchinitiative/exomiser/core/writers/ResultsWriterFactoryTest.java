@@ -28,6 +28,7 @@
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 /**
@@ -66,6 +67,12 @@ public void testGetVcfResultsWriter() {
         assertThat(result, instanceOf(VcfResultsWriter.class));
     }
 
+    @Test
+    public void testGetVcfResultsWriterReturnsSameWriterForEachMode() {
+        ResultsWriter result = instance.getResultsWriter(OutputFormat.VCF);
+        assertThat(instance.getResultsWriter(OutputFormat.VCF), sameInstance(result));
+    }
+
     @Test
     public void testGetPhenoGridResultsWriter() {
         OutputFormat outputFormat = OutputFormat.PHENOGRID;
@@ -80,4 +87,11 @@ public void testGetJsonResultsWriter() {
         assertThat(result, instanceOf(JsonResultsWriter.class));
     }
 
+    @Test
+    public void testGetColumnarResultsWriter() {
+        OutputFormat outputFormat = OutputFormat.COLUMNAR;
+        ResultsWriter result = instance.getResultsWriter(outputFormat);
+        assertThat(result, instanceOf(ColumnarResultsWriter.class));
+    }
+
 }
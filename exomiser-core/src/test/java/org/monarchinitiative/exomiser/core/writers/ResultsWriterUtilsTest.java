@@ -35,13 +35,17 @@
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.filters.FilterReport;
+import org.monarchinitiative.exomiser.core.filters.FilterResult;
+import org.monarchinitiative.exomiser.core.filters.FilterType;
 import org.monarchinitiative.exomiser.core.filters.PassAllVariantEffectsFilter;
 import org.monarchinitiative.exomiser.core.model.Gene;
+import org.monarchinitiative.exomiser.core.model.TranscriptAnnotation;
 import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -205,5 +209,46 @@ public void testMaxPassedGenesWhereMaxGenesIsGreaterThanInputSize() {
         allPassedGenes.add(passedGeneTwo);
         assertThat(ResultsWriterUtils.getMaxPassedGenes(getGenes(), 100), equalTo(allPassedGenes));
     }
-    
+
+    @Test
+    public void testMakeFiltersFieldUnfiltered() {
+        VariantEvaluation variantEvaluation = VariantEvaluation.builder(1, 1, "A", "T").build();
+        assertThat(ResultsWriterUtils.makeFiltersField(ModeOfInheritance.ANY, variantEvaluation), equalTo("."));
+    }
+
+    @Test
+    public void testMakeFiltersFieldPassed() {
+        VariantEvaluation variantEvaluation = VariantEvaluation.builder(1, 1, "A", "T").build();
+        variantEvaluation.addFilterResult(FilterResult.pass(FilterType.VARIANT_EFFECT_FILTER));
+        assertThat(ResultsWriterUtils.makeFiltersField(ModeOfInheritance.ANY, variantEvaluation), equalTo("PASS"));
+    }
+
+    @Test
+    public void testMakeFiltersFieldFailed() {
+        VariantEvaluation variantEvaluation = VariantEvaluation.builder(1, 1, "A", "T").build();
+        variantEvaluation.addFilterResult(FilterResult.fail(FilterType.VARIANT_EFFECT_FILTER));
+        variantEvaluation.addFilterResult(FilterResult.fail(FilterType.FREQUENCY_FILTER));
+        assertThat(ResultsWriterUtils.makeFiltersField(ModeOfInheritance.ANY, variantEvaluation), equalTo("freq;var-effect"));
+    }
+
+    @Test
+    public void testGetRepresentativeAnnotationNoAnnotations() {
+        assertThat(ResultsWriterUtils.getRepresentativeAnnotation(Collections.emptyList(), "?"), equalTo("?"));
+    }
+
+    @Test
+    public void testGetRepresentativeAnnotationUsesFirstAnnotation() {
+        TranscriptAnnotation first = TranscriptAnnotation.builder()
+                .geneSymbol("FGFR2")
+                .accession("uc021pzz.1")
+                .hgvsCdna("c.1695G>C")
+                .hgvsProtein("p.(Glu565Asp)")
+                .build();
+        TranscriptAnnotation second = TranscriptAnnotation.builder()
+                .geneSymbol("FGFR2")
+                .accession("uc010qtk.2")
+                .build();
+        assertThat(ResultsWriterUtils.getRepresentativeAnnotation(Arrays.asList(first, second), ""), equalTo("FGFR2:uc021pzz.1:c.1695G>C:p.(Glu565Asp)"));
+    }
+
 }
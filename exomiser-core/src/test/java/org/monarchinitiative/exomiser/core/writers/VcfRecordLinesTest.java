@@ -0,0 +1,156 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.core.writers;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+class VcfRecordLinesTest {
+
+    private static VariantContext variantContext(String contig, int pos, String ref, String... alts) {
+        List<Allele> alleles = new ArrayList<>();
+        alleles.add(Allele.create(ref, true));
+        for (String alt : alts) {
+            alleles.add(Allele.create(alt));
+        }
+        return new VariantContextBuilder()
+                .chr(contig)
+                .start(pos)
+                .computeEndFromAlleles(alleles, pos)
+                .alleles(alleles)
+                .make();
+    }
+
+    private static Map<String, Object> infoFields(Object... keyValues) {
+        Map<String, Object> infoFields = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            infoFields.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return infoFields;
+    }
+
+    @Test
+    void keyOfBiAllelicVariant() {
+        assertThat(VcfRecordLines.keyOf(variantContext("chr10", 123256215, "T", "G")), equalTo("chr10-123256215-T-G"));
+    }
+
+    @Test
+    void keyOfMultiAllelicVariantIsNull() {
+        assertThat(VcfRecordLines.keyOf(variantContext("chr10", 123256215, "T", "G", "A")), nullValue());
+    }
+
+    @Test
+    void updateFilterAndInfoReplacesFilterAndAddsInfoFieldsInKeyOrder() {
+        String line = "1\t12345\trs1\tA\tG\t50.5\tLowQual\tDP=30;DB;AC=1\tGT:DP\t0/1:30";
+        String updated = VcfRecordLines.updateFilterAndInfo(line, "PASS", infoFields("ExGeneSymbol", "FGFR2", "ExVarScore", 0.5f));
+        assertThat(updated, equalTo("1\t12345\trs1\tA\tG\t50.5\tPASS\tAC=1;DB;DP=30;ExGeneSymbol=FGFR2;ExVarScore=0.5\tGT:DP\t0/1:30"));
+    }
+
+    @Test
+    void updateFilterAndInfoReplacesExistingInfoValues() {
+        String line = "1\t12345\t.\tA\tG\t50\t.\tExVarScore=1.0;DP=30\tGT\t0/1";
+        String updated = VcfRecordLines.updateFilterAndInfo(line, "freq;var-effect", infoFields("ExVarScore", 0.25f));
+        assertThat(updated, equalTo("1\t12345\t.\tA\tG\t50\tfreq;var-effect\tDP=30;ExVarScore=0.25\tGT\t0/1"));
+    }
+
+    @Test
+    void updateFilterAndInfoSitesOnlyLineWithMissingInfo() {
+        String line = "1\t12345\t.\tA\tG\t.\t.\t.";
+        String updated = VcfRecordLines.updateFilterAndInfo(line, ".", infoFields("ExWarn", "VARIANT_NOT_ANALYSED_NO_GENE_ANNOTATIONS"));
+        assertThat(updated, equalTo("1\t12345\t.\tA\tG\t.\t.\tExWarn=VARIANT_NOT_ANALYSED_NO_GENE_ANNOTATIONS"));
+    }
+
+    @Test
+    void updateFilterAndInfoTruncatedLineIsNull() {
+        assertThat(VcfRecordLines.updateFilterAndInfo("1\t12345\t.\tA\tG", "PASS", infoFields()), nullValue());
+    }
+
+    @Test
+    void selectSampleColumnsKeepsGenotypesOfSamplesInOffsetOrder() {
+        String line = "1\t12345\t.\tA\tG\t50\tPASS\tDP=30\tGT:DP\t0/1:10\t0/0:11\t1/1:12";
+        assertThat(VcfRecordLines.selectSampleColumns(line, null), equalTo(line));
+        assertThat(VcfRecordLines.selectSampleColumns(line, new int[]{1}), equalTo("1\t12345\t.\tA\tG\t50\tPASS\tDP=30\tGT:DP\t0/0:11"));
+        assertThat(VcfRecordLines.selectSampleColumns(line, new int[]{2, 0}), equalTo("1\t12345\t.\tA\tG\t50\tPASS\tDP=30\tGT:DP\t1/1:12\t0/1:10"));
+        assertThat(VcfRecordLines.selectSampleColumns(line, new int[0]), equalTo("1\t12345\t.\tA\tG\t50\tPASS\tDP=30"));
+    }
+
+    @Test
+    void readRetainsOnlySelectedSampleColumns(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path vcfPath = tempDir.resolve("test.vcf");
+        Files.write(vcfPath, Arrays.asList(
+                "##fileformat=VCFv4.2",
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tAdam\tEva\tSeth",
+                "1\t100\t.\tA\tG\t.\t.\t.\tGT\t0/1\t0/0\t1/1"
+        ), StandardCharsets.UTF_8);
+
+        VcfRecordLines instance = VcfRecordLines.read(vcfPath, Collections.singleton("1-100-A-G"), new int[]{2});
+
+        assertThat(instance.get(variantContext("1", 100, "A", "G")), equalTo("1\t100\t.\tA\tG\t.\t.\t.\tGT\t1/1"));
+    }
+
+    @Test
+    void readOnlyRetainsUniqueBiAllelicLinesForKeys(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path vcfPath = tempDir.resolve("test.vcf");
+        Files.write(vcfPath, Arrays.asList(
+                "##fileformat=VCFv4.2",
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO",
+                "1\t100\t.\ta\tg\t.\t.\t.",
+                "1\t200\t.\tA\tG,T\t.\t.\t.",
+                "1\t300\t.\tC\tT\t.\t.\tDP=1",
+                "1\t300\t.\tC\tT\t.\t.\tDP=2",
+                "1\t400\t.\tC\tT\t.\t.\t."
+        ), StandardCharsets.UTF_8);
+
+        Set<String> keys = new HashSet<>(Arrays.asList("1-100-A-G", "1-200-A-G", "1-300-C-T"));
+        VcfRecordLines instance = VcfRecordLines.read(vcfPath, keys, null);
+
+        assertThat(instance.size(), equalTo(1));
+        assertThat(instance.get(variantContext("1", 100, "A", "G")), equalTo("1\t100\t.\ta\tg\t.\t.\t."));
+        assertThat(instance.get(variantContext("1", 200, "A", "G", "T")), nullValue());
+        assertThat(instance.get(variantContext("1", 300, "C", "T")), nullValue());
+        assertThat(instance.get(variantContext("1", 400, "C", "T")), nullValue());
+    }
+
+    @Test
+    void readMissingFileIsEmpty(@TempDirectory.TempDir Path tempDir) {
+        VcfRecordLines instance = VcfRecordLines.read(tempDir.resolve("missing.vcf"), Collections.singleton("1-100-A-G"), null);
+        assertThat(instance.size(), equalTo(0));
+    }
+}
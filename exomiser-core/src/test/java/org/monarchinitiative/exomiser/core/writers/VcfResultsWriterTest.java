@@ -24,9 +24,15 @@
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
 import de.charite.compbio.jannovar.pedigree.Genotype;
+import htsjdk.tribble.readers.LineIteratorImpl;
+import htsjdk.tribble.readers.SynchronousLineReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
 import htsjdk.variant.vcf.VCFFileReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
 import org.monarchinitiative.exomiser.core.analysis.Analysis;
 import org.monarchinitiative.exomiser.core.analysis.AnalysisResults;
 import org.monarchinitiative.exomiser.core.analysis.util.InheritanceModeOptions;
@@ -44,14 +50,15 @@
 import org.monarchinitiative.exomiser.core.prioritisers.OmimPriorityResult;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.List;
+import java.util.*;
 
 import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -64,6 +71,7 @@
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
  * @author Manuel Holtgrewe <manuel.holtgrewe@charite.de>
  */
+@ExtendWith(TempDirectory.class)
 public class VcfResultsWriterTest {
 
     private final static String EXPECTED_HEADER = "##fileformat=VCFv4.2\n"
@@ -386,4 +394,189 @@ public void testHomozygousAltAlleleOutputVcfContainsConcatenatedVariantScoresOnO
                 + "10\t123256215\t.\tT\tG,A\t100\t.\tExContribAltAllele=0;ExGeneSCombi=0.0;ExGeneSPheno=0.0;ExGeneSVar=0.0;ExGeneSymbId=2263;ExGeneSymbol=FGFR2;ExVarEff=frameshift_variant,missense_variant;ExVarHgvs=10:g.123256215T>G,10:g.123256215T>A;ExVarScore=1.0,0.6;GENE=FGFR2;INHERITANCE=AD;MIM=101600\tGT\t1/2\n";
         assertThat(output, equalTo(expected));
     }
+
+    @Test
+    public void testOriginalVcfLinesAreFieldForFieldEquivalentToFullyEncodedRecords(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path vcfPath = tempDir.resolve("originalLines.vcf");
+        Files.write(vcfPath, Arrays.asList(
+                "##fileformat=VCFv4.2",
+                "##FILTER=<ID=LowQual,Description=\"Low quality\">",
+                "##FILTER=<ID=q10,Description=\"Quality below 10\">",
+                "##INFO=<ID=AC,Number=A,Type=Integer,Description=\"Allele count\">",
+                "##INFO=<ID=DB,Number=0,Type=Flag,Description=\"dbSNP membership\">",
+                "##INFO=<ID=DP,Number=1,Type=Integer,Description=\"Total depth\">",
+                "##INFO=<ID=ZZ,Number=.,Type=String,Description=\"Unsorted key\">",
+                "##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">",
+                "##FORMAT=<ID=DP,Number=1,Type=Integer,Description=\"Read depth\">",
+                "##FORMAT=<ID=AD,Number=R,Type=Integer,Description=\"Allelic depths\">",
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tAdam\tEva",
+                "10\t123256214\trs1\tA\tG\t50.5\tPASS\tDP=30;DB;AC=1\tGT:DP:AD\t0/1:30:15,15\t0/0:25:25,0",
+                "10\t123256215\t.\tT\tG,A\t100\tLowQual\tDP=20\tGT\t1/2\t0/1",
+                "10\t123256216\t.\tc\tt\t.\tPASS\t.\tGT:DP\t0/1:.\t./.",
+                "7\t155604800\t.\tC\tCTT\t1\tLowQual;q10\tZZ=b,a\tGT\t1/1\t0/1"
+        ), StandardCharsets.UTF_8);
+
+        List<VariantEvaluation> variants = TestFactory.buildDefaultVariantFactory()
+                .createVariantEvaluations(vcfPath)
+                .collect(toList());
+        assertThat(variants.size(), equalTo(5));
+        variants.forEach(variant -> variant.setCompatibleInheritanceModes(EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT)));
+        variants.get(0).addFilterResult(PASS_TARGET_RESULT);
+        variants.get(0).setContributesToGeneScoreUnderMode(ModeOfInheritance.AUTOSOMAL_DOMINANT);
+        variants.get(1).addFilterResult(FAIL_FREQUENCY_RESULT);
+        variants.get(2).addFilterResult(PASS_TARGET_RESULT);
+        // variants.get(3) is unfiltered and so should not have the original PASS written out
+        variants.get(4).addFilterResult(FAIL_TARGET_RESULT);
+        variants.get(4).addFilterResult(FAIL_FREQUENCY_RESULT);
+
+        Gene gene = TestFactory.newGeneFGFR2();
+        variants.forEach(gene::addVariant);
+        gene.setCompatibleInheritanceModes(EnumSet.of(ModeOfInheritance.AUTOSOMAL_DOMINANT));
+        AnalysisResults analysisResults = buildAnalysisResults(gene);
+
+        Analysis originalLinesAnalysis = analysis.copy().vcfPath(vcfPath).build();
+        String originalLinesVcf = new VcfResultsWriter(true).writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, originalLinesAnalysis, analysisResults, settings);
+        String fullyEncodedVcf = new VcfResultsWriter(false).writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, originalLinesAnalysis, analysisResults, settings);
+
+        // the bi-allelic lines are copied, so retain their original formatting, whereas the encoded ones are re-formatted
+        assertThat(originalLinesVcf, containsString("10\t123256214\trs1\tA\tG\t50.5\tPASS\tAC=1;DB;DP=30;ExContribAltAllele=0;"));
+        assertThat(fullyEncodedVcf, containsString("10\t123256214\trs1\tA\tG\t50.50\tPASS\tAC=1;DB;DP=30;ExContribAltAllele=0;"));
+        assertThat(originalLinesVcf, containsString("10\t123256216\t.\tc\tt\t.\t.\tExGeneSCombi="));
+        assertThat(originalLinesVcf, containsString("7\t155604800\t.\tC\tCTT\t1\tfreq;var-effect\t"));
+
+        assertThat(headerLines(originalLinesVcf), equalTo(headerLines(fullyEncodedVcf)));
+        assertThat(decodeRecords(originalLinesVcf), equalTo(decodeRecords(fullyEncodedVcf)));
+    }
+
+    @Test
+    public void testOnlyGenotypesOfAnalysedSamplesAreWritten(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path vcfPath = tempDir.resolve("cohort.vcf");
+        Files.write(vcfPath, Arrays.asList(
+                "##fileformat=VCFv4.2",
+                "##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">",
+                "##FORMAT=<ID=DP,Number=1,Type=Integer,Description=\"Read depth\">",
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tAdam\tEva\tSeth",
+                "10\t123256214\t.\tA\tG\t50\tPASS\t.\tGT:DP\t0/1:30\t0/0:25\t1/1:20",
+                "10\t123256215\t.\tT\tG,A\t100\tPASS\t.\tGT\t1/2\t0/1\t0/0"
+        ), StandardCharsets.UTF_8);
+
+        List<VariantEvaluation> variants = TestFactory.buildDefaultVariantFactory()
+                .createVariantEvaluations(vcfPath)
+                .collect(toList());
+        Gene gene = TestFactory.newGeneFGFR2();
+        variants.forEach(gene::addVariant);
+        AnalysisResults analysisResults = AnalysisResults.builder()
+                .sampleNames(Arrays.asList("Seth", "Eva"))
+                .genes(Collections.singletonList(gene))
+                .build();
+
+        Analysis cohortAnalysis = analysis.copy().vcfPath(vcfPath).build();
+        String originalLinesVcf = new VcfResultsWriter(true).writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, cohortAnalysis, analysisResults, settings);
+        String fullyEncodedVcf = new VcfResultsWriter(false).writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, cohortAnalysis, analysisResults, settings);
+
+        for (String vcf : Arrays.asList(originalLinesVcf, fullyEncodedVcf)) {
+            List<String> lines = Arrays.asList(vcf.split("\n"));
+            assertThat(lines.stream().filter(line -> line.startsWith("#CHROM")).findFirst().orElse(""), containsString("\tFORMAT\tSeth\tEva"));
+            lines.stream()
+                    .filter(line -> !line.startsWith("#"))
+                    .forEach(line -> assertThat(line, line.split("\t").length, equalTo(11)));
+        }
+        assertThat(originalLinesVcf, containsString("\tGT:DP\t1/1:20\t0/0:25\n"));
+        assertThat(decodeRecords(originalLinesVcf), equalTo(decodeRecords(fullyEncodedVcf)));
+    }
+
+    @Test
+    public void testOriginalVcfLinesAreOnlyReadOnceForEachModeOfInheritance(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path vcfPath = tempDir.resolve("modes.vcf");
+        List<String> header = Arrays.asList(
+                "##fileformat=VCFv4.2",
+                "##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">",
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tAdam"
+        );
+        List<String> originalLines = new ArrayList<>(header);
+        originalLines.add("10\t123256214\trs1\tA\tG\t50\tPASS\t.\tGT\t0/1");
+        Files.write(vcfPath, originalLines, StandardCharsets.UTF_8);
+
+        List<VariantEvaluation> variants = TestFactory.buildDefaultVariantFactory()
+                .createVariantEvaluations(vcfPath)
+                .collect(toList());
+        Gene gene = TestFactory.newGeneFGFR2();
+        variants.forEach(gene::addVariant);
+        AnalysisResults analysisResults = buildAnalysisResults(gene);
+        Analysis modesAnalysis = analysis.copy().vcfPath(vcfPath).build();
+
+        VcfResultsWriter vcfResultsWriter = new VcfResultsWriter(true);
+        String dominantVcf = vcfResultsWriter.writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, modesAnalysis, analysisResults, settings);
+
+        // a changed line is only seen if the input VCF is read again
+        List<String> changedLines = new ArrayList<>(header);
+        changedLines.add("10\t123256214\trs2\tA\tG\t50\tPASS\t.\tGT\t0/1");
+        Files.write(vcfPath, changedLines, StandardCharsets.UTF_8);
+
+        String recessiveVcf = vcfResultsWriter.writeString(ModeOfInheritance.AUTOSOMAL_RECESSIVE, modesAnalysis, analysisResults, settings);
+        String newWriterVcf = new VcfResultsWriter(true).writeString(ModeOfInheritance.AUTOSOMAL_RECESSIVE, modesAnalysis, analysisResults, settings);
+
+        assertThat(dominantVcf, containsString("10\t123256214\trs1\t"));
+        assertThat(recessiveVcf, containsString("10\t123256214\trs1\t"));
+        assertThat(newWriterVcf, containsString("10\t123256214\trs2\t"));
+    }
+
+    @Test
+    public void testOriginalVcfLinesAreNotReadForFewerRecordsThanTheMinimum(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path vcfPath = tempDir.resolve("few.vcf");
+        Files.write(vcfPath, Arrays.asList(
+                "##fileformat=VCFv4.2",
+                "##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">",
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tAdam",
+                "10\t123256214\trs1\tA\tG\t50.5\tPASS\t.\tGT\t0/1",
+                "10\t123256216\t.\tC\tT\t50.5\tPASS\t.\tGT\t0/1"
+        ), StandardCharsets.UTF_8);
+
+        List<VariantEvaluation> variants = TestFactory.buildDefaultVariantFactory()
+                .createVariantEvaluations(vcfPath)
+                .collect(toList());
+        Gene gene = TestFactory.newGeneFGFR2();
+        variants.forEach(gene::addVariant);
+        AnalysisResults analysisResults = buildAnalysisResults(gene);
+        Analysis fewAnalysis = analysis.copy().vcfPath(vcfPath).build();
+
+        String belowMinimumVcf = new VcfResultsWriter(3).writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, fewAnalysis, analysisResults, settings);
+        String atMinimumVcf = new VcfResultsWriter(2).writeString(ModeOfInheritance.AUTOSOMAL_DOMINANT, fewAnalysis, analysisResults, settings);
+
+        // the QUAL is re-formatted when a record is fully encoded
+        assertThat(belowMinimumVcf, containsString("10\t123256214\trs1\tA\tG\t50.50\t"));
+        assertThat(atMinimumVcf, containsString("10\t123256214\trs1\tA\tG\t50.5\t"));
+        assertThat(decodeRecords(belowMinimumVcf), equalTo(decodeRecords(atMinimumVcf)));
+    }
+
+    private List<String> headerLines(String vcf) {
+        return Arrays.stream(vcf.split("\n"))
+                .filter(line -> line.startsWith("#"))
+                .collect(toList());
+    }
+
+    /**
+     * Decodes each record using HTSJDK and lists all of the fields in a form which can be compared regardless of the
+     * formatting of the original line.
+     */
+    private List<String> decodeRecords(String vcf) {
+        VCFCodec vcfCodec = new VCFCodec();
+        vcfCodec.readActualHeader(new LineIteratorImpl(new SynchronousLineReader(new StringReader(vcf))));
+        List<String> records = new ArrayList<>();
+        for (String line : vcf.split("\n")) {
+            if (!line.startsWith("#")) {
+                VariantContext variantContext = vcfCodec.decode(line);
+                records.add(String.join("|",
+                        variantContext.getContig(),
+                        String.valueOf(variantContext.getStart()),
+                        variantContext.getID(),
+                        variantContext.getAlleles().toString(),
+                        String.valueOf(variantContext.getPhredScaledQual()),
+                        String.valueOf(variantContext.getFiltersMaybeNull()),
+                        new TreeMap<>(variantContext.getAttributes()).toString(),
+                        variantContext.getGenotypes().toString()));
+            }
+        }
+        return records;
+    }
 }
@@ -157,7 +157,7 @@ private void migrateDatabase(DataSource dataSource) {
         Flyway h2Flyway = Flyway.configure()
                 .dataSource(dataSource)
                 .schemas("EXOMISER")
-                .locations("classpath:db/migration")
+                .locations("classpath:db/migration", "classpath:org/monarchinitiative/exomiser/data/genome/migration")
                 .placeholders(propertyPlaceHolders)
                 .load();
         h2Flyway.clean();
@@ -29,6 +29,7 @@
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
@@ -43,9 +44,10 @@ public void index(AlleleResource alleleResource) {
         Instant startTime = Instant.now();
         AlleleLogger alleleLogger = new AlleleLogger(startTime);
 
-        alleleResource.alleles()
-                .peek(alleleLogger.logCount())
-                .forEach(this::writeAllele);
+        try (Stream<Allele> alleles = alleleResource.alleles()) {
+            alleles.peek(alleleLogger.logCount())
+                    .forEach(this::writeAllele);
+        }
 
         long seconds = Duration.between(startTime, Instant.now()).getSeconds();
         logger.info("Finished '{}' resource - processed {} alleles in {} sec. Total {} alleles written.",
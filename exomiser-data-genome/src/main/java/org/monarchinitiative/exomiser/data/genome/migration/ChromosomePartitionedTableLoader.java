@@ -0,0 +1,203 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.data.genome.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.monarchinitiative.exomiser.data.genome.model.parsers.ChromosomeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Loads pipe-delimited genome data files, where the first three columns are the chromosome, start and end of a
+ * region, into a table of the genome database. The lines are partitioned by chromosome, each partition is parsed and
+ * sorted by start and end on a worker pool and the rows are then inserted in chromosome order using batched
+ * {@link PreparedStatement}s. The table indexes are created by a later migration, once all the rows are loaded.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class ChromosomePartitionedTableLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChromosomePartitionedTableLoader.class);
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final Comparator<Row> POSITION_ORDER = Comparator.comparingInt(Row::getStart).thenComparingInt(Row::getEnd);
+
+    private final int numThreads;
+
+    public ChromosomePartitionedTableLoader(int numThreads) {
+        this.numThreads = Math.max(1, numThreads);
+    }
+
+    static void migrate(Context context, String tableName, int numColumns, String... fileNames) throws IOException, SQLException {
+        Path importPath = Paths.get(context.getConfiguration().getPlaceholders().get("import.path"));
+        List<Path> files = new ArrayList<>();
+        for (String fileName : fileNames) {
+            files.add(importPath.resolve(fileName));
+        }
+        ChromosomePartitionedTableLoader loader = new ChromosomePartitionedTableLoader(Runtime.getRuntime().availableProcessors());
+        int count = loader.load(context.getConnection(), tableName, numColumns, files);
+        logger.info("Loaded {} rows into {}", count, tableName);
+    }
+
+    /**
+     * Inserts the rows of the files into the table. This does not commit the transaction.
+     *
+     * @return the number of rows inserted
+     */
+    public int load(Connection connection, String tableName, int numColumns, List<Path> files) throws IOException, SQLException {
+        Map<Byte, List<String>> partitions = partitionByChromosome(files);
+        logger.info("Parsing {} chromosome partitions for {} using {} threads", partitions.size(), tableName, numThreads);
+        List<List<Row>> sortedPartitions = parseAndSort(partitions);
+        return insert(connection, tableName, numColumns, sortedPartitions);
+    }
+
+    private Map<Byte, List<String>> partitionByChromosome(List<Path> files) throws IOException {
+        Map<Byte, List<String>> partitions = new TreeMap<>();
+        for (Path file : files) {
+            logger.info("Reading {}", file);
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int firstSeparator = line.indexOf('|');
+                    byte chr = ChromosomeParser.parseChr(firstSeparator < 0 ? line : line.substring(0, firstSeparator));
+                    partitions.computeIfAbsent(chr, key -> new ArrayList<>()).add(line);
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private List<List<Row>> parseAndSort(Map<Byte, List<String>> partitions) {
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(numThreads, Math.max(1, partitions.size())));
+        try {
+            List<Future<List<Row>>> futures = new ArrayList<>();
+            for (List<String> lines : partitions.values()) {
+                futures.add(executorService.submit(() -> parseAndSort(lines)));
+            }
+            List<List<Row>> sortedPartitions = new ArrayList<>(futures.size());
+            for (Future<List<Row>> future : futures) {
+                sortedPartitions.add(future.get());
+            }
+            return sortedPartitions;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted parsing chromosome partitions", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to parse chromosome partition", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static List<Row> parseAndSort(List<String> lines) {
+        List<Row> rows = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            rows.add(Row.parse(line));
+        }
+        // a stable sort, so rows for the same region keep their input order
+        rows.sort(POSITION_ORDER);
+        return rows;
+    }
+
+    private static int insert(Connection connection, String tableName, int numColumns, List<List<Row>> sortedPartitions) throws SQLException {
+        StringJoiner parameters = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < numColumns; i++) {
+            parameters.add("?");
+        }
+        int count = 0;
+        try (PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO " + tableName + " VALUES " + parameters)) {
+            for (List<Row> partition : sortedPartitions) {
+                for (Row row : partition) {
+                    for (int i = 0; i < numColumns; i++) {
+                        insertStatement.setString(i + 1, row.getValue(i));
+                    }
+                    insertStatement.addBatch();
+                    count++;
+                    if (count % BATCH_SIZE == 0) {
+                        insertStatement.executeBatch();
+                    }
+                }
+            }
+            insertStatement.executeBatch();
+        }
+        return count;
+    }
+
+    private static class Row {
+
+        private final int start;
+        private final int end;
+        private final String[] fields;
+
+        private Row(int start, int end, String[] fields) {
+            this.start = start;
+            this.end = end;
+            this.fields = fields;
+        }
+
+        private static Row parse(String line) {
+            String[] fields = line.split("\\|", -1);
+            return new Row(parseInt(fields, 1), parseInt(fields, 2), fields);
+        }
+
+        private static int parseInt(String[] fields, int index) {
+            if (index < fields.length) {
+                try {
+                    return Integer.parseInt(fields[index]);
+                } catch (NumberFormatException e) {
+                    // leave the value for the database to reject
+                }
+            }
+            return Integer.MIN_VALUE;
+        }
+
+        private int getStart() {
+            return start;
+        }
+
+        private int getEnd() {
+            return end;
+        }
+
+        // empty and NULL values are inserted as null, as they would be by CSVREAD
+        private String getValue(int index) {
+            if (index >= fields.length) {
+                return null;
+            }
+            String value = fields[index];
+            return value.isEmpty() || "NULL".equals(value) ? null : value;
+        }
+    }
+}
@@ -24,6 +24,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -59,8 +60,7 @@ public ArchiveFileReader(AlleleArchive alleleArchive) {
     public Stream<String> lines() {
         return getArchiveFileObjects()
                 .stream()
-                .map(toBufferedReader())
-                .flatMap(BufferedReader::lines);
+                .flatMap(toLines());
     }
 
     /**
@@ -88,27 +88,41 @@ private List<FileObject> getArchiveFileObjects() {
 
     abstract boolean isWanted(FileName fileObjectName);
 
-    private Function<FileObject, BufferedReader> toBufferedReader() {
+    private Function<FileObject, Stream<String>> toLines() {
         return fileObject -> {
             try {
-                InputStream inputStream = readFileObject(fileObject);
-                return new BufferedReader(new InputStreamReader(inputStream));
+                return readFileObject(fileObject);
             } catch (IOException e) {
                 logger.error("Error reading archive file {}", fileObject.getName(), e);
             }
-            return null;
+            return Stream.empty();
         };
     }
 
-    // return a BufferedReader
-    private InputStream readFileObject(FileObject fileObject) throws IOException {
+    private Stream<String> readFileObject(FileObject fileObject) throws IOException {
         logger.info("Reading archive file {}", fileObject.getName());
         FileContent fileContent = fileObject.getContent();
+        InputStream inputStream = new BufferedInputStream(fileContent.getInputStream());
         // hack for dbNSFP4 - most resources are plain text inside an archive
         if (fileObject.getName().getExtension().equals("gz")) {
-            return new GZIPInputStream(fileContent.getInputStream());
+            // the dbNSFP4 chromosome files are BGZF compressed so can be inflated in parallel
+            if (BgzfLineReader.isBgzf(inputStream)) {
+                return new BgzfLineReader(inputStream, Runtime.getRuntime().availableProcessors()).lines();
+            }
+            inputStream = new GZIPInputStream(inputStream);
         }
-        return fileContent.getInputStream();
+        BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
+        return bufferedReader.lines().onClose(closeQuietly(bufferedReader));
+    }
+
+    private Runnable closeQuietly(BufferedReader bufferedReader) {
+        return () -> {
+            try {
+                bufferedReader.close();
+            } catch (IOException e) {
+                logger.error("Unable to close reader", e);
+            }
+        };
     }
 
 }
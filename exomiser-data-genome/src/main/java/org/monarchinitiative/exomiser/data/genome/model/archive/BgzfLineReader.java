@@ -0,0 +1,423 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome.model.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads lines from a BGZF (blocked gzip) file as used by bgzip/tabix for the large gnomAD, TOPMed and dbSNP resources.
+ * Each BGZF block is an independently compressed gzip member of at most 64KB, so the blocks can be inflated and split
+ * into lines on a pool of worker threads while the calling thread reads the next compressed blocks from disk. Lines are
+ * returned in batches, in the same order as they appear in the file.
+ * <p>
+ * Plain (non-blocked) gzip files cannot be read with this class - use {@link #isBgzf(Path)} to check the file first.
+ * Instances are not threadsafe and should be closed after use in order to shut down the worker threads.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class BgzfLineReader implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BgzfLineReader.class);
+
+    private static final int GZIP_ID1 = 31;
+    private static final int GZIP_ID2 = 139;
+    private static final int GZIP_CM_DEFLATE = 8;
+    private static final int GZIP_FLG_FEXTRA = 4;
+    private static final int BGZF_SI1 = 66;
+    private static final int BGZF_SI2 = 67;
+    // ID1, ID2, CM, FLG, MTIME(4), XFL, OS, XLEN(2)
+    private static final int GZIP_FIXED_HEADER_LENGTH = 12;
+    // CRC32(4), ISIZE(4)
+    private static final int GZIP_FOOTER_LENGTH = 8;
+    private static final int BGZF_MAX_BLOCK_SIZE = 65536;
+
+    private static final AtomicInteger readerCount = new AtomicInteger();
+
+    private final InputStream inputStream;
+    private final ExecutorService executorService;
+    private final int readAheadBlocks;
+    private final Deque<Future<InflatedBlock>> inflatingBlocks;
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+    private boolean endOfInput = false;
+    private boolean closed = false;
+
+    public BgzfLineReader(Path bgzfPath) throws IOException {
+        this(Files.newInputStream(bgzfPath), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param inputStream a stream of BGZF formatted data positioned at the start of a block.
+     * @param numThreads  number of threads used to inflate the blocks. The reader will keep four blocks per thread in
+     *                    flight ahead of the consumer.
+     */
+    public BgzfLineReader(InputStream inputStream, int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be greater than zero");
+        }
+        this.inputStream = new BufferedInputStream(inputStream, BGZF_MAX_BLOCK_SIZE);
+        this.executorService = Executors.newFixedThreadPool(numThreads, new InflaterThreadFactory(readerCount.incrementAndGet()));
+        this.readAheadBlocks = numThreads * 4;
+        this.inflatingBlocks = new ArrayDeque<>(readAheadBlocks);
+    }
+
+    /**
+     * Checks the gzip header of the file for the 'BC' extra subfield which marks it as being in the BGZF format.
+     */
+    public static boolean isBgzf(Path path) {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+            return isBgzf(inputStream);
+        } catch (IOException e) {
+            logger.debug("Unable to read header of {}", path, e);
+            return false;
+        }
+    }
+
+    /**
+     * Checks the gzip header of the stream for the 'BC' extra subfield which marks it as being in the BGZF format. The
+     * stream must support {@link InputStream#mark(int)} as it is reset to its original position before returning.
+     */
+    public static boolean isBgzf(InputStream inputStream) throws IOException {
+        if (!inputStream.markSupported()) {
+            throw new IllegalArgumentException("InputStream must support mark/reset");
+        }
+        byte[] header = new byte[18];
+        inputStream.mark(header.length);
+        try {
+            int read = readFully(inputStream, header, 0, header.length);
+            return read == header.length
+                    && unsignedByte(header, 0) == GZIP_ID1
+                    && unsignedByte(header, 1) == GZIP_ID2
+                    && unsignedByte(header, 2) == GZIP_CM_DEFLATE
+                    && (unsignedByte(header, 3) & GZIP_FLG_FEXTRA) != 0
+                    && unsignedByte(header, 12) == BGZF_SI1
+                    && unsignedByte(header, 13) == BGZF_SI2;
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    /**
+     * Returns the next batch of complete lines from the file, in file order. Line terminators are removed. An empty
+     * list signifies that there are no more lines to be read.
+     */
+    public List<String> readBatch() throws IOException {
+        while (true) {
+            Future<InflatedBlock> nextBlock = nextBlock();
+            if (nextBlock == null) {
+                if (partialLine.size() > 0) {
+                    String lastLine = decodeLine(partialLine.toByteArray(), 0, partialLine.size());
+                    partialLine.reset();
+                    return Collections.singletonList(lastLine);
+                }
+                close();
+                return Collections.emptyList();
+            }
+            InflatedBlock block = await(nextBlock);
+            partialLine.write(block.head, 0, block.head.length);
+            // very long lines, such as those in the gnomAD genomes, can span several blocks
+            if (!block.hasLineEnd) {
+                continue;
+            }
+            List<String> batch = new ArrayList<>(block.lines.size() + 1);
+            batch.add(decodeLine(partialLine.toByteArray(), 0, partialLine.size()));
+            batch.addAll(block.lines);
+            partialLine.reset();
+            partialLine.write(block.tail, 0, block.tail.length);
+            return batch;
+        }
+    }
+
+    /**
+     * Returns the lines of the file as a {@link Stream}. Closing the stream will close this reader.
+     */
+    public Stream<String> lines() {
+        Iterator<List<String>> batchIterator = new Iterator<List<String>>() {
+            private List<String> nextBatch;
+
+            @Override
+            public boolean hasNext() {
+                if (nextBatch == null) {
+                    try {
+                        nextBatch = readBatch();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return !nextBatch.isEmpty();
+            }
+
+            @Override
+            public List<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<String> batch = nextBatch;
+                nextBatch = null;
+                return batch;
+            }
+        };
+        Spliterator<List<String>> spliterator = Spliterators.spliteratorUnknownSize(batchIterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false)
+                .flatMap(List::stream)
+                .onClose(this::closeUnchecked);
+    }
+
+    private Future<InflatedBlock> nextBlock() throws IOException {
+        while (!endOfInput && inflatingBlocks.size() < readAheadBlocks) {
+            byte[] compressedBlock = readCompressedBlock();
+            if (compressedBlock == null) {
+                endOfInput = true;
+            } else {
+                inflatingBlocks.add(executorService.submit(() -> inflate(compressedBlock)));
+            }
+        }
+        return inflatingBlocks.poll();
+    }
+
+    /**
+     * Reads the next BGZF block from the input, returning the deflated data followed by the gzip footer or null if
+     * there are no more blocks.
+     */
+    private byte[] readCompressedBlock() throws IOException {
+        byte[] header = new byte[GZIP_FIXED_HEADER_LENGTH];
+        int headerBytesRead = readFully(inputStream, header, 0, header.length);
+        if (headerBytesRead == 0) {
+            return null;
+        }
+        if (headerBytesRead < header.length) {
+            throw new EOFException("Unexpected end of BGZF file - incomplete block header");
+        }
+        if (unsignedByte(header, 0) != GZIP_ID1 || unsignedByte(header, 1) != GZIP_ID2 || unsignedByte(header, 2) != GZIP_CM_DEFLATE || (unsignedByte(header, 3) & GZIP_FLG_FEXTRA) == 0) {
+            throw new IOException("Invalid BGZF block header");
+        }
+        int extraLength = unsignedShort(header, 10);
+        byte[] extra = new byte[extraLength];
+        if (readFully(inputStream, extra, 0, extraLength) < extraLength) {
+            throw new EOFException("Unexpected end of BGZF file - incomplete extra field");
+        }
+        int blockSize = readBlockSize(extra);
+        int remaining = blockSize - header.length - extraLength;
+        if (remaining < GZIP_FOOTER_LENGTH) {
+            throw new IOException("Invalid BGZF block size " + blockSize);
+        }
+        byte[] compressedBlock = new byte[remaining];
+        if (readFully(inputStream, compressedBlock, 0, remaining) < remaining) {
+            throw new EOFException("Unexpected end of BGZF file - incomplete block");
+        }
+        return compressedBlock;
+    }
+
+    private static int readBlockSize(byte[] extra) throws IOException {
+        int pos = 0;
+        while (pos + 4 <= extra.length) {
+            int subfieldLength = unsignedShort(extra, pos + 2);
+            if (unsignedByte(extra, pos) == BGZF_SI1 && unsignedByte(extra, pos + 1) == BGZF_SI2 && subfieldLength == 2) {
+                // BSIZE is the total block size minus 1
+                return unsignedShort(extra, pos + 4) + 1;
+            }
+            pos += 4 + subfieldLength;
+        }
+        throw new IOException("Invalid BGZF block - missing BC extra subfield");
+    }
+
+    private static InflatedBlock inflate(byte[] compressedBlock) throws IOException {
+        int deflatedLength = compressedBlock.length - GZIP_FOOTER_LENGTH;
+        long expectedCrc = unsignedInt(compressedBlock, deflatedLength);
+        int inflatedLength = (int) unsignedInt(compressedBlock, deflatedLength + 4);
+        if (inflatedLength > BGZF_MAX_BLOCK_SIZE) {
+            throw new IOException("Invalid BGZF block - inflated size " + inflatedLength + " is larger than maximum block size");
+        }
+        byte[] inflated = new byte[inflatedLength];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressedBlock, 0, deflatedLength);
+            int bytesInflated = 0;
+            while (bytesInflated < inflatedLength && !inflater.finished()) {
+                int count = inflater.inflate(inflated, bytesInflated, inflatedLength - bytesInflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                bytesInflated += count;
+            }
+            if (bytesInflated != inflatedLength) {
+                throw new IOException("Invalid BGZF block - expected " + inflatedLength + " bytes but inflated " + bytesInflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid BGZF block", e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(inflated, 0, inflatedLength);
+        if (crc32.getValue() != expectedCrc) {
+            throw new IOException("Invalid BGZF block - CRC32 mismatch");
+        }
+        return InflatedBlock.of(inflated);
+    }
+
+    private static InflatedBlock await(Future<InflatedBlock> futureBlock) throws IOException {
+        try {
+            return futureBlock.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for BGZF block to inflate");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static String decodeLine(byte[] bytes, int from, int to) {
+        // match BufferedReader.readLine() behaviour for files with Windows line endings
+        int end = (to > from && bytes[to - 1] == '\r') ? to - 1 : to;
+        return new String(bytes, from, end - from, StandardCharsets.UTF_8);
+    }
+
+    private static int readFully(InputStream inputStream, byte[] buffer, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = inputStream.read(buffer, offset + total, length - total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static int unsignedByte(byte[] bytes, int pos) {
+        return bytes[pos] & 0xff;
+    }
+
+    private static int unsignedShort(byte[] bytes, int pos) {
+        return unsignedByte(bytes, pos) | (unsignedByte(bytes, pos + 1) << 8);
+    }
+
+    private static long unsignedInt(byte[] bytes, int pos) {
+        return (unsignedShort(bytes, pos) | ((long) unsignedShort(bytes, pos + 2) << 16)) & 0xffffffffL;
+    }
+
+    private void closeUnchecked() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        endOfInput = true;
+        inflatingBlocks.forEach(future -> future.cancel(true));
+        inflatingBlocks.clear();
+        executorService.shutdownNow();
+        inputStream.close();
+    }
+
+    /**
+     * The contents of an inflated block split at the line ends. The head holds the bytes up to the first line end,
+     * which complete the line started in the previous block(s), and the tail the bytes following the last line end,
+     * which start the line finished in the next block(s). These are left as bytes so that multibyte characters split
+     * across blocks are decoded correctly.
+     */
+    private static class InflatedBlock {
+
+        private static final byte[] EMPTY = new byte[0];
+
+        private final byte[] head;
+        private final List<String> lines;
+        private final byte[] tail;
+        private final boolean hasLineEnd;
+
+        private InflatedBlock(byte[] head, List<String> lines, byte[] tail, boolean hasLineEnd) {
+            this.head = head;
+            this.lines = lines;
+            this.tail = tail;
+            this.hasLineEnd = hasLineEnd;
+        }
+
+        private static InflatedBlock of(byte[] inflated) {
+            int firstLineEnd = indexOfLineEnd(inflated, 0);
+            if (firstLineEnd == -1) {
+                return new InflatedBlock(inflated, Collections.emptyList(), EMPTY, false);
+            }
+            byte[] head = Arrays.copyOfRange(inflated, 0, firstLineEnd);
+            List<String> lines = new ArrayList<>();
+            int lineStart = firstLineEnd + 1;
+            int lineEnd = indexOfLineEnd(inflated, lineStart);
+            while (lineEnd != -1) {
+                lines.add(decodeLine(inflated, lineStart, lineEnd));
+                lineStart = lineEnd + 1;
+                lineEnd = indexOfLineEnd(inflated, lineStart);
+            }
+            byte[] tail = Arrays.copyOfRange(inflated, lineStart, inflated.length);
+            return new InflatedBlock(head, lines, tail, true);
+        }
+
+        private static int indexOfLineEnd(byte[] bytes, int from) {
+            for (int i = from; i < bytes.length; i++) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static class InflaterThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+        private final int readerId;
+
+        private InflaterThreadFactory(int readerId) {
+            this.readerId = readerId;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bgzf-reader-" + readerId + "-inflater-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -20,14 +20,41 @@
 
 package org.monarchinitiative.exomiser.data.genome.model.archive;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.stream.Stream;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
  */
 public class TabixAlleleArchive extends AbstractAlleleArchive {
 
+    private static final Logger logger = LoggerFactory.getLogger(TabixAlleleArchive.class);
+
     public TabixAlleleArchive(Path archivePath) {
         super(archivePath, "gz", "vcf");
     }
+
+    /**
+     * Tabix archives are usually BGZF compressed, in which case the blocks are inflated in parallel by a
+     * {@link BgzfLineReader}. Plain gzip files are read using the default single-threaded {@link ArchiveFileReader}.
+     * The returned stream should be closed after use.
+     */
+    @Override
+    public Stream<String> lines() {
+        Path archivePath = getPath();
+        if (BgzfLineReader.isBgzf(archivePath)) {
+            logger.info("Reading BGZF archive file {}", archivePath);
+            try {
+                return new BgzfLineReader(archivePath).lines();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return super.lines();
+    }
 }
@@ -74,12 +74,10 @@ public AlleleParser getAlleleParser() {
 
     @Override
     public Stream<Allele> alleles() {
-        // wrap this in a try-with-resources to close the underlying file resources when the stream closes
-        try (Stream<String> lines = alleleArchive.lines()) {
-               return lines
-//                       .peek(line -> logger.info("{}", line))
-                       .flatMap(line -> alleleParser.parseLine(line).stream());
-        }
+        // the returned stream should be closed by the caller in order to release the underlying file resources
+        return alleleArchive.lines()
+//                .peek(line -> logger.info("{}", line))
+                .flatMap(line -> alleleParser.parseLine(line).stream());
     }
 
     @Override
@@ -6,9 +6,6 @@ CREATE TABLE REGULATORY_REGIONS (
   "end"        INTEGER,
   FEATURE_TYPE VARCHAR(200)
 );
-CREATE INDEX RR1
-  ON REGULATORY_REGIONS (CHROMOSOME, START, "end");
-
 
 DROP TABLE IF EXISTS tad;
 
@@ -19,6 +16,3 @@ CREATE TABLE tad (
   entrezID   INTEGER  NOT NULL,
   symbol     VARCHAR(24)
 );
-
-CREATE INDEX tad
-  ON tad (chromosome, start, "end");
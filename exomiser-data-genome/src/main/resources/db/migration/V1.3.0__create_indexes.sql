@@ -0,0 +1,6 @@
+-- created once the tables are loaded, rather than being updated on every insert
+CREATE INDEX RR1
+  ON REGULATORY_REGIONS (CHROMOSOME, START, "end");
+
+CREATE INDEX tad
+  ON tad (chromosome, start, "end");
@@ -0,0 +1,165 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.data.genome.migration;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+class ChromosomePartitionedTableLoaderTest {
+
+    private static final String CREATE_TAD_TABLE = "CREATE TABLE %s (chromosome SMALLINT NOT NULL, start INTEGER NOT NULL, " +
+            "\"end\" INTEGER NOT NULL, entrezID INTEGER NOT NULL, symbol VARCHAR(24))";
+    private static final String CREATE_REGULATORY_TABLE = "CREATE TABLE %s (chromosome SMALLINT, start INTEGER, " +
+            "\"end\" INTEGER, feature_type VARCHAR(200))";
+
+    private static final String CSV_INSERT = "INSERT INTO %s SELECT * FROM CSVREAD('%s', '%s', " +
+            "'charset=UTF-8 fieldDelimiter='''' fieldSeparator=| nullString=NULL')";
+
+    private final Random random = new Random(47);
+
+    /**
+     * Writes the rows for chromosomes 1, 2, 10, X and Y in a random order.
+     */
+    private Path writeTadFile(Path file) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int chr : new int[]{1, 2, 10, 23, 24}) {
+            for (int i = 0; i < 300; i++) {
+                int start = random.nextInt(1000) * 1000;
+                String symbol = random.nextInt(20) == 0 ? "NULL" : "GENE" + random.nextInt(500);
+                lines.add(String.format("%d|%d|%d|%d|%s", chr, start, start + random.nextInt(5000), random.nextInt(50000), symbol));
+            }
+        }
+        Collections.shuffle(lines, random);
+        return write(file, lines);
+    }
+
+    private Path writeRegulatoryFile(Path file, String featureType) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int start = random.nextInt(100000);
+            lines.add(String.format("%d|%d|%d|%s", 1 + random.nextInt(24), start, start + random.nextInt(1000), featureType));
+        }
+        return write(file, lines);
+    }
+
+    private Path write(Path file, List<String> lines) throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    private List<List<Object>> selectRows(Connection connection, String tableName) throws SQLException {
+        List<List<Object>> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + tableName + " ORDER BY 1, 2, 3, 4")) {
+            int numColumns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                List<Object> row = new ArrayList<>();
+                for (int i = 1; i <= numColumns; i++) {
+                    row.add(resultSet.getObject(i));
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void loadInsertsSameRowsAsCsvRead(@TempDirectory.TempDir Path tempDir) throws Exception {
+        Path tadFile = writeTadFile(tempDir.resolve("tad.pg"));
+        Path ensemblFile = writeRegulatoryFile(tempDir.resolve("ensembl_enhancers.pg"), "Enhancer");
+        Path fantomFile = writeRegulatoryFile(tempDir.resolve("fantom_enhancers.pg"), "FANTOM permissive");
+
+        ChromosomePartitionedTableLoader instance = new ChromosomePartitionedTableLoader(3);
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:partitionedLoaderTest")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(String.format(CREATE_TAD_TABLE, "tad_csv"));
+                statement.execute(String.format(CREATE_TAD_TABLE, "tad_loaded"));
+                statement.execute(String.format(CREATE_REGULATORY_TABLE, "regulatory_regions_csv"));
+                statement.execute(String.format(CREATE_REGULATORY_TABLE, "regulatory_regions_loaded"));
+
+                statement.executeUpdate(String.format(CSV_INSERT, "tad_csv", tadFile, "chromosome|start|end|entrezid|symbol"));
+                statement.executeUpdate(String.format(CSV_INSERT, "regulatory_regions_csv", ensemblFile, "chromosome|start|end|feature_type"));
+                statement.executeUpdate(String.format(CSV_INSERT, "regulatory_regions_csv", fantomFile, "chromosome|start|end|feature_type"));
+            }
+
+            int tadCount = instance.load(connection, "tad_loaded", 5, Collections.singletonList(tadFile));
+            int regulatoryCount = instance.load(connection, "regulatory_regions_loaded", 4, Arrays.asList(ensemblFile, fantomFile));
+
+            assertThat(tadCount, equalTo(1500));
+            assertThat(regulatoryCount, equalTo(2000));
+            assertThat(selectRows(connection, "tad_loaded"), equalTo(selectRows(connection, "tad_csv")));
+            assertThat(selectRows(connection, "regulatory_regions_loaded"), equalTo(selectRows(connection, "regulatory_regions_csv")));
+        }
+    }
+
+    @Test
+    void migrationsLoadTablesAndCreateIndexes(@TempDirectory.TempDir Path tempDir) throws Exception {
+        writeTadFile(tempDir.resolve("tad.pg"));
+        writeRegulatoryFile(tempDir.resolve("ensembl_enhancers.pg"), "Enhancer");
+        writeRegulatoryFile(tempDir.resolve("fantom_enhancers.pg"), "FANTOM permissive");
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:partitionedMigrationTest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas("EXOMISER")
+                .locations("classpath:db/migration", "classpath:org/monarchinitiative/exomiser/data/genome/migration")
+                .placeholders(Collections.singletonMap("import.path", tempDir.toString()))
+                .load();
+        flyway.migrate();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            assertThat(count(statement, "SELECT COUNT(*) FROM EXOMISER.tad"), equalTo(1500));
+            assertThat(count(statement, "SELECT COUNT(*) FROM EXOMISER.regulatory_regions"), equalTo(2000));
+            assertThat(count(statement, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME IN ('RR1', 'TAD')"), equalTo(6));
+        }
+    }
+
+    private int count(Statement statement, String query) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
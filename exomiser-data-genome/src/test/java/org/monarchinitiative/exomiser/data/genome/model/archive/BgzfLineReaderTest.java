@@ -0,0 +1,166 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.genome.model.archive;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class BgzfLineReaderTest {
+
+    private Path bgzfFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bgzfFile = Files.createTempFile("bgzf_line_reader_test", ".vcf.gz");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(bgzfFile);
+    }
+
+    private void writeBgzf(List<String> lines) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new BlockCompressedOutputStream(bgzfFile.toFile()), StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+
+    private List<String> syntheticVcfLines(int numLines) {
+        List<String> lines = new ArrayList<>(numLines);
+        lines.add("##fileformat=VCFv4.2");
+        lines.add("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO");
+        for (int i = 0; i < numLines; i++) {
+            lines.add(String.format("%d\t%d\trs%d\tA\tT\t.\tPASS\tAC=%d;AF=%f", i % 22 + 1, 10000 + i, i, i, i / 1000000.0));
+        }
+        return lines;
+    }
+
+    @Test
+    void isBgzf() throws IOException {
+        writeBgzf(syntheticVcfLines(10));
+        assertThat(BgzfLineReader.isBgzf(bgzfFile), equalTo(true));
+    }
+
+    @Test
+    void isBgzfFalseForPlainGzip() {
+        assertThat(BgzfLineReader.isBgzf(Paths.get("src/test/resources/test_first_ten_dbsnp.vcf.gz")), equalTo(false));
+    }
+
+    @Test
+    void isBgzfFalseForNonExistentFile() {
+        assertThat(BgzfLineReader.isBgzf(Paths.get("src/test/resources/not_a_file.vcf.gz")), equalTo(false));
+    }
+
+    @Test
+    void readsEmptyFile() throws IOException {
+        writeBgzf(new ArrayList<>());
+        try (BgzfLineReader instance = new BgzfLineReader(bgzfFile)) {
+            assertThat(instance.readBatch().isEmpty(), equalTo(true));
+        }
+    }
+
+    @Test
+    void readsLinesInOrderAcrossManyBlocks() throws IOException {
+        List<String> expected = syntheticVcfLines(50000);
+        writeBgzf(expected);
+
+        try (Stream<String> lines = new BgzfLineReader(Files.newInputStream(bgzfFile), 4).lines()) {
+            assertThat(lines.collect(Collectors.toList()), equalTo(expected));
+        }
+    }
+
+    @Test
+    void readsLinesLongerThanOneBlock() throws IOException {
+        char[] longInfo = new char[200_000];
+        Arrays.fill(longInfo, 'X');
+        List<String> expected = Arrays.asList("#header", "1\t12345\t.\tA\tT\t.\tPASS\t" + new String(longInfo), "1\t12346\t.\tA\tT\t.\tPASS\t.");
+        writeBgzf(expected);
+
+        try (Stream<String> lines = new BgzfLineReader(Files.newInputStream(bgzfFile), 2).lines()) {
+            assertThat(lines.collect(Collectors.toList()), equalTo(expected));
+        }
+    }
+
+    @Test
+    void readsFinalLineWithoutLineEnd() throws IOException {
+        try (OutputStream outputStream = new BlockCompressedOutputStream(bgzfFile.toFile())) {
+            outputStream.write("line one\nline two".getBytes(StandardCharsets.UTF_8));
+        }
+        try (Stream<String> lines = new BgzfLineReader(bgzfFile).lines()) {
+            assertThat(lines.collect(Collectors.toList()), equalTo(Arrays.asList("line one", "line two")));
+        }
+    }
+
+    @Test
+    void readsMultiByteCharactersSplitAcrossBlocks() throws IOException {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            expected.add("Charité Universitätsmedizin " + i);
+        }
+        writeBgzf(expected);
+
+        try (Stream<String> lines = new BgzfLineReader(Files.newInputStream(bgzfFile), 3).lines()) {
+            assertThat(lines.collect(Collectors.toList()), equalTo(expected));
+        }
+    }
+
+    @Test
+    void tabixAlleleArchiveReadsBgzfFile() throws IOException {
+        List<String> expected = syntheticVcfLines(1000);
+        writeBgzf(expected);
+
+        TabixAlleleArchive tabixAlleleArchive = new TabixAlleleArchive(bgzfFile);
+        try (Stream<String> lines = tabixAlleleArchive.lines()) {
+            assertThat(lines.collect(Collectors.toList()), equalTo(expected));
+        }
+    }
+
+    @Test
+    void tabixAlleleArchiveReadsPlainGzipFile() {
+        TabixAlleleArchive tabixAlleleArchive = new TabixAlleleArchive(Paths.get("src/test/resources/test_first_ten_dbsnp.vcf.gz"));
+        try (Stream<String> lines = tabixAlleleArchive.lines()) {
+            // 57 header + 10 allele = 67 lines total in the file
+            assertThat(lines.count(), equalTo(67L));
+        }
+    }
+}
@@ -91,7 +91,7 @@ public void run(ApplicationArguments applicationArguments) {
         if (parseResources) {
             //parse the file and output to the project output dir.
             logger.info("Parsing resource files...");
-            ResourceParserHandler.parseResources(externalResources, proccessPath, dataPath);
+            ResourceParserHandler.parseResources(externalResources, proccessPath, dataPath, appConfig.parseThreads());
 
         } else {
             logger.info("Skipping parsing of external resource files.");
@@ -119,7 +119,7 @@ private void migrateH2Database(Path importDataPath) {
         Flyway h2Flyway = Flyway.configure()
                 .dataSource(h2DataSource)
                 .schemas("EXOMISER")
-                .locations("migration/common", "migration/h2")
+                .locations("migration/common", "migration/h2", "org/monarchinitiative/exomiser/data/phenotype/migration")
                 .placeholders(propertyPlaceHolders)
                 .load();
         h2Flyway.clean();
@@ -136,6 +136,13 @@ public boolean parseResources() {
         return parse;
     }
 
+    @Bean
+    public int parseThreads() {
+        int parseThreads = env.getProperty("parseThreads", Integer.class, Runtime.getRuntime().availableProcessors());
+        logger.info("Setting application to parse resources using {} threads", parseThreads);
+        return parseThreads;
+    }
+
     @Bean
     public boolean migrateH2() {
         boolean migrateH2 = Boolean.parseBoolean(env.getProperty("migrateH2"));
@@ -0,0 +1,201 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.data.phenotype.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.h2.tools.SimpleResultSet;
+import org.h2.tools.SimpleRowSource;
+import org.monarchinitiative.exomiser.data.phenotype.parsers.PhenotypeMappingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+/**
+ * Loads the phenotype mapping tables from the binary {@link PhenotypeMappingFile} written by the mapper parsers. Like
+ * CSVREAD, the binary file is read by H2 as a table function, so the table is loaded by a single INSERT ... SELECT
+ * statement rather than row by row, but without parsing any text. Where no binary file is present the parsed text file
+ * is read using CSVREAD, as the original SQL migrations did.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class PhenotypeMappingBulkLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhenotypeMappingBulkLoader.class);
+
+    private static final String FUNCTION_NAME = "EXOMISER_PHENOTYPE_MAPPINGS";
+
+    private PhenotypeMappingBulkLoader() {
+        //uninstantiable
+    }
+
+    static void migrate(Context context, String tableName, String parsedFileName, String columns, String nullString) throws SQLException {
+        Path importPath = Paths.get(context.getConfiguration().getPlaceholders().get("import.path"));
+        Path parsedFile = importPath.resolve(parsedFileName);
+        Path binaryFile = PhenotypeMappingFile.binaryFileFor(parsedFile);
+        int count;
+        if (Files.exists(binaryFile)) {
+            logger.info("Loading {} from {}", tableName, binaryFile);
+            count = loadBinary(context.getConnection(), tableName, binaryFile, nullString);
+        } else {
+            logger.info("No binary mapping file found - loading {} from {}", tableName, parsedFile);
+            count = loadCsv(context.getConnection(), tableName, parsedFile, columns, nullString);
+        }
+        logger.info("Loaded {} rows into {}", count, tableName);
+    }
+
+    /**
+     * Inserts the mappings in the binary file into the table with a single INSERT ... SELECT from the
+     * {@link #readMappings(Connection, String, String)} table function. The function alias only exists for the duration
+     * of the insert. This does not commit the transaction.
+     *
+     * @param nullString values equal to this string are inserted as NULL, as CSVREAD would
+     * @return the number of rows inserted
+     */
+    public static int loadBinary(Connection connection, String tableName, Path binaryFile, String nullString) throws SQLException {
+        String insert = String.format("INSERT INTO %s SELECT * FROM %s('%s', '%s')", tableName, FUNCTION_NAME,
+                escape(binaryFile.toString()), escape(nullString));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("CREATE ALIAS %s FOR \"%s.readMappings\"", FUNCTION_NAME, PhenotypeMappingBulkLoader.class.getName()));
+            try {
+                return statement.executeUpdate(insert);
+            } finally {
+                statement.execute("DROP ALIAS IF EXISTS " + FUNCTION_NAME);
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("'", "''");
+    }
+
+    /**
+     * H2 table function streaming the rows of a binary {@link PhenotypeMappingFile}. This is only public so that H2 can
+     * call it - use {@link #loadBinary(Connection, String, Path, String)}.
+     *
+     * @param connection used by H2 to signal when only the column list is required
+     * @param binaryFile path of the binary mapping file
+     * @param nullString values equal to this string are returned as NULL
+     * @return the mappings as rows of the mapping tables
+     */
+    public static ResultSet readMappings(Connection connection, String binaryFile, String nullString) throws SQLException {
+        if ("jdbc:columnlist:connection".equals(connection.getMetaData().getURL())) {
+            return makeMappingResultSet(null);
+        }
+        try {
+            return makeMappingResultSet(new MappingRowSource(PhenotypeMappingFile.reader(Paths.get(binaryFile)), nullString));
+        } catch (IOException e) {
+            throw new SQLException("Unable to read phenotype mappings from " + binaryFile, e);
+        }
+    }
+
+    private static SimpleResultSet makeMappingResultSet(SimpleRowSource rowSource) {
+        SimpleResultSet resultSet = rowSource == null ? new SimpleResultSet() : new SimpleResultSet(rowSource);
+        resultSet.addColumn("MAPPING_ID", Types.INTEGER, 10, 0);
+        resultSet.addColumn("QUERY_ID", Types.VARCHAR, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("QUERY_TERM", Types.VARCHAR, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("HIT_ID", Types.VARCHAR, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("HIT_TERM", Types.VARCHAR, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("SIMJ", Types.DOUBLE, 17, 0);
+        resultSet.addColumn("IC", Types.DOUBLE, 17, 0);
+        resultSet.addColumn("SCORE", Types.DOUBLE, 17, 0);
+        resultSet.addColumn("LCS_ID", Types.VARCHAR, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("LCS_TERM", Types.VARCHAR, Integer.MAX_VALUE, 0);
+        return resultSet;
+    }
+
+    /**
+     * Inserts the pipe-delimited rows of the parsed text file into the table using CSVREAD.
+     *
+     * @return the number of rows inserted
+     */
+    public static int loadCsv(Connection connection, String tableName, Path parsedFile, String columns, String nullString) throws SQLException {
+        String insert = String.format("INSERT INTO %s SELECT * FROM CSVREAD('%s', '%s', 'charset=UTF-8 fieldDelimiter='''' fieldSeparator=| nullString=%s')",
+                tableName, parsedFile, columns, nullString);
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(insert);
+        }
+    }
+
+    private static class MappingRowSource implements SimpleRowSource {
+
+        private final PhenotypeMappingFile.Reader reader;
+        private final String nullString;
+
+        private MappingRowSource(PhenotypeMappingFile.Reader reader, String nullString) {
+            this.reader = reader;
+            this.nullString = nullString;
+        }
+
+        @Override
+        public Object[] readRow() throws SQLException {
+            try {
+                PhenotypeMappingFile.Mapping mapping = reader.next();
+                if (mapping == null) {
+                    return null;
+                }
+                return new Object[]{
+                        mapping.getMappingId(),
+                        valueOrNull(mapping.getQueryId()),
+                        valueOrNull(mapping.getQueryTerm()),
+                        valueOrNull(mapping.getHitId()),
+                        valueOrNull(mapping.getHitTerm()),
+                        (double) mapping.getSimJ(),
+                        (double) mapping.getIc(),
+                        (double) mapping.getScore(),
+                        valueOrNull(mapping.getLcsId()),
+                        valueOrNull(mapping.getLcsTerm())
+                };
+            } catch (IOException e) {
+                throw new SQLException("Unable to read phenotype mapping", e);
+            }
+        }
+
+        private String valueOrNull(String value) {
+            return value.isEmpty() || value.equals(nullString) ? null : value;
+        }
+
+        @Override
+        public void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void reset() throws SQLException {
+            throw new SQLException("Phenotype mappings can only be read once");
+        }
+    }
+}
@@ -59,8 +59,10 @@ public HPMPMapperParser(Map<String, String> hpId2termMap, Map<String, String> mp
     public void parseResource(Resource resource, Path inDir, Path outDir) {
         Path inFile = inDir.resolve(resource.getExtractedFileName());
         Path outFile = outDir.resolve(resource.getParsedFileName());
-        logger.info("Parsing {} file: {}. Writing out to: {}", resource.getName(), inFile, outFile);
+        Path binaryFile = PhenotypeMappingFile.binaryFileFor(outFile);
+        logger.info("Parsing {} file: {}. Writing out to: {} and {}", resource.getName(), inFile, outFile, binaryFile);
         ResourceOperationStatus status;
+        PhenotypeMappingFile.Writer mappingWriter = PhenotypeMappingFile.writer();
         try (BufferedReader reader = Files.newBufferedReader(inFile, Charset.defaultCharset());
              BufferedWriter writer = Files.newBufferedWriter(outFile, Charset.defaultCharset())) {
             String line;
@@ -76,13 +78,17 @@ public void parseResource(Resource resource, Path inDir, Path outDir) {
 
                 String simJ = fields[2];
                 String ic = fields[3];
-                double score = Math.sqrt(Double.parseDouble(simJ) * Double.parseDouble(ic));
+                double simJValue = Double.parseDouble(simJ);
+                double icValue = Double.parseDouble(ic);
+                double score = Math.sqrt(simJValue * icValue);
 
                 String lcs = reformatCurie(fields[4].split(";")[0]);
                 String lcsTerm = hpId2termMap.containsKey(lcs) ? hpId2termMap.get(lcs) : mpId2termMap.getOrDefault(lcs, "");
 
                 writer.write(String.format("%d|%s|%s|%s|%s|%s|%s|%s|%s|%s%n", id, queryId, queryTerm, hitId, hitTerm, simJ, ic, score, lcs, lcsTerm));
+                mappingWriter.add(id, queryId, queryTerm, hitId, hitTerm, simJValue, icValue, score, lcs, lcsTerm);
             }
+            mappingWriter.write(binaryFile);
             status = ResourceOperationStatus.SUCCESS;
 
         } catch (FileNotFoundException ex) {
@@ -26,6 +26,8 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -77,55 +79,49 @@ public void parseResource(Resource resource, Path inDir, Path outDir) {
         Path outFile = outDir.resolve(resource.getParsedFileName());
 
         logger.info("Parsing {} file: {}.", resource.getName(), inFile);
-        OboOntology oboOntology = OboOntologyParser.parseOboFile(inFile);
-        resource.setVersion(oboOntology.getDataVersion());
-        logger.info("HPO version: {}", oboOntology.getDataVersion());
-
-        for (OboOntologyTerm ontologyTerm : oboOntology.getCurrentOntologyTerms()) {
-            hpId2termMap.put(ontologyTerm.getId(), ontologyTerm.getLabel());
+        // the current terms are written out as they are read and only the ids are kept in the index
+        OboTermIndex termIndex;
+        try (BufferedWriter writer = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)) {
+            termIndex = OboTermIndex.build(inFile, term -> {
+                if (!term.isObsolete()) {
+                    hpId2termMap.put(term.getId(), term.getLabel());
+                    writeLine(writer, term.getId(), term.getLabel());
+                }
+            });
+        } catch (IOException | UncheckedIOException ex) {
+            logger.error("Error writing to file {}", outFile, ex);
+            resource.setParseStatus(FAILURE);
+            logger.info("{}", FAILURE);
+            return;
         }
-
-        ResourceOperationStatus hpStatus = writeHpFile(outFile, oboOntology);
-        logger.info("{} Writing hp to: {}", hpStatus, outFile);
+        resource.setVersion(termIndex.getDataVersion());
+        logger.info("HPO version: {}", termIndex.getDataVersion());
+        logger.info("{} Writing hp to: {}", SUCCESS, outFile);
 
         // hack in a new file not defined in the usual resources place
         Path hpAltIdFile = outDir.resolve("hp_alt_ids.pg");
-        ResourceOperationStatus hpAltIdStatus = writeHpAltIdFile(hpAltIdFile, oboOntology);
-        logger.info("{} Writing hp_alt_ids to: {}", hpAltIdStatus, hpAltIdFile);
+        ResourceOperationStatus status = writeHpAltIdFile(hpAltIdFile, termIndex);
+        logger.info("{} Writing hp_alt_ids to: {}", status, hpAltIdFile);
 
-        ResourceOperationStatus status = hpStatus == FAILURE ? FAILURE : hpAltIdStatus;
         resource.setParseStatus(status);
         logger.info("{}", status);
     }
 
-    private ResourceOperationStatus writeHpFile(Path outFile, OboOntology oboOntology) {
-        try (BufferedWriter writer = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)){
-            for (OboOntologyTerm ontologyTerm : oboOntology.getCurrentOntologyTerms()) {
-                StringJoiner stringJoiner = new StringJoiner("|");
-                stringJoiner.add(ontologyTerm.getId());
-                stringJoiner.add(ontologyTerm.getLabel());
-                writer.write(stringJoiner.toString());
-                writer.newLine();
-            }
-            return SUCCESS;
-        } catch (Exception ex) {
-            logger.error("Error writing to file {}", outFile, ex);
-            return ResourceOperationStatus.FAILURE;
+    private static void writeLine(BufferedWriter writer, String id, String currentId) {
+        try {
+            StringJoiner stringJoiner = new StringJoiner("|");
+            stringJoiner.add(id);
+            stringJoiner.add(currentId);
+            writer.write(stringJoiner.toString());
+            writer.newLine();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
     }
 
-    private ResourceOperationStatus writeHpAltIdFile(Path hpAltIdFile, OboOntology oboOntology) {
+    private ResourceOperationStatus writeHpAltIdFile(Path hpAltIdFile, OboTermIndex termIndex) {
         try (BufferedWriter writer = Files.newBufferedWriter(hpAltIdFile, StandardCharsets.UTF_8)){
-            Map<String, OboOntologyTerm> phenotypeTermMap = oboOntology.getIdToTerms();
-            for (Map.Entry<String, OboOntologyTerm> entry : phenotypeTermMap.entrySet()) {
-                String altId = entry.getKey();
-                OboOntologyTerm ontologyTerm = entry.getValue();
-                StringJoiner stringJoiner = new StringJoiner("|");
-                stringJoiner.add(altId);
-                stringJoiner.add(ontologyTerm.getId());
-                writer.write(stringJoiner.toString());
-                writer.newLine();
-            }
+            termIndex.forEachIdToCurrentTermId((altId, currentId) -> writeLine(writer, altId, currentId));
             return SUCCESS;
         } catch (Exception ex) {
             logger.error("Error writing to file {}", hpAltIdFile, ex);
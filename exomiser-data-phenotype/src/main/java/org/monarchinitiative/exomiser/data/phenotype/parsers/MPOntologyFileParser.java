@@ -63,35 +63,37 @@ public void parseResource(Resource resource, Path inDir, Path outDir) {
 
         logger.info("Parsing {} file: {}. Writing out to: {}", resource.getName(), inFile, outFile);
 
-        OboOntology oboOntology = OboOntologyParser.parseOboFile(inFile);
-        resource.setVersion(oboOntology.getDataVersion());
-        logger.info("MP version: {}", oboOntology.getDataVersion());
+        // only the labels are kept alongside the index as these need to be written out in id order
+        List<String> labels = new ArrayList<>();
+        OboTermIndex termIndex = OboTermIndex.build(inFile, term -> labels.add(term.getLabel()));
+        resource.setVersion(termIndex.getDataVersion());
+        logger.info("MP version: {}", termIndex.getDataVersion());
 
-        int currPlusObs = oboOntology.getCurrentOntologyTerms().size() + oboOntology.getObsoleteOntologyTerms().size();
-        List<OboOntologyTerm> allTerms = new ArrayList<>(currPlusObs);
-        allTerms.addAll(oboOntology.getCurrentOntologyTerms());
-        allTerms.addAll(oboOntology.getObsoleteOntologyTerms());
-
-        allTerms.sort(Comparator.comparing(OboOntologyTerm::getId));
+        List<Integer> allTerms = new ArrayList<>(termIndex.size());
+        for (int term = 0; term < termIndex.size(); term++) {
+            allTerms.add(term);
+        }
+        // current terms come before any obsolete term with the same id
+        allTerms.sort(Comparator.comparing(termIndex::getTermId).thenComparing(termIndex::isObsolete));
         // CAUTION! In the HPO parser only the current terms are added to the map and written out - in the case of the MP
         // both obsolete and current terms were included. It's not clear why this is the case, but this behaviour has been
-        // retained following refactoring this class. If this functionality is undesired the allTerms should be replaced
-        // with oboOntology.getCurrentOntologyTerms()
-        for (OboOntologyTerm ontologyTerm : allTerms) {
-            mpId2termMap.put(ontologyTerm.getId(), ontologyTerm.getLabel());
+        // retained following refactoring this class. If this functionality is undesired the obsolete terms should be
+        // removed from allTerms
+        for (int term : allTerms) {
+            mpId2termMap.put(termIndex.getTermId(term), labels.get(term));
         }
-        ResourceOperationStatus status = writeMpFile(outDir.resolve("mp.pg"), allTerms);
+        ResourceOperationStatus status = writeMpFile(outDir.resolve("mp.pg"), allTerms, termIndex, labels);
 
         resource.setParseStatus(status);
         logger.info("{}", status);
     }
 
-    private ResourceOperationStatus writeMpFile(Path outFile, List<OboOntologyTerm> ontologyTerms) {
+    private ResourceOperationStatus writeMpFile(Path outFile, List<Integer> terms, OboTermIndex termIndex, List<String> labels) {
         try (BufferedWriter writer = Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)){
-            for (OboOntologyTerm ontologyTerm : ontologyTerms) {
+            for (int term : terms) {
                 StringJoiner stringJoiner = new StringJoiner("|");
-                stringJoiner.add(ontologyTerm.getId());
-                stringJoiner.add(ontologyTerm.getLabel());
+                stringJoiner.add(termIndex.getTermId(term));
+                stringJoiner.add(labels.get(term));
                 writer.write(stringJoiner.toString());
                 writer.newLine();
             }
@@ -22,12 +22,7 @@
 
 import com.google.common.collect.ImmutableList;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
 
 /**
  * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
@@ -38,83 +33,15 @@ private OboOntologyParser() {
     }
 
     static OboOntology parseOboFile(Path oboFile) {
-        String dataVersion = parseDataVersion(oboFile);
-        List<OboOntologyTerm> ontologyTerms = parseOntologyTerms(oboFile);
-        return new OboOntology(dataVersion, ontologyTerms);
-    }
-
-    private static String parseDataVersion(Path oboFile) {
-        try(BufferedReader bufferedReader = Files.newBufferedReader(oboFile, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                if (line.startsWith("data-version:")){
-                    return line.substring(13).trim(); }
-            }
-        } catch (IOException ex){
-            throw new OboOntologyParseException("Error parsing OBO file " + oboFile, ex);
-        }
-        return "";
-    }
-
-    private static List<OboOntologyTerm> parseOntologyTerms(Path oboFile) {
-        ImmutableList.Builder<OboOntologyTerm> ontologyTerms =  new ImmutableList.Builder<>();
-
-        try(BufferedReader bufferedReader = Files.newBufferedReader(oboFile, StandardCharsets.UTF_8)) {
-            // [Term]
-            // id: HP:0000316
-            // name: Hypertelorism
-            // alt_id: HP:0000578
-            // alt_id: HP:0002001
-            // alt_id: HP:0004657
-            // alt_id: HP:0007871
-
-            // [Term]
-            // id: HP:0000284
-            // name: obsolete Abnormality of the ocular region
-            // synonym: "ocular abnormalities" EXACT []
-            // is_obsolete: true
-            // replaced_by: HP:0000315
-
-            String id = null;
-            OboOntologyTerm.Builder termBuilder = OboOntologyTerm.builder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                if (line.startsWith("id:")) {
-                    id = line.substring(3).trim();
-                    termBuilder.id(id);
-                }
-                else if (line.startsWith("name:")) {
-                    termBuilder.label(line.substring(5).trim());
-                }
-                else if (line.startsWith("is_obsolete")) {
-                    termBuilder.obsolete(true);
-                }
-                else if (line.startsWith("alt_id:")){
-                    termBuilder.addAltId(line.substring(7).trim());
-                }
-                else if (line.startsWith("replaced_by:")){
-                    termBuilder.replacedBy(line.substring(12).trim());
-                }
-                else if (line.isEmpty() && id != null) {
-                    // add current term
-                    ontologyTerms.add(termBuilder.build());
-                    // reset builder
-                    termBuilder = OboOntologyTerm.builder();
-                }
-            }
-
-        } catch (IOException ex) {
-            throw new OboOntologyParseException("Error parsing OBO file " + oboFile, ex);
-        }
-
-        return ontologyTerms.build();
-    }
-
-    private static class OboOntologyParseException extends RuntimeException {
-
-        OboOntologyParseException(String message, Throwable cause) {
-            super(message, cause);
-        }
+        ImmutableList.Builder<OboOntologyTerm> ontologyTerms = new ImmutableList.Builder<>();
+        String dataVersion = OboStanzaReader.readStanzas(oboFile, stanza -> ontologyTerms.add(OboOntologyTerm.builder()
+                .id(stanza.getId())
+                .label(stanza.getLabel())
+                .obsolete(stanza.isObsolete())
+                .altIds(stanza.getAltIds())
+                .replacedBy(stanza.getReplacedBy())
+                .build()));
+        return new OboOntology(dataVersion, ontologyTerms.build());
     }
 
 }
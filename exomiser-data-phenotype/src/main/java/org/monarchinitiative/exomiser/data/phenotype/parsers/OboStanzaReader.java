@@ -0,0 +1,141 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.phenotype.parsers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the stanzas of an OBO file, one at a time, so that the whole ontology does not need to be held in memory.
+ * Only the tags used by the Exomiser are read.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class OboStanzaReader {
+
+    private OboStanzaReader() {
+    }
+
+    /**
+     * Reads the stanzas from the OBO file in the order they are found. The {@link Stanza} passed to the consumer is
+     * re-used for the next stanza, so should not be retained. A stanza is finished by an empty line.
+     *
+     * @param oboFile        the OBO file to read
+     * @param stanzaConsumer called for each stanza with an id
+     * @return the data-version of the ontology or an empty string if there isn't one
+     */
+    static String readStanzas(Path oboFile, Consumer<Stanza> stanzaConsumer) {
+        String dataVersion = null;
+        Stanza stanza = new Stanza();
+        try (BufferedReader bufferedReader = Files.newBufferedReader(oboFile, StandardCharsets.UTF_8)) {
+            // [Term]
+            // id: HP:0000316
+            // name: Hypertelorism
+            // alt_id: HP:0000578
+            // alt_id: HP:0002001
+            // alt_id: HP:0004657
+            // alt_id: HP:0007871
+
+            // [Term]
+            // id: HP:0000284
+            // name: obsolete Abnormality of the ocular region
+            // synonym: "ocular abnormalities" EXACT []
+            // is_obsolete: true
+            // replaced_by: HP:0000315
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                if (line.startsWith("id:")) {
+                    stanza.id = line.substring(3).trim();
+                } else if (line.startsWith("name:")) {
+                    stanza.label = line.substring(5).trim();
+                } else if (line.startsWith("is_obsolete")) {
+                    stanza.obsolete = true;
+                } else if (line.startsWith("alt_id:")) {
+                    stanza.altIds.add(line.substring(7).trim());
+                } else if (line.startsWith("replaced_by:")) {
+                    stanza.replacedBy = line.substring(12).trim();
+                } else if (line.startsWith("data-version:") && dataVersion == null) {
+                    dataVersion = line.substring(13).trim();
+                } else if (line.isEmpty() && stanza.id != null) {
+                    stanzaConsumer.accept(stanza);
+                    stanza.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new OboOntologyParseException("Error parsing OBO file " + oboFile, ex);
+        }
+        return dataVersion == null ? "" : dataVersion;
+    }
+
+    /**
+     * The tags of an OBO stanza required by the Exomiser.
+     */
+    static class Stanza {
+
+        private String id = null;
+        private String label = "";
+        private boolean obsolete = false;
+        private final List<String> altIds = new ArrayList<>();
+        private String replacedBy = "";
+
+        private void clear() {
+            id = null;
+            label = "";
+            obsolete = false;
+            altIds.clear();
+            replacedBy = "";
+        }
+
+        String getId() {
+            return id;
+        }
+
+        String getLabel() {
+            return label;
+        }
+
+        boolean isObsolete() {
+            return obsolete;
+        }
+
+        List<String> getAltIds() {
+            return altIds;
+        }
+
+        String getReplacedBy() {
+            return replacedBy;
+        }
+    }
+
+    static class OboOntologyParseException extends RuntimeException {
+
+        OboOntologyParseException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
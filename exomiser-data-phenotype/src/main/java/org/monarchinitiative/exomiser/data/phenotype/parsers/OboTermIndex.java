@@ -0,0 +1,224 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.phenotype.parsers;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Compact index of the terms of an OBO ontology built while streaming the file. Each term id, alt_id and replaced_by
+ * id is interned to an int code, so that the obsolete and alt_id relations can be held in primitive arrays rather than
+ * as maps of strings to term objects.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class OboTermIndex {
+
+    private static final int NONE = -1;
+
+    private final String dataVersion;
+    // code -> id
+    private final String[] ids;
+    // term position in the file -> code
+    private final int[] termCodes;
+    private final BitSet obsoleteTerms;
+    // codes of all the ids mapped to a current term, in the order these were first mapped
+    private final int[] mappedCodes;
+    // code -> code of the current term
+    private final int[] currentTermCodes;
+
+    private OboTermIndex(String dataVersion, String[] ids, int[] termCodes, BitSet obsoleteTerms, int[] mappedCodes, int[] currentTermCodes) {
+        this.dataVersion = dataVersion;
+        this.ids = ids;
+        this.termCodes = termCodes;
+        this.obsoleteTerms = obsoleteTerms;
+        this.mappedCodes = mappedCodes;
+        this.currentTermCodes = currentTermCodes;
+    }
+
+    /**
+     * Streams the terms from the OBO file into a new index. The consumer is called for each term as it is read, so
+     * that any per-term output can be written in the same pass.
+     *
+     * @param oboFile      the OBO file to read
+     * @param termConsumer called for each term in the order found in the file
+     * @return an index of the terms in the file
+     */
+    static OboTermIndex build(Path oboFile, Consumer<OboStanzaReader.Stanza> termConsumer) {
+        Builder builder = new Builder();
+        String dataVersion = OboStanzaReader.readStanzas(oboFile, stanza -> {
+            builder.add(stanza);
+            termConsumer.accept(stanza);
+        });
+        return builder.build(dataVersion);
+    }
+
+    String getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * @return the number of terms in the ontology, including the obsolete terms
+     */
+    int size() {
+        return termCodes.length;
+    }
+
+    /**
+     * @param term the position of the term in the file
+     * @return the id of the term
+     */
+    String getTermId(int term) {
+        return ids[termCodes[term]];
+    }
+
+    boolean isObsolete(int term) {
+        return obsoleteTerms.get(term);
+    }
+
+    /**
+     * Supplies each current term id, alt_id and obsolete term id along with the id of the current term it maps to. The
+     * ids of the current terms and their alt_ids come first in file order, followed by the obsolete terms which have a
+     * replaced_by mapping to a current term, and the alt_ids of these.
+     *
+     * @param idConsumer accepts the id and the id of the current term
+     */
+    void forEachIdToCurrentTermId(BiConsumer<String, String> idConsumer) {
+        for (int code : mappedCodes) {
+            idConsumer.accept(ids[code], ids[currentTermCodes[code]]);
+        }
+    }
+
+    private static class Builder {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+
+        private final IntArray termCodes = new IntArray();
+        private final BitSet obsoleteTerms = new BitSet();
+
+        // the replaced_by and alt_ids of obsolete terms are only needed once all the current terms have been read
+        private final IntArray obsoleteTermCodes = new IntArray();
+        private final IntArray obsoleteReplacedByCodes = new IntArray();
+        private final IntArray obsoleteAltIdOffsets = new IntArray();
+        private final IntArray obsoleteAltIdCodes = new IntArray();
+
+        private final IntArray mappedCodes = new IntArray();
+        private final IntArray currentTermCodes = new IntArray();
+
+        private Builder() {
+            obsoleteAltIdOffsets.add(0);
+        }
+
+        private int intern(String id) {
+            Integer code = codes.get(id);
+            if (code == null) {
+                code = ids.size();
+                codes.put(id, code);
+                ids.add(id);
+                currentTermCodes.add(NONE);
+            }
+            return code;
+        }
+
+        private void mapToCurrentTerm(int code, int currentTermCode) {
+            if (currentTermCodes.get(code) == NONE) {
+                mappedCodes.add(code);
+            }
+            currentTermCodes.set(code, currentTermCode);
+        }
+
+        private void add(OboStanzaReader.Stanza stanza) {
+            int code = intern(stanza.getId());
+            if (stanza.isObsolete()) {
+                obsoleteTerms.set(termCodes.size());
+                obsoleteTermCodes.add(code);
+                String replacedBy = stanza.getReplacedBy();
+                obsoleteReplacedByCodes.add(replacedBy.isEmpty() ? NONE : intern(replacedBy));
+                for (String altId : stanza.getAltIds()) {
+                    obsoleteAltIdCodes.add(intern(altId));
+                }
+                obsoleteAltIdOffsets.add(obsoleteAltIdCodes.size());
+            } else {
+                mapToCurrentTerm(code, code);
+                for (String altId : stanza.getAltIds()) {
+                    mapToCurrentTerm(intern(altId), code);
+                }
+            }
+            termCodes.add(code);
+        }
+
+        private OboTermIndex build(String dataVersion) {
+            // in the case of the MPO the alt ids of the current term do not contain the id of the obsolete terms which
+            // contains a replaced_by term. Newer versions of the HPO handle this better by already adding the alt_id to
+            // the current term.
+            for (int i = 0; i < obsoleteTermCodes.size(); i++) {
+                int replacedByCode = obsoleteReplacedByCodes.get(i);
+                int currentTermCode = replacedByCode == NONE ? NONE : currentTermCodes.get(replacedByCode);
+                if (currentTermCode != NONE) {
+                    mapToCurrentTerm(obsoleteTermCodes.get(i), currentTermCode);
+                    // Handle edge-case case where this happened:
+                    // OboOntologyTerm{id='HP:0009449', label='Hypoplastic/small phalanges of the 3rd finger', obsolete=true, altIds=[HP:0004158, HP:0004164, HP:0004165], replacedBy='HP:0009447'}
+                    for (int j = obsoleteAltIdOffsets.get(i); j < obsoleteAltIdOffsets.get(i + 1); j++) {
+                        mapToCurrentTerm(obsoleteAltIdCodes.get(j), currentTermCode);
+                    }
+                }
+            }
+            return new OboTermIndex(dataVersion, ids.toArray(new String[0]), termCodes.toArray(), obsoleteTerms, mappedCodes.toArray(), currentTermCodes
+                    .toArray());
+        }
+    }
+
+    /**
+     * Minimal growable array of primitive ints.
+     */
+    private static class IntArray {
+
+        private int[] values = new int[1024];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
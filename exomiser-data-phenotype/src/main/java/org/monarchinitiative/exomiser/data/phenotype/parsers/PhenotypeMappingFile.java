@@ -0,0 +1,321 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.data.phenotype.parsers;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Binary form of the phenotype mapping files written by the {@link HPHPMapperParser}, {@link HPMPMapperParser} and
+ * {@link HPZPMapperParser}. The file holds a table of the distinct term id and label pairs, each written as a
+ * length-prefixed UTF string, followed by the mappings sorted by query term. Each mapping refers to its terms by their
+ * int code in the term table and holds the scores as floats, so these have about seven significant digits rather than
+ * the full precision of the text file.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public final class PhenotypeMappingFile {
+
+    private static final int MAGIC = 0x45584D50;
+    private static final int VERSION = 2;
+
+    private PhenotypeMappingFile() {
+        //uninstantiable
+    }
+
+    /**
+     * Returns the path of the binary file written alongside the given parsed text mapping file, e.g. hpMpMapping.pg
+     * is written alongside as hpMpMapping.bin
+     */
+    public static Path binaryFileFor(Path parsedFile) {
+        String fileName = parsedFile.getFileName().toString();
+        int extensionStart = fileName.lastIndexOf('.');
+        String baseName = extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName;
+        return parsedFile.resolveSibling(baseName + ".bin");
+    }
+
+    /**
+     * Reads the mappings from the binary file in the order in which they were written.
+     *
+     * @return the number of mappings read
+     */
+    public static int read(Path binaryFile, Consumer<Mapping> mappingConsumer) throws IOException {
+        try (Reader reader = reader(binaryFile)) {
+            Mapping mapping;
+            while ((mapping = reader.next()) != null) {
+                mappingConsumer.accept(mapping);
+            }
+            return reader.size();
+        }
+    }
+
+    /**
+     * Opens the binary file for reading the mappings one at a time.
+     */
+    public static Reader reader(Path binaryFile) throws IOException {
+        return new Reader(binaryFile);
+    }
+
+    /**
+     * Reads the mappings from a binary file one at a time, in the order in which they were written. The term table is
+     * read when the file is opened.
+     */
+    public static class Reader implements Closeable {
+
+        private final DataInputStream in;
+        private final String[] ids;
+        private final String[] labels;
+        private final int size;
+        private int numRead = 0;
+
+        private Reader(Path binaryFile) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(binaryFile), 1 << 16));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Unrecognised phenotype mapping file " + binaryFile);
+                }
+                int numTerms = in.readInt();
+                this.ids = new String[numTerms];
+                this.labels = new String[numTerms];
+                for (int i = 0; i < numTerms; i++) {
+                    ids[i] = in.readUTF();
+                    labels[i] = in.readUTF();
+                }
+                this.size = in.readInt();
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        /**
+         * @return the number of mappings in the file
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the next mapping or null if all the mappings have been read
+         */
+        public Mapping next() throws IOException {
+            if (numRead == size) {
+                return null;
+            }
+            int mappingId = in.readInt();
+            int query = in.readInt();
+            int hit = in.readInt();
+            float simJ = in.readFloat();
+            float ic = in.readFloat();
+            float score = in.readFloat();
+            int lcs = in.readInt();
+            numRead++;
+            return new Mapping(mappingId, ids[query], labels[query], ids[hit], labels[hit], simJ, ic, score, ids[lcs], labels[lcs]);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    public static Writer writer() {
+        return new Writer();
+    }
+
+    /**
+     * Collects the mappings in primitive arrays as these are parsed, then writes them out sorted by query term.
+     */
+    public static class Writer {
+
+        // id|label -> code in the order first seen
+        private final Map<String, Integer> termCodes = new HashMap<>();
+        private String[] ids = new String[1024];
+        private String[] labels = new String[1024];
+
+        private int size = 0;
+        // mappingId, query, hit, lcs
+        private int[] codes = new int[4 * 1024];
+        // simJ, ic, score
+        private float[] scores = new float[3 * 1024];
+
+        private Writer() {
+        }
+
+        public void add(int mappingId, String queryId, String queryTerm, String hitId, String hitTerm, double simJ, double ic, double score, String lcsId, String lcsTerm) {
+            if (size * 4 == codes.length) {
+                codes = Arrays.copyOf(codes, codes.length * 2);
+                scores = Arrays.copyOf(scores, scores.length * 2);
+            }
+            int codeOffset = size * 4;
+            codes[codeOffset] = mappingId;
+            codes[codeOffset + 1] = termCode(queryId, queryTerm);
+            codes[codeOffset + 2] = termCode(hitId, hitTerm);
+            codes[codeOffset + 3] = termCode(lcsId, lcsTerm);
+            int scoreOffset = size * 3;
+            scores[scoreOffset] = (float) simJ;
+            scores[scoreOffset + 1] = (float) ic;
+            scores[scoreOffset + 2] = (float) score;
+            size++;
+        }
+
+        private int termCode(String id, String label) {
+            return termCodes.computeIfAbsent(id + '|' + label, key -> {
+                int code = termCodes.size();
+                if (code == ids.length) {
+                    ids = Arrays.copyOf(ids, code * 2);
+                    labels = Arrays.copyOf(labels, code * 2);
+                }
+                ids[code] = id;
+                labels[code] = label;
+                return code;
+            });
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void write(Path binaryFile) throws IOException {
+            int numTerms = termCodes.size();
+            // re-code the terms so that the codes are in id order
+            Integer[] termOrder = new Integer[numTerms];
+            for (int i = 0; i < numTerms; i++) {
+                termOrder[i] = i;
+            }
+            Arrays.sort(termOrder, (a, b) -> {
+                int idComparison = ids[a].compareTo(ids[b]);
+                return idComparison != 0 ? idComparison : labels[a].compareTo(labels[b]);
+            });
+            int[] sortedCodes = new int[numTerms];
+            for (int i = 0; i < numTerms; i++) {
+                sortedCodes[termOrder[i]] = i;
+            }
+            // query code in the high bits, position in the low bits so that mappings for the same query keep their
+            // parsed order
+            long[] mappingOrder = new long[size];
+            for (int i = 0; i < size; i++) {
+                mappingOrder[i] = ((long) sortedCodes[codes[i * 4 + 1]] << 32) | i;
+            }
+            Arrays.sort(mappingOrder);
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(binaryFile), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(numTerms);
+                for (Integer code : termOrder) {
+                    out.writeUTF(ids[code]);
+                    out.writeUTF(labels[code]);
+                }
+                out.writeInt(size);
+                for (long key : mappingOrder) {
+                    int i = (int) key;
+                    int codeOffset = i * 4;
+                    int scoreOffset = i * 3;
+                    out.writeInt(codes[codeOffset]);
+                    out.writeInt(sortedCodes[codes[codeOffset + 1]]);
+                    out.writeInt(sortedCodes[codes[codeOffset + 2]]);
+                    out.writeFloat(scores[scoreOffset]);
+                    out.writeFloat(scores[scoreOffset + 1]);
+                    out.writeFloat(scores[scoreOffset + 2]);
+                    out.writeInt(sortedCodes[codes[codeOffset + 3]]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A single row of a phenotype mapping file.
+     */
+    public static class Mapping {
+
+        private final int mappingId;
+        private final String queryId;
+        private final String queryTerm;
+        private final String hitId;
+        private final String hitTerm;
+        private final float simJ;
+        private final float ic;
+        private final float score;
+        private final String lcsId;
+        private final String lcsTerm;
+
+        Mapping(int mappingId, String queryId, String queryTerm, String hitId, String hitTerm, float simJ, float ic, float score, String lcsId, String lcsTerm) {
+            this.mappingId = mappingId;
+            this.queryId = queryId;
+            this.queryTerm = queryTerm;
+            this.hitId = hitId;
+            this.hitTerm = hitTerm;
+            this.simJ = simJ;
+            this.ic = ic;
+            this.score = score;
+            this.lcsId = lcsId;
+            this.lcsTerm = lcsTerm;
+        }
+
+        public int getMappingId() {
+            return mappingId;
+        }
+
+        public String getQueryId() {
+            return queryId;
+        }
+
+        public String getQueryTerm() {
+            return queryTerm;
+        }
+
+        public String getHitId() {
+            return hitId;
+        }
+
+        public String getHitTerm() {
+            return hitTerm;
+        }
+
+        public float getSimJ() {
+            return simJ;
+        }
+
+        public float getIc() {
+            return ic;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        public String getLcsId() {
+            return lcsId;
+        }
+
+        public String getLcsTerm() {
+            return lcsTerm;
+        }
+    }
+}
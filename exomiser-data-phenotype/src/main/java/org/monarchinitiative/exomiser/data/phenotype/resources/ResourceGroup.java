@@ -30,6 +30,8 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -136,6 +138,14 @@ public Resource getResource(String resourceName) {
         return resourcesNameMap.get(resourceName);
     }
 
+    /**
+     * @return all the resources in this group in the order they were added
+     * @since 12.1.0
+     */
+    public Collection<Resource> getResources() {
+        return Collections.unmodifiableCollection(resourcesNameMap.values());
+    }
+
     @Override
     public String toString() {
         return "ResourceGroup{" + "groupName=" + groupName + ", resourceGroupParserClass=" + resourceGroupParserClass + ", resources=" + resourcesClassMap
@@ -32,8 +32,8 @@
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * Handles parsing of classes from the resource objects.
@@ -49,14 +49,29 @@ private ResourceParserHandler() {
     }
 
     public static void parseResources(Iterable<Resource> externalResources, Path inDir, Path outDir) {
+        parseResources(externalResources, inDir, outDir, 1);
+    }
+
+    /**
+     * Parses the resources using the specified number of threads. Resources and resourceGroups which do not read or
+     * write the same files as each other are parsed concurrently.
+     *
+     * @param externalResources
+     * @param inDir
+     * @param outDir
+     * @param numThreads
+     * @since 12.1.0
+     */
+    public static void parseResources(Iterable<Resource> externalResources, Path inDir, Path outDir, int numThreads) {
 
         //there are a lot of resources which need parsing together as a group
         //...like the ESP and dnSNP files
         //...and the OMIM files
         //...and the STRING DB files
-        Map<Class, ResourceGroup> resourceGroupMap = new HashMap<>();
+        Map<Class, ResourceGroup> resourceGroupMap = new LinkedHashMap<>();
         //...and the MetaData 'file' this is really a special case
         Resource metaDataResource = null;
+        List<ResourceParsingExecutor.Task> parsingTasks = new ArrayList<>();
 
         logger.info("Parsing resources:");
         for (Resource resource : externalResources) {
@@ -73,7 +88,8 @@ public static void parseResources(Iterable<Resource> externalResources, Path inD
             if (resourceGroupParserClass == null) {
                 logger.info("Resource {} has no declared resourceGroupParserClass. Attempting to parse as a single resource.", resource
                         .getName());
-                parseResource(resource, inDir, outDir);
+                parsingTasks.add(new ResourceParsingExecutor.Task(resource.getName(), inputFiles(Collections.singleton(resource), inDir), outputFiles(Collections
+                        .singleton(resource), outDir), () -> parseResource(resource, inDir, outDir)));
             } else {
                 logger.info("Resource {} is part of resourceGroup {} - this will be parsed by {}", resource.getName(), resource
                         .getResourceGroupName(), resourceGroupParserClass);
@@ -89,10 +105,15 @@ public static void parseResources(Iterable<Resource> externalResources, Path inD
         }
 
         //parse the ResourceGroups
-        logger.info("Parsing resourceGroups:");
         for (ResourceGroup resourceGroup : resourceGroupMap.values()) {
-            parseResourceGroup(resourceGroup, inDir, outDir);
+            //the group names are not unique, so use the name of the parser for these
+            String taskName = resourceGroup.getParserClass().getSimpleName();
+            parsingTasks.add(new ResourceParsingExecutor.Task(taskName, inputFiles(resourceGroup.getResources(), inDir), outputFiles(resourceGroup
+                    .getResources(), outDir), () -> parseResourceGroup(resourceGroup, inDir, outDir)));
         }
+        logger.info("Parsing resources and resourceGroups:");
+        new ResourceParsingExecutor(numThreads).run(parsingTasks);
+
         //do the metadata
         logger.info("Parsing metadata:");
         if (metaDataResource != null) {
@@ -103,6 +124,25 @@ public static void parseResources(Iterable<Resource> externalResources, Path inD
         logger.info("Done parsing.");
     }
 
+    private static Set<Path> inputFiles(Collection<Resource> resources, Path inDir) {
+        return resolveFileNames(resources, Resource::getExtractedFileName, inDir);
+    }
+
+    private static Set<Path> outputFiles(Collection<Resource> resources, Path outDir) {
+        return resolveFileNames(resources, Resource::getParsedFileName, outDir);
+    }
+
+    private static Set<Path> resolveFileNames(Collection<Resource> resources, Function<Resource, String> fileNameFunction, Path dir) {
+        Set<Path> paths = new HashSet<>();
+        for (Resource resource : resources) {
+            String fileName = fileNameFunction.apply(resource);
+            if (fileName != null && !fileName.isEmpty()) {
+                paths.add(dir.resolve(fileName).toAbsolutePath().normalize());
+            }
+        }
+        return paths;
+    }
+
     public static void parseResource(Resource resource, Path inDir, Path outDir) {
         try {
             logger.info("Parsing resource: {} file: {} using parser: {}", resource.getName(), resource.getExtractedFileName(), resource
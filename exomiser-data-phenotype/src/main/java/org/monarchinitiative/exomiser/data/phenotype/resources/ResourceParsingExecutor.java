@@ -0,0 +1,156 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.phenotype.resources;
+
+import org.monarchinitiative.exomiser.data.phenotype.parsers.ResourceParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs the parsing of {@link ResourceGroup} and single {@link Resource} concurrently where they do not depend on each
+ * other. Each task declares the files it reads and writes. A task will only start once all the earlier tasks writing a
+ * file it reads or writes, or reading a file it writes, have finished. Tasks with no such dependencies are run
+ * concurrently, so the output files are the same as if the tasks were run one after another in the order given.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+class ResourceParsingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceParsingExecutor.class);
+
+    private final int numThreads;
+
+    ResourceParsingExecutor(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1, but was " + numThreads);
+        }
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Runs the tasks and waits for them all to finish.
+     *
+     * @param tasks the tasks to run in the order they would be run sequentially
+     * @return the time taken by each task, in the order of the input tasks
+     * @throws ResourceParserException if any of the tasks failed
+     */
+    Map<String, Duration> run(List<Task> tasks) {
+        Map<String, Duration> taskDurations = new ConcurrentHashMap<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        Instant start = Instant.now();
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    if (task.dependsOn(tasks.get(j))) {
+                        logger.debug("{} will be parsed after {}", task.getName(), tasks.get(j).getName());
+                        dependencies.add(futures.get(j));
+                    }
+                }
+                CompletableFuture<Void> future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                        .thenRunAsync(() -> taskDurations.put(task.getName(), runTask(task)), executorService);
+                futures.add(future);
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            throw cause instanceof ResourceParserException ? (ResourceParserException) cause : new ResourceParserException(cause);
+        } finally {
+            executorService.shutdown();
+        }
+        logger.info("Parsed {} resources using {} threads in {} ms", tasks.size(), numThreads, Duration.between(start, Instant.now()).toMillis());
+
+        Map<String, Duration> orderedDurations = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            Duration duration = taskDurations.get(task.getName());
+            logger.info("{} - {} ms", task.getName(), duration.toMillis());
+            orderedDurations.put(task.getName(), duration);
+        }
+        return orderedDurations;
+    }
+
+    private Duration runTask(Task task) {
+        logger.info("Starting to parse {}", task.getName());
+        Instant start = Instant.now();
+        task.run();
+        Duration duration = Duration.between(start, Instant.now());
+        logger.info("Finished parsing {} in {} ms", task.getName(), duration.toMillis());
+        return duration;
+    }
+
+    /**
+     * A unit of parsing work and the files it reads and writes.
+     */
+    static class Task {
+
+        private final String name;
+        private final Set<Path> inputs;
+        private final Set<Path> outputs;
+        private final Runnable parser;
+
+        Task(String name, Set<Path> inputs, Set<Path> outputs, Runnable parser) {
+            this.name = name;
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.parser = parser;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Set<Path> getInputs() {
+            return inputs;
+        }
+
+        Set<Path> getOutputs() {
+            return outputs;
+        }
+
+        void run() {
+            parser.run();
+        }
+
+        boolean dependsOn(Task other) {
+            return !Collections.disjoint(inputs, other.outputs)
+                    || !Collections.disjoint(outputs, other.outputs)
+                    || !Collections.disjoint(outputs, other.inputs);
+        }
+
+        @Override
+        public String toString() {
+            return "Task{" +
+                    "name='" + name + '\'' +
+                    ", inputs=" + inputs +
+                    ", outputs=" + outputs +
+                    '}';
+        }
+    }
+}
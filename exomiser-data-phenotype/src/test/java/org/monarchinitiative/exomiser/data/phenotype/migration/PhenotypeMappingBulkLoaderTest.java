@@ -0,0 +1,167 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.data.phenotype.migration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.monarchinitiative.exomiser.data.phenotype.parsers.HPMPMapperParser;
+import org.monarchinitiative.exomiser.data.phenotype.parsers.PhenotypeMappingFile;
+import org.monarchinitiative.exomiser.data.phenotype.resources.Resource;
+import org.monarchinitiative.exomiser.data.phenotype.resources.ResourceOperationStatus;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+class PhenotypeMappingBulkLoaderTest {
+
+    private static final String COLUMNS = "mapping_id|hp_id|hp_term|mp_id|mp_term|simJ|ic|score|lcs_id|lcs_term";
+
+    private static final String CREATE_TABLE = "CREATE TABLE %s (mapping_id INTEGER, hp_id CHARACTER VARYING(10), " +
+            "hp_term CHARACTER VARYING(200), mp_id CHARACTER VARYING(10), mp_term CHARACTER VARYING(200), " +
+            "simJ DOUBLE PRECISION, ic DOUBLE PRECISION, score DOUBLE PRECISION, lcs_id CHARACTER VARYING(20), " +
+            "lcs_term CHARACTER VARYING(150))";
+
+    private Path parseRandomHpMpMappings(Path tempDir) throws Exception {
+        Map<String, String> hpId2termMap = new HashMap<>();
+        Map<String, String> mpId2termMap = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            // leave some terms without a label
+            if (i % 10 != 0) {
+                hpId2termMap.put(String.format("HP:%07d", i), "Human phenotype " + i);
+                mpId2termMap.put(String.format("MP:%07d", i), "Mouse phenotype " + i);
+            }
+        }
+        Random random = new Random(46);
+        Path inFile = tempDir.resolve("hp-mp-mappings.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(inFile)) {
+            for (int i = 0; i < 2500; i++) {
+                String lcs = random.nextBoolean() ? String.format("HP_%07d", random.nextInt(50)) : String.format("MP_%07d", random.nextInt(50));
+                writer.write(String.format("HP_%07d\tMP_%07d\t%s\t%s\t%s;%s%n", random.nextInt(50), random.nextInt(50),
+                        random.nextDouble(), random.nextDouble() * 10, lcs, "MP_0000001"));
+            }
+        }
+        Resource resource = new Resource("HP-MP");
+        resource.setExtractedFileName("hp-mp-mappings.txt");
+        resource.setParsedFileName("hpMpMapping.pg");
+        new HPMPMapperParser(hpId2termMap, mpId2termMap).parseResource(resource, tempDir, tempDir);
+        assertThat(resource.getParseStatus(), equalTo(ResourceOperationStatus.SUCCESS));
+        return tempDir.resolve("hpMpMapping.pg");
+    }
+
+    private List<List<Object>> selectRows(Connection connection, String tableName) throws SQLException {
+        List<List<Object>> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + tableName + " ORDER BY mapping_id")) {
+            int numColumns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                List<Object> row = new ArrayList<>();
+                for (int i = 1; i <= numColumns; i++) {
+                    row.add(resultSet.getObject(i));
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void binaryFileIsSortedByQueryTerm(@TempDirectory.TempDir Path tempDir) throws Exception {
+        Path parsedFile = parseRandomHpMpMappings(tempDir);
+        List<String> queryIds = new ArrayList<>();
+        int count = PhenotypeMappingFile.read(PhenotypeMappingFile.binaryFileFor(parsedFile), mapping -> queryIds.add(mapping.getQueryId()));
+
+        assertThat(count, equalTo(2500));
+        List<String> sortedQueryIds = new ArrayList<>(queryIds);
+        Collections.sort(sortedQueryIds);
+        assertThat(queryIds, equalTo(sortedQueryIds));
+    }
+
+    @Test
+    void loadBinaryInsertsSameRowCountAndSampledValuesAsCsvRead(@TempDirectory.TempDir Path tempDir) throws Exception {
+        Path parsedFile = parseRandomHpMpMappings(tempDir);
+        Path binaryFile = PhenotypeMappingFile.binaryFileFor(parsedFile);
+        assertThat(Files.exists(binaryFile), is(true));
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:bulkLoaderTest")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(String.format(CREATE_TABLE, "hp_mp_csv"));
+                statement.execute(String.format(CREATE_TABLE, "hp_mp_binary"));
+            }
+            int csvCount = PhenotypeMappingBulkLoader.loadCsv(connection, "hp_mp_csv", parsedFile, COLUMNS, "NULL");
+            int binaryCount = PhenotypeMappingBulkLoader.loadBinary(connection, "hp_mp_binary", binaryFile, "NULL");
+            assertThat(binaryCount, equalTo(csvCount));
+            assertThat(binaryCount, equalTo(2500));
+
+            List<List<Object>> csvRows = selectRows(connection, "hp_mp_csv");
+            List<List<Object>> binaryRows = selectRows(connection, "hp_mp_binary");
+            assertThat(binaryRows.size(), equalTo(csvRows.size()));
+            Random random = new Random(46);
+            for (int sample = 0; sample < 250; sample++) {
+                int i = random.nextInt(csvRows.size());
+                List<Object> csvRow = csvRows.get(i);
+                List<Object> binaryRow = binaryRows.get(i);
+                for (int column = 0; column < csvRow.size(); column++) {
+                    Object csvValue = csvRow.get(column);
+                    Object binaryValue = binaryRow.get(column);
+                    if (csvValue instanceof Double) {
+                        // the binary file holds the scores as floats
+                        double csvDouble = (Double) csvValue;
+                        assertThat(binaryValue, instanceOf(Double.class));
+                        assertThat((Double) binaryValue, closeTo(csvDouble, Math.ulp((float) csvDouble)));
+                    } else {
+                        assertThat(binaryValue, equalTo(csvValue));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void loadBinaryLeavesNoFunctionAliasInDatabase(@TempDirectory.TempDir Path tempDir) throws Exception {
+        Path parsedFile = parseRandomHpMpMappings(tempDir);
+        Path binaryFile = PhenotypeMappingFile.binaryFileFor(parsedFile);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:bulkLoaderAliasTest")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(String.format(CREATE_TABLE, "hp_mp_binary"));
+            }
+            PhenotypeMappingBulkLoader.loadBinary(connection, "hp_mp_binary", binaryFile, "NULL");
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.FUNCTION_ALIASES")) {
+                resultSet.next();
+                assertThat(resultSet.getInt(1), equalTo(0));
+            }
+        }
+    }
+}
@@ -31,11 +31,15 @@
 import org.junitpioneer.jupiter.TempDirectory;
 import org.monarchinitiative.exomiser.data.phenotype.resources.Resource;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -66,4 +70,26 @@ public void testParseHPO(@TempDirectory.TempDir Path tempDir) throws Exception {
         assertTrue(tempDir.resolve("hpo.pg").toFile().exists());
     }
 
+    @Test
+    @ExtendWith(TempDirectory.class)
+    public void testParseHPOWritesCurrentTermsAndAltIds(@TempDirectory.TempDir Path tempDir) throws Exception {
+        Resource testResource = new Resource("HPO");
+        testResource.setExtractedFileName("hp.obo");
+        testResource.setParsedFileName("hpo.pg");
+
+        Map<String, String> hpId2termMap = new HashMap<>();
+        HPOOntologyFileParser instance = new HPOOntologyFileParser(hpId2termMap);
+        instance.parseResource(testResource, Paths.get("src/test/resources/data"), tempDir);
+
+        OboOntology oboOntology = OboOntologyParser.parseOboFile(Paths.get("src/test/resources/data/hp.obo"));
+        List<String> expectedTerms = new ArrayList<>();
+        oboOntology.getCurrentOntologyTerms().forEach(term -> expectedTerms.add(term.getId() + "|" + term.getLabel()));
+        List<String> expectedAltIds = new ArrayList<>();
+        oboOntology.getIdToTerms().forEach((altId, term) -> expectedAltIds.add(altId + "|" + term.getId()));
+
+        assertEquals(expectedTerms, Files.readAllLines(tempDir.resolve("hpo.pg")));
+        assertEquals(expectedAltIds, Files.readAllLines(tempDir.resolve("hp_alt_ids.pg")));
+        assertEquals(expectedTerms.size(), hpId2termMap.size());
+        assertEquals(oboOntology.getDataVersion(), testResource.getVersion());
+    }
 }
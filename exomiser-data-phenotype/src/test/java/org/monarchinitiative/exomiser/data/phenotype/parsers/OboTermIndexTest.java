@@ -0,0 +1,191 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.phenotype.parsers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+class OboTermIndexTest {
+
+    private static final int NUM_SYNTHETIC_TERMS = 200_000;
+
+    private static List<String> idToCurrentTermIds(OboTermIndex termIndex) {
+        List<String> idToCurrentTermIds = new ArrayList<>();
+        termIndex.forEachIdToCurrentTermId((id, currentId) -> idToCurrentTermIds.add(id + "|" + currentId));
+        return idToCurrentTermIds;
+    }
+
+    private static List<String> idToCurrentTermIds(OboOntology oboOntology) {
+        List<String> idToCurrentTermIds = new ArrayList<>();
+        oboOntology.getIdToTerms().forEach((id, term) -> idToCurrentTermIds.add(id + "|" + term.getId()));
+        return idToCurrentTermIds;
+    }
+
+    private static List<String> termIds(OboTermIndex termIndex, boolean obsolete) {
+        List<String> termIds = new ArrayList<>();
+        for (int term = 0; term < termIndex.size(); term++) {
+            if (termIndex.isObsolete(term) == obsolete) {
+                termIds.add(termIndex.getTermId(term));
+            }
+        }
+        return termIds;
+    }
+
+    private static List<String> termIds(List<OboOntologyTerm> terms) {
+        List<String> termIds = new ArrayList<>();
+        terms.forEach(term -> termIds.add(term.getId()));
+        return termIds;
+    }
+
+    private void assertSameAsOboOntology(Path oboFile) {
+        OboTermIndex instance = OboTermIndex.build(oboFile, term -> {});
+        OboOntology oboOntology = OboOntologyParser.parseOboFile(oboFile);
+
+        assertThat(instance.getDataVersion(), equalTo(oboOntology.getDataVersion()));
+        assertThat(termIds(instance, false), equalTo(termIds(oboOntology.getCurrentOntologyTerms())));
+        assertThat(termIds(instance, true), equalTo(termIds(oboOntology.getObsoleteOntologyTerms())));
+        assertThat(idToCurrentTermIds(instance), equalTo(idToCurrentTermIds(oboOntology)));
+    }
+
+    @Test
+    void sameTermsAndAltIdsAsOboOntologyForHpo() {
+        assertSameAsOboOntology(Paths.get("src/test/resources/data/hp.obo"));
+    }
+
+    @Test
+    void sameTermsAndAltIdsAsOboOntologyForEdgeCases(@TempDir Path tempDir) throws IOException {
+        Path oboFile = tempDir.resolve("test.obo");
+        Files.write(oboFile, Arrays.asList(
+                "format-version: 1.2",
+                "data-version: releases/2019-02-12",
+                "",
+                "[Term]",
+                "id: TEST:0000004",
+                "name: obsolete replaced by a term later in the file",
+                "is_obsolete: true",
+                "alt_id: TEST:0000014",
+                "replaced_by: TEST:0000001",
+                "",
+                "[Term]",
+                "id: TEST:0000001",
+                "name: Term one",
+                "alt_id: TEST:0000011",
+                "",
+                "[Term]",
+                "id: TEST:0000002",
+                "name: Term two with an alt_id already used",
+                "alt_id: TEST:0000011",
+                "alt_id: TEST:0000012",
+                "",
+                "[Term]",
+                "id: TEST:0000005",
+                "name: obsolete replaced by an obsolete term",
+                "is_obsolete: true",
+                "replaced_by: TEST:0000004",
+                "",
+                "[Term]",
+                "id: TEST:0000006",
+                "name: obsolete replaced by an unknown term",
+                "is_obsolete: true",
+                "replaced_by: TEST:9999999",
+                "",
+                "[Term]",
+                "id: TEST:0000007",
+                "name: obsolete with no replacement",
+                "is_obsolete: true",
+                "",
+                "[Term]",
+                "id: TEST:0000008",
+                "name: last term without a trailing empty line"
+        ));
+        assertSameAsOboOntology(oboFile);
+
+        OboTermIndex instance = OboTermIndex.build(oboFile, term -> {});
+        assertThat(instance.getDataVersion(), equalTo("releases/2019-02-12"));
+        assertThat(idToCurrentTermIds(instance), equalTo(Arrays.asList(
+                "TEST:0000001|TEST:0000001",
+                "TEST:0000011|TEST:0000002",
+                "TEST:0000002|TEST:0000002",
+                "TEST:0000012|TEST:0000002",
+                "TEST:0000004|TEST:0000001",
+                "TEST:0000014|TEST:0000001",
+                "TEST:0000005|TEST:0000001"
+        )));
+    }
+
+    private static void writeSyntheticOntology(Path oboFile, int numTerms) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(oboFile, StandardCharsets.UTF_8)) {
+            writer.write("format-version: 1.2\ndata-version: synthetic\n\n");
+            for (int i = 0; i < numTerms; i++) {
+                writer.write(String.format("[Term]%nid: SYN:%07d%nname: Synthetic phenotype term number %d%n", i, i));
+                writer.write("def: \"A synthetic term used for testing the parsing of a large ontology.\" []\n");
+                if (i % 10 == 0) {
+                    writer.write(String.format("alt_id: SYN:%07d%n", numTerms + i));
+                }
+                if (i % 20 == 19) {
+                    writer.write(String.format("is_obsolete: true%nreplaced_by: SYN:%07d%n", i - 1));
+                } else if (i > 0) {
+                    writer.write(String.format("is_a: SYN:%07d ! Synthetic phenotype term number %d%n", i - 1, i - 1));
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    @Test
+    void indexOfLargeOntologyHasEveryTermAndIdMapping(@TempDir Path tempDir) throws IOException {
+        Path oboFile = tempDir.resolve("synthetic.obo");
+        writeSyntheticOntology(oboFile, NUM_SYNTHETIC_TERMS);
+
+        int[] numTermsStreamed = {0};
+        OboTermIndex instance = OboTermIndex.build(oboFile, term -> numTermsStreamed[0]++);
+
+        assertThat(numTermsStreamed[0], equalTo(NUM_SYNTHETIC_TERMS));
+        assertThat(instance.size(), equalTo(NUM_SYNTHETIC_TERMS));
+        assertThat(instance.getTermId(NUM_SYNTHETIC_TERMS - 1), equalTo(String.format("SYN:%07d", NUM_SYNTHETIC_TERMS - 1)));
+        assertThat(termIds(instance, true).size(), equalTo(NUM_SYNTHETIC_TERMS / 20));
+        // the current terms, their alt_ids and the obsolete terms and their alt_ids
+        List<String> idToCurrentTermIds = idToCurrentTermIds(instance);
+        assertThat(idToCurrentTermIds.size(), equalTo(NUM_SYNTHETIC_TERMS + NUM_SYNTHETIC_TERMS / 10));
+        assertThat(idToCurrentTermIds.contains("SYN:0000018|SYN:0000018"), equalTo(true));
+        assertThat(idToCurrentTermIds.contains(String.format("SYN:%07d|SYN:0000010", NUM_SYNTHETIC_TERMS + 10)), equalTo(true));
+        assertThat(idToCurrentTermIds.contains("SYN:0000019|SYN:0000018"), equalTo(true));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.data.phenotype.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.junitpioneer.jupiter.TempDirectory.TempDir;
+import org.monarchinitiative.exomiser.data.phenotype.parsers.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+class ResourceParserHandlerTest {
+
+    private final Path testResourceDir = Paths.get("src/test/resources/data");
+
+    private Resource resource(String name, Class<? extends ResourceParser> parserClass, String extractedFileName, String parsedFileName) {
+        Resource resource = new Resource(name);
+        resource.setParserClass(parserClass);
+        resource.setExtractedFileName(extractedFileName);
+        resource.setParsedFileName(parsedFileName);
+        return resource;
+    }
+
+    private Resource groupResource(String name, Class<? extends ResourceParser> parserClass, String extractedFileName, String parsedFileName, Class<? extends ResourceGroupParser> groupParserClass) {
+        Resource resource = resource(name, parserClass, extractedFileName, parsedFileName);
+        resource.setResourceGroupName(groupParserClass.getSimpleName());
+        resource.setResourceGroupParserClass(groupParserClass);
+        return resource;
+    }
+
+    private List<Resource> makeResources() {
+        return Arrays.asList(
+                groupResource("OMIM_mim2gene", MimToGeneParser.class, "mim2gene.txt", "omim.pg", OmimResourceGroupParser.class),
+                groupResource("OMIM_morbidmap", MorbidMapParser.class, "morbidmap.txt", "omim.pg", OmimResourceGroupParser.class),
+                groupResource("HPO_phenotype_annotations", DiseaseInheritanceCache.class, "phenotype_annotation_test.tab", "omim.pg", OmimResourceGroupParser.class),
+                resource("Disease_phenotypes", DiseasePhenotypeParser.class, "phenotype_annotation_test.tab", "diseaseHp.pg"),
+                groupResource("Fish_phenotypes", FishPhenotypeParser.class, "Dr_gene_phenotype.txt", "fishZp.pg", FishResourceGroupParser.class),
+                groupResource("Fish_orthologs", FishOrthologParser.class, "human_orthos.txt", "human2fishOrthologs.pg", FishResourceGroupParser.class),
+                groupResource("Fish_gene_labels", FishGeneLabelParser.class, "Dr_gene_labels.txt", "fishZp.pg", FishResourceGroupParser.class),
+                // writes the same output as the Disease_phenotypes so must be parsed after it
+                resource("Other_disease_phenotypes", DiseasePhenotypeParser.class, "other_phenotype_annotation.tab", "diseaseHp.pg")
+        );
+    }
+
+    private Path setUpInputDir(Path tempDir) throws IOException {
+        Path inDir = Files.createDirectory(tempDir.resolve("in"));
+        for (String fileName : Arrays.asList("mim2gene.txt", "morbidmap.txt", "phenotype_annotation_test.tab")) {
+            Files.copy(testResourceDir.resolve(fileName), inDir.resolve(fileName));
+        }
+        Files.write(inDir.resolve("Dr_gene_labels.txt"), Arrays.asList(
+                "ZDB-GENE-000112-47\tfgfr2",
+                "ZDB-GENE-990415-8\tapc"));
+        Files.write(inDir.resolve("Dr_gene_phenotype.txt"), Arrays.asList(
+                "ZDB-GENE-000112-47\tZP:0000001",
+                "ZDB-GENE-000112-47\tZP:0000002",
+                "ZDB-GENE-990415-8\tZP:0000003",
+                "ZDB-GENE-990415-8\tGO:0000001"));
+        Files.write(inDir.resolve("human_orthos.txt"), Arrays.asList(
+                "ZDB-GENE-000112-47\tfgfr2\tfibroblast growth factor receptor 2\tFGFR2\tfibroblast growth factor receptor 2\t147\t2263",
+                "ZDB-GENE-990415-8\tapc\tAPC regulator of WNT signaling pathway\tAPC\tAPC regulator of WNT signaling pathway\t611731\t324"));
+        Files.write(inDir.resolve("other_phenotype_annotation.tab"), Arrays.asList(
+                "OMIM\t101600\tPFEIFFER SYNDROME\t\tHP:0000244\tOMIM:101600\tIEA\t\t\t\tO\t\t2013.05.29\tHPO:skoehler",
+                "OMIM\t101600\tPFEIFFER SYNDROME\t\tHP:0011304\tOMIM:101600\tIEA\t\t\t\tO\t\t2013.05.29\tHPO:skoehler"));
+        return inDir;
+    }
+
+    private List<String> listFileNames(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(toList());
+        }
+    }
+
+    @Test
+    void parallelParsingWritesSameFilesAsSequentialParsing(@TempDir Path tempDir) throws IOException {
+        Path inDir = setUpInputDir(tempDir);
+
+        Path sequentialOutDir = Files.createDirectory(tempDir.resolve("sequential"));
+        List<Resource> sequentialResources = makeResources();
+        ResourceParserHandler.parseResources(sequentialResources, inDir, sequentialOutDir);
+
+        Path parallelOutDir = Files.createDirectory(tempDir.resolve("parallel"));
+        List<Resource> parallelResources = makeResources();
+        ResourceParserHandler.parseResources(parallelResources, inDir, parallelOutDir, 4);
+
+        List<String> sequentialFileNames = listFileNames(sequentialOutDir);
+        assertThat(sequentialFileNames, equalTo(Arrays.asList("diseaseHp.pg", "fishZp.pg", "human2fishOrthologs.pg", "omim.pg")));
+        assertThat(listFileNames(parallelOutDir), equalTo(sequentialFileNames));
+        for (String fileName : sequentialFileNames) {
+            byte[] expected = Files.readAllBytes(sequentialOutDir.resolve(fileName));
+            byte[] actual = Files.readAllBytes(parallelOutDir.resolve(fileName));
+            assertThat(fileName + " differs", Arrays.equals(actual, expected), is(true));
+        }
+        // the last resource writing to a file wins, as it would when run sequentially
+        assertThat(new String(Files.readAllBytes(parallelOutDir.resolve("diseaseHp.pg"))).startsWith("OMIM:101600|"), is(true));
+
+        for (int i = 0; i < sequentialResources.size(); i++) {
+            assertThat(parallelResources.get(i).getParseStatus(), equalTo(sequentialResources.get(i).getParseStatus()));
+        }
+    }
+
+    @Test
+    void executorRunsDependentTasksInOrder() {
+        Path a = Paths.get("a.txt");
+        Path b = Paths.get("b.txt");
+        Path c = Paths.get("c.txt");
+        List<String> finished = Collections.synchronizedList(new ArrayList<>());
+        ResourceParsingExecutor.Task slowWriteB = new ResourceParsingExecutor.Task("writesB", Collections.singleton(a), Collections.singleton(b), () -> {
+            sleep(100);
+            finished.add("writesB");
+        });
+        ResourceParsingExecutor.Task independent = new ResourceParsingExecutor.Task("independent", Collections.singleton(a), Collections.singleton(c), () -> finished.add("independent"));
+        ResourceParsingExecutor.Task readB = new ResourceParsingExecutor.Task("readsB", Collections.singleton(b), Collections.emptySet(), () -> finished.add("readsB"));
+
+        assertThat(independent.dependsOn(slowWriteB), is(false));
+        assertThat(readB.dependsOn(slowWriteB), is(true));
+
+        Map<String, ?> durations = new ResourceParsingExecutor(2).run(Arrays.asList(slowWriteB, independent, readB));
+
+        assertThat(new ArrayList<>(durations.keySet()), equalTo(Arrays.asList("writesB", "independent", "readsB")));
+        assertThat(finished, equalTo(Arrays.asList("independent", "writesB", "readsB")));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
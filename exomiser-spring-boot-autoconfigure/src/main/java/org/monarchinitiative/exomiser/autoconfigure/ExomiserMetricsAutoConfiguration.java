@@ -0,0 +1,53 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.autoconfigure;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.monarchinitiative.exomiser.autoconfigure.genome.DataLookupMetrics;
+import org.monarchinitiative.exomiser.autoconfigure.genome.GenomeAnalysisServiceAutoConfiguration;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Exposes the Exomiser metrics as {@link MeterBinder} beans when Micrometer is on the classpath. These are bound to
+ * any {@link io.micrometer.core.instrument.MeterRegistry} configured by the application, for instance by the Spring
+ * Boot actuator.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+@Configuration
+@ConditionalOnClass({MeterBinder.class, GenomeAnalysisService.class})
+@AutoConfigureAfter(GenomeAnalysisServiceAutoConfiguration.class)
+public class ExomiserMetricsAutoConfiguration {
+
+    @Bean
+    public DataLookupMetrics dataLookupMetrics(ObjectProvider<GenomeAnalysisService> genomeAnalysisServices) {
+        return new DataLookupMetrics(genomeAnalysisServices.orderedStream().collect(toList()));
+    }
+}
@@ -53,6 +53,9 @@ public abstract class AbstractGenomeProperties implements GenomeProperties {
     // datastore
     private String testPathogenicityScorePath = "";
 
+    // Optional maximum number of variant annotations to cache across analyses. Zero disables the cache.
+    private long variantAnnotationCacheSize = 0;
+
     @Override
     public Path getDataDirectory() {
         return dataDirectory;
@@ -149,4 +152,12 @@ public String getTestPathogenicityScorePath() {
     public void setTestPathogenicityScorePath(String testPathogenicityScorePath) {
         this.testPathogenicityScorePath = testPathogenicityScorePath;
     }
+
+    public long getVariantAnnotationCacheSize() {
+        return variantAnnotationCacheSize;
+    }
+
+    public void setVariantAnnotationCacheSize(long variantAnnotationCacheSize) {
+        this.variantAnnotationCacheSize = variantAnnotationCacheSize;
+    }
 }
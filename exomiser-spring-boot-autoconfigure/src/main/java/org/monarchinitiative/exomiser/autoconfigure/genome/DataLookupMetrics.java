@@ -0,0 +1,60 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+
+import java.util.List;
+
+/**
+ * Binds the number of data source lookups made by each {@link GenomeAnalysisService} to a {@link MeterRegistry} as
+ * the {@code exomiser.data.lookups} counter, tagged with the genome assembly and data source.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class DataLookupMetrics implements MeterBinder {
+
+    static final String METER_NAME = "exomiser.data.lookups";
+
+    private final List<GenomeAnalysisService> genomeAnalysisServices;
+
+    public DataLookupMetrics(List<GenomeAnalysisService> genomeAnalysisServices) {
+        this.genomeAnalysisServices = genomeAnalysisServices;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (GenomeAnalysisService genomeAnalysisService : genomeAnalysisServices) {
+            for (String source : genomeAnalysisService.getDataLookupCounts().keySet()) {
+                FunctionCounter.builder(METER_NAME, genomeAnalysisService, service -> service.getDataLookupCounts().getOrDefault(source, 0L))
+                        .description("The number of variant data lookups made against a data source")
+                        .tag("assembly", genomeAnalysisService.getGenomeAssembly().toString())
+                        .tag("source", source)
+                        .register(registry);
+            }
+        }
+    }
+}
@@ -91,7 +91,13 @@ public void closeMvStore() {
 
     protected VariantAnnotator buildVariantAnnotator() {
         ChromosomalRegionIndex<RegulatoryFeature> regulatoryRegionIndex = genomeDataService().getRegulatoryRegionIndex();
-        return new JannovarVariantAnnotator(genomeProperties.getAssembly(), jannovarData, regulatoryRegionIndex);
+        VariantAnnotator jannovarVariantAnnotator = new JannovarVariantAnnotator(genomeProperties.getAssembly(), jannovarData, regulatoryRegionIndex);
+        long cacheSize = genomeProperties.getVariantAnnotationCacheSize();
+        if (cacheSize > 0) {
+            logger.debug("Caching up to {} {} variant annotations", cacheSize, genomeProperties.getAssembly());
+            return new CachingVariantAnnotator(jannovarVariantAnnotator, cacheSize);
+        }
+        return jannovarVariantAnnotator;
     }
 
     protected VariantFactory buildVariantFactory() {
@@ -100,10 +106,8 @@ protected VariantFactory buildVariantFactory() {
 
     //This method is calling the public interface of the concrete implementation so that the caching works on the DAOs
     protected VariantDataService buildVariantDataService() {
-        AllelePropertiesDaoAdapter allelePropertiesDaoAdapter = new AllelePropertiesDaoAdapter(allelePropertiesDao());
         return VariantDataServiceImpl.builder()
-                .defaultFrequencyDao(allelePropertiesDaoAdapter)
-                .defaultPathogenicityDao(allelePropertiesDaoAdapter)
+                .allelePropertiesDao(allelePropertiesDao())
                 .localFrequencyDao(localFrequencyDao())
                 .remmDao(remmDao())
                 .caddDao(caddDao())
@@ -20,7 +20,6 @@
 
 package org.monarchinitiative.exomiser.autoconfigure.genome;
 
-import com.google.common.collect.ImmutableSet;
 import de.charite.compbio.jannovar.data.JannovarData;
 import org.h2.mvstore.MVStore;
 import org.monarchinitiative.exomiser.core.genome.Contig;
@@ -29,19 +28,18 @@
 import org.monarchinitiative.exomiser.core.genome.dao.TabixDataSource;
 import org.monarchinitiative.exomiser.core.genome.dao.VariantWhiteList;
 import org.monarchinitiative.exomiser.core.genome.jannovar.JannovarDataSourceLoader;
-import org.monarchinitiative.exomiser.core.proto.AlleleProto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.zip.CRC32;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -79,7 +77,9 @@ private GenomeDataSourceLoader(GenomeDataSources genomeDataSources) {
         logger.debug("Opening MVStore from {}", mvStoreAbsolutePath);
         this.mvStore = MvStoreDataSourceLoader.openMvStore(mvStoreAbsolutePath);
 
-        this.variantWhiteList = loadVariantWhiteList(genomeDataSources.getVariantWhiteListPath());
+        this.variantWhiteList = genomeDataSources.getVariantWhiteListPath()
+                .map(GenomeDataSourceLoader::loadVariantWhiteList)
+                .orElseGet(InMemoryVariantWhiteList::empty);
 
         this.localFrequencyTabixDataSource = getTabixDataSourceOrDefault("LOCAL", genomeDataSources.getLocalFrequencyPath());
         this.caddSnvTabixDataSource = getTabixDataSourceOrDefault("CADD snv", genomeDataSources.getCaddSnvPath());
@@ -88,43 +88,144 @@ private GenomeDataSourceLoader(GenomeDataSources genomeDataSources) {
         this.testPathogenicityTabixDataSource = getTabixDataSourceOrDefault("TEST", genomeDataSources.getTestPathogenicityPath());
     }
 
-    private VariantWhiteList loadVariantWhiteList(Optional<Path> variantWhiteListPath) {
-        if (variantWhiteListPath.isPresent()) {
-            Path whiteListPath = variantWhiteListPath.get();
-            logger.info("Loading variant whitelist from: {}", whiteListPath);
-            // this should be a tabix-indexed gzip file
-            ImmutableSet.Builder<AlleleProto.AlleleKey> whiteListBuilder = new ImmutableSet.Builder<>();
-            try(BufferedReader  bufferedReader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(whiteListPath)), StandardCharsets.UTF_8))){
-                String line;
-                while ((line = bufferedReader.readLine()) != null) {
-                    if (line.startsWith("#")) {
-                        // comment line
-                        continue;
-                    }
-                    String[] tokens = line.split("\t");
-                    if (tokens.length < 4) {
-                        logger.error("Error parsing variant whitelist. Require minimum 4 tokens in line {}", line);
-                        continue;
-                    }
-                    // Exomiser - simple VCF format
-                    AlleleProto.AlleleKey alleleKey = AlleleProto.AlleleKey.newBuilder()
-                            .setChr(Contig.parseId(tokens[0]))
-                            .setPosition(Integer.parseInt(tokens[1]))
-                            .setRef(tokens[2])
-                            .setAlt(tokens[3])
-                            .build();
-                    whiteListBuilder.add(alleleKey);
+    static InMemoryVariantWhiteList loadVariantWhiteList(Path whiteListPath) {
+        Path binaryWhiteListPath = binaryWhiteListPath(whiteListPath);
+        SourceStamp sourceStamp = SourceStamp.of(whiteListPath);
+        if (Files.isRegularFile(binaryWhiteListPath)) {
+            try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(binaryWhiteListPath)))) {
+                if (sourceStamp.equals(SourceStamp.read(inputStream))) {
+                    logger.info("Loading variant whitelist from: {}", binaryWhiteListPath);
+                    InMemoryVariantWhiteList whiteList = InMemoryVariantWhiteList.read(inputStream);
+                    logger.info("Loaded {} variants into whitelist", whiteList.size());
+                    return whiteList;
+                }
+                logger.info("Binary variant whitelist {} was not written from the current {} - rebuilding", binaryWhiteListPath, whiteListPath);
+            } catch (IOException e) {
+                logger.warn("Unable to read binary variant whitelist {} - reverting to {}", binaryWhiteListPath, whiteListPath, e);
+            }
+        }
+        logger.info("Loading variant whitelist from: {}", whiteListPath);
+        // this should be a tabix-indexed gzip file
+        InMemoryVariantWhiteList.Builder whiteListBuilder = InMemoryVariantWhiteList.builder();
+        try(BufferedReader  bufferedReader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(whiteListPath)), StandardCharsets.UTF_8))){
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    // comment line
+                    continue;
+                }
+                String[] tokens = line.split("\t");
+                if (tokens.length < 4) {
+                    logger.error("Error parsing variant whitelist. Require minimum 4 tokens in line {}", line);
+                    continue;
+                }
+                // Exomiser - simple VCF format
+                whiteListBuilder.add(Contig.parseId(tokens[0]), Integer.parseInt(tokens[1]), tokens[2], tokens[3]);
+            }
+        } catch (IOException e) {
+            logger.error("AAARRRGH!", e);
+            throw new RuntimeException("Unable to load variant whitelist", e);
+        }
+
+        InMemoryVariantWhiteList whiteList = whiteListBuilder.build();
+        logger.info("Loaded {} variants into whitelist", whiteList.size());
+        writeBinaryWhiteList(whiteList, sourceStamp, binaryWhiteListPath);
+        return whiteList;
+    }
+
+    /**
+     * The binary whitelist is a sidecar file next to the original whitelist which is written the first time the
+     * whitelist is loaded. It starts with the size and checksum of the original whitelist it was written from, and is
+     * used in preference to the original for as long as these match, so it survives the data directory being copied
+     * or unpacked from an archive.
+     */
+    static Path binaryWhiteListPath(Path whiteListPath) {
+        return whiteListPath.resolveSibling(whiteListPath.getFileName() + ".bin");
+    }
+
+    private static void writeBinaryWhiteList(InMemoryVariantWhiteList whiteList, SourceStamp sourceStamp, Path binaryWhiteListPath) {
+        // the data directory may well be read-only, in which case the whitelist will be parsed on each startup
+        Path tempPath = null;
+        try {
+            // each instance writes to its own temp file in the same directory, so that instances starting concurrently
+            // don't write over each other, and the file can be atomically moved into place
+            tempPath = Files.createTempFile(binaryWhiteListPath.toAbsolutePath().getParent(), binaryWhiteListPath.getFileName().toString(), ".tmp");
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                sourceStamp.write(outputStream);
+                whiteList.write(outputStream);
+            }
+            // move into place so that a concurrently starting instance never reads a partially written file
+            Files.move(tempPath, binaryWhiteListPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Written binary variant whitelist to {}", binaryWhiteListPath);
+        } catch (IOException e) {
+            logger.info("Unable to write binary variant whitelist to {} - {}", binaryWhiteListPath, e.getMessage());
+            deleteTempFile(tempPath);
+        }
+    }
+
+    private static void deleteTempFile(Path tempPath) {
+        if (tempPath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempPath);
+        } catch (IOException e) {
+            // nothing more to be done
+        }
+    }
+
+    /**
+     * The size and CRC32 checksum of the original whitelist file. Checking these only requires reading the compressed
+     * bytes of the file, which is much quicker than decompressing and parsing it.
+     */
+    private static final class SourceStamp {
+
+        private final long size;
+        private final long checksum;
+
+        private SourceStamp(long size, long checksum) {
+            this.size = size;
+            this.checksum = checksum;
+        }
+
+        static SourceStamp of(Path path) {
+            CRC32 crc32 = new CRC32();
+            long size = 0;
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    crc32.update(buffer, 0, read);
+                    size += read;
                 }
             } catch (IOException e) {
-                logger.error("AAARRRGH!", e);
                 throw new RuntimeException("Unable to load variant whitelist", e);
             }
+            return new SourceStamp(size, crc32.getValue());
+        }
+
+        static SourceStamp read(DataInputStream inputStream) throws IOException {
+            return new SourceStamp(inputStream.readLong(), inputStream.readLong());
+        }
+
+        void write(DataOutputStream outputStream) throws IOException {
+            outputStream.writeLong(size);
+            outputStream.writeLong(checksum);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SourceStamp that = (SourceStamp) o;
+            return size == that.size &&
+                    checksum == that.checksum;
+        }
 
-            ImmutableSet<AlleleProto.AlleleKey> whiteList = whiteListBuilder.build();
-            logger.info("Loaded {} variants into whitelist", whiteList.size());
-            return InMemoryVariantWhiteList.of(whiteList);
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, checksum);
         }
-        return InMemoryVariantWhiteList.empty();
     }
 
     private TabixDataSource getTabixDataSourceOrDefault(String dataSourceName, Optional<Path> tabixPath) {
@@ -82,4 +82,8 @@ interface GenomeProperties {
     public String getTestPathogenicityScorePath();
 
     public void setTestPathogenicityScorePath(String testPathogenicityScorePath);
+
+    public long getVariantAnnotationCacheSize();
+
+    public void setVariantAnnotationCacheSize(long variantAnnotationCacheSize);
 }
@@ -46,6 +46,9 @@ public class PhenotypeProperties {
     private String randomWalkFileName = "rw_string_10.mv";
     private String randomWalkIndexFileName = "rw_string_9_05_id2index.gz";
     private boolean randomWalkPreload = false;
+    // optional gzipped tab-separated entrez-entrez-weight interaction network. When set, the random walk scores are
+    // computed from this network on demand rather than read from the pre-computed randomWalkFileName matrix.
+    private String randomWalkInteractionsFileName = "";
 
     //Phenix data
     private String phenixDataDir = "phenix";
@@ -100,6 +103,14 @@ public void setRandomWalkPreload(boolean randomWalkPreload) {
         this.randomWalkPreload = randomWalkPreload;
     }
 
+    public String getRandomWalkInteractionsFileName() {
+        return randomWalkInteractionsFileName;
+    }
+
+    public void setRandomWalkInteractionsFileName(String randomWalkInteractionsFileName) {
+        this.randomWalkInteractionsFileName = randomWalkInteractionsFileName;
+    }
+
     public String getPhenixDataDir() {
         return phenixDataDir;
     }
@@ -131,6 +142,7 @@ public String toString() {
                 ", datasource=" + datasource +
                 ", randomWalkFileName='" + randomWalkFileName + '\'' +
                 ", randomWalkIndexFileName='" + randomWalkIndexFileName + '\'' +
+                ", randomWalkInteractionsFileName='" + randomWalkInteractionsFileName + '\'' +
                 ", phenixDataDir='" + phenixDataDir + '\'' +
                 ", hpoFileName='" + hpoFileName + '\'' +
                 ", hpoAnnotationFile='" + hpoAnnotationFile + '\'' +
@@ -27,6 +27,7 @@
 import org.monarchinitiative.exomiser.core.prioritisers.PriorityFactory;
 import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrix;
 import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrixIO;
+import org.monarchinitiative.exomiser.core.prioritisers.util.SparseRandomWalkDataMatrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -159,6 +160,12 @@ public Path hpoAnnotationFilePath() {
     @Bean
     @ConditionalOnMissingBean(name = "randomWalkMatrix")
     public DataMatrix randomWalkMatrix() {
+        String randomWalkInteractionsFileNameValue = phenotypeProperties.getRandomWalkInteractionsFileName();
+        if (!randomWalkInteractionsFileNameValue.isEmpty()) {
+            Path randomWalkInteractionsFilePath = phenotypeDataDirectory().resolve(randomWalkInteractionsFileNameValue);
+            logger.info("Loading sparse random-walk interaction network from {}", randomWalkInteractionsFilePath);
+            return DataMatrixIO.loadSparseRandomWalkDataMatrix(randomWalkInteractionsFilePath.toString(), SparseRandomWalkDataMatrix.DEFAULT_RESTART_PROBABILITY, SparseRandomWalkDataMatrix.DEFAULT_CONVERGENCE_THRESHOLD);
+        }
         String randomWalkFileNameValue = phenotypeProperties.getRandomWalkFileName();
         Path randomWalkFilePath = phenotypeDataDirectory().resolve(randomWalkFileNameValue);
 
@@ -0,0 +1,64 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.exomiser.core.genome.GenomeAnalysisService;
+import org.monarchinitiative.exomiser.core.genome.GenomeAssembly;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+class DataLookupMetricsTest {
+
+    @Test
+    void bindsLookupCountsForEachAssemblyAndSource() {
+        Map<String, Long> lookupCounts = new LinkedHashMap<>();
+        lookupCounts.put("frequency", 10L);
+        lookupCounts.put("cadd", 2L);
+
+        GenomeAnalysisService genomeAnalysisService = Mockito.mock(GenomeAnalysisService.class);
+        Mockito.when(genomeAnalysisService.getGenomeAssembly()).thenReturn(GenomeAssembly.HG19);
+        Mockito.when(genomeAnalysisService.getDataLookupCounts()).thenReturn(lookupCounts);
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new DataLookupMetrics(Collections.singletonList(genomeAnalysisService)).bindTo(registry);
+
+        FunctionCounter frequencyCounter = registry.get(DataLookupMetrics.METER_NAME).tags("assembly", "hg19", "source", "frequency").functionCounter();
+        assertThat(frequencyCounter.count(), equalTo(10d));
+
+        lookupCounts.put("cadd", 5L);
+        FunctionCounter caddCounter = registry.get(DataLookupMetrics.METER_NAME).tags("assembly", "hg19", "source", "cadd").functionCounter();
+        assertThat(caddCounter.count(), equalTo(5d));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.monarchinitiative.exomiser.autoconfigure.genome;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+import org.monarchinitiative.exomiser.core.genome.dao.InMemoryVariantWhiteList;
+import org.monarchinitiative.exomiser.core.model.VariantEvaluation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests for the binary sidecar file written next to the variant whitelist by {@link GenomeDataSourceLoader}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+@ExtendWith(TempDirectory.class)
+public class GenomeDataSourceLoaderTest {
+
+    private static final FileTime EPOCH = FileTime.fromMillis(0);
+
+    private static Path writeWhiteList(Path path, String... lines) throws IOException {
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(path));
+             Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            writer.write("#CHROM\tPOS\tREF\tALT\n");
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+        return path;
+    }
+
+    private static List<String> listFileNames(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static boolean contains(InMemoryVariantWhiteList whiteList, int chr, int position, String ref, String alt) {
+        return whiteList.contains(VariantEvaluation.builder(chr, position, ref, alt).build());
+    }
+
+    @Test
+    public void writesBinaryWhiteListOnFirstLoad(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path whiteListPath = writeWhiteList(tempDir.resolve("whitelist.tsv.gz"), "1\t12345\tA\tT", "X\t54321\tAC\tA");
+        Path binaryWhiteListPath = GenomeDataSourceLoader.binaryWhiteListPath(whiteListPath);
+        assertThat(Files.exists(binaryWhiteListPath), is(false));
+
+        InMemoryVariantWhiteList whiteList = GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath);
+
+        assertThat(whiteList.size(), equalTo(2));
+        assertThat(contains(whiteList, 1, 12345, "A", "T"), is(true));
+        assertThat(contains(whiteList, 23, 54321, "AC", "A"), is(true));
+        assertThat(Files.isRegularFile(binaryWhiteListPath), is(true));
+        assertThat(listFileNames(tempDir), equalTo(Arrays.asList("whitelist.tsv.gz", "whitelist.tsv.gz.bin")));
+    }
+
+    @Test
+    public void concurrentFirstLoadsWriteOneCompleteBinaryWhiteList(@TempDirectory.TempDir Path tempDir) throws Exception {
+        String[] lines = new String[10_000];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "1\t" + (i + 1) + "\tA\tT";
+        }
+        Path whiteListPath = writeWhiteList(tempDir.resolve("whitelist.tsv.gz"), lines);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<InMemoryVariantWhiteList>> loads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                loads.add(executorService.submit(() -> GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath)));
+            }
+            for (Future<InMemoryVariantWhiteList> load : loads) {
+                assertThat(load.get().size(), equalTo(lines.length));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertThat(listFileNames(tempDir), equalTo(Arrays.asList("whitelist.tsv.gz", "whitelist.tsv.gz.bin")));
+        InMemoryVariantWhiteList whiteList = GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath);
+        assertThat(whiteList.size(), equalTo(lines.length));
+        assertThat(contains(whiteList, 1, lines.length, "A", "T"), is(true));
+    }
+
+    @Test
+    public void reusesBinaryWhiteListWhenOlderThanOriginal(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path whiteListPath = writeWhiteList(tempDir.resolve("whitelist.tsv.gz"), "1\t12345\tA\tT", "X\t54321\tAC\tA");
+        Path binaryWhiteListPath = GenomeDataSourceLoader.binaryWhiteListPath(whiteListPath);
+        GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath);
+        byte[] binaryWhiteList = Files.readAllBytes(binaryWhiteListPath);
+        // as happens when the data directory is copied or unpacked without preserving the modification times
+        Files.setLastModifiedTime(binaryWhiteListPath, EPOCH);
+
+        InMemoryVariantWhiteList whiteList = GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath);
+
+        assertThat(whiteList.size(), equalTo(2));
+        assertThat(contains(whiteList, 1, 12345, "A", "T"), is(true));
+        assertThat(contains(whiteList, 23, 54321, "AC", "A"), is(true));
+        // not re-written
+        assertThat(Files.getLastModifiedTime(binaryWhiteListPath), equalTo(EPOCH));
+        assertThat(Files.readAllBytes(binaryWhiteListPath), equalTo(binaryWhiteList));
+    }
+
+    @Test
+    public void rebuildsBinaryWhiteListWhenOriginalChanges(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path whiteListPath = writeWhiteList(tempDir.resolve("whitelist.tsv.gz"), "1\t12345\tA\tT", "X\t54321\tAC\tA");
+        Path binaryWhiteListPath = GenomeDataSourceLoader.binaryWhiteListPath(whiteListPath);
+        GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath);
+
+        writeWhiteList(whiteListPath, "2\t22222\tG\tC");
+        // the stale sidecar is newer than the original, so would be used if staleness were judged by modification time
+        Files.setLastModifiedTime(whiteListPath, EPOCH);
+
+        InMemoryVariantWhiteList whiteList = GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath);
+        assertThat(whiteList.size(), equalTo(1));
+        assertThat(contains(whiteList, 2, 22222, "G", "C"), is(true));
+        assertThat(contains(whiteList, 1, 12345, "A", "T"), is(false));
+
+        // and the rebuilt sidecar is used from then on
+        assertThat(Files.getLastModifiedTime(binaryWhiteListPath).compareTo(EPOCH) > 0, is(true));
+        Files.setLastModifiedTime(binaryWhiteListPath, EPOCH);
+        InMemoryVariantWhiteList reloaded = GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath);
+        assertThat(reloaded.size(), equalTo(1));
+        assertThat(Files.getLastModifiedTime(binaryWhiteListPath), equalTo(EPOCH));
+    }
+
+    @Test
+    public void rebuildsUnreadableBinaryWhiteList(@TempDirectory.TempDir Path tempDir) throws IOException {
+        Path whiteListPath = writeWhiteList(tempDir.resolve("whitelist.tsv.gz"), "1\t12345\tA\tT");
+        Path binaryWhiteListPath = GenomeDataSourceLoader.binaryWhiteListPath(whiteListPath);
+        Files.write(binaryWhiteListPath, new byte[]{1, 2, 3});
+
+        InMemoryVariantWhiteList whiteList = GenomeDataSourceLoader.loadVariantWhiteList(whiteListPath);
+
+        assertThat(whiteList.size(), equalTo(1));
+        assertThat(Files.size(binaryWhiteListPath) > 3, is(true));
+    }
+}
@@ -69,6 +69,14 @@ public synchronized void genomeAnalysisServiceWithOptionalTestPathDao() throws E
         assertThat(context.getBean("hg19testPathDao"), instanceOf(TestPathogenicityScoreDao.class));
     }
 
+    @Test
+    public synchronized void genomeAnalysisServiceWithOptionalVariantAnnotationCache() throws Exception {
+
+        load(EmptyConfiguration.class, TEST_DATA_ENV, "exomiser.hg19.data-version=1710", "exomiser.hg19.variant-annotation-cache-size=1000");
+
+        assertThat(context.getBean("hg19variantAnnotator"), instanceOf(CachingVariantAnnotator.class));
+    }
+
     @Configuration
     @ImportAutoConfiguration(value = Hg19GenomeAnalysisServiceAutoConfiguration.class)
     protected static class EmptyConfiguration {}
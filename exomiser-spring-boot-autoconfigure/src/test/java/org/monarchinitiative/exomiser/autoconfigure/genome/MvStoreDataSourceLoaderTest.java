@@ -40,6 +40,7 @@ public void loadsData() {
         Path mvStorePath = Paths.get("src/test/resources/data/1710_hg19/1710_hg19_variants.mv.db");
         MVStore mvStore = MvStoreDataSourceLoader.openMvStore(mvStorePath);
         assertThat(mvStore, instanceOf(MVStore.class));
+        mvStore.close();
     }
 
     @Test
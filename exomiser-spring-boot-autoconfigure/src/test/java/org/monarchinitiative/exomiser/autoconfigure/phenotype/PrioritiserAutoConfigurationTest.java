@@ -25,6 +25,7 @@
 import org.monarchinitiative.exomiser.autoconfigure.AbstractAutoConfigurationTest;
 import org.monarchinitiative.exomiser.autoconfigure.DataDirectoryAutoConfiguration;
 import org.monarchinitiative.exomiser.core.prioritisers.util.DataMatrix;
+import org.monarchinitiative.exomiser.core.prioritisers.util.SparseRandomWalkDataMatrix;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.cache.CacheManager;
@@ -36,6 +37,8 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.IsEqual.equalTo;
@@ -154,6 +157,16 @@ public void randomWalkMatrixLoadInMemory() {
         assertThat(dataMatrix.numColumns(), equalTo(10));
     }
 
+    @Test
+    public void randomWalkMatrixLoadSparseFromInteractionsFile() {
+        load(EmptyConfiguration.class, TEST_DATA_ENV, DATA_VERSION, "exomiser.phenotype.random-walk-interactions-file-name=string_interactions.tsv.gz");
+        DataMatrix dataMatrix = (DataMatrix) context.getBean("randomWalkMatrix");
+        assertThat(dataMatrix, instanceOf(SparseRandomWalkDataMatrix.class));
+        assertThat(dataMatrix.numRows(), equalTo(4));
+        assertThat(dataMatrix.numColumns(), equalTo(4));
+        assertThat(dataMatrix.containsGene(2260), is(true));
+    }
+
     @Test
     public void randomWalkMatrixCanBeOverriden() {
         load(UserConfiguration.class, TEST_DATA_ENV, DATA_VERSION, "exomiser.phenotype.randomWalkFileName=wibble.gz", "exomiser.randomWalkIndexFileName=wibbleIndex.gz");
@@ -21,6 +21,7 @@
 
 import org.monarchinitiative.exomiser.web.dao.ExomiserDao;
 import org.monarchinitiative.exomiser.web.model.SelectOption;
+import org.monarchinitiative.exomiser.web.model.SelectOptionIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,9 +42,9 @@ public class DataController {
     
     private final ExomiserDao exomiserDao;
 
-    private Set<SelectOption> hpoSelectOptions;
-    private Set<SelectOption> diseaseSelectOptions;
-    private Set<SelectOption> geneSelectOptions;
+    private SelectOptionIndex hpoSelectOptions;
+    private SelectOptionIndex diseaseSelectOptions;
+    private SelectOptionIndex geneSelectOptions;
 
     @Autowired
     public DataController(ExomiserDao exomiserDao) {
@@ -53,57 +54,52 @@ public DataController(ExomiserDao exomiserDao) {
     @PostConstruct
     private void setUp() {
         Map<String, String> hpoTerms = exomiserDao.getHpoTerms();
-        hpoSelectOptions = makeSelectOptionsFromMap(hpoTerms);
+        hpoSelectOptions = makeSelectOptionIndexFromMap(hpoTerms);
 
         Map<String, String> diseases = exomiserDao.getDiseases();
-        diseaseSelectOptions = makeSelectOptionsFromMap(diseases);
+        diseaseSelectOptions = makeSelectOptionIndexFromMap(diseases);
 
         Map<String, String> genes = exomiserDao.getGenes();
-        geneSelectOptions = makeSelectOptionsFromMap(genes);
+        geneSelectOptions = makeSelectOptionIndexFromMap(genes);
         
         logger.info("Loaded {} HPO, {} disease and {} gene select options", hpoSelectOptions.size(), diseaseSelectOptions.size(), geneSelectOptions.size());
     }
 
-    private Set<SelectOption> makeSelectOptionsFromMap(Map<String, String> inputMap) {
+    private SelectOptionIndex makeSelectOptionIndexFromMap(Map<String, String> inputMap) {
         Set<SelectOption> selectOptions = new HashSet<>();
         for (Entry<String, String> entry : inputMap.entrySet()) {
             selectOptions.add(new SelectOption(entry.getKey(), entry.getValue()));
         }
-        return selectOptions;
+        return new SelectOptionIndex(selectOptions);
     }
-        
+
+    /**
+     * The optional limit parameter restricts the number of options returned, a value of 0 (the default) returns all
+     * the matching options. Options starting with the term are returned before those only containing it.
+     */
     @GetMapping(value = "disease", produces = "application/json;charset=UTF-8")
-    public @ResponseBody List<SelectOption> getDiseaseOptionsContainingTerm(@RequestParam(value="term") String term) {
+    public @ResponseBody List<SelectOption> getDiseaseOptionsContainingTerm(@RequestParam(value="term") String term, @RequestParam(value = "limit", defaultValue = "0") int limit) {
         logger.info("Searching for disease term '{}'", term);
-        return findSelectOptionContainingTerm(term, diseaseSelectOptions);
+        return findSelectOptionContainingTerm(term, limit, diseaseSelectOptions);
     }
     
     @GetMapping(value = "hpo", produces = "application/json;charset=UTF-8")
-    public @ResponseBody List<SelectOption> getHpoTermOptionsContainingTerm(@RequestParam(value="term") String term) {
+    public @ResponseBody List<SelectOption> getHpoTermOptionsContainingTerm(@RequestParam(value="term") String term, @RequestParam(value = "limit", defaultValue = "0") int limit) {
         logger.info("Searching for HPO term '{}'", term);
-        return findSelectOptionContainingTerm(term, hpoSelectOptions);
+        return findSelectOptionContainingTerm(term, limit, hpoSelectOptions);
     }
 
     @GetMapping(value = "gene", produces = "application/json;charset=UTF-8")
-    public @ResponseBody List<SelectOption> getGeneOptionsContainingTerm(@RequestParam(value="term") String term) {
+    public @ResponseBody List<SelectOption> getGeneOptionsContainingTerm(@RequestParam(value="term") String term, @RequestParam(value = "limit", defaultValue = "0") int limit) {
         logger.info("Searching for gene name '{}'", term);
-        return findSelectOptionContainingTerm(term, geneSelectOptions);
+        return findSelectOptionContainingTerm(term, limit, geneSelectOptions);
     }
 
     
-    private List<SelectOption> findSelectOptionContainingTerm(String term, Set<SelectOption> selectOptions) {
-        List<SelectOption> matches = new ArrayList<>();
-        
-        for (SelectOption selectOption : selectOptions) {
-            if (selectOption.getText().toLowerCase().contains(term.toLowerCase())) {
-                matches.add(selectOption);
-            }
-        }
-        Collections.sort(matches);
-        logger.info("Returning {}", matches);
+    private List<SelectOption> findSelectOptionContainingTerm(String term, int limit, SelectOptionIndex selectOptionIndex) {
+        List<SelectOption> matches = selectOptionIndex.findContaining(term, limit);
+        logger.debug("Returning {}", matches);
         return matches;
     }
 
-
-
 }
@@ -0,0 +1,194 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.web.model;
+
+import java.util.*;
+
+/**
+ * Immutable, case-insensitive substring index over a set of {@link SelectOption} for use in autocomplete searches.
+ * <p>
+ * The options are sorted in their natural order and lowercased once on construction, and every three character
+ * substring (trigram) of the text is mapped to the options containing it. A search for a term of three or more
+ * characters only needs to check the options containing the rarest trigram in the term, rather than every option.
+ * <p>
+ * Matches are ranked by where the term occurs in the option text: options starting with the term come first, then
+ * those with a word starting with the term, then those containing it anywhere else. Options of the same rank are in
+ * the natural order of {@link SelectOption}.
+ *
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ * @since 12.1.0
+ */
+public class SelectOptionIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int[] NO_MATCHES = new int[0];
+
+    static final int NO_MATCH = -1;
+    static final int PREFIX_MATCH = 0;
+    static final int WORD_PREFIX_MATCH = 1;
+    static final int SUBSTRING_MATCH = 2;
+    private static final int NUM_RANKS = 3;
+
+    private final SelectOption[] options;
+    private final String[] lowerCaseTexts;
+    private final Map<String, int[]> gramIndex;
+
+    public SelectOptionIndex(Collection<SelectOption> selectOptions) {
+        this.options = selectOptions.toArray(new SelectOption[0]);
+        // break ties on the value so that the order is independent of the input collection order
+        Arrays.sort(options, Comparator.<SelectOption>naturalOrder().thenComparing(SelectOption::getValue));
+        this.lowerCaseTexts = new String[options.length];
+        for (int i = 0; i < options.length; i++) {
+            lowerCaseTexts[i] = options[i].getText().toLowerCase(Locale.ROOT);
+        }
+        this.gramIndex = buildGramIndex(lowerCaseTexts);
+    }
+
+    private static Map<String, int[]> buildGramIndex(String[] lowerCaseTexts) {
+        Map<String, Postings> postings = new HashMap<>();
+        for (int id = 0; id < lowerCaseTexts.length; id++) {
+            for (String gram : grams(lowerCaseTexts[id])) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+            }
+        }
+        Map<String, int[]> index = new HashMap<>(postings.size() * 2);
+        postings.forEach((gram, ids) -> index.put(gram, ids.toArray()));
+        return index;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    public int size() {
+        return options.length;
+    }
+
+    /**
+     * Finds the options whose text contains the term, ignoring case.
+     *
+     * @param term  the text to search for
+     * @param limit the maximum number of options to return. Values less than 1 will return all matches.
+     * @return the matching options, ranked with prefix matches first, then word prefix matches, then any other matches
+     */
+    public List<SelectOption> findContaining(String term, int limit) {
+        int maxResults = limit < 1 ? Integer.MAX_VALUE : limit;
+        String lowerCaseTerm = term.toLowerCase(Locale.ROOT);
+        if (lowerCaseTerm.length() < GRAM_LENGTH) {
+            return rankedMatches(allIds(), lowerCaseTerm, maxResults);
+        }
+        return rankedMatches(rarestGramPostings(lowerCaseTerm), lowerCaseTerm, maxResults);
+    }
+
+    /**
+     * Ranks the candidate options containing the term. The candidate ids are in ascending order, so each rank is
+     * filled in natural order and the search can stop as soon as there are enough prefix matches.
+     */
+    private List<SelectOption> rankedMatches(int[] candidateIds, String lowerCaseTerm, int maxResults) {
+        List<List<SelectOption>> ranks = new ArrayList<>(NUM_RANKS);
+        for (int i = 0; i < NUM_RANKS; i++) {
+            ranks.add(new ArrayList<>());
+        }
+        List<SelectOption> prefixMatches = ranks.get(PREFIX_MATCH);
+        for (int id : candidateIds) {
+            int rank = rank(lowerCaseTexts[id], lowerCaseTerm);
+            if (rank != NO_MATCH) {
+                ranks.get(rank).add(options[id]);
+                if (prefixMatches.size() == maxResults) {
+                    break;
+                }
+            }
+        }
+        List<SelectOption> matches = new ArrayList<>();
+        for (List<SelectOption> rankedOptions : ranks) {
+            for (SelectOption option : rankedOptions) {
+                if (matches.size() == maxResults) {
+                    return matches;
+                }
+                matches.add(option);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return the rank of the text for the term, or {@link #NO_MATCH} if the text does not contain the term.
+     */
+    static int rank(String lowerCaseText, String lowerCaseTerm) {
+        int index = lowerCaseText.indexOf(lowerCaseTerm);
+        if (index < 0) {
+            return NO_MATCH;
+        }
+        if (index == 0) {
+            return PREFIX_MATCH;
+        }
+        while (index > 0) {
+            if (!Character.isLetterOrDigit(lowerCaseText.charAt(index - 1))) {
+                return WORD_PREFIX_MATCH;
+            }
+            index = lowerCaseText.indexOf(lowerCaseTerm, index + 1);
+        }
+        return SUBSTRING_MATCH;
+    }
+
+    private int[] allIds() {
+        int[] ids = new int[options.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    private int[] rarestGramPostings(String lowerCaseTerm) {
+        int[] rarest = null;
+        for (String gram : grams(lowerCaseTerm)) {
+            int[] postings = gramIndex.getOrDefault(gram, NO_MATCHES);
+            if (rarest == null || postings.length < rarest.length) {
+                rarest = postings;
+            }
+            if (rarest.length == 0) {
+                break;
+            }
+        }
+        return rarest;
+    }
+
+    private static class Postings {
+
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -146,4 +146,15 @@ public void getGeneOptionReturnsExactMatch() throws Exception {
                 .andExpect(jsonPath("$[0].text").value("ADH1A"))
                 .andExpect(jsonPath("$[0].value").value("124"));
     }
+
+    @Test
+    public void getGeneOptionReturnsLimitedMatches() throws Exception {
+        String inputTerm = "fgf";
+        mockMvc.perform(MockMvcRequestBuilders.get(String.format("/data/gene?term=%s&limit=1", inputTerm)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.valueOf("application/json;charset=UTF-8")))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].text").value("FGFR1"))
+                .andExpect(jsonPath("$[0].value").value("2260"));
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * The Exomiser - A tool to annotate and prioritize genomic variants
+ *
+ * Copyright (c) 2016-2019 Queen Mary University of London.
+ * Copyright (c) 2012-2016 Charité Universitätsmedizin Berlin and Genome Research Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.monarchinitiative.exomiser.web.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Jules Jacobsen <j.jacobsen@qmul.ac.uk>
+ */
+public class SelectOptionIndexTest {
+
+    private static Set<SelectOption> hpoSelectOptions;
+    private static SelectOptionIndex hpoIndex;
+
+    @BeforeAll
+    public static void setUp() throws IOException {
+        hpoSelectOptions = readHpoSelectOptions();
+        hpoIndex = new SelectOptionIndex(hpoSelectOptions);
+    }
+
+    /**
+     * Reads the tab-separated id and name of every term in the HPO release used by the exomiser-data-phenotype tests.
+     */
+    private static Set<SelectOption> readHpoSelectOptions() throws IOException {
+        Set<SelectOption> selectOptions = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get("src/test/resources/hpo-terms.tsv"), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                selectOptions.add(new SelectOption(fields[0], fields[1]));
+            }
+        }
+        return selectOptions;
+    }
+
+    /**
+     * The original DataController search which the index replaces, with the matches sorted by where the term occurs
+     * then natural order. This deliberately doesn't use {@link SelectOptionIndex#rank(String, String)}.
+     */
+    private static List<SelectOption> linearScan(String term, Set<SelectOption> selectOptions) {
+        String lowerCaseTerm = term.toLowerCase();
+        // the term following anything other than a letter or digit
+        Pattern wordPrefix = Pattern.compile("[^\\p{L}\\p{Nd}]" + Pattern.quote(lowerCaseTerm));
+        Map<SelectOption, Integer> matchRanks = new HashMap<>();
+        for (SelectOption selectOption : selectOptions) {
+            String lowerCaseText = selectOption.getText().toLowerCase();
+            if (lowerCaseText.startsWith(lowerCaseTerm)) {
+                matchRanks.put(selectOption, 0);
+            } else if (wordPrefix.matcher(lowerCaseText).find()) {
+                matchRanks.put(selectOption, 1);
+            } else if (lowerCaseText.contains(lowerCaseTerm)) {
+                matchRanks.put(selectOption, 2);
+            }
+        }
+        List<SelectOption> matches = new ArrayList<>(matchRanks.keySet());
+        matches.sort(Comparator.comparing((SelectOption selectOption) -> matchRanks.get(selectOption)).thenComparing(Comparator.naturalOrder()));
+        return matches;
+    }
+
+    private static List<String> texts(List<SelectOption> selectOptions) {
+        return selectOptions.stream().map(SelectOption::getText).collect(toList());
+    }
+
+    private static List<String> queryTerms() {
+        List<String> terms = new ArrayList<>(Arrays.asList("", "a", "e", "ab", "Ab", "ABNORMAL", "abnormality of", "heart",
+                "kidney", "cleft", "ataxia", "seizure", "hypoplasia of the", "(", "-", "xyz", "qqq", "bonkers", "Purple prickles",
+                "dys", "plasia", "of the"));
+        // a selection of whole words and substrings of real terms, including the first and last characters
+        Random random = new Random(42);
+        List<SelectOption> selectOptions = new ArrayList<>(hpoSelectOptions);
+        selectOptions.sort(Comparator.comparing(SelectOption::getValue));
+        for (int i = 0; i < 500; i++) {
+            String text = selectOptions.get(random.nextInt(selectOptions.size())).getText();
+            int start = random.nextInt(text.length());
+            int end = Math.min(text.length(), start + 1 + random.nextInt(12));
+            terms.add(text.substring(start, end));
+            terms.add(text);
+        }
+        return terms;
+    }
+
+    @Test
+    public void indexesAllHpoTerms() {
+        assertThat(hpoSelectOptions.size(), equalTo(10396));
+        assertThat(hpoIndex.size(), equalTo(hpoSelectOptions.size()));
+    }
+
+    @Test
+    public void findContainingMatchesRankedLinearScan() {
+        for (String term : queryTerms()) {
+            List<SelectOption> expected = linearScan(term, hpoSelectOptions);
+            List<SelectOption> actual = hpoIndex.findContaining(term, 0);
+            assertThat("term '" + term + "'", texts(actual), equalTo(texts(expected)));
+            assertThat("term '" + term + "'", new HashSet<>(actual), equalTo(new HashSet<>(expected)));
+        }
+    }
+
+    @Test
+    public void findContainingWithLimitReturnsFirstMatchesOfRankedLinearScan() {
+        for (String term : queryTerms()) {
+            List<String> expected = texts(linearScan(term, hpoSelectOptions));
+            List<String> topTen = expected.subList(0, Math.min(10, expected.size()));
+            assertThat("term '" + term + "'", texts(hpoIndex.findContaining(term, 10)), equalTo(topTen));
+        }
+    }
+
+    @Test
+    public void findContainingIgnoresCase() {
+        SelectOptionIndex instance = new SelectOptionIndex(Arrays.asList(new SelectOption("HP:0001234", "Purple prickles"), new SelectOption("HP:5678000", "Knobbly knees")));
+        assertThat(instance.findContaining("PURPLE PRICK", 0), equalTo(Collections.singletonList(new SelectOption("HP:0001234", "Purple prickles"))));
+    }
+
+    @Test
+    public void findContainingReturnsMatchesOfSameRankInNaturalOrder() {
+        SelectOptionIndex instance = new SelectOptionIndex(Arrays.asList(new SelectOption("2263", "FGFR2"), new SelectOption("124", "ADH1A"), new SelectOption("2260", "FGFR1")));
+        assertThat(instance.findContaining("fgf", 0), equalTo(Arrays.asList(new SelectOption("2260", "FGFR1"), new SelectOption("2263", "FGFR2"))));
+        assertThat(instance.findContaining("", 2), equalTo(Arrays.asList(new SelectOption("124", "ADH1A"), new SelectOption("2260", "FGFR1"))));
+    }
+
+    @Test
+    public void findContainingRanksPrefixThenWordPrefixThenSubstringMatches() {
+        SelectOption substring = new SelectOption("HP:0000001", "Abnormal dysplasia");
+        SelectOption wordPrefix = new SelectOption("HP:0000002", "Cerebellar plasia");
+        SelectOption prefix = new SelectOption("HP:0000003", "Plasia of the kidney");
+        SelectOption unmatched = new SelectOption("HP:0000004", "Seizures");
+        SelectOptionIndex instance = new SelectOptionIndex(Arrays.asList(substring, wordPrefix, prefix, unmatched));
+
+        assertThat(instance.findContaining("plasia", 0), equalTo(Arrays.asList(prefix, wordPrefix, substring)));
+        assertThat(instance.findContaining("PLASIA", 0), equalTo(Arrays.asList(prefix, wordPrefix, substring)));
+    }
+
+    @Test
+    public void findContainingWithLimitPrefersPrefixMatchesOverEarlierSubstringMatches() {
+        SelectOption substring = new SelectOption("2260", "AFGF");
+        SelectOption prefix = new SelectOption("2263", "FGFR2");
+        SelectOptionIndex instance = new SelectOptionIndex(Arrays.asList(substring, prefix));
+
+        assertThat(instance.findContaining("fgf", 1), equalTo(Collections.singletonList(prefix)));
+        assertThat(instance.findContaining("fg", 1), equalTo(Collections.singletonList(prefix)));
+    }
+
+    @Test
+    public void rankUsesBestOccurrenceOfTerm() {
+        assertThat(SelectOptionIndex.rank("dysplasia", "plasia"), equalTo(SelectOptionIndex.SUBSTRING_MATCH));
+        assertThat(SelectOptionIndex.rank("dysplasia and plasia", "plasia"), equalTo(SelectOptionIndex.WORD_PREFIX_MATCH));
+        assertThat(SelectOptionIndex.rank("abnormal (plasia)", "plasia"), equalTo(SelectOptionIndex.WORD_PREFIX_MATCH));
+        assertThat(SelectOptionIndex.rank("plasia", "plasia"), equalTo(SelectOptionIndex.PREFIX_MATCH));
+        assertThat(SelectOptionIndex.rank("seizures", "plasia"), equalTo(SelectOptionIndex.NO_MATCH));
+    }
+
+    @Test
+    public void findContainingReturnsEmptyListWhenNoMatches() {
+        assertThat(hpoIndex.findContaining("zzzzzz", 0), equalTo(Collections.emptyList()));
+    }
+}